@@ -23,21 +23,44 @@ package com.moviejukebox.allocine;
 
 import static org.yamj.api.common.exception.ApiExceptionType.*;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.artwork.ArtworkFetcher;
 import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.model.enumeration.Projection;
+import com.moviejukebox.allocine.schedule.CallContext;
+import com.moviejukebox.allocine.schedule.Registration;
+import com.moviejukebox.allocine.schedule.RequestScheduler;
 import com.moviejukebox.allocine.tools.ApiUrl;
+import com.moviejukebox.allocine.tools.CachedResponse;
+import com.moviejukebox.allocine.tools.CancellableParser;
+import com.moviejukebox.allocine.tools.CodeNameDictionary;
+import com.moviejukebox.allocine.tools.CodeNameModule;
+import com.moviejukebox.allocine.tools.ContentDecoder;
+import com.moviejukebox.allocine.tools.NegativeCache;
+import com.moviejukebox.allocine.tools.PropertySkippingParser;
+import com.moviejukebox.allocine.tools.ResponseCache;
+import com.moviejukebox.allocine.tools.TransferMetrics;
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.*;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.protocol.HTTP;
-import org.slf4j.LoggerFactory;
+import org.apache.http.util.EntityUtils;
 import org.yamj.api.common.http.*;
 
 /**
@@ -49,6 +72,7 @@ public class AllocineApi {
 
     // Constants
     private static final String ERROR_FAILED_TO_CONVERT_URL = "Failed to convert URL";
+    private static final String ERROR_FAILED_TO_READ_JSON = "Failed to read JSON object";
     private static final String LITERAL_LARGE = "large";
     private static final String LITERAL_SYNOPSIS = "synopsis,synopsisshort";
     private static final int HTTP_STATUS_300 = 300;
@@ -72,13 +96,20 @@ public class AllocineApi {
     private static final String PARAM_FORMAT = "format";
     private static final String PARAM_CODE = "code";
     private static final String PARAM_STRIPTAGS = "striptags";
+    private static final String PARAM_PAGE = "page";
+    private static final String PARAM_COUNT = "count";
     private static final String PARAM_FORMAT_VALUE = "json";
 
     private final ApiUrl apiUrl;
     private final HttpClient httpClient;
     private final ObjectMapper mapper;
+    private final CodeNameDictionary codeNameDictionary;
     private final Charset charset;
     private final IUserAgentSelector userAgentSelector;
+    private final TransferMetrics transferMetrics = new TransferMetrics();
+    private volatile ResponseCache responseCache;
+    private volatile RequestScheduler requestScheduler;
+    private volatile NegativeCache negativeCache;
     
     /**
      * Create the API
@@ -95,11 +126,89 @@ public class AllocineApi {
 
         this.apiUrl = new ApiUrl(partnerKey, secretKey);
         this.httpClient = httpClient;
+        this.codeNameDictionary = new CodeNameDictionary();
         this.mapper = new ObjectMapper();
+        this.mapper.registerModule(new CodeNameModule(codeNameDictionary));
         this.charset = Charset.forName("UTF-8");
         this.userAgentSelector = new AndroidBrowserUserAgentSelector();
     }
 
+    /**
+     * Get the dictionary holding the code / name values shared between the
+     * objects read
+     *
+     * @return
+     */
+    public CodeNameDictionary getCodeNameDictionary() {
+        return codeNameDictionary;
+    }
+
+    /**
+     * Get the counts of the bytes received and decompressed
+     *
+     * @return
+     */
+    public TransferMetrics getTransferMetrics() {
+        return transferMetrics;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Set the cache of the pages read, or null to read every page from
+     * the server
+     *
+     * @param responseCache
+     */
+    public void setResponseCache(final ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public NegativeCache getNegativeCache() {
+        return negativeCache;
+    }
+
+    /**
+     * Set the cache of the requests without result, or null to ask the
+     * server every time. The searches without results and the find methods
+     * use it: a known miss is answered with an empty search or null, without
+     * a request. Only a 404 response or an answer without result is a miss,
+     * the other errors are thrown and never cached.
+     *
+     * @param negativeCache
+     */
+    public void setNegativeCache(final NegativeCache negativeCache) {
+        this.negativeCache = negativeCache;
+    }
+
+    public RequestScheduler getRequestScheduler() {
+        return requestScheduler;
+    }
+
+    /**
+     * Set the scheduler sharing the requests between the lanes, or null to
+     * send every request at once. The lane and deadline of a request are the
+     * ones of the {@link CallContext} of the calling thread.
+     *
+     * @param requestScheduler
+     */
+    public void setRequestScheduler(final RequestScheduler requestScheduler) {
+        this.requestScheduler = requestScheduler;
+    }
+
+    /**
+     * Create a fetcher downloading the images with the HTTP client of the API
+     *
+     * @param directory the directory of the image store
+     * @param threads the maximum number of parallel downloads
+     * @return
+     */
+    public ArtworkFetcher createArtworkFetcher(final File directory, final int threads) {
+        return new ArtworkFetcher(httpClient, userAgentSelector.getUserAgent(), directory, threads);
+    }
+
     /**
      * Get the information for a URL and process into an object
      *
@@ -110,16 +219,197 @@ public class AllocineApi {
      * @throws AllocineException
      */
     private <T> T readJsonObject(final URL url, final Class<T> object) throws AllocineException {
-        final String page = requestWebPage(url);
-        if (StringUtils.isNotBlank(page)) {
+        return readJsonObject(url, object, Projection.FULL);
+    }
+
+    /**
+     * Get the information for a URL and process into an object, skipping the
+     * properties excluded by the projection
+     *
+     * @param <T>
+     * @param url
+     * @param object
+     * @param projection
+     * @return
+     * @throws AllocineException
+     */
+    private <T> T readJsonObject(final URL url, final Class<T> object, final Projection projection) throws AllocineException {
+        final ResponseCache cache = this.responseCache;
+        final String key = cache == null ? null : ResponseCache.getKey(url.toString(), object, projection);
+        final CachedResponse cached = key == null ? null : cache.get(key);
+        if (cached != null && cached.isFresh()) {
+            return readCached(url, cached, object, projection);
+        }
+
+        final CachedResponse validated = cached != null && cached.hasValidators() ? cached : null;
+        final CallContext context = CallContext.current();
+        final RequestScheduler scheduler = this.requestScheduler;
+        if (context.isCancelled()) {
+            throw new AllocineException(CONNECTION_ERROR, "Call cancelled before the request was sent", url);
+        }
+        if (scheduler == null && context.isExpired()) {
+            throw new AllocineException(CONNECTION_ERROR, "Deadline expired before the request was sent", url);
+        }
+        final RequestScheduler.Permit permit = scheduler == null ? null : scheduler.acquire(context, url.toString());
+        boolean overloaded = false;
+        try {
+            return readResponse(url, object, projection, cache, key, validated, context);
+        } catch (AllocineException ex) {
+            // timeouts, 503 responses and passed deadlines lower an adaptive limit
+            overloaded = ex.getExceptionType() == HTTP_503_ERROR || context.isExpired();
+            throw ex;
+        } finally {
+            if (permit != null) {
+                permit.release(overloaded);
+            }
+        }
+    }
+
+    /**
+     * Send the request for a URL and read the object from the response
+     *
+     * @param <T>
+     * @param url
+     * @param object
+     * @param projection
+     * @param cache the cache, or null
+     * @param key the key of the object in the cache, or null
+     * @param validated the cached object to revalidate, or null
+     * @param context the context of the call, aborting the request when it
+     * is cancelled or its deadline passes
+     * @return
+     * @throws AllocineException
+     */
+    private <T> T readResponse(final URL url, final Class<T> object, final Projection projection, final ResponseCache cache,
+            final String key, final CachedResponse validated, final CallContext context) throws AllocineException {
+        final HttpGet httpGet = createRequest(url, validated);
+        final Registration abort = context.isCancellable() ? context.onCancel(new Runnable() {
+            @Override
+            public void run() {
+                httpGet.abort();
+            }
+        }) : null;
+        try {
+            final HttpResponse response = httpClient.execute(httpGet);
+            final HttpEntity entity = response.getEntity();
             try {
-                return mapper.readValue(page, object);
-            } catch (IOException ex) {
-                LoggerFactory.getLogger("test").info("{}", ex);
-                throw new AllocineException(MAPPING_FAILED, "Failed to read JSON object", url, ex);
+                final int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode == HttpStatus.SC_NOT_MODIFIED && validated != null) {
+                    cache.refresh(key, validated);
+                    return readCached(url, validated, object, projection);
+                }
+                checkStatus(url, statusCode, entity);
+                if (entity == null) {
+                    throw new AllocineException(MAPPING_FAILED, ERROR_FAILED_TO_READ_JSON, url);
+                }
+                if (key == null) {
+                    return readValue(url, ContentDecoder.open(entity, transferMetrics), object, projection, context);
+                }
+
+                // the cache keeps the page, each hit parses its own object
+                final byte[] content;
+                try (InputStream stream = ContentDecoder.open(entity, transferMetrics)) {
+                    content = IOUtils.toByteArray(stream);
+                }
+                final T value = readValue(url, new ByteArrayInputStream(content), object, projection, context);
+                cache.put(key, content, getHeader(response, HttpHeaders.ETAG), getHeader(response, HttpHeaders.LAST_MODIFIED));
+                return value;
+            } finally {
+                EntityUtils.consumeQuietly(entity);
             }
+        } catch (IOException ex) {
+            httpGet.releaseConnection();
+            checkStopped(url, context, ex);
+            if (ex instanceof ConnectTimeoutException || ex instanceof SocketTimeoutException) {
+                throw new AllocineException(HTTP_503_ERROR, "Timeout retrieving URL", url, ex);
+            }
+            throw new AllocineException(CONNECTION_ERROR, "Error retrieving URL", url, ex);
+        } finally {
+            if (abort != null) {
+                abort.close();
+            }
+        }
+    }
+
+    /**
+     * Check if the failure of a call comes from its cancellation or deadline
+     *
+     * @param url
+     * @param context
+     * @param cause
+     * @throws AllocineException if the call was stopped by its context
+     */
+    private static void checkStopped(final URL url, final CallContext context, final Exception cause) throws AllocineException {
+        if (context.isCancelled()) {
+            throw new AllocineException(CONNECTION_ERROR, "Call cancelled retrieving URL", url, cause);
+        }
+        if (context.isExpired()) {
+            throw new AllocineException(CONNECTION_ERROR, "Deadline expired retrieving URL", url, cause);
+        }
+    }
+
+    /**
+     * Parse a new object from the page of a cached response
+     *
+     * @param <T>
+     * @param url
+     * @param cached
+     * @param object
+     * @param projection
+     * @return
+     * @throws AllocineException if the page is not a valid object
+     */
+    private <T> T readCached(final URL url, final CachedResponse cached, final Class<T> object, final Projection projection)
+            throws AllocineException {
+        try {
+            return readValue(url, cached.openContent(), object, projection, CallContext.current());
+        } catch (IOException ex) {
+            throw new AllocineException(MAPPING_FAILED, ERROR_FAILED_TO_READ_JSON, url, ex);
+        }
+    }
+
+    /**
+     * Parse the content of a response, while it is received unless cached
+     *
+     * @param <T>
+     * @param url
+     * @param stream the content, closed once read
+     * @param object
+     * @param projection
+     * @param context
+     * @return
+     * @throws AllocineException if the content is not a valid object
+     * @throws IOException if the content can't be read
+     */
+    private <T> T readValue(final URL url, final InputStream stream, final Class<T> object, final Projection projection,
+            final CallContext context) throws AllocineException, IOException {
+        try (InputStream content = stream;
+                JsonParser parser = createParser(content, projection, context)) {
+            return mapper.readValue(parser, object);
+        } catch (JsonProcessingException ex) {
+            checkStopped(url, context, ex);
+            throw new AllocineException(MAPPING_FAILED, ERROR_FAILED_TO_READ_JSON, url, ex);
         }
-        throw new AllocineException(MAPPING_FAILED, "Failed to read JSON object", url);
+    }
+
+    /**
+     * Create the JSON parser for the page content
+     *
+     * @param content
+     * @param projection
+     * @param context
+     * @return
+     * @throws IOException
+     */
+    private JsonParser createParser(final InputStream content, final Projection projection, final CallContext context) throws IOException {
+        JsonParser parser = mapper.getFactory().createParser(content);
+        if (context.isCancellable()) {
+            parser = new CancellableParser(parser, context);
+        }
+        if (projection.isFull()) {
+            return parser;
+        }
+        return new PropertySkippingParser(parser, projection.getSkippedProperties());
     }
 
     /**
@@ -130,18 +420,20 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public Search searchMovies(final String query) throws AllocineException {
-        final Map<String, String> params = new LinkedHashMap<>();
-        params.put("q", query);
-        params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
-        params.put(PARAM_FILTER, FILTER_MOVIE);
-        params.put(PARAM_STRIPTAGS, LITERAL_SYNOPSIS);
-        final String url = apiUrl.generateUrl(METHOD_SEARCH, params);
+        return searchMovies(query, 0, 0);
+    }
 
-        try {
-            return this.readJsonObject(new URL(url), Search.class);
-        } catch (MalformedURLException ex) {
-            throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
-        }
+    /**
+     * Search for a movie, one page of results
+     *
+     * @param query
+     * @param page the page, from 1
+     * @param count the number of results by page
+     * @return
+     * @throws AllocineException
+     */
+    public Search searchMovies(final String query, final int page, final int count) throws AllocineException {
+        return search(query, FILTER_MOVIE, LITERAL_SYNOPSIS, page, count);
     }
 
     /**
@@ -152,18 +444,20 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public Search searchTvSeries(final String query) throws AllocineException {
-        final Map<String, String> params = new LinkedHashMap<>();
-        params.put("q", query);
-        params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
-        params.put(PARAM_FILTER, FILTER_TVSERIES);
-        params.put(PARAM_STRIPTAGS, LITERAL_SYNOPSIS);
-        final String url = apiUrl.generateUrl(METHOD_SEARCH, params);
+        return searchTvSeries(query, 0, 0);
+    }
 
-        try {
-            return this.readJsonObject(new URL(url), Search.class);
-        } catch (MalformedURLException ex) {
-            throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
-        }
+    /**
+     * Search for a TV Series, one page of results
+     *
+     * @param query
+     * @param page the page, from 1
+     * @param count the number of results by page
+     * @return
+     * @throws AllocineException
+     */
+    public Search searchTvSeries(final String query, final int page, final int count) throws AllocineException {
+        return search(query, FILTER_TVSERIES, LITERAL_SYNOPSIS, page, count);
     }
 
     /**
@@ -174,18 +468,46 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public Search searchPersons(final String query) throws AllocineException {
+        return searchPersons(query, 0, 0);
+    }
+
+    /**
+     * Search for a person, one page of results
+     *
+     * @param query
+     * @param page the page, from 1
+     * @param count the number of results by page
+     * @return
+     * @throws AllocineException
+     */
+    public Search searchPersons(final String query, final int page, final int count) throws AllocineException {
+        return search(query, FILTER_PERSON, "biography,biographyshort", page, count);
+    }
+
+    private Search search(final String query, final String filter, final String stripTags, final int page, final int count)
+            throws AllocineException {
         final Map<String, String> params = new LinkedHashMap<>();
         params.put("q", query);
         params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
-        params.put(PARAM_FILTER, FILTER_PERSON);
-        params.put(PARAM_STRIPTAGS, "biography,biographyshort");
-        final String url = apiUrl.generateUrl(METHOD_SEARCH, params);
+        params.put(PARAM_FILTER, filter);
+        params.put(PARAM_STRIPTAGS, stripTags);
+        // the server defaults apply to the searches without a page
+        if (page > 0) {
+            params.put(PARAM_PAGE, String.valueOf(page));
+        }
+        if (count > 0) {
+            params.put(PARAM_COUNT, String.valueOf(count));
+        }
 
-        try {
-            return this.readJsonObject(new URL(url), Search.class);
-        } catch (MalformedURLException ex) {
-            throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
+        final NegativeCache cache = this.negativeCache;
+        if (cache != null && cache.isMissing(NegativeCache.getKey(METHOD_SEARCH, params))) {
+            return new Search();
         }
+        final Search search = this.readJsonObject(createUrl(METHOD_SEARCH, params), Search.class);
+        if (!search.isValid()) {
+            recordMiss(METHOD_SEARCH, params);
+        }
+        return search;
     }
 
     /**
@@ -196,19 +518,54 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public MovieInfos getMovieInfos(String allocineId) throws AllocineException {
+        return getMovieInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Get Movie information, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return
+     * @throws AllocineException
+     */
+    public MovieInfos getMovieInfos(String allocineId, Projection projection) throws AllocineException {
+        return this.readJsonObject(createUrl(METHOD_MOVIE, getMovieParams(allocineId, projection)), MovieInfos.class, projection);
+    }
+
+    /**
+     * Find Movie information
+     *
+     * @param allocineId
+     * @return the information, or null if the movie is not found
+     * @throws AllocineException
+     */
+    public MovieInfos findMovieInfos(String allocineId) throws AllocineException {
+        return findMovieInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Find Movie information, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return the information, or null if the movie is not found
+     * @throws AllocineException
+     */
+    public MovieInfos findMovieInfos(String allocineId, Projection projection) throws AllocineException {
+        final Map<String, String> params = getMovieParams(allocineId, projection);
+        final MovieInfos infos = this.findJsonObject(METHOD_MOVIE, params, MovieInfos.class, projection);
+        return infos == null || infos.isValid() ? infos : this.<MovieInfos>recordMiss(METHOD_MOVIE, params);
+    }
+
+    private static Map<String, String> getMovieParams(String allocineId, Projection projection) {
         final Map<String, String> params = new LinkedHashMap<>();
         params.put(PARAM_CODE, allocineId);
-        params.put(PARAM_PROFILE, LITERAL_LARGE);
+        params.put(PARAM_PROFILE, projection.getProfile());
         params.put(PARAM_FILTER, FILTER_MOVIE);
         params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
         params.put(PARAM_STRIPTAGS, LITERAL_SYNOPSIS);
-        final String url = apiUrl.generateUrl(METHOD_MOVIE, params);
-
-        try {
-            return this.readJsonObject(new URL(url), MovieInfos.class);
-        } catch (MalformedURLException ex) {
-            throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
-        }
+        return params;
     }
 
     /**
@@ -219,20 +576,55 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public TvSeriesInfos getTvSeriesInfos(String allocineId) throws AllocineException {
+        return getTvSeriesInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Get TV Series information, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return
+     * @throws AllocineException
+     */
+    public TvSeriesInfos getTvSeriesInfos(String allocineId, Projection projection) throws AllocineException {
+        return this.readJsonObject(createUrl(METHOD_TVSERIES, getTvSeriesParams(allocineId, projection)), TvSeriesInfos.class, projection);
+    }
+
+    /**
+     * Find TV Series information
+     *
+     * @param allocineId
+     * @return the information, or null if the series is not found
+     * @throws AllocineException
+     */
+    public TvSeriesInfos findTvSeriesInfos(String allocineId) throws AllocineException {
+        return findTvSeriesInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Find TV Series information, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return the information, or null if the series is not found
+     * @throws AllocineException
+     */
+    public TvSeriesInfos findTvSeriesInfos(String allocineId, Projection projection) throws AllocineException {
+        final Map<String, String> params = getTvSeriesParams(allocineId, projection);
+        final TvSeriesInfos infos = this.findJsonObject(METHOD_TVSERIES, params, TvSeriesInfos.class, projection);
+        return infos == null || infos.isValid() ? infos : this.<TvSeriesInfos>recordMiss(METHOD_TVSERIES, params);
+    }
+
+    private static Map<String, String> getTvSeriesParams(String allocineId, Projection projection) {
         final Map<String, String> params = new LinkedHashMap<>();
-        params.put(PARAM_PROFILE, LITERAL_LARGE);
+        params.put(PARAM_PROFILE, projection.getProfile());
         params.put(PARAM_MEDIAFMT, "mp4-lc");
         params.put(PARAM_FILTER, FILTER_MOVIE);
         params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
         params.put(PARAM_CODE, allocineId);
         params.put(PARAM_STRIPTAGS, LITERAL_SYNOPSIS);
-        final String url = apiUrl.generateUrl(METHOD_TVSERIES, params);
-
-        try {
-            return this.readJsonObject(new URL(url), TvSeriesInfos.class);
-        } catch (MalformedURLException ex) {
-            throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
-        }
+        return params;
     }
 
     /**
@@ -243,20 +635,55 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public TvSeasonInfos getTvSeasonInfos(String allocineId) throws AllocineException {
+        return getTvSeasonInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Get TV Season information, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return
+     * @throws AllocineException
+     */
+    public TvSeasonInfos getTvSeasonInfos(String allocineId, Projection projection) throws AllocineException {
+        return this.readJsonObject(createUrl(METHOD_SEASON, getTvSeasonParams(allocineId, projection)), TvSeasonInfos.class, projection);
+    }
+
+    /**
+     * Find TV Season information
+     *
+     * @param allocineId
+     * @return the information, or null if the season is not found
+     * @throws AllocineException
+     */
+    public TvSeasonInfos findTvSeasonInfos(String allocineId) throws AllocineException {
+        return findTvSeasonInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Find TV Season information, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return the information, or null if the season is not found
+     * @throws AllocineException
+     */
+    public TvSeasonInfos findTvSeasonInfos(String allocineId, Projection projection) throws AllocineException {
+        final Map<String, String> params = getTvSeasonParams(allocineId, projection);
+        final TvSeasonInfos infos = this.findJsonObject(METHOD_SEASON, params, TvSeasonInfos.class, projection);
+        return infos == null || infos.isValid() ? infos : this.<TvSeasonInfos>recordMiss(METHOD_SEASON, params);
+    }
+
+    private static Map<String, String> getTvSeasonParams(String allocineId, Projection projection) {
         final Map<String, String> params = new LinkedHashMap<>();
-        params.put(PARAM_PROFILE, LITERAL_LARGE);
+        params.put(PARAM_PROFILE, projection.getProfile());
         params.put(PARAM_MEDIAFMT, "mp4-lc");
         params.put(PARAM_FILTER, FILTER_MOVIE);
         params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
         params.put(PARAM_CODE, allocineId);
         params.put(PARAM_STRIPTAGS, LITERAL_SYNOPSIS);
-        final String url = apiUrl.generateUrl(METHOD_SEASON, params);
-
-        try {
-            return this.readJsonObject(new URL(url), TvSeasonInfos.class);
-        } catch (MalformedURLException ex) {
-            throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
-        }
+        return params;
     }
 
     /**
@@ -267,18 +694,53 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public PersonInfos getPersonInfos(String allocineId) throws AllocineException {
+        return getPersonInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Get information on the person, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return
+     * @throws AllocineException
+     */
+    public PersonInfos getPersonInfos(String allocineId, Projection projection) throws AllocineException {
+        return this.readJsonObject(createUrl(METHOD_PERSON, getPersonParams(allocineId, projection)), PersonInfos.class, projection);
+    }
+
+    /**
+     * Find information on the person
+     *
+     * @param allocineId
+     * @return the information, or null if the person is not found
+     * @throws AllocineException
+     */
+    public PersonInfos findPersonInfos(String allocineId) throws AllocineException {
+        return findPersonInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Find information on the person, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return the information, or null if the person is not found
+     * @throws AllocineException
+     */
+    public PersonInfos findPersonInfos(String allocineId, Projection projection) throws AllocineException {
+        final Map<String, String> params = getPersonParams(allocineId, projection);
+        final PersonInfos infos = this.findJsonObject(METHOD_PERSON, params, PersonInfos.class, projection);
+        return infos == null || infos.isValid() ? infos : this.<PersonInfos>recordMiss(METHOD_PERSON, params);
+    }
+
+    private static Map<String, String> getPersonParams(String allocineId, Projection projection) {
         final Map<String, String> params = new LinkedHashMap<>();
-        params.put(PARAM_PROFILE, LITERAL_LARGE);
+        params.put(PARAM_PROFILE, projection.getProfile());
         params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
         params.put(PARAM_CODE, allocineId);
         params.put(PARAM_STRIPTAGS, "biography,biographyshort");
-        final String url = apiUrl.generateUrl(METHOD_PERSON, params);
-
-        try {
-            return this.readJsonObject(new URL(url), PersonInfos.class);
-        } catch (MalformedURLException ex) {
-            throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
-        }
+        return params;
     }
 
     /**
@@ -289,18 +751,29 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public FilmographyInfos getPersonFilmography(String allocineId) throws AllocineException {
+        return this.readJsonObject(createUrl(METHOD_FILMOGRAPHY, getFilmographyParams(allocineId)), FilmographyInfos.class);
+    }
+
+    /**
+     * Find filmography information
+     *
+     * @param allocineId
+     * @return the information, or null if the person is not found
+     * @throws AllocineException
+     */
+    public FilmographyInfos findPersonFilmography(String allocineId) throws AllocineException {
+        final Map<String, String> params = getFilmographyParams(allocineId);
+        final FilmographyInfos infos = this.findJsonObject(METHOD_FILMOGRAPHY, params, FilmographyInfos.class, Projection.FULL);
+        return infos == null || infos.isValid() ? infos : this.<FilmographyInfos>recordMiss(METHOD_FILMOGRAPHY, params);
+    }
+
+    private static Map<String, String> getFilmographyParams(String allocineId) {
         final Map<String, String> params = new LinkedHashMap<>();
         params.put(PARAM_PROFILE, LITERAL_LARGE);
         params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
         params.put(PARAM_CODE, allocineId);
         params.put(PARAM_STRIPTAGS, LITERAL_SYNOPSIS);
-        final String url = apiUrl.generateUrl(METHOD_FILMOGRAPHY, params);
-
-        try {
-            return this.readJsonObject(new URL(url), FilmographyInfos.class);
-        } catch (MalformedURLException ex) {
-            throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
-        }
+        return params;
     }
 
     /**
@@ -311,48 +784,178 @@ public class AllocineApi {
      * @throws AllocineException
      */
     public EpisodeInfos getEpisodeInfos(String allocineId) throws AllocineException {
+        return getEpisodeInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Get episode information, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return
+     * @throws AllocineException
+     */
+    public EpisodeInfos getEpisodeInfos(String allocineId, Projection projection) throws AllocineException {
+        return this.readJsonObject(createUrl(METHOD_EPISODE, getEpisodeParams(allocineId, projection)), EpisodeInfos.class, projection);
+    }
+
+    /**
+     * Find episode information
+     *
+     * @param allocineId
+     * @return the information, or null if the episode is not found
+     * @throws AllocineException
+     */
+    public EpisodeInfos findEpisodeInfos(String allocineId) throws AllocineException {
+        return findEpisodeInfos(allocineId, Projection.FULL);
+    }
+
+    /**
+     * Find episode information, limited to the data of the projection
+     *
+     * @param allocineId
+     * @param projection
+     * @return the information, or null if the episode is not found
+     * @throws AllocineException
+     */
+    public EpisodeInfos findEpisodeInfos(String allocineId, Projection projection) throws AllocineException {
+        final Map<String, String> params = getEpisodeParams(allocineId, projection);
+        final EpisodeInfos infos = this.findJsonObject(METHOD_EPISODE, params, EpisodeInfos.class, projection);
+        return infos == null || infos.isValid() ? infos : this.<EpisodeInfos>recordMiss(METHOD_EPISODE, params);
+    }
+
+    private static Map<String, String> getEpisodeParams(String allocineId, Projection projection) {
         final Map<String, String> params = new LinkedHashMap<>();
-        params.put(PARAM_PROFILE, LITERAL_LARGE);
+        params.put(PARAM_PROFILE, projection.getProfile());
         params.put(PARAM_FORMAT, PARAM_FORMAT_VALUE);
         params.put(PARAM_CODE, allocineId);
         params.put(PARAM_STRIPTAGS, LITERAL_SYNOPSIS);
-        final String url = apiUrl.generateUrl(METHOD_EPISODE, params);
+        return params;
+    }
 
+    /**
+     * Create the signed URL of a request
+     *
+     * @param method
+     * @param params
+     * @return
+     * @throws AllocineException
+     */
+    private URL createUrl(final String method, final Map<String, String> params) throws AllocineException {
+        final String url = apiUrl.generateUrl(method, params);
         try {
-            return this.readJsonObject(new URL(url), EpisodeInfos.class);
+            return new URL(url);
         } catch (MalformedURLException ex) {
             throw new AllocineException(INVALID_URL, ERROR_FAILED_TO_CONVERT_URL, url, ex);
         }
     }
 
     /**
-     * Download the URL into a String
+     * Read an object, unless the request is a known miss. The negative cache
+     * is checked before the URL is signed.
      *
-     * @param url
-     * @return
+     * @param <T>
+     * @param method
+     * @param params
+     * @param object
+     * @param projection
+     * @return the object, or null if the request is a known miss or the
+     * server answered 404
      * @throws AllocineException
      */
-    private String requestWebPage(URL url) throws AllocineException { //NOSONAR
+    private <T> T findJsonObject(final String method, final Map<String, String> params, final Class<T> object,
+            final Projection projection) throws AllocineException {
+        final NegativeCache cache = this.negativeCache;
+        if (cache != null && cache.isMissing(NegativeCache.getKey(method, params))) {
+            return null;
+        }
         try {
-            final HttpGet httpGet = new HttpGet(url.toURI());
-            httpGet.setHeader("accept", "application/json");
-            httpGet.setHeader(HTTP.USER_AGENT, userAgentSelector.getUserAgent());
-
-            final DigestedResponse response = DigestedResponseReader.requestContent(httpClient, httpGet, charset);
-
-            if (response.getStatusCode() == 0) {
-                throw new AllocineException(CONNECTION_ERROR, response.getContent(), response.getStatusCode(), url);
-            } else if (response.getStatusCode() >= HTTP_STATUS_500) {
-                throw new AllocineException(HTTP_503_ERROR, response.getContent(), response.getStatusCode(), url);
-            } else if (response.getStatusCode() >= HTTP_STATUS_300) {
-                throw new AllocineException(HTTP_404_ERROR, response.getContent(), response.getStatusCode(), url);
+            return this.readJsonObject(createUrl(method, params), object, projection);
+        } catch (AllocineException ex) {
+            // only a real 404 is a miss, the other client errors (401, 403, 429...) are mapped to the same type
+            if (ex.getExceptionType() == HTTP_404_ERROR && ex.getResponseCode() == HttpStatus.SC_NOT_FOUND) {
+                return recordMiss(method, params);
             }
+            throw ex;
+        }
+    }
 
-            return response.getContent();
+    /**
+     * Record a request without result in the negative cache
+     *
+     * @param <T>
+     * @param method
+     * @param params
+     * @return null
+     */
+    private <T> T recordMiss(final String method, final Map<String, String> params) {
+        final NegativeCache cache = this.negativeCache;
+        if (cache != null) {
+            cache.put(NegativeCache.getKey(method, params));
+        }
+        return null;
+    }
+
+    /**
+     * Create the request for a URL, asking the server whether a cached
+     * response changed if it is given
+     *
+     * @param url
+     * @param cached the cached response to validate, or null
+     * @return
+     * @throws AllocineException
+     */
+    private HttpGet createRequest(final URL url, final CachedResponse cached) throws AllocineException {
+        final HttpGet httpGet;
+        try {
+            httpGet = new HttpGet(url.toURI());
         } catch (URISyntaxException ex) {
             throw new AllocineException(INVALID_URL, "Invalid URL", url, ex);
-        } catch (IOException ex) {
-            throw new AllocineException(CONNECTION_ERROR, "Error retrieving URL", url, ex);
         }
+        httpGet.setHeader("accept", "application/json");
+        httpGet.setHeader(HttpHeaders.ACCEPT_ENCODING, ContentDecoder.ACCEPT_ENCODING);
+        httpGet.setHeader(HTTP.USER_AGENT, userAgentSelector.getUserAgent());
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                httpGet.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                httpGet.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+            }
+        }
+        return httpGet;
+    }
+
+    /**
+     * Throw the error matching the status of a response
+     *
+     * @param url
+     * @param statusCode
+     * @param entity
+     * @throws AllocineException
+     * @throws IOException
+     */
+    private void checkStatus(final URL url, final int statusCode, final HttpEntity entity) throws AllocineException, IOException {
+        if (statusCode > 0 && statusCode < HTTP_STATUS_300) {
+            return;
+        }
+
+        String content = null;
+        if (entity != null) {
+            try (InputStream in = ContentDecoder.open(entity, transferMetrics)) {
+                content = IOUtils.toString(in, charset);
+            }
+        }
+        if (statusCode == 0) {
+            throw new AllocineException(CONNECTION_ERROR, content, statusCode, url);
+        } else if (statusCode >= HTTP_STATUS_500) {
+            throw new AllocineException(HTTP_503_ERROR, content, statusCode, url);
+        }
+        throw new AllocineException(HTTP_404_ERROR, content, statusCode, url);
+    }
+
+    private static String getHeader(final HttpResponse response, final String name) {
+        final Header header = response.getFirstHeader(name);
+        return header == null || StringUtils.isBlank(header.getValue()) ? null : header.getValue();
     }
 }
@@ -0,0 +1,50 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.artwork;
+
+import java.io.File;
+
+/**
+ * Listener notified by an {@link ArtworkFetcher} when a download ends.
+ *
+ * The methods are called from the download threads.
+ */
+public interface ArtworkFetchListener {
+
+    /**
+     * Called when an image is in the store
+     *
+     * @param url the URL of the image
+     * @param file the file holding the image
+     * @param progress the progress of the fetcher
+     */
+    void fetched(String url, File file, FetchProgress progress);
+
+    /**
+     * Called when an image can't be fetched
+     *
+     * @param url the URL of the image
+     * @param error the cause
+     * @param progress the progress of the fetcher
+     */
+    void failed(String url, Exception error, FetchProgress progress);
+}
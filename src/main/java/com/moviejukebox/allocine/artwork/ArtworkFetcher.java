@@ -0,0 +1,506 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.artwork;
+
+import com.moviejukebox.allocine.bulk.ExecutionMode;
+import com.moviejukebox.allocine.model.CastMember;
+import com.moviejukebox.allocine.model.Channel;
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.moviejukebox.allocine.model.MoviePerson;
+import com.moviejukebox.allocine.model.TvSeriesInfos;
+import com.moviejukebox.allocine.tools.ContentDecoder;
+import com.moviejukebox.allocine.tools.ImageTools;
+import com.moviejukebox.allocine.tools.TransferMetrics;
+import java.io.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.HttpClientUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Download images into a local store with a bounded number of parallel
+ * downloads.
+ *
+ * The store is content addressed: an image is written once under the SHA-1
+ * of its content, whatever the number of URLs returning it. The ETag and
+ * Last-Modified date of each URL are kept, so an image already stored is only
+ * checked with a conditional request, once per fetcher. Concurrent requests
+ * for the same URL share a single download.
+ *
+ * The HTTP client must not decompress the responses itself, otherwise the
+ * bytes downloaded are counted uncompressed.
+ */
+public class ArtworkFetcher implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArtworkFetcher.class);
+    private static final String DIR_OBJECTS = "objects";
+    private static final String DIR_URLS = "urls";
+    private static final String DIR_TEMP = "tmp";
+    private static final String KEY_URL = "url";
+    private static final String KEY_HASH = "hash";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final HttpClient httpClient;
+    private final String userAgent;
+    private final File objectsDirectory;
+    private final File urlsDirectory;
+    private final File tempDirectory;
+    private final ExecutorService executor;
+    private final ConcurrentMap<String, Future<File>> pending = new ConcurrentHashMap<>();
+    private final Set<String> checked = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final List<ArtworkFetchListener> listeners = new CopyOnWriteArrayList<>();
+    // progress
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong cached = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final TransferMetrics transferMetrics = new TransferMetrics();
+    private final AtomicLong bytesStored = new AtomicLong();
+
+    /**
+     * Create the fetcher
+     *
+     * @param httpClient the HTTP client to download the images
+     * @param directory the directory of the store
+     * @param threads the maximum number of parallel downloads
+     */
+    public ArtworkFetcher(final HttpClient httpClient, final File directory, final int threads) {
+        this(httpClient, null, directory, threads);
+    }
+
+    /**
+     * Create the fetcher
+     *
+     * @param httpClient the HTTP client to download the images
+     * @param userAgent the user agent of the requests, or null
+     * @param directory the directory of the store
+     * @param threads the maximum number of parallel downloads
+     */
+    public ArtworkFetcher(final HttpClient httpClient, final String userAgent, final File directory, final int threads) {
+        this(httpClient, userAgent, directory, threads, ExecutionMode.PLATFORM_THREADS);
+    }
+
+    /**
+     * Create the fetcher
+     *
+     * @param httpClient the HTTP client to download the images
+     * @param userAgent the user agent of the requests, or null
+     * @param directory the directory of the store
+     * @param threads the maximum number of parallel downloads
+     * @param mode the threads running the downloads
+     */
+    public ArtworkFetcher(final HttpClient httpClient, final String userAgent, final File directory, final int threads,
+            final ExecutionMode mode) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive");
+        }
+        this.httpClient = httpClient;
+        this.userAgent = userAgent;
+        this.objectsDirectory = new File(directory, DIR_OBJECTS);
+        this.urlsDirectory = new File(directory, DIR_URLS);
+        this.tempDirectory = new File(directory, DIR_TEMP);
+        this.executor = mode.newExecutor(threads);
+    }
+
+    public void addListener(final ArtworkFetchListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(final ArtworkFetchListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Fetch an image resized to fit in a box
+     *
+     * @param url the URL of the full size image
+     * @param width
+     * @param height
+     * @return the future file of the image, or null if the URL is blank
+     */
+    public Future<File> fetch(final String url, final int width, final int height) {
+        return fetch(ImageTools.resize(url, width, height));
+    }
+
+    /**
+     * Fetch an image
+     *
+     * @param url the URL of the image
+     * @return the future file of the image, or null if the URL is blank
+     */
+    public Future<File> fetch(final String url) {
+        if (StringUtils.isBlank(url)) {
+            return null;
+        }
+        Future<File> future = pending.get(url);
+        if (future == null) {
+            final FutureTask<File> task = new FutureTask<>(new Callable<File>() {
+                @Override
+                public File call() throws IOException {
+                    try {
+                        return complete(url, download(url), null);
+                    } catch (IOException | RuntimeException ex) {
+                        complete(url, null, ex);
+                        throw ex;
+                    } finally {
+                        pending.remove(url);
+                    }
+                }
+            });
+            future = pending.putIfAbsent(url, task);
+            if (future == null) {
+                future = task;
+                submitted.incrementAndGet();
+                executor.execute(task);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Fetch the best posters of a movie
+     *
+     * @param infos
+     * @param max the maximum number of posters
+     * @param width the width of the box, or 0 for the full size
+     * @param height the height of the box, or 0 for the full size
+     * @return
+     */
+    public List<Future<File>> fetchPosters(final MovieInfos infos, final int max, final int width, final int height) {
+        return fetchPosters(ArtworkRanking.posters(infos), max, width, height);
+    }
+
+    /**
+     * Fetch the best posters of a TV series
+     *
+     * @param infos
+     * @param max the maximum number of posters
+     * @param width the width of the box, or 0 for the full size
+     * @param height the height of the box, or 0 for the full size
+     * @return
+     */
+    public List<Future<File>> fetchPosters(final TvSeriesInfos infos, final int max, final int width, final int height) {
+        return fetchPosters(ArtworkRanking.posters(infos), max, width, height);
+    }
+
+    private List<Future<File>> fetchPosters(final ArtworkRanking ranking, final int max, final int width, final int height) {
+        final List<Future<File>> futures = new ArrayList<>();
+        for (RankedArtwork artwork : ranking.getTop(max)) {
+            futures.add(fetch(artwork.getUrl(), width, height));
+        }
+        return futures;
+    }
+
+    /**
+     * Fetch the photos of persons, such as the actors of a movie
+     *
+     * @param persons
+     * @param width the width of the box, or 0 for the full size
+     * @param height the height of the box, or 0 for the full size
+     * @return the future files of the persons with a photo
+     */
+    public List<Future<File>> fetchPhotos(final Collection<MoviePerson> persons, final int width, final int height) {
+        final List<Future<File>> futures = new ArrayList<>();
+        for (MoviePerson person : persons) {
+            addIfNotNull(futures, fetch(person.getPhotoURL(), width, height));
+        }
+        return futures;
+    }
+
+    /**
+     * Fetch the pictures of cast members
+     *
+     * @param members
+     * @param width the width of the box, or 0 for the full size
+     * @param height the height of the box, or 0 for the full size
+     * @return the future files of the members with a picture
+     */
+    public List<Future<File>> fetchPictures(final Collection<CastMember> members, final int width, final int height) {
+        final List<Future<File>> futures = new ArrayList<>();
+        for (CastMember member : members) {
+            if (member.getPicture() != null) {
+                addIfNotNull(futures, fetch(member.getPicture().getHref(), width, height));
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Fetch the logo of a channel
+     *
+     * @param channel
+     * @param width the width of the box, or 0 for the full size
+     * @param height the height of the box, or 0 for the full size
+     * @return the future file of the logo, or null if the channel has no logo
+     */
+    public Future<File> fetchLogo(final Channel channel, final int width, final int height) {
+        return fetch(channel.getLogo(width, height));
+    }
+
+    private static void addIfNotNull(final List<Future<File>> futures, final Future<File> future) {
+        if (future != null) {
+            futures.add(future);
+        }
+    }
+
+    /**
+     * Get the stored file of an image
+     *
+     * @param url the URL of the image
+     * @return the file, or null if the image was never fetched
+     */
+    public File getFile(final String url) {
+        if (StringUtils.isBlank(url)) {
+            return null;
+        }
+        final Properties stored = readStored(url);
+        if (stored == null) {
+            return null;
+        }
+        final File file = objectFile(stored.getProperty(KEY_HASH));
+        return file.isFile() ? file : null;
+    }
+
+    /**
+     * Get the progress and byte counts of the downloads
+     *
+     * @return
+     */
+    public FetchProgress getProgress() {
+        return new FetchProgress(submitted.get(), completed.get(), failed.get(), notModified.get(),
+                cached.get(), duplicates.get(), transferMetrics.getWireBytes(), bytesStored.get());
+    }
+
+    private File complete(final String url, final File file, final Exception error) {
+        if (error != null) {
+            failed.incrementAndGet();
+        }
+        completed.incrementAndGet();
+        final FetchProgress progress = getProgress();
+        for (ArtworkFetchListener listener : listeners) {
+            try {
+                if (error == null) {
+                    listener.fetched(url, file, progress);
+                } else {
+                    listener.failed(url, error, progress);
+                }
+            } catch (RuntimeException ex) {
+                LOG.warn("Artwork listener failed: {}", ex.getMessage(), ex);
+            }
+        }
+        return file;
+    }
+
+    private File download(final String url) throws IOException {
+        final Properties stored = readStored(url);
+        final File current = stored == null ? null : objectFile(stored.getProperty(KEY_HASH));
+        final boolean exists = current != null && current.isFile();
+        if (exists && checked.contains(url)) {
+            cached.incrementAndGet();
+            return current;
+        }
+
+        final HttpGet httpGet = new HttpGet(url);
+        if (userAgent != null) {
+            httpGet.setHeader(HttpHeaders.USER_AGENT, userAgent);
+        }
+        if (exists) {
+            if (stored.getProperty(KEY_ETAG) != null) {
+                httpGet.setHeader(HttpHeaders.IF_NONE_MATCH, stored.getProperty(KEY_ETAG));
+            }
+            if (stored.getProperty(KEY_LAST_MODIFIED) != null) {
+                httpGet.setHeader(HttpHeaders.IF_MODIFIED_SINCE, stored.getProperty(KEY_LAST_MODIFIED));
+            }
+        }
+
+        HttpResponse response = null;
+        try {
+            response = httpClient.execute(httpGet);
+            final HttpEntity entity = response.getEntity();
+            final int status = response.getStatusLine().getStatusCode();
+            if (status == HttpStatus.SC_NOT_MODIFIED && exists) {
+                notModified.incrementAndGet();
+                checked.add(url);
+                return current;
+            }
+            if (status != HttpStatus.SC_OK || entity == null) {
+                throw new IOException("Failed to download " + url + ": HTTP " + status);
+            }
+
+            final File file = store(entity);
+            final Properties properties = new Properties();
+            properties.setProperty(KEY_URL, url);
+            properties.setProperty(KEY_HASH, file.getName());
+            setIfPresent(properties, KEY_ETAG, response.getFirstHeader(HttpHeaders.ETAG));
+            setIfPresent(properties, KEY_LAST_MODIFIED, response.getFirstHeader(HttpHeaders.LAST_MODIFIED));
+            writeStored(url, properties);
+            checked.add(url);
+            LOG.debug("Fetched {} into {}", url, file);
+            return file;
+        } catch (IOException | RuntimeException ex) {
+            // drop the connection rather than reading the rest of the response
+            httpGet.abort();
+            throw ex;
+        } finally {
+            HttpClientUtils.closeQuietly(response);
+        }
+    }
+
+    /**
+     * Write the content of a response under its hash
+     */
+    private File store(final HttpEntity entity) throws IOException {
+        FileUtils.forceMkdir(tempDirectory);
+        final File temp = File.createTempFile("artwork", ".part", tempDirectory);
+        try {
+            final MessageDigest digest = sha1();
+            final long length;
+            try (InputStream in = new DigestInputStream(ContentDecoder.open(entity, transferMetrics), digest);
+                    OutputStream out = new FileOutputStream(temp)) {
+                length = copy(in, out);
+            }
+
+            final File file = objectFile(hex(digest.digest()));
+            if (file.isFile()) {
+                duplicates.incrementAndGet();
+                return file;
+            }
+            FileUtils.forceMkdir(file.getParentFile());
+            if (!temp.renameTo(file) && !file.isFile()) {
+                throw new IOException("Failed to store " + file);
+            }
+            bytesStored.addAndGet(length);
+            return file;
+        } finally {
+            FileUtils.deleteQuietly(temp);
+        }
+    }
+
+    private static long copy(final InputStream in, final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[8192];
+        long length = 0;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+            length += read;
+        }
+        return length;
+    }
+
+    private static void setIfPresent(final Properties properties, final String key, final Header header) {
+        if (header != null && StringUtils.isNotBlank(header.getValue())) {
+            properties.setProperty(key, header.getValue());
+        }
+    }
+
+    private Properties readStored(final String url) {
+        final File file = urlFile(url);
+        if (!file.isFile()) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IOException ex) {
+            LOG.debug("Failed to read {}: {}", file, ex.getMessage());
+            return null;
+        }
+        // a hash collision of the URLs is not worth more than a new download
+        if (!url.equals(properties.getProperty(KEY_URL)) || properties.getProperty(KEY_HASH) == null) {
+            return null;
+        }
+        return properties;
+    }
+
+    private void writeStored(final String url, final Properties properties) throws IOException {
+        final File file = urlFile(url);
+        FileUtils.forceMkdir(file.getParentFile());
+        final File temp = new File(file.getPath() + ".part");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            properties.store(out, null);
+        }
+        if (!temp.renameTo(file)) {
+            FileUtils.deleteQuietly(file);
+            if (!temp.renameTo(file)) {
+                FileUtils.deleteQuietly(temp);
+                throw new IOException("Failed to store " + file);
+            }
+        }
+    }
+
+    private File urlFile(final String url) {
+        final String hash;
+        try {
+            hash = hex(sha1().digest(url.getBytes("UTF-8")));
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return new File(new File(urlsDirectory, hash.substring(0, 2)), hash.substring(2) + ".properties");
+    }
+
+    private File objectFile(final String hash) {
+        return new File(new File(objectsDirectory, hash.substring(0, 2)), hash);
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-1 is not available", ex);
+        }
+    }
+
+    private static String hex(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Stop the downloads in progress
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
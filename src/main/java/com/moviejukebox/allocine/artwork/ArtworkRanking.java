@@ -0,0 +1,351 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.artwork;
+
+import com.moviejukebox.allocine.model.AbstractBaseMapping;
+import com.moviejukebox.allocine.model.Artwork;
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.moviejukebox.allocine.model.Person;
+import com.moviejukebox.allocine.model.TvSeasonInfos;
+import com.moviejukebox.allocine.model.TvSeriesInfos;
+import com.moviejukebox.allocine.model.enumeration.ArtworkSize;
+import com.moviejukebox.allocine.model.media.MediaBasic;
+import com.moviejukebox.allocine.model.media.MediaPicture;
+import com.moviejukebox.allocine.model.media.MediaVideo;
+import com.moviejukebox.allocine.tools.ImageTools;
+import java.util.*;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Artworks of an item ranked once, best first.
+ *
+ * The score combines the resolution, how close the aspect ratio is to the
+ * expected one, the media type and whether the artwork is the main one of the
+ * item. Images which differ only by host or resize options are merged.
+ * The ranking is immutable.
+ */
+public final class ArtworkRanking {
+
+    static final int POSTER_TYPE_CODE = 31001;
+    private static final int UNKNOWN_TYPE_CODE = -1;
+    private static final double POSTER_RATIO = 2.0 / 3.0;
+    // weights of the score
+    private static final double RESOLUTION_WEIGHT = 0.4;
+    private static final double ASPECT_WEIGHT = 0.25;
+    private static final double TYPE_WEIGHT = 0.2;
+    private static final double MAIN_WEIGHT = 0.15;
+    // a picture of this many pixels or more gets the full resolution score
+    private static final double REFERENCE_PIXELS = 1200.0 * 1600.0;
+    private static final Comparator<RankedArtwork> BY_SCORE = new Comparator<RankedArtwork>() {
+        @Override
+        public int compare(final RankedArtwork a1, final RankedArtwork a2) {
+            return Double.compare(a2.getScore(), a1.getScore());
+        }
+    };
+
+    private final List<RankedArtwork> ranked;
+    private final Map<ArtworkSize, List<RankedArtwork>> bySize = new EnumMap<>(ArtworkSize.class);
+
+    private ArtworkRanking(final Collection<Candidate> candidates, final double targetRatio) {
+        final List<RankedArtwork> list = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            list.add(candidate.rank(targetRatio));
+        }
+        // stable, so equal scores keep the order of the API
+        Collections.sort(list, BY_SCORE);
+        this.ranked = Collections.unmodifiableList(list);
+
+        for (ArtworkSize size : ArtworkSize.values()) {
+            bySize.put(size, new ArrayList<RankedArtwork>());
+        }
+        for (RankedArtwork artwork : list) {
+            bySize.get(artwork.getSize()).add(artwork);
+        }
+        for (ArtworkSize size : ArtworkSize.values()) {
+            bySize.put(size, Collections.unmodifiableList(bySize.get(size)));
+        }
+    }
+
+    /**
+     * Rank the posters of a movie
+     *
+     * @param infos
+     * @return
+     */
+    public static ArtworkRanking posters(final MovieInfos infos) {
+        return posters(infos.getMovie());
+    }
+
+    /**
+     * Rank the posters of a TV series
+     *
+     * @param infos
+     * @return
+     */
+    public static ArtworkRanking posters(final TvSeriesInfos infos) {
+        return posters(infos.getTvSeries());
+    }
+
+    /**
+     * Rank the posters of a TV season
+     *
+     * @param infos
+     * @return
+     */
+    public static ArtworkRanking posters(final TvSeasonInfos infos) {
+        return posters(infos.getSeason());
+    }
+
+    /**
+     * Rank the posters of a movie, TV series or season
+     *
+     * @param base
+     * @return
+     */
+    public static ArtworkRanking posters(final AbstractBaseMapping base) {
+        final Map<String, Candidate> candidates = new LinkedHashMap<>();
+        if (base != null) {
+            if (base.getPoster() != null) {
+                add(candidates, base.getPoster(), Long.valueOf(base.getCode()), 0, 0, POSTER_TYPE_CODE, true);
+            }
+            addMedia(candidates, base.getMedia(), true);
+        }
+        return new ArtworkRanking(candidates.values(), POSTER_RATIO);
+    }
+
+    /**
+     * Rank all the pictures of a movie, TV series or season, posters included
+     *
+     * @param base
+     * @return
+     */
+    public static ArtworkRanking pictures(final AbstractBaseMapping base) {
+        final Map<String, Candidate> candidates = new LinkedHashMap<>();
+        if (base != null) {
+            if (base.getPoster() != null) {
+                add(candidates, base.getPoster(), Long.valueOf(base.getCode()), 0, 0, POSTER_TYPE_CODE, true);
+            }
+            addMedia(candidates, base.getMedia(), false);
+        }
+        return new ArtworkRanking(candidates.values(), 0);
+    }
+
+    /**
+     * Rank the pictures of a person
+     *
+     * @param person
+     * @return
+     */
+    public static ArtworkRanking pictures(final Person person) {
+        final Map<String, Candidate> candidates = new LinkedHashMap<>();
+        if (person != null) {
+            if (person.getPicture() != null) {
+                add(candidates, person.getPicture(), Long.valueOf(person.getCode()), 0, 0, UNKNOWN_TYPE_CODE, true);
+            }
+            addMedia(candidates, person.getMedia(), false);
+        }
+        return new ArtworkRanking(candidates.values(), 0);
+    }
+
+    private static void addMedia(final Map<String, Candidate> candidates, final List<MediaBasic> media, final boolean postersOnly) {
+        if (media == null) {
+            return;
+        }
+        for (MediaBasic medium : media) {
+            if (medium.getThumbnail() == null || medium instanceof MediaVideo || (postersOnly && !medium.isPoster())) {
+                continue;
+            }
+            int width = 0;
+            int height = 0;
+            if (medium instanceof MediaPicture) {
+                width = ((MediaPicture) medium).getWidth();
+                height = ((MediaPicture) medium).getHeight();
+            }
+            final int typeCode = medium.getMediaType() == null ? UNKNOWN_TYPE_CODE : medium.getMediaType().getCode();
+            add(candidates, medium.getThumbnail(), medium.getRcode(), width, height, typeCode, false);
+        }
+    }
+
+    private static void add(final Map<String, Candidate> candidates, final Artwork artwork, final Long code,
+            final int width, final int height, final int typeCode, final boolean main) {
+        if (StringUtils.isBlank(artwork.getHref())) {
+            return;
+        }
+        final String path = normalisePath(StringUtils.isNotBlank(artwork.getPath()) ? artwork.getPath() : artwork.getHref());
+        final Candidate existing = candidates.get(path);
+        if (existing == null) {
+            candidates.put(path, new Candidate(artwork.getHref(), path, code, width, height, typeCode, main));
+        } else {
+            existing.merge(code, width, height, typeCode, main);
+        }
+    }
+
+    /**
+     * Get the path of an image without the scheme, the host and the resize
+     * options, so that the copies of an image have the same path. The case is
+     * kept: the paths of the image servers are case sensitive.
+     *
+     * @param url the URL or path of the image
+     * @return
+     */
+    public static String normalisePath(final String url) {
+        return ImageTools.getPath(url);
+    }
+
+    /**
+     * Get the best artwork
+     *
+     * @return the best artwork or null if there is none
+     */
+    public RankedArtwork getBest() {
+        return ranked.isEmpty() ? null : ranked.get(0);
+    }
+
+    /**
+     * Get the best artwork of a size class
+     *
+     * @param size
+     * @return the best artwork or null if there is none
+     */
+    public RankedArtwork getBest(final ArtworkSize size) {
+        final List<RankedArtwork> list = bySize.get(size);
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * Get the best artworks
+     *
+     * @param max the maximum number of artworks
+     * @return
+     */
+    public List<RankedArtwork> getTop(final int max) {
+        return ranked.subList(0, Math.max(0, Math.min(max, ranked.size())));
+    }
+
+    /**
+     * Get the best artworks of a size class
+     *
+     * @param size
+     * @param max the maximum number of artworks
+     * @return
+     */
+    public List<RankedArtwork> getTop(final ArtworkSize size, final int max) {
+        final List<RankedArtwork> list = bySize.get(size);
+        return list.subList(0, Math.max(0, Math.min(max, list.size())));
+    }
+
+    /**
+     * Get all the artworks, best first
+     *
+     * @return
+     */
+    public List<RankedArtwork> getAll() {
+        return ranked;
+    }
+
+    /**
+     * Get the URLs and codes of the artworks, best first
+     *
+     * @return
+     */
+    public Map<String, Long> getUrls() {
+        final Map<String, Long> urls = new LinkedHashMap<>();
+        for (RankedArtwork artwork : ranked) {
+            urls.put(artwork.getUrl(), artwork.getCode());
+        }
+        return urls;
+    }
+
+    public int size() {
+        return ranked.size();
+    }
+
+    public boolean isEmpty() {
+        return ranked.isEmpty();
+    }
+
+    /**
+     * An artwork to rank, merged with its copies
+     */
+    private static final class Candidate {
+
+        private final String url;
+        private final String path;
+        private Long code;
+        private int width;
+        private int height;
+        private int typeCode;
+        private boolean main;
+        // whether the code is the one of the item rather than of a media
+        private boolean itemCode;
+
+        Candidate(final String url, final String path, final Long code, final int width, final int height,
+                final int typeCode, final boolean main) {
+            this.url = url;
+            this.path = path;
+            this.code = code;
+            this.width = width;
+            this.height = height;
+            this.typeCode = typeCode;
+            this.main = main;
+            this.itemCode = main;
+        }
+
+        void merge(final Long code, final int width, final int height, final int typeCode, final boolean main) {
+            // keep the code of the media rather than the one of the item
+            if (this.code == null || (itemCode && !main && code != null)) {
+                this.code = code;
+                this.itemCode = main;
+            }
+            if ((long) width * height > (long) this.width * this.height) {
+                this.width = width;
+                this.height = height;
+            }
+            if (this.typeCode == UNKNOWN_TYPE_CODE || typeCode == POSTER_TYPE_CODE) {
+                this.typeCode = typeCode;
+            }
+            this.main |= main;
+        }
+
+        RankedArtwork rank(final double targetRatio) {
+            double score = 0;
+            if (width > 0 && height > 0) {
+                final double pixels = (double) width * height;
+                score += RESOLUTION_WEIGHT * Math.min(1.0, Math.log1p(pixels) / Math.log1p(REFERENCE_PIXELS));
+                if (targetRatio > 0) {
+                    final double distance = Math.abs(Math.log(((double) width / height) / targetRatio));
+                    score += ASPECT_WEIGHT * Math.max(0.0, 1.0 - distance);
+                }
+            } else if (targetRatio > 0) {
+                // unknown size, assume an average aspect ratio
+                score += ASPECT_WEIGHT / 2;
+            }
+            if (typeCode == POSTER_TYPE_CODE) {
+                score += TYPE_WEIGHT;
+            }
+            if (main) {
+                score += MAIN_WEIGHT;
+            }
+            return new RankedArtwork(url, path, code, width, height, typeCode, main, score);
+        }
+    }
+}
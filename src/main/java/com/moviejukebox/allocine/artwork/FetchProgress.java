@@ -0,0 +1,131 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.artwork;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Progress and byte counts of an {@link ArtworkFetcher}
+ */
+public final class FetchProgress {
+
+    private final long submitted;
+    private final long completed;
+    private final long failed;
+    private final long notModified;
+    private final long cached;
+    private final long duplicates;
+    private final long bytesDownloaded;
+    private final long bytesStored;
+
+    FetchProgress(final long submitted, final long completed, final long failed, final long notModified,
+            final long cached, final long duplicates, final long bytesDownloaded, final long bytesStored) {
+        this.submitted = submitted;
+        this.completed = completed;
+        this.failed = failed;
+        this.notModified = notModified;
+        this.cached = cached;
+        this.duplicates = duplicates;
+        this.bytesDownloaded = bytesDownloaded;
+        this.bytesStored = bytesStored;
+    }
+
+    /**
+     * Get the number of downloads submitted, without the ones already in
+     * progress for the same URL
+     *
+     * @return
+     */
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Get the number of downloads done, including the failed ones
+     *
+     * @return
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getPending() {
+        return submitted - completed;
+    }
+
+    /**
+     * Get the number of images unchanged on the server since they were stored
+     *
+     * @return
+     */
+    public long getNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Get the number of images already checked and served from the store
+     * without a request
+     *
+     * @return
+     */
+    public long getCached() {
+        return cached;
+    }
+
+    /**
+     * Get the number of downloads whose content was already stored for
+     * another URL
+     *
+     * @return
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Get the number of bytes received, before any decompression
+     *
+     * @return
+     */
+    public long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    /**
+     * Get the number of bytes of new content written to the store
+     *
+     * @return
+     */
+    public long getBytesStored() {
+        return bytesStored;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
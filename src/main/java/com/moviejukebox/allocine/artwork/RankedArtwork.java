@@ -0,0 +1,130 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.artwork;
+
+import com.moviejukebox.allocine.model.enumeration.ArtworkSize;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * An artwork ranked by an {@link ArtworkRanking}
+ */
+public final class RankedArtwork {
+
+    private final String url;
+    private final String path;
+    private final Long code;
+    private final int width;
+    private final int height;
+    private final int typeCode;
+    private final boolean main;
+    private final ArtworkSize size;
+    private final double score;
+
+    RankedArtwork(final String url, final String path, final Long code, final int width, final int height,
+            final int typeCode, final boolean main, final double score) {
+        this.url = url;
+        this.path = path;
+        this.code = code;
+        this.width = width;
+        this.height = height;
+        this.typeCode = typeCode;
+        this.main = main;
+        this.size = ArtworkSize.of(width, height);
+        this.score = score;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Get the path of the image without the host and the resize options
+     *
+     * @return
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the code of the media, or of the movie or series for the main poster
+     *
+     * @return
+     */
+    public Long getCode() {
+        return code;
+    }
+
+    /**
+     * Get the width, or 0 if unknown
+     *
+     * @return
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height, or 0 if unknown
+     *
+     * @return
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the media type code, or -1 if unknown
+     *
+     * @return
+     */
+    public int getTypeCode() {
+        return typeCode;
+    }
+
+    public boolean isPoster() {
+        return typeCode == ArtworkRanking.POSTER_TYPE_CODE;
+    }
+
+    /**
+     * Whether the artwork is the main poster or picture of its item
+     *
+     * @return
+     */
+    public boolean isMain() {
+        return main;
+    }
+
+    public ArtworkSize getSize() {
+        return size;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.artwork;
+
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.moviejukebox.allocine.model.PersonInfos;
+import com.moviejukebox.allocine.model.TvSeriesInfos;
+import com.moviejukebox.allocine.tools.ImageTools;
+import java.io.File;
+import java.util.concurrent.Future;
+
+/**
+ * Download the thumbnails of the posters and pictures into the store of an
+ * {@link ArtworkFetcher} in the background, so that they are ready when they
+ * are shown.
+ *
+ * The thumbnails are resized by the Allocine image servers.
+ */
+public class ThumbnailPrefetcher {
+
+    private final ArtworkFetcher fetcher;
+    private final int width;
+    private final int height;
+
+    /**
+     * Create the prefetcher
+     *
+     * @param fetcher the fetcher downloading the thumbnails
+     * @param width the width of the thumbnails
+     * @param height the height of the thumbnails
+     */
+    public ThumbnailPrefetcher(final ArtworkFetcher fetcher, final int width, final int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("The size must be positive");
+        }
+        this.fetcher = fetcher;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Prefetch the thumbnail of the best poster of a movie
+     *
+     * @param infos
+     * @return the future thumbnail file, or null if the movie has no poster
+     */
+    public Future<File> prefetch(final MovieInfos infos) {
+        return prefetch(ArtworkRanking.posters(infos).getBest());
+    }
+
+    /**
+     * Prefetch the thumbnail of the best poster of a TV series
+     *
+     * @param infos
+     * @return the future thumbnail file, or null if the series has no poster
+     */
+    public Future<File> prefetch(final TvSeriesInfos infos) {
+        return prefetch(ArtworkRanking.posters(infos).getBest());
+    }
+
+    /**
+     * Prefetch the thumbnail of the picture of a person
+     *
+     * @param infos
+     * @return the future thumbnail file, or null if the person has no picture
+     */
+    public Future<File> prefetch(final PersonInfos infos) {
+        return prefetch(infos.getPhotoURL());
+    }
+
+    private Future<File> prefetch(final RankedArtwork artwork) {
+        return artwork == null ? null : prefetch(artwork.getUrl());
+    }
+
+    /**
+     * Prefetch the thumbnail of an image
+     *
+     * @param url the URL of the image
+     * @return the future thumbnail file, or null if the URL is blank
+     */
+    public Future<File> prefetch(final String url) {
+        return fetcher.fetch(url, width, height);
+    }
+
+    /**
+     * Get the file of the thumbnail of an image
+     *
+     * @param url the URL of the image
+     * @return the file, or null if the thumbnail was never fetched
+     */
+    public File getFile(final String url) {
+        return fetcher.getFile(ImageTools.resize(url, width, height));
+    }
+}
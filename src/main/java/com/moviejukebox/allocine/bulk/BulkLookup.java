@@ -0,0 +1,201 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.bulk;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.model.enumeration.Projection;
+import com.moviejukebox.allocine.schedule.CallContext;
+import com.moviejukebox.allocine.schedule.CancellationToken;
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Read many objects from the API in parallel.
+ *
+ * Each code is read on a thread of the lookup, so the number of requests
+ * sent at the same time is the concurrency of the lookup. The connection
+ * pool of the HTTP client should allow as many connections, see
+ * {@link com.moviejukebox.allocine.http.HttpTransportBuilder}.
+ *
+ * The lookups run in the {@link CallContext} of the thread calling the
+ * lookup, so a bulk refresh can be sent in the background lane. When the
+ * calling thread is interrupted, the requests in progress are aborted.
+ */
+public class BulkLookup implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkLookup.class);
+    private final AllocineApi api;
+    private final ExecutionMode mode;
+    private final ExecutorService executor;
+
+    /**
+     * Create the lookup
+     *
+     * @param api
+     * @param mode the threads running the lookups
+     * @param concurrency the maximum number of lookups at the same time
+     */
+    public BulkLookup(final AllocineApi api, final ExecutionMode mode, final int concurrency) {
+        this.api = api;
+        this.mode = mode;
+        this.executor = mode.newExecutor(concurrency);
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public BulkResult<MovieInfos> getMovieInfos(final Collection<String> codes) {
+        return getMovieInfos(codes, Projection.FULL);
+    }
+
+    public BulkResult<MovieInfos> getMovieInfos(final Collection<String> codes, final Projection projection) {
+        return lookup(codes, new Lookup<MovieInfos>() {
+            @Override
+            public MovieInfos get(final String code) throws AllocineException {
+                return api.getMovieInfos(code, projection);
+            }
+        });
+    }
+
+    public BulkResult<TvSeriesInfos> getTvSeriesInfos(final Collection<String> codes) {
+        return getTvSeriesInfos(codes, Projection.FULL);
+    }
+
+    public BulkResult<TvSeriesInfos> getTvSeriesInfos(final Collection<String> codes, final Projection projection) {
+        return lookup(codes, new Lookup<TvSeriesInfos>() {
+            @Override
+            public TvSeriesInfos get(final String code) throws AllocineException {
+                return api.getTvSeriesInfos(code, projection);
+            }
+        });
+    }
+
+    public BulkResult<TvSeasonInfos> getTvSeasonInfos(final Collection<String> codes) {
+        return lookup(codes, new Lookup<TvSeasonInfos>() {
+            @Override
+            public TvSeasonInfos get(final String code) throws AllocineException {
+                return api.getTvSeasonInfos(code);
+            }
+        });
+    }
+
+    public BulkResult<EpisodeInfos> getEpisodeInfos(final Collection<String> codes) {
+        return lookup(codes, new Lookup<EpisodeInfos>() {
+            @Override
+            public EpisodeInfos get(final String code) throws AllocineException {
+                return api.getEpisodeInfos(code);
+            }
+        });
+    }
+
+    public BulkResult<PersonInfos> getPersonInfos(final Collection<String> codes) {
+        return lookup(codes, new Lookup<PersonInfos>() {
+            @Override
+            public PersonInfos get(final String code) throws AllocineException {
+                return api.getPersonInfos(code);
+            }
+        });
+    }
+
+    public BulkResult<FilmographyInfos> getPersonFilmographies(final Collection<String> codes) {
+        return lookup(codes, new Lookup<FilmographyInfos>() {
+            @Override
+            public FilmographyInfos get(final String code) throws AllocineException {
+                return api.getPersonFilmography(code);
+            }
+        });
+    }
+
+    /**
+     * Run the lookup of each code and wait for all of them
+     *
+     * @param <T>
+     * @param codes the codes, duplicates are read once
+     * @param lookup
+     * @return
+     */
+    <T> BulkResult<T> lookup(final Collection<String> codes, final Lookup<T> lookup) {
+        final CancellationToken token = new CancellationToken();
+        final CallContext context = CallContext.current().withCancellation(token);
+        final Map<String, Future<T>> futures = new LinkedHashMap<>();
+        for (final String code : codes) {
+            if (!futures.containsKey(code)) {
+                futures.put(code, executor.submit(context.wrap(new Callable<T>() {
+                    @Override
+                    public T call() throws AllocineException {
+                        return lookup.get(code);
+                    }
+                })));
+            }
+        }
+
+        final Map<String, T> values = new LinkedHashMap<>();
+        final Map<String, AllocineException> failures = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<T>> entry : futures.entrySet()) {
+                try {
+                    values.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException ex) {
+                    if (!(ex.getCause() instanceof AllocineException)) {
+                        throw new IllegalStateException("Lookup of " + entry.getKey() + " failed", ex.getCause());
+                    }
+                    LOG.debug("Failed to read {}: {}", entry.getKey(), ex.getCause().getMessage());
+                    failures.put(entry.getKey(), (AllocineException) ex.getCause());
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while reading the codes");
+        } finally {
+            // aborts the requests left when the wait did not end normally
+            token.cancel();
+            for (Future<T> future : futures.values()) {
+                future.cancel(true);
+            }
+        }
+        return new BulkResult<>(values, failures);
+    }
+
+    /**
+     * Stop the threads, the lookups in progress are interrupted
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Read the object of a code
+     *
+     * @param <T>
+     */
+    interface Lookup<T> {
+
+        T get(String code) throws AllocineException;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.bulk;
+
+import com.moviejukebox.allocine.AllocineException;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Values read by a bulk lookup, by code, and the errors of the codes that
+ * failed
+ *
+ * @param <T>
+ */
+public final class BulkResult<T> {
+
+    private final Map<String, T> values;
+    private final Map<String, AllocineException> failures;
+
+    BulkResult(final Map<String, T> values, final Map<String, AllocineException> failures) {
+        this.values = Collections.unmodifiableMap(values);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Get the values, in the order of the codes
+     *
+     * @return
+     */
+    public Map<String, T> getValues() {
+        return values;
+    }
+
+    /**
+     * Get the value of a code
+     *
+     * @param code
+     * @return the value, or null if the lookup failed
+     */
+    public T get(final String code) {
+        return values.get(code);
+    }
+
+    /**
+     * Get the errors, in the order of the codes
+     *
+     * @return
+     */
+    public Map<String, AllocineException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Check whether all the lookups succeeded
+     *
+     * @return
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
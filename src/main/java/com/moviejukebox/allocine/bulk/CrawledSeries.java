@@ -0,0 +1,96 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.bulk;
+
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.model.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A TV series with its seasons and episodes, read by a {@link SeriesCrawler}
+ */
+public final class CrawledSeries {
+
+    private final TvSeriesInfos series;
+    private final List<TvSeasonInfos> seasons;
+    private final List<EpisodeInfos> episodes;
+    private final Map<String, AllocineException> failures;
+
+    CrawledSeries(final TvSeriesInfos series, final List<TvSeasonInfos> seasons, final List<EpisodeInfos> episodes,
+            final Map<String, AllocineException> failures) {
+        this.series = series;
+        this.seasons = Collections.unmodifiableList(seasons);
+        this.episodes = Collections.unmodifiableList(episodes);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    public TvSeriesInfos getSeries() {
+        return series;
+    }
+
+    /**
+     * Get the seasons read, in the order of the series
+     *
+     * @return
+     */
+    public List<TvSeasonInfos> getSeasons() {
+        return seasons;
+    }
+
+    /**
+     * Get the episodes read, in the order of the seasons, or an empty list if
+     * the episodes were not crawled
+     *
+     * @return
+     */
+    public List<EpisodeInfos> getEpisodes() {
+        return episodes;
+    }
+
+    /**
+     * Get the errors of the seasons and episodes that could not be read, by
+     * code
+     *
+     * @return
+     */
+    public Map<String, AllocineException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Check whether all the seasons and episodes were read
+     *
+     * @return
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.bulk;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Threads running the lookups of the bulk helpers.
+ *
+ * A virtual thread costs little while it waits for a response, so thousands
+ * of lookups can be run at the same time with the blocking API. The virtual
+ * threads need Java 21, on an older runtime the platform threads are used.
+ */
+public enum ExecutionMode {
+
+    /**
+     * One platform thread per parallel lookup
+     */
+    PLATFORM_THREADS,
+    /**
+     * A new virtual thread for each lookup, the ones over the number of
+     * parallel lookups waiting for a permit
+     */
+    VIRTUAL_THREADS;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionMode.class);
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+    private static final Method THREAD_PER_TASK_EXECUTOR = getThreadPerTaskExecutor();
+
+    /**
+     * Check whether the runtime supports this mode
+     *
+     * @return
+     */
+    public boolean isAvailable() {
+        return this == PLATFORM_THREADS || (VIRTUAL_THREAD_FACTORY != null && THREAD_PER_TASK_EXECUTOR != null);
+    }
+
+    /**
+     * Create an executor running at most the given number of tasks at the
+     * same time
+     *
+     * @param threads
+     * @return
+     */
+    public ExecutorService newExecutor(final int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive");
+        }
+        if (this == VIRTUAL_THREADS) {
+            if (isAvailable()) {
+                // a pool would reuse a few virtual threads, a permit caps them instead
+                return new LimitedExecutorService(newThreadPerTaskExecutor(), threads);
+            }
+            LOG.warn("Virtual threads need Java 21, using platform threads");
+        }
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) THREAD_PER_TASK_EXECUTOR.invoke(null, VIRTUAL_THREAD_FACTORY);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create the virtual thread executor", ex);
+        }
+    }
+
+    /**
+     * Get Executors.newThreadPerTaskExecutor without depending on Java 21
+     *
+     * @return the method, or null if the runtime has no virtual threads
+     */
+    private static Method getThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (NoSuchMethodException ex) {
+            LOG.trace("Thread per task executor not available", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Get the factory of Thread.ofVirtual() without depending on Java 21
+     *
+     * @return the factory, or null if the runtime has no virtual threads
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            final Object named = builderClass.getMethod("name", String.class, long.class).invoke(builder, "allocine-", 0L);
+            final Method factory = builderClass.getMethod("factory");
+            return (ThreadFactory) factory.invoke(named);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            LOG.trace("Virtual threads not available", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Executor running each task on its own thread once it got a permit, so
+     * that at most the number of permits run at the same time
+     */
+    private static final class LimitedExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        LimitedExecutorService(final ExecutorService delegate, final int permits) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(permits);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            delegate.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException ex) {
+                        // shut down before the task started
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
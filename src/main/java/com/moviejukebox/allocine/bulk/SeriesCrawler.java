@@ -0,0 +1,131 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.bulk;
+
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.model.*;
+import java.util.*;
+
+/**
+ * Read TV series with all their seasons, and optionally all their episodes.
+ *
+ * The crawl goes one level at a time: the series, then the seasons of all
+ * the series, then the episodes of all the seasons, each level read in
+ * parallel by the {@link BulkLookup}.
+ */
+public class SeriesCrawler {
+
+    private final BulkLookup lookup;
+    private final boolean withEpisodes;
+
+    /**
+     * Create the crawler
+     *
+     * @param lookup the lookup reading the series
+     * @param withEpisodes whether the episodes are read too
+     */
+    public SeriesCrawler(final BulkLookup lookup, final boolean withEpisodes) {
+        this.lookup = lookup;
+        this.withEpisodes = withEpisodes;
+    }
+
+    /**
+     * Crawl a series
+     *
+     * @param code the code of the series
+     * @return
+     * @throws AllocineException if the series could not be read
+     */
+    public CrawledSeries crawl(final String code) throws AllocineException {
+        final BulkResult<CrawledSeries> result = crawlAll(Collections.singleton(code));
+        if (!result.isComplete()) {
+            throw result.getFailures().get(code);
+        }
+        return result.get(code);
+    }
+
+    /**
+     * Crawl many series
+     *
+     * @param codes the codes of the series
+     * @return the series by code, the failures are the series that could not
+     * be read
+     */
+    public BulkResult<CrawledSeries> crawlAll(final Collection<String> codes) {
+        final BulkResult<TvSeriesInfos> series = lookup.getTvSeriesInfos(codes);
+
+        final Set<String> seasonCodes = new LinkedHashSet<>();
+        for (TvSeriesInfos infos : series.getValues().values()) {
+            for (Season season : infos.getSeasonList()) {
+                seasonCodes.add(String.valueOf(season.getCode()));
+            }
+        }
+        final BulkResult<TvSeasonInfos> seasons = lookup.getTvSeasonInfos(seasonCodes);
+
+        BulkResult<EpisodeInfos> episodes = null;
+        if (withEpisodes) {
+            final Set<String> episodeCodes = new LinkedHashSet<>();
+            for (TvSeasonInfos infos : seasons.getValues().values()) {
+                for (Episode episode : infos.getEpisodeList()) {
+                    episodeCodes.add(String.valueOf(episode.getCode()));
+                }
+            }
+            episodes = lookup.getEpisodeInfos(episodeCodes);
+        }
+
+        final Map<String, CrawledSeries> values = new LinkedHashMap<>();
+        for (Map.Entry<String, TvSeriesInfos> entry : series.getValues().entrySet()) {
+            values.put(entry.getKey(), assemble(entry.getValue(), seasons, episodes));
+        }
+        return new BulkResult<>(values, new LinkedHashMap<>(series.getFailures()));
+    }
+
+    private static CrawledSeries assemble(final TvSeriesInfos infos, final BulkResult<TvSeasonInfos> seasons,
+            final BulkResult<EpisodeInfos> episodes) {
+        final List<TvSeasonInfos> seriesSeasons = new ArrayList<>();
+        final List<EpisodeInfos> seriesEpisodes = new ArrayList<>();
+        final Map<String, AllocineException> failures = new LinkedHashMap<>();
+
+        for (Season season : infos.getSeasonList()) {
+            final String seasonCode = String.valueOf(season.getCode());
+            final TvSeasonInfos seasonInfos = seasons.get(seasonCode);
+            if (seasonInfos == null) {
+                failures.put(seasonCode, seasons.getFailures().get(seasonCode));
+                continue;
+            }
+            seriesSeasons.add(seasonInfos);
+            if (episodes == null) {
+                continue;
+            }
+            for (Episode episode : seasonInfos.getEpisodeList()) {
+                final String episodeCode = String.valueOf(episode.getCode());
+                final EpisodeInfos episodeInfos = episodes.get(episodeCode);
+                if (episodeInfos == null) {
+                    failures.put(episodeCode, episodes.getFailures().get(episodeCode));
+                } else {
+                    seriesEpisodes.add(episodeInfos);
+                }
+            }
+        }
+        return new CrawledSeries(infos, seriesSeasons, seriesEpisodes, failures);
+    }
+}
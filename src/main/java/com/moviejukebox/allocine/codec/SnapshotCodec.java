@@ -0,0 +1,1347 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.codec;
+
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.model.media.MediaBasic;
+import com.moviejukebox.allocine.model.media.MediaPicture;
+import com.moviejukebox.allocine.model.media.MediaVideo;
+import com.moviejukebox.allocine.model.media.MediaVideoPerson;
+import com.moviejukebox.allocine.model.wrapper.ChannelWrapper;
+import com.moviejukebox.allocine.tools.CodeNameDictionary;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Compact binary snapshots of the model, for caching.
+ *
+ * A snapshot starts with a magic number, the format version and the kind of
+ * root object. Numbers are written as varints and repeated names (genres,
+ * nationalities, activities...) go through a per-snapshot dictionary.
+ *
+ * The code / name values read can be shared through a
+ * {@link CodeNameDictionary}.
+ *
+ * Snapshots hold the whole model, the editorial sub-trees (news, features,
+ * trivia and reviews) included. Encoding decodes the sub-trees of a movie or
+ * a TV series that are still held as JSON tokens.
+ */
+public final class SnapshotCodec {
+
+    /**
+     * Current format version, increase it when the layout changes
+     */
+    public static final int FORMAT_VERSION = 2;
+    // first version with the editorial sub-trees and the person media
+    private static final int VERSION_EDITORIAL = 2;
+
+    private static final int MAGIC_1 = 0xA1;
+    private static final int MAGIC_2 = 0x0C;
+    // Root kinds
+    private static final int KIND_MOVIE = 1;
+    private static final int KIND_TVSERIES = 2;
+    private static final int KIND_PERSON = 3;
+    private static final int KIND_FILMOGRAPHY = 4;
+    private static final int KIND_SEARCH = 5;
+    // Media kinds
+    private static final int MEDIA_BASIC = 0;
+    private static final int MEDIA_PICTURE = 1;
+    private static final int MEDIA_VIDEO = 2;
+    private static final int MEDIA_VIDEO_PERSON = 3;
+    // Statistic value types
+    private static final int STAT_NULL = 0;
+    private static final int STAT_INTEGER = 1;
+    private static final int STAT_LONG = 2;
+    private static final int STAT_DOUBLE = 3;
+    private static final int STAT_BOOLEAN = 4;
+    private static final int STAT_STRING = 5;
+
+    private static final String CASTING_SEPARATOR = ",";
+
+    private final CodeNameDictionary dictionary;
+
+    public SnapshotCodec() {
+        this(null);
+    }
+
+    /**
+     * Create a codec sharing the code / name values it reads
+     *
+     * @param dictionary the dictionary to use, or null to not share values
+     */
+    public SnapshotCodec(final CodeNameDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public byte[] encode(MovieInfos infos) {
+        final SnapshotOutput out = createOutput(KIND_MOVIE);
+        if (out.writePresence(infos.getMovie())) {
+            writeMovie(out, infos.getMovie());
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] encode(TvSeriesInfos infos) {
+        final SnapshotOutput out = createOutput(KIND_TVSERIES);
+        if (out.writePresence(infos.getTvSeries())) {
+            writeTvSeries(out, infos.getTvSeries());
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] encode(PersonInfos infos) {
+        final SnapshotOutput out = createOutput(KIND_PERSON);
+        if (out.writePresence(infos.getPerson())) {
+            writePerson(out, infos.getPerson());
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] encode(FilmographyInfos infos) {
+        final SnapshotOutput out = createOutput(KIND_FILMOGRAPHY);
+        if (out.writePresence(infos.getPerson())) {
+            writePerson(out, infos.getPerson());
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] encode(Search search) {
+        final SnapshotOutput out = createOutput(KIND_SEARCH);
+        if (out.writePresence(search.getFeed())) {
+            writeFeed(out, search.getFeed());
+        }
+        return out.toByteArray();
+    }
+
+    public MovieInfos decodeMovieInfos(byte[] snapshot) throws IOException {
+        final SnapshotInput in = createInput(snapshot, KIND_MOVIE);
+        final MovieInfos infos = new MovieInfos();
+        if (in.readPresence()) {
+            infos.setMovie(readMovie(in));
+        }
+        return finish(in, infos);
+    }
+
+    public TvSeriesInfos decodeTvSeriesInfos(byte[] snapshot) throws IOException {
+        final SnapshotInput in = createInput(snapshot, KIND_TVSERIES);
+        final TvSeriesInfos infos = new TvSeriesInfos();
+        if (in.readPresence()) {
+            infos.setTvSeries(readTvSeries(in));
+        }
+        return finish(in, infos);
+    }
+
+    public PersonInfos decodePersonInfos(byte[] snapshot) throws IOException {
+        final SnapshotInput in = createInput(snapshot, KIND_PERSON);
+        final PersonInfos infos = new PersonInfos();
+        if (in.readPresence()) {
+            infos.setPerson(readPerson(in));
+        }
+        return finish(in, infos);
+    }
+
+    public FilmographyInfos decodeFilmographyInfos(byte[] snapshot) throws IOException {
+        final SnapshotInput in = createInput(snapshot, KIND_FILMOGRAPHY);
+        final FilmographyInfos infos = new FilmographyInfos();
+        if (in.readPresence()) {
+            infos.setPerson(readPerson(in));
+        }
+        return finish(in, infos);
+    }
+
+    public Search decodeSearch(byte[] snapshot) throws IOException {
+        final SnapshotInput in = createInput(snapshot, KIND_SEARCH);
+        final Search search = new Search();
+        if (in.readPresence()) {
+            search.setFeed(readFeed(in));
+        }
+        return finish(in, search);
+    }
+
+    private static SnapshotOutput createOutput(int kind) {
+        final SnapshotOutput out = new SnapshotOutput();
+        out.writeByte(MAGIC_1);
+        out.writeByte(MAGIC_2);
+        out.writeVarLong(FORMAT_VERSION);
+        out.writeByte(kind);
+        return out;
+    }
+
+    private static SnapshotInput createInput(byte[] snapshot, int expectedKind) throws IOException {
+        final SnapshotInput in = new SnapshotInput(snapshot);
+        if (in.readByte() != MAGIC_1 || in.readByte() != MAGIC_2) {
+            throw new IOException("Not an Allocine snapshot");
+        }
+        final long version = in.readVarLong();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        in.setVersion((int) version);
+        final int kind = in.readByte();
+        if (kind != expectedKind) {
+            throw new IOException("Snapshot holds kind " + kind + ", expected " + expectedKind);
+        }
+        return in;
+    }
+
+    private static <T> T finish(SnapshotInput in, T value) throws IOException {
+        if (!in.isFinished()) {
+            throw new IOException("Trailing data after snapshot");
+        }
+        return value;
+    }
+
+    //<editor-fold defaultstate="collapsed" desc="Movie, series, seasons and episodes">
+    private void writeBase(SnapshotOutput out, AbstractBaseMapping base) {
+        out.writeInt(base.getCode());
+        out.writeString(base.getTitle());
+        out.writeString(base.getOriginalTitle());
+        out.writeString(base.getSynopsis());
+        out.writeString(base.getSynopsisShort());
+        writeCodeNames(out, base.getNationality());
+        writeCodeNames(out, base.getGenre());
+        if (out.writeSize(base.getCastMember())) {
+            for (CastMember member : base.getCastMember()) {
+                writeCastMember(out, member);
+            }
+        }
+        writeStatistics(out, base.getStatistics());
+        if (out.writeSize(base.getMedia())) {
+            for (MediaBasic medium : base.getMedia()) {
+                writeMedia(out, medium);
+            }
+        }
+        writeArtwork(out, base.getPoster());
+        if (out.writePresence(base.getRelease())) {
+            final Release release = base.getRelease();
+            out.writeString(release.getReleaseDate());
+            writeCodeName(out, release.getCountry());
+            writeCodeName(out, release.getDistributor());
+            writeCodeName(out, release.getReleaseState());
+        }
+        out.writeBoolean(base.isDvd());
+        if (out.writePresence(base.getCastingShort())) {
+            final CastingShort casting = base.getCastingShort();
+            writeJoined(out, casting.getDirectors());
+            writeJoined(out, casting.getActors());
+            writeJoined(out, casting.getCreators());
+        }
+        writeLinks(out, base.getLinks());
+        writeCodeNames(out, base.getTags());
+        out.writeBoolean(base.isBroadcast());
+        writeBroadcast(out, base.getNextBroadcast());
+        writeNews(out, base.getNews());
+        writeNews(out, base.getFeatures());
+        if (out.writeSize(base.getTrivia())) {
+            for (Trivia trivia : base.getTrivia()) {
+                out.writeString(trivia.getBody());
+            }
+        }
+        writeReviews(out, base.getHelpfulPositiveReview());
+        writeReviews(out, base.getHelpfulNegativeReview());
+    }
+
+    private void readBase(SnapshotInput in, AbstractBaseMapping base) throws IOException {
+        base.setCode(in.readInt());
+        base.setTitle(in.readString());
+        base.setOriginalTitle(in.readString());
+        base.setSynopsis(in.readString());
+        base.setSynopsisShort(in.readString());
+        base.setNationality(readCodeNames(in, "AbstractBaseMapping.nationality"));
+        base.setGenre(readCodeNames(in, "AbstractBaseMapping.genre"));
+        int size = in.readSize();
+        if (size >= 0) {
+            final List<CastMember> members = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                members.add(readCastMember(in));
+            }
+            base.setCastMember(members);
+        } else {
+            base.setCastMember(null);
+        }
+        base.setStatistics(readStatistics(in));
+        size = in.readSize();
+        if (size >= 0) {
+            final List<MediaBasic> media = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                media.add(readMedia(in));
+            }
+            base.setMedia(media);
+        } else {
+            base.setMedia(null);
+        }
+        base.setPoster(readArtwork(in));
+        if (in.readPresence()) {
+            final Release release = new Release();
+            release.setReleaseDate(in.readString());
+            release.setCountry(readCodeName(in, "Release.country"));
+            release.setDistributor(readCodeName(in, "Release.distributor"));
+            release.setReleaseState(readCodeName(in, "Release.releaseState"));
+            base.setRelease(release);
+        }
+        base.setDvd(in.readBoolean());
+        if (in.readPresence()) {
+            final CastingShort casting = new CastingShort();
+            String joined = in.readString();
+            if (joined != null) {
+                casting.setDirectors(joined);
+            }
+            joined = in.readString();
+            if (joined != null) {
+                casting.setActors(joined);
+            }
+            joined = in.readString();
+            if (joined != null) {
+                casting.setCreators(joined);
+            }
+            base.setCastingShort(casting);
+        }
+        base.setLinks(readLinks(in));
+        base.setTags(readCodeNames(in, "AbstractBaseMapping.tag"));
+        base.setHasBroadcast(in.readBoolean());
+        final Broadcast next = readBroadcast(in);
+        if (next != null) {
+            final NextBroadcast wrapper = new NextBroadcast();
+            wrapper.setBroadcast(next);
+            base.setNextBroadcast(wrapper);
+        }
+        if (in.getVersion() >= VERSION_EDITORIAL) {
+            base.setNews(readNews(in));
+            base.setFeatures(readNews(in));
+            size = in.readSize();
+            if (size >= 0) {
+                final List<Trivia> trivias = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    final Trivia trivia = new Trivia();
+                    trivia.setBody(in.readString());
+                    trivias.add(trivia);
+                }
+                base.setTrivia(trivias);
+            }
+            base.setHelpfulPositiveReview(readReviews(in));
+            base.setHelpfulNegativeReview(readReviews(in));
+        }
+    }
+
+    private void writeMovie(SnapshotOutput out, Movie movie) {
+        writeBase(out, movie);
+        out.writeInt(movie.getProductionYear());
+        out.writeInt(movie.getRuntime());
+        writeTrailer(out, movie.getTrailer());
+        if (out.writePresence(movie.getMovieCertificate())) {
+            writeCodeName(out, movie.getMovieCertificate().getCertificate());
+        }
+        writeFestivalAwards(out, movie.getFestivalAwards());
+        writeCodeName(out, movie.getMovieType());
+        out.writeName(movie.getColor());
+        writeCodeNames(out, movie.getLanguages());
+        out.writeString(movie.getBudget());
+        out.writeBoolean(movie.isVod());
+        out.writeBoolean(movie.isBluray());
+        out.writeBoolean(movie.isShowtime());
+        out.writeString(movie.getDvdReleaseDate());
+        out.writeString(movie.getBluRayReleaseDate());
+        out.writeString(movie.getKeywords());
+        if (out.writeSize(movie.getBoxOffice())) {
+            for (BoxOffice boxOffice : movie.getBoxOffice()) {
+                writeBoxOffice(out, boxOffice);
+            }
+        }
+        if (out.writePresence(movie.getFormatList())) {
+            writeCodeNames(out, movie.getFormatList().getProductionFormat());
+            writeCodeNames(out, movie.getFormatList().getProjectionFormat());
+            writeCodeNames(out, movie.getFormatList().getSoundFormat());
+        }
+    }
+
+    private Movie readMovie(SnapshotInput in) throws IOException {
+        final Movie movie = new Movie();
+        readBase(in, movie);
+        movie.setProductionYear(in.readInt());
+        movie.setRuntime(in.readInt());
+        movie.setTrailer(readTrailer(in));
+        if (in.readPresence()) {
+            final MovieCertificate certificate = new MovieCertificate();
+            certificate.setCertificate(readCodeName(in, "MovieCertificate.certificate"));
+            movie.setMovieCertificate(certificate);
+        }
+        movie.setFestivalAwards(readFestivalAwards(in));
+        movie.setMovieType(readCodeName(in, "Movie.movieType"));
+        final String color = in.readName();
+        if (color != null) {
+            final CodeName colorName = new CodeName();
+            colorName.setName(color);
+            movie.setColor(colorName);
+        }
+        movie.setLanguages(readCodeNames(in, "Movie.language"));
+        movie.setBudget(in.readString());
+        movie.setVod(in.readBoolean());
+        movie.setBluray(in.readBoolean());
+        movie.setShowtime(in.readBoolean());
+        movie.setDvdReleaseDate(in.readString());
+        movie.setBluRayReleaseDate(in.readString());
+        movie.setKeywords(in.readString());
+        final int size = in.readSize();
+        if (size >= 0) {
+            final List<BoxOffice> boxOffices = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                boxOffices.add(readBoxOffice(in));
+            }
+            movie.setBoxOffice(boxOffices);
+        }
+        if (in.readPresence()) {
+            final FormatList formatList = new FormatList();
+            formatList.setProductionFormat(readCodeNames(in, "FormatList.productionFormat"));
+            formatList.setProjectionFormat(readCodeNames(in, "FormatList.projectionFormat"));
+            formatList.setSoundFormat(readCodeNames(in, "FormatList.soundFormat"));
+            movie.setFormatList(formatList);
+        }
+        return movie;
+    }
+
+    private void writeTvSeries(SnapshotOutput out, TvSeries tvSeries) {
+        writeBase(out, tvSeries);
+        out.writeInt(tvSeries.getYearStart());
+        out.writeInt(tvSeries.getYearEnd());
+        if (out.writePresence(tvSeries.getOriginalChannel())) {
+            writeChannel(out, tvSeries.getOriginalChannel().getChannel());
+        }
+        out.writeInt(tvSeries.getSeasonCount());
+        if (out.writeSize(tvSeries.getSeasonList())) {
+            for (Season season : tvSeries.getSeasonList()) {
+                writeSeason(out, season);
+            }
+        }
+        writeFestivalAwards(out, tvSeries.getFestivalAwards());
+        writeCodeName(out, tvSeries.getSeriesType());
+        out.writeString(tvSeries.getKeywords());
+        out.writeString(tvSeries.getOriginalBroadcast());
+        out.writeInt(tvSeries.getFormatTime());
+        writeCodeName(out, tvSeries.getProductionStatus());
+        writeBroadcasts(out, tvSeries.getBroadcast());
+        out.writeInt(tvSeries.getLastSeasonNumber());
+        out.writeInt(tvSeries.getEpisodeCount());
+        writeArtwork(out, tvSeries.getTopBanner());
+        out.writeString(tvSeries.getName());
+    }
+
+    private TvSeries readTvSeries(SnapshotInput in) throws IOException {
+        final TvSeries tvSeries = new TvSeries();
+        readBase(in, tvSeries);
+        tvSeries.setYearStart(in.readInt());
+        tvSeries.setYearEnd(in.readInt());
+        if (in.readPresence()) {
+            final OriginalChannel originalChannel = new OriginalChannel();
+            originalChannel.setChannel(readChannel(in));
+            tvSeries.setOriginalChannel(originalChannel);
+        }
+        tvSeries.setSeasonCount(in.readInt());
+        final int size = in.readSize();
+        if (size >= 0) {
+            final List<Season> seasons = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                seasons.add(readSeason(in));
+            }
+            tvSeries.setSeasonList(seasons);
+        } else {
+            tvSeries.setSeasonList(null);
+        }
+        tvSeries.setFestivalAwards(readFestivalAwards(in));
+        tvSeries.setSeriesType(readCodeName(in, "TvSeries.seriesType"));
+        tvSeries.setKeywords(in.readString());
+        final String originalBroadcast = in.readString();
+        if (originalBroadcast != null) {
+            final AllocineDate date = new AllocineDate();
+            date.setDateStart(originalBroadcast);
+            tvSeries.setOriginalBroadcast(date);
+        }
+        tvSeries.setFormatTime(in.readInt());
+        tvSeries.setProductionStatus(readCodeName(in, "TvSeries.productionStatus"));
+        tvSeries.setBroadcast(readBroadcasts(in));
+        tvSeries.setLastSeasonNumber(in.readInt());
+        tvSeries.setEpisodeCount(in.readInt());
+        tvSeries.setTopBanner(readArtwork(in));
+        tvSeries.setName(in.readString());
+        return tvSeries;
+    }
+
+    private void writeSeason(SnapshotOutput out, Season season) {
+        writeBase(out, season);
+        out.writeInt(season.getSeasonNumber());
+        out.writeInt(season.getYearStart());
+        out.writeInt(season.getYearEnd());
+        out.writeInt(season.getEpisodeCount());
+        if (out.writeSize(season.getEpisodeList())) {
+            for (Episode episode : season.getEpisodeList()) {
+                writeEpisode(out, episode);
+            }
+        }
+        writeCodeName(out, season.getProductionStatus());
+        out.writeBoolean(season.isLocalBroadcast());
+        writeChannel(out, season.getOriginalChannel());
+        writeArtwork(out, season.getPicture());
+        out.writeBoolean(season.isBluRay());
+        writeBroadcasts(out, season.getBroadcast());
+        writeLinks(out, season.getLink());
+    }
+
+    private Season readSeason(SnapshotInput in) throws IOException {
+        final Season season = new Season();
+        readBase(in, season);
+        season.setSeasonNumber(in.readInt());
+        season.setYearStart(in.readInt());
+        season.setYearEnd(in.readInt());
+        season.setEpisodeCount(in.readInt());
+        final int size = in.readSize();
+        if (size >= 0) {
+            final List<Episode> episodes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                episodes.add(readEpisode(in));
+            }
+            season.setEpisodeList(episodes);
+        } else {
+            season.setEpisodeList(null);
+        }
+        season.setProductionStatus(readCodeName(in, "Season.productionStatus"));
+        season.setLocalBroadcast(in.readBoolean());
+        season.setOriginalChannel(readChannel(in));
+        season.setPicture(readArtwork(in));
+        season.setBluRay(in.readBoolean());
+        season.setBroadcast(readBroadcasts(in));
+        season.setLink(readLinks(in));
+        return season;
+    }
+
+    private void writeEpisode(SnapshotOutput out, Episode episode) {
+        writeBase(out, episode);
+        out.writeString(episode.getOriginalBroadcastDate());
+        out.writeInt(episode.getEpisodeNumberSeries());
+        out.writeInt(episode.getEpisodeNumberSeason());
+        writeCodeName(out, episode.getParentSeries());
+        writeCodeName(out, episode.getParentSeason());
+        writeArtwork(out, episode.getPicture());
+        writeBroadcasts(out, episode.getBroadcast());
+        writeTrailer(out, episode.getTrailer());
+        writeLinks(out, episode.getLink());
+    }
+
+    private Episode readEpisode(SnapshotInput in) throws IOException {
+        final Episode episode = new Episode();
+        readBase(in, episode);
+        episode.setOriginalBroadcastDate(in.readString());
+        episode.setEpisodeNumberSeries(in.readInt());
+        episode.setEpisodeNumberSeason(in.readInt());
+        episode.setParentSeries(readCodeName(in, "Episode.parentSeries"));
+        episode.setParentSeason(readCodeName(in, "Episode.parentSeason"));
+        episode.setPicture(readArtwork(in));
+        episode.setBroadcast(readBroadcasts(in));
+        episode.setTrailer(readTrailer(in));
+        episode.setLink(readLinks(in));
+        return episode;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Persons">
+    private void writePerson(SnapshotOutput out, Person person) {
+        out.writeInt(person.getCode());
+        if (out.writePresence(person.getPersonName())) {
+            out.writeString(person.getPersonName().getGiven());
+            out.writeString(person.getPersonName().getFamily());
+        }
+        out.writeString(person.getRealName());
+        out.writeInt(person.getGender());
+        out.writeString(person.getBiographyShort());
+        out.writeString(person.getBiography());
+        out.writeString(person.getBirthDate());
+        out.writeString(person.getBirthPlace());
+        out.writeString(person.getDeathDate());
+        out.writeString(person.getDeathPlace());
+        writeArtwork(out, person.getPicture());
+        if (out.writeSize(person.getParticipations())) {
+            for (Participation participation : person.getParticipations()) {
+                if (out.writePresence(participation.getMovie())) {
+                    writeMovie(out, participation.getMovie());
+                }
+                if (out.writePresence(participation.getTvSeries())) {
+                    writeTvSeries(out, participation.getTvSeries());
+                }
+                out.writeString(participation.getRole());
+                writeCodeName(out, participation.getActivity());
+            }
+        }
+        writeFestivalAwards(out, person.getFestivalAwards());
+        writeCodeNames(out, person.getNationality());
+        if (out.writeSize(person.getActivity())) {
+            for (Activity activity : person.getActivity()) {
+                writeCodeName(out, activity);
+            }
+        }
+        out.writeName(person.getActivityShort());
+        out.writeBoolean(person.isTopFilmography());
+        writeLinks(out, person.getLink());
+        writeStatistics(out, person.getStatistics());
+        if (out.writeSize(person.getMedia())) {
+            for (MediaBasic medium : person.getMedia()) {
+                writeMedia(out, medium);
+            }
+        }
+        writeNews(out, person.getNews());
+        writeNews(out, person.getFeatures());
+    }
+
+    private Person readPerson(SnapshotInput in) throws IOException {
+        final Person person = new Person();
+        person.setCode(in.readInt());
+        if (in.readPresence()) {
+            final PersonName name = new PersonName();
+            name.setGiven(in.readString());
+            name.setFamily(in.readString());
+            person.setPersonName(name);
+        }
+        person.setRealName(in.readString());
+        person.setGender(in.readInt());
+        person.setBiographyShort(in.readString());
+        person.setBiography(in.readString());
+        person.setBirthDate(in.readString());
+        person.setBirthPlace(in.readString());
+        person.setDeathDate(in.readString());
+        person.setDeathPlace(in.readString());
+        person.setPicture(readArtwork(in));
+        int size = in.readSize();
+        if (size >= 0) {
+            final List<Participation> participations = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final Participation participation = new Participation();
+                if (in.readPresence()) {
+                    participation.setMovie(readMovie(in));
+                }
+                if (in.readPresence()) {
+                    participation.setTvSeries(readTvSeries(in));
+                }
+                participation.setRole(in.readString());
+                participation.setActivity(readActivity(in, "Participation.activity"));
+                participations.add(participation);
+            }
+            person.setParticipations(participations);
+        } else {
+            person.setParticipations(null);
+        }
+        person.setFestivalAwards(readFestivalAwards(in));
+        person.setNationality(readCodeNames(in, "Person.nationality"));
+        size = in.readSize();
+        if (size >= 0) {
+            final List<Activity> activities = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                activities.add(readActivity(in, "Person.activity"));
+            }
+            person.setActivity(activities);
+        }
+        person.setActivityShort(in.readName());
+        person.setTopFilmography(in.readBoolean());
+        person.setLink(readLinks(in));
+        person.setStatistics(readStatistics(in));
+        if (in.getVersion() >= VERSION_EDITORIAL) {
+            size = in.readSize();
+            if (size >= 0) {
+                final List<MediaBasic> media = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    media.add(readMedia(in));
+                }
+                person.setMedia(media);
+            }
+            person.setNews(readNews(in));
+            person.setFeatures(readNews(in));
+        }
+        return person;
+    }
+
+    private void writeShortPerson(SnapshotOutput out, ShortPerson person) {
+        out.writeInt(person.getCode());
+        out.writeString(person.getName());
+        out.writeInt(person.getGender());
+        out.writeString(person.getBirthDate());
+        writeCodeNames(out, person.getActivity());
+        writeCodeNames(out, person.getNationality());
+        writeArtwork(out, person.getPicture());
+        writeLinks(out, person.getLink());
+    }
+
+    private ShortPerson readShortPerson(SnapshotInput in) throws IOException {
+        final ShortPerson person = new ShortPerson();
+        person.setCode(in.readInt());
+        person.setName(in.readString());
+        person.setGender(in.readInt());
+        person.setBirthDate(in.readString());
+        person.setActivity(readCodeNames(in, "ShortPerson.activity"));
+        person.setNationality(readCodeNames(in, "ShortPerson.nationality"));
+        person.setPicture(readArtwork(in));
+        person.setLink(readLinks(in));
+        return person;
+    }
+
+    private void writeCastMember(SnapshotOutput out, CastMember member) {
+        if (out.writePresence(member.getShortPerson())) {
+            writeShortPerson(out, member.getShortPerson());
+        }
+        writeCodeName(out, member.getActivity());
+        writeArtwork(out, member.getPicture());
+        out.writeString(member.getRole());
+        out.writeBoolean(member.isLeadActor());
+    }
+
+    private CastMember readCastMember(SnapshotInput in) throws IOException {
+        final CastMember member = new CastMember();
+        if (in.readPresence()) {
+            member.setShortPerson(readShortPerson(in));
+        }
+        member.setActivity(readActivity(in, "CastMember.activity"));
+        member.setPicture(readArtwork(in));
+        member.setRole(in.readString());
+        member.setLeadActor(in.readBoolean());
+        return member;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Search">
+    private void writeFeed(SnapshotOutput out, Feed feed) {
+        out.writeInt(feed.getPage());
+        out.writeInt(feed.getCount());
+        out.writeLong(feed.getTotalResults());
+        if (out.writeSize(feed.getMovies())) {
+            for (Movie movie : feed.getMovies()) {
+                writeMovie(out, movie);
+            }
+        }
+        if (out.writeSize(feed.getTvSeries())) {
+            for (TvSeries tvSeries : feed.getTvSeries()) {
+                writeTvSeries(out, tvSeries);
+            }
+        }
+        if (out.writeSize(feed.getPersons())) {
+            for (ShortPerson person : feed.getPersons()) {
+                writeShortPerson(out, person);
+            }
+        }
+        if (out.writeSize(feed.getResults())) {
+            for (TypeValue result : feed.getResults()) {
+                out.writeName(result.getType());
+                out.writeString(result.getValue());
+            }
+        }
+    }
+
+    private Feed readFeed(SnapshotInput in) throws IOException {
+        final Feed feed = new Feed();
+        feed.setPage(in.readInt());
+        feed.setCount(in.readInt());
+        feed.setTotalResults(in.readLong());
+        int size = in.readSize();
+        if (size >= 0) {
+            final List<Movie> movies = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                movies.add(readMovie(in));
+            }
+            feed.setMovies(movies);
+        } else {
+            feed.setMovies(null);
+        }
+        size = in.readSize();
+        if (size >= 0) {
+            final List<TvSeries> tvSeries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                tvSeries.add(readTvSeries(in));
+            }
+            feed.setTvSeries(tvSeries);
+        } else {
+            feed.setTvSeries(null);
+        }
+        size = in.readSize();
+        if (size >= 0) {
+            final List<ShortPerson> persons = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                persons.add(readShortPerson(in));
+            }
+            feed.setPersons(persons);
+        } else {
+            feed.setPersons(null);
+        }
+        size = in.readSize();
+        if (size >= 0) {
+            final List<TypeValue> results = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final TypeValue result = new TypeValue();
+                result.setType(in.readName());
+                result.setValue(in.readString());
+                results.add(result);
+            }
+            feed.setResults(results);
+        }
+        return feed;
+    }
+    //</editor-fold>
+
+    //<editor-fold defaultstate="collapsed" desc="Shared values">
+    private static void writeCodeName(SnapshotOutput out, CodeName codeName) {
+        if (out.writePresence(codeName)) {
+            out.writeInt(codeName.getCode());
+            out.writeName(codeName.getName());
+        }
+    }
+
+    private CodeName readCodeName(SnapshotInput in, String kind) throws IOException {
+        if (!in.readPresence()) {
+            return null;
+        }
+        final CodeName codeName = new CodeName();
+        codeName.setCode(in.readInt());
+        codeName.setName(in.readName());
+        return dictionary == null ? codeName : dictionary.intern(kind, codeName);
+    }
+
+    private Activity readActivity(SnapshotInput in, String kind) throws IOException {
+        if (!in.readPresence()) {
+            return null;
+        }
+        final Activity activity = new Activity();
+        activity.setCode(in.readInt());
+        activity.setName(in.readName());
+        return dictionary == null ? activity : dictionary.intern(kind, activity);
+    }
+
+    private static void writeCodeNames(SnapshotOutput out, List<CodeName> codeNames) {
+        if (out.writeSize(codeNames)) {
+            for (CodeName codeName : codeNames) {
+                writeCodeName(out, codeName);
+            }
+        }
+    }
+
+    private List<CodeName> readCodeNames(SnapshotInput in, String kind) throws IOException {
+        final int size = in.readSize();
+        if (size < 0) {
+            return null;
+        }
+        final List<CodeName> codeNames = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            codeNames.add(readCodeName(in, kind));
+        }
+        return codeNames;
+    }
+
+    private static void writeJoined(SnapshotOutput out, List<String> values) {
+        out.writeString(values == null ? null : StringUtils.join(values, CASTING_SEPARATOR));
+    }
+
+    private static void writeLink(SnapshotOutput out, Link link) {
+        out.writeName(link.getRel());
+        out.writeString(link.getName());
+        out.writeString(link.getHref());
+    }
+
+    private void readLink(SnapshotInput in, Link link) throws IOException {
+        link.setRel(in.readName());
+        link.setName(in.readString());
+        link.setHref(in.readString());
+    }
+
+    private static void writeLinks(SnapshotOutput out, List<Link> links) {
+        if (out.writeSize(links)) {
+            for (Link link : links) {
+                writeLink(out, link);
+            }
+        }
+    }
+
+    private List<Link> readLinks(SnapshotInput in) throws IOException {
+        final int size = in.readSize();
+        if (size < 0) {
+            return null;
+        }
+        final List<Link> links = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Link link = new Link();
+            readLink(in, link);
+            links.add(link);
+        }
+        return links;
+    }
+
+    private static void writeArtwork(SnapshotOutput out, Artwork artwork) {
+        if (out.writePresence(artwork)) {
+            writeLink(out, artwork);
+            out.writeString(artwork.getPath());
+        }
+    }
+
+    private Artwork readArtwork(SnapshotInput in) throws IOException {
+        if (!in.readPresence()) {
+            return null;
+        }
+        final Artwork artwork = new Artwork();
+        readLink(in, artwork);
+        artwork.setPath(in.readString());
+        return artwork;
+    }
+
+    private static void writeTrailer(SnapshotOutput out, Trailer trailer) {
+        if (out.writePresence(trailer)) {
+            out.writeString(trailer.getName());
+            out.writeInt(trailer.getCode());
+            out.writeString(trailer.getHref());
+        }
+    }
+
+    private Trailer readTrailer(SnapshotInput in) throws IOException {
+        if (!in.readPresence()) {
+            return null;
+        }
+        final Trailer trailer = new Trailer();
+        trailer.setName(in.readString());
+        trailer.setCode(in.readInt());
+        trailer.setHref(in.readString());
+        return trailer;
+    }
+
+    private static void writeStatistics(SnapshotOutput out, Statistics statistics) {
+        if (!out.writePresence(statistics)) {
+            return;
+        }
+        out.writeVarLong(statistics.getStatisticNames().size());
+        for (String name : statistics.getStatisticNames()) {
+            out.writeName(name);
+            final Object value = statistics.getStatistic(name);
+            if (value == null) {
+                out.writeByte(STAT_NULL);
+            } else if (value instanceof Integer) {
+                out.writeByte(STAT_INTEGER);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(STAT_LONG);
+                out.writeLong(((Long) value).longValue());
+            } else if (value instanceof Number) {
+                out.writeByte(STAT_DOUBLE);
+                out.writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                out.writeByte(STAT_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else {
+                out.writeByte(STAT_STRING);
+                out.writeString(value.toString());
+            }
+        }
+        if (out.writeSize(statistics.getRatings())) {
+            for (Rating rating : statistics.getRatings()) {
+                out.writeFloat(rating.getNote());
+                out.writeLong(rating.getCount());
+            }
+        }
+    }
+
+    private Statistics readStatistics(SnapshotInput in) throws IOException {
+        if (!in.readPresence()) {
+            return null;
+        }
+        final Statistics statistics = new Statistics();
+        final long count = in.readVarLong();
+        for (long i = 0; i < count; i++) {
+            final String name = in.readName();
+            final int type = in.readByte();
+            switch (type) {
+                case STAT_NULL:
+                    statistics.addStat(name, null);
+                    break;
+                case STAT_INTEGER:
+                    statistics.addStat(name, in.readInt());
+                    break;
+                case STAT_LONG:
+                    statistics.addStat(name, in.readLong());
+                    break;
+                case STAT_DOUBLE:
+                    statistics.addStat(name, in.readDouble());
+                    break;
+                case STAT_BOOLEAN:
+                    statistics.addStat(name, in.readBoolean());
+                    break;
+                case STAT_STRING:
+                    statistics.addStat(name, in.readString());
+                    break;
+                default:
+                    throw new IOException("Unknown statistic type " + type);
+            }
+        }
+        final int size = in.readSize();
+        if (size >= 0) {
+            final List<Rating> ratings = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final Rating rating = new Rating();
+                rating.setNote(in.readFloat());
+                rating.setCount(in.readLong());
+                ratings.add(rating);
+            }
+            statistics.setRatings(ratings);
+        }
+        return statistics;
+    }
+
+    private static void writeMedia(SnapshotOutput out, MediaBasic medium) {
+        if (medium instanceof MediaPicture) {
+            out.writeByte(MEDIA_PICTURE);
+        } else if (medium instanceof MediaVideoPerson) {
+            out.writeByte(MEDIA_VIDEO_PERSON);
+        } else if (medium instanceof MediaVideo) {
+            out.writeByte(MEDIA_VIDEO);
+        } else {
+            out.writeByte(MEDIA_BASIC);
+        }
+        out.writeName(medium.getMediaClass());
+        out.writeLong(medium.getCode());
+        out.writeLong(medium.getRcode());
+        writeCodeName(out, medium.getMediaType());
+        out.writeString(medium.getTitle());
+        writeArtwork(out, medium.getThumbnail());
+        if (medium instanceof MediaPicture) {
+            final MediaPicture picture = (MediaPicture) medium;
+            out.writeString(picture.getDescription());
+            out.writeInt(picture.getWidth());
+            out.writeInt(picture.getHeight());
+            out.writeString(picture.getCopyrightHolder());
+        } else if (medium instanceof MediaVideo) {
+            final MediaVideo video = (MediaVideo) medium;
+            out.writeInt(video.getRuntime());
+            out.writeString(video.getTitleShort());
+        }
+        if (medium instanceof MediaVideoPerson) {
+            final List<PersonMedia> subjects = ((MediaVideoPerson) medium).getSubject();
+            out.writeVarLong(subjects.size());
+            for (PersonMedia subject : subjects) {
+                out.writeName(subject.getType());
+                out.writeInt(subject.getCode());
+                out.writeString(subject.getTitle());
+                writeArtwork(out, subject.getPoster());
+            }
+        }
+    }
+
+    private MediaBasic readMedia(SnapshotInput in) throws IOException {
+        final int kind = in.readByte();
+        final MediaBasic medium;
+        switch (kind) {
+            case MEDIA_PICTURE:
+                medium = new MediaPicture();
+                break;
+            case MEDIA_VIDEO:
+                medium = new MediaVideo();
+                break;
+            case MEDIA_VIDEO_PERSON:
+                medium = new MediaVideoPerson();
+                break;
+            case MEDIA_BASIC:
+                medium = new MediaBasic();
+                break;
+            default:
+                throw new IOException("Unknown media kind " + kind);
+        }
+        medium.setMediaClass(in.readName());
+        medium.setCode(in.readNullableLong());
+        medium.setRcode(in.readNullableLong());
+        medium.setMediaType(readCodeName(in, "MediaBasic.type"));
+        medium.setTitle(in.readString());
+        medium.setThumbnail(readArtwork(in));
+        if (medium instanceof MediaPicture) {
+            final MediaPicture picture = (MediaPicture) medium;
+            picture.setDescription(in.readString());
+            picture.setWidth(in.readInt());
+            picture.setHeight(in.readInt());
+            picture.setCopyrightHolder(in.readString());
+        } else if (medium instanceof MediaVideo) {
+            final MediaVideo video = (MediaVideo) medium;
+            video.setRuntime(in.readInt());
+            video.setTitleShort(in.readString());
+        }
+        if (medium instanceof MediaVideoPerson) {
+            final List<PersonMedia> subjects = ((MediaVideoPerson) medium).getSubject();
+            final long size = in.readVarLong();
+            for (long i = 0; i < size; i++) {
+                final PersonMedia subject = new PersonMedia();
+                subject.setType(in.readName());
+                subject.setCode(in.readInt());
+                subject.setTitle(in.readString());
+                subject.setPoster(readArtwork(in));
+                subjects.add(subject);
+            }
+        }
+        return medium;
+    }
+
+    private void writeNews(SnapshotOutput out, List<News> news) {
+        if (!out.writeSize(news)) {
+            return;
+        }
+        for (News item : news) {
+            out.writeString(item.getCode());
+            out.writeString(item.getTitle());
+            out.writeString(item.getPublication());
+            out.writeName(item.getDisplayMode());
+            out.writeLong(item.getPageCount() == null ? null : Long.valueOf(item.getPageCount()));
+            writeCodeNames(out, item.getCategory());
+            writeArtwork(out, item.getPicture());
+        }
+    }
+
+    private List<News> readNews(SnapshotInput in) throws IOException {
+        final int size = in.readSize();
+        if (size < 0) {
+            return null;
+        }
+        final List<News> news = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final News item = new News();
+            item.setCode(in.readString());
+            item.setTitle(in.readString());
+            final String publication = in.readString();
+            if (publication != null) {
+                final AllocineDate date = new AllocineDate();
+                date.setDateStart(publication);
+                item.setPublication(date);
+            }
+            final String displayMode = in.readName();
+            if (displayMode != null) {
+                final CodeName mode = new CodeName();
+                mode.setName(displayMode);
+                item.setDisplayMode(mode);
+            }
+            final Long pageCount = in.readNullableLong();
+            item.setPageCount(pageCount == null ? null : Integer.valueOf(pageCount.intValue()));
+            item.setCategory(readCodeNames(in, "News.category"));
+            item.setPicture(readArtwork(in));
+            news.add(item);
+        }
+        return news;
+    }
+
+    private static void writeReviews(SnapshotOutput out, List<Review> reviews) {
+        if (!out.writeSize(reviews)) {
+            return;
+        }
+        for (Review review : reviews) {
+            out.writeLong(review.getCode());
+            out.writeLong(review.getOpinion());
+            out.writeString(review.getCreationDate());
+            if (out.writePresence(review.getWriter())) {
+                out.writeString(review.getWriter().getCode());
+                out.writeString(review.getWriter().getName());
+                out.writeString(review.getWriter().getAvatar());
+            }
+            out.writeString(review.getBody());
+            out.writeFloat(review.getRating());
+        }
+    }
+
+    private static List<Review> readReviews(SnapshotInput in) throws IOException {
+        final int size = in.readSize();
+        if (size < 0) {
+            return null;
+        }
+        final List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Review review = new Review();
+            review.setCode(in.readNullableLong());
+            review.setOpinion(in.readNullableLong());
+            review.setCreationDate(in.readString());
+            if (in.readPresence()) {
+                final Writer writer = new Writer();
+                writer.setCode(in.readString());
+                writer.setName(in.readString());
+                writer.setAvatar(in.readString());
+                review.setWriter(writer);
+            }
+            review.setBody(in.readString());
+            review.setRating(in.readFloat());
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    private void writeFestivalAwards(SnapshotOutput out, List<FestivalAward> awards) {
+        if (!out.writeSize(awards)) {
+            return;
+        }
+        for (FestivalAward award : awards) {
+            writeCodeName(out, award.getParentFestival());
+            writeCodeName(out, award.getParentEdition());
+            out.writeName(award.getName());
+            out.writeInt(award.getCode());
+            writeCodeName(out, award.getAwardType());
+            writeCodeName(out, award.getSectionType());
+            final Movie entity = award.getEntities() == null ? null : award.getEntities().getMovie();
+            if (out.writePresence(entity)) {
+                writeMovie(out, entity);
+            }
+        }
+    }
+
+    private List<FestivalAward> readFestivalAwards(SnapshotInput in) throws IOException {
+        final int size = in.readSize();
+        if (size < 0) {
+            return null;
+        }
+        final List<FestivalAward> awards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final FestivalAward award = new FestivalAward();
+            award.setParentFestival(readCodeName(in, "FestivalAward.parentFestival"));
+            award.setParentEdition(readCodeName(in, "FestivalAward.parentEdition"));
+            award.setName(in.readName());
+            award.setCode(in.readInt());
+            award.setAwardType(readCodeName(in, "FestivalAward.awardType"));
+            award.setSectionType(readCodeName(in, "FestivalAward.sectionType"));
+            if (in.readPresence()) {
+                final Entity entity = new Entity();
+                entity.setMovie(readMovie(in));
+                award.setEntities(entity);
+            }
+            awards.add(award);
+        }
+        return awards;
+    }
+
+    private static void writeBoxOffice(SnapshotOutput out, BoxOffice boxOffice) {
+        writeCodeName(out, boxOffice.getType());
+        writeCodeName(out, boxOffice.getCountry());
+        out.writeString(boxOffice.getPeriodStart());
+        out.writeString(boxOffice.getPeriodEnd());
+        out.writeInt(boxOffice.getWeek());
+        out.writeLong(boxOffice.getAdmissionCount());
+        out.writeLong(boxOffice.getAdmissionCountTotal());
+        out.writeInt(boxOffice.getCopyCount());
+        out.writeLong(boxOffice.getGross());
+        out.writeLong(boxOffice.getGrossTotal());
+        writeCodeName(out, boxOffice.getCurrency());
+    }
+
+    private BoxOffice readBoxOffice(SnapshotInput in) throws IOException {
+        final BoxOffice boxOffice = new BoxOffice();
+        boxOffice.setType(readCodeName(in, "BoxOffice.type"));
+        boxOffice.setCountry(readCodeName(in, "BoxOffice.country"));
+        final AllocineDate period = new AllocineDate();
+        period.setDateStart(in.readString());
+        period.setDateEnd(in.readString());
+        boxOffice.setPeriod(period);
+        boxOffice.setWeek(in.readInt());
+        boxOffice.setAdmissionCount(in.readNullableLong());
+        boxOffice.setAdmissionCountTotal(in.readNullableLong());
+        boxOffice.setCopyCount(in.readInt());
+        boxOffice.setGross(in.readNullableLong());
+        boxOffice.setGrossTotal(in.readNullableLong());
+        boxOffice.setCurrency(readCodeName(in, "BoxOffice.currency"));
+        return boxOffice;
+    }
+
+    private static void writeChannel(SnapshotOutput out, Channel channel) {
+        if (out.writePresence(channel)) {
+            out.writeInt(channel.getCode());
+            out.writeName(channel.getName());
+            writeCodeName(out, channel.getCountry());
+            out.writeString(channel.getLogo());
+        }
+    }
+
+    private Channel readChannel(SnapshotInput in) throws IOException {
+        if (!in.readPresence()) {
+            return null;
+        }
+        final Channel channel = new Channel();
+        channel.setCode(in.readInt());
+        channel.setName(in.readName());
+        channel.setCountry(readCodeName(in, "Channel.country"));
+        final String logo = in.readString();
+        if (logo != null) {
+            final Link link = new Link();
+            link.setHref(logo);
+            channel.setLogo(link);
+        }
+        return channel;
+    }
+
+    private static void writeBroadcast(SnapshotOutput out, Broadcast broadcast) {
+        if (!out.writePresence(broadcast)) {
+            return;
+        }
+        writeCodeName(out, broadcast.getCountry());
+        writeCodeName(out, broadcast.getChannel());
+        out.writeBoolean(broadcast.isNewBroadcast());
+        out.writeString(broadcast.getDateTime());
+        out.writeInt(broadcast.getMultiVersion());
+        out.writeLong(broadcast.getCode());
+        writeArtwork(out, broadcast.getPicture());
+        out.writeName(broadcast.getCsaShortLabel());
+        out.writeName(broadcast.getCsaLongLabel());
+        out.writeBoolean(broadcast.isHd());
+        writeChannel(out, broadcast.getParentChannel());
+    }
+
+    private Broadcast readBroadcast(SnapshotInput in) throws IOException {
+        if (!in.readPresence()) {
+            return null;
+        }
+        final Broadcast broadcast = new Broadcast();
+        broadcast.setCountry(readCodeName(in, "Broadcast.country"));
+        broadcast.setChannel(readCodeName(in, "Broadcast.channel"));
+        broadcast.setNewBroadcast(in.readBoolean());
+        broadcast.setDateTime(in.readString());
+        broadcast.setMultiVersion(in.readInt());
+        broadcast.setCode(in.readNullableLong());
+        broadcast.setPicture(readArtwork(in));
+        broadcast.setCsaShortLabel(in.readName());
+        broadcast.setCsaLongLabel(in.readName());
+        broadcast.setHd(in.readBoolean());
+        final Channel parentChannel = readChannel(in);
+        if (parentChannel != null) {
+            final ChannelWrapper wrapper = new ChannelWrapper();
+            wrapper.setChannel(parentChannel);
+            broadcast.setParentChannel(wrapper);
+        }
+        return broadcast;
+    }
+
+    private static void writeBroadcasts(SnapshotOutput out, List<Broadcast> broadcasts) {
+        if (out.writeSize(broadcasts)) {
+            for (Broadcast broadcast : broadcasts) {
+                writeBroadcast(out, broadcast);
+            }
+        }
+    }
+
+    private List<Broadcast> readBroadcasts(SnapshotInput in) throws IOException {
+        final int size = in.readSize();
+        if (size < 0) {
+            return null;
+        }
+        final List<Broadcast> broadcasts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            broadcasts.add(readBroadcast(in));
+        }
+        return broadcasts;
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,172 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader for the values written by {@link SnapshotOutput}
+ */
+final class SnapshotInput {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int MAX_VARINT_SHIFT = 63;
+
+    private final byte[] data;
+    private int position;
+    private final List<String> dictionary = new ArrayList<>();
+    private int version;
+
+    SnapshotInput(byte[] data) {
+        this.data = data;
+        this.position = 0;
+    }
+
+    /**
+     * Get the format version of the snapshot
+     *
+     * @return
+     */
+    int getVersion() {
+        return version;
+    }
+
+    void setVersion(int version) {
+        this.version = version;
+    }
+
+    int readByte() throws IOException {
+        if (position >= data.length) {
+            throw new EOFException("Unexpected end of snapshot");
+        }
+        return data[position++] & 0xFF;
+    }
+
+    long readVarLong() throws IOException {
+        long result = 0;
+        int shift = 0;
+        int current;
+        do {
+            if (shift > MAX_VARINT_SHIFT) {
+                throw new IOException("Malformed varint at position " + position);
+            }
+            current = readByte();
+            result |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return result;
+    }
+
+    int readInt() throws IOException {
+        final int raw = (int) readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    long readLong() throws IOException {
+        final long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    float readFloat() throws IOException {
+        return Float.intBitsToFloat((int) readFixed(4));
+    }
+
+    double readDouble() throws IOException {
+        return Double.longBitsToDouble(readFixed(8));
+    }
+
+    private long readFixed(int bytes) throws IOException {
+        long bits = 0;
+        for (int i = 0; i < bytes; i++) {
+            bits |= (long) readByte() << (i * 8);
+        }
+        return bits;
+    }
+
+    Long readNullableLong() throws IOException {
+        if (readBoolean()) {
+            return readLong();
+        }
+        return null;
+    }
+
+    String readString() throws IOException {
+        final long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        final int bytes = (int) (length - 1);
+        if (bytes < 0 || bytes > data.length - position) {
+            throw new EOFException("String of " + bytes + " bytes exceeds the snapshot");
+        }
+        final String value = new String(data, position, bytes, UTF8);
+        position += bytes;
+        return value;
+    }
+
+    String readName() throws IOException {
+        final long reference = readVarLong();
+        if (reference == 0) {
+            return null;
+        }
+        if (reference == 1) {
+            final String value = readString();
+            dictionary.add(value);
+            return value;
+        }
+        final long index = reference - 2;
+        if (index >= dictionary.size()) {
+            throw new IOException("Unknown dictionary entry " + index);
+        }
+        return dictionary.get((int) index);
+    }
+
+    /**
+     * Read the size of a collection
+     *
+     * @return the size or -1 for a null collection
+     * @throws IOException
+     */
+    int readSize() throws IOException {
+        final long size = readVarLong();
+        if (size - 1 > data.length - position) {
+            throw new IOException("Collection size " + (size - 1) + " exceeds the snapshot");
+        }
+        return (int) (size - 1);
+    }
+
+    boolean readPresence() throws IOException {
+        return readBoolean();
+    }
+
+    boolean isFinished() {
+        return position == data.length;
+    }
+}
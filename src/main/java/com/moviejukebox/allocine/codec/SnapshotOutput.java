@@ -0,0 +1,183 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.codec;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Growable buffer for writing snapshot values.
+ *
+ * Integers are written as zig-zag varints and repeated names are replaced by
+ * a reference into a per-snapshot dictionary.
+ */
+final class SnapshotOutput {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int INITIAL_SIZE = 512;
+
+    private byte[] buffer = new byte[INITIAL_SIZE];
+    private int size = 0;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Write an unsigned value using 7 bits per byte
+     *
+     * @param value
+     */
+    void writeVarLong(long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        writeByte((int) remaining);
+    }
+
+    void writeInt(int value) {
+        writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    void writeLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    void writeFloat(float value) {
+        writeFixed(Float.floatToIntBits(value), 4);
+    }
+
+    void writeDouble(double value) {
+        writeFixed(Double.doubleToLongBits(value), 8);
+    }
+
+    private void writeFixed(long bits, int bytes) {
+        ensureCapacity(bytes);
+        for (int i = 0; i < bytes; i++) {
+            buffer[size++] = (byte) (bits >>> (i * 8));
+        }
+    }
+
+    /**
+     * Write a nullable long value
+     *
+     * @param value
+     */
+    void writeLong(Long value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value.longValue());
+        }
+    }
+
+    /**
+     * Write a nullable string, prefixed with its length plus one
+     *
+     * @param value
+     */
+    void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(UTF8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Write a nullable string that is likely to be repeated (genre,
+     * nationality, activity...)
+     *
+     * The first occurrence is written in full, later ones as a dictionary
+     * index.
+     *
+     * @param value
+     */
+    void writeName(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        final Integer index = dictionary.get(value);
+        if (index == null) {
+            dictionary.put(value, dictionary.size());
+            writeVarLong(1);
+            writeString(value);
+        } else {
+            writeVarLong(index + 2L);
+        }
+    }
+
+    /**
+     * Write the size of a collection, 0 for a null collection
+     *
+     * @param collection
+     * @return true if the collection has elements to write
+     */
+    boolean writeSize(Collection<?> collection) {
+        if (collection == null) {
+            writeVarLong(0);
+            return false;
+        }
+        writeVarLong(collection.size() + 1L);
+        return !collection.isEmpty();
+    }
+
+    /**
+     * Write the presence flag of an object
+     *
+     * @param value
+     * @return true if the object has to be written
+     */
+    boolean writePresence(Object value) {
+        writeBoolean(value != null);
+        return value != null;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DNS resolver keeping the addresses of the hosts for a time.
+ *
+ * If a host can't be resolved again once its addresses expired, the expired
+ * addresses are used rather than failing the request.
+ */
+public class CachingDnsResolver implements DnsResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingDnsResolver.class);
+
+    private final DnsResolver delegate;
+    private final long timeToLive;
+    private final ConcurrentMap<String, Resolved> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Create the resolver on top of the system resolver
+     *
+     * @param timeToLive the time in milliseconds the addresses are kept
+     */
+    public CachingDnsResolver(final long timeToLive) {
+        this(SystemDefaultDnsResolver.INSTANCE, timeToLive);
+    }
+
+    public CachingDnsResolver(final DnsResolver delegate, final long timeToLive) {
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public InetAddress[] resolve(final String host) throws UnknownHostException {
+        final long now = System.currentTimeMillis();
+        final Resolved resolved = cache.get(host);
+        if (resolved != null && now < resolved.expires) {
+            return resolved.addresses.clone();
+        }
+
+        final InetAddress[] addresses;
+        try {
+            addresses = delegate.resolve(host);
+        } catch (UnknownHostException ex) {
+            if (resolved == null) {
+                throw ex;
+            }
+            LOG.debug("Failed to resolve {}, using the expired addresses: {}", host, ex.getMessage());
+            return resolved.addresses.clone();
+        }
+        cache.put(host, new Resolved(addresses.clone(), now + timeToLive));
+        return addresses;
+    }
+
+    /**
+     * Forget the addresses of all the hosts
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private static final class Resolved {
+
+        private final InetAddress[] addresses;
+        private final long expires;
+
+        Resolved(final InetAddress[] addresses, final long expires) {
+            this.addresses = addresses;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Pool of the HTTP/1.1 connections of a blocking client
+ */
+final class ClassicConnectionPool implements ConnectionPool {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    ClassicConnectionPool(final PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public Map<String, PoolStats> getRouteStats() {
+        final Map<String, PoolStats> stats = new TreeMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            stats.put(route.toString(), connectionManager.getStats(route));
+        }
+        return stats;
+    }
+
+    @Override
+    public void closeIdleConnections() {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import java.util.Map;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Connection pool of a transport, whatever the HTTP client behind it
+ */
+interface ConnectionPool {
+
+    /**
+     * Get the usage of the whole pool
+     *
+     * @return the statistics
+     */
+    PoolStats getTotalStats();
+
+    /**
+     * Get the usage of the pool of each route
+     *
+     * @return the statistics by route
+     */
+    Map<String, PoolStats> getRouteStats();
+
+    /**
+     * Close the expired and idle connections
+     */
+    void closeIdleConnections();
+}
@@ -0,0 +1,348 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.routing.DefaultProxyRoutePlanner;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpExecutionAware;
+import org.apache.http.concurrent.Cancellable;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP client sending the requests of the API over HTTP/2, so that the
+ * parallel requests to a host are streams of one connection.
+ *
+ * The streams are sent by the HTTP/2 client of HttpClient 5, and each
+ * response is read in full before it is returned. When HTTP/2 is negotiated,
+ * the plain HTTP hosts and the hosts refusing HTTP/2 are sent the requests on
+ * the pooled HTTP/1.1 connections of the fallback client. The client needs
+ * the optional httpclient5 dependency.
+ */
+public class Http2HttpClient extends CloseableHttpClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Http2HttpClient.class);
+    private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade", "host", "te"));
+
+    private final CloseableHttpAsyncClient client;
+    private final CloseableHttpClient fallbackClient;
+    private final boolean negotiate;
+    private final Set<String> http1Hosts = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final AtomicLong http2Responses = new AtomicLong();
+    private final AtomicLong http1Responses = new AtomicLong();
+
+    private Http2HttpClient(final CloseableHttpAsyncClient client, final CloseableHttpClient fallbackClient, final boolean negotiate) {
+        this.client = client;
+        this.fallbackClient = fallbackClient;
+        this.negotiate = negotiate;
+    }
+
+    /**
+     * Create the client
+     *
+     * @param connectTimeout
+     * @param socketTimeout
+     * @param maxIdleTime
+     * @param dnsResolver the resolver of the hosts, or null
+     * @param proxy the proxy, or null
+     * @param fallbackClient the HTTP/1.1 client, closed with this client
+     * @param negotiate whether the hosts may use HTTP/1.1, otherwise all the
+     * requests are sent over HTTP/2
+     * @return
+     */
+    static Http2HttpClient create(final int connectTimeout, final int socketTimeout, final long maxIdleTime,
+            final CachingDnsResolver dnsResolver, final HttpHost proxy, final CloseableHttpClient fallbackClient,
+            final boolean negotiate) {
+        final H2AsyncClientBuilder builder = HttpAsyncClients.customHttp2()
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setSoTimeout(Timeout.ofMilliseconds(socketTimeout))
+                        .setSoKeepAlive(true)
+                        .setTcpNoDelay(true)
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                        .setResponseTimeout(socketTimeout, TimeUnit.MILLISECONDS)
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(maxIdleTime))
+                .disableAutomaticRetries();
+        if (dnsResolver != null) {
+            builder.setDnsResolver(new DnsResolverAdapter(dnsResolver));
+        }
+        if (proxy != null) {
+            builder.setRoutePlanner(new DefaultProxyRoutePlanner(
+                    new org.apache.hc.core5.http.HttpHost(proxy.getHostName(), proxy.getPort())));
+        }
+        final CloseableHttpAsyncClient client = builder.build();
+        client.start();
+        return new Http2HttpClient(client, fallbackClient, negotiate);
+    }
+
+    /**
+     * Get the number of requests being sent over HTTP/2
+     *
+     * @return
+     */
+    public int getActiveStreams() {
+        return activeStreams.get();
+    }
+
+    /**
+     * Get the number of responses received over HTTP/2
+     *
+     * @return
+     */
+    public long getHttp2Responses() {
+        return http2Responses.get();
+    }
+
+    /**
+     * Get the number of responses received over HTTP/1.1 by the fallback
+     *
+     * @return
+     */
+    public long getHttp1Responses() {
+        return http1Responses.get();
+    }
+
+    @Override
+    protected CloseableHttpResponse doExecute(final HttpHost target, final HttpRequest request, final HttpContext context)
+            throws IOException, ClientProtocolException {
+        if (negotiate && (!"https".equalsIgnoreCase(target.getSchemeName()) || http1Hosts.contains(target.getHostName()))) {
+            return executeHttp1(target, request, context);
+        }
+
+        try {
+            return executeHttp2(target, request);
+        } catch (InterruptedIOException ex) {
+            // aborted or timed out, HTTP/1.1 would not do better
+            throw ex;
+        } catch (IOException ex) {
+            if (!negotiate || !isRepeatable(request)) {
+                throw ex;
+            }
+            LOG.debug("HTTP/2 failed with {}, using HTTP/1.1: {}", target, ex.getMessage());
+            http1Hosts.add(target.getHostName());
+            return executeHttp1(target, request, context);
+        }
+    }
+
+    private CloseableHttpResponse executeHttp1(final HttpHost target, final HttpRequest request, final HttpContext context)
+            throws IOException {
+        final CloseableHttpResponse response = fallbackClient.execute(target, request, context);
+        http1Responses.incrementAndGet();
+        return response;
+    }
+
+    private CloseableHttpResponse executeHttp2(final HttpHost target, final HttpRequest request) throws IOException {
+        final SimpleHttpRequest exchange = createRequest(target, request);
+        final HttpExecutionAware executionAware = request instanceof HttpExecutionAware ? (HttpExecutionAware) request : null;
+        if (executionAware != null && executionAware.isAborted()) {
+            throw new RequestAbortedException("Request aborted");
+        }
+
+        activeStreams.incrementAndGet();
+        try {
+            final Future<SimpleHttpResponse> future = client.execute(exchange, null);
+            if (executionAware != null) {
+                executionAware.setCancellable(new Cancellable() {
+                    @Override
+                    public boolean cancel() {
+                        return future.cancel(true);
+                    }
+                });
+            }
+
+            try {
+                return createResponse(future.get());
+            } catch (InterruptedException ex) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Request interrupted");
+            } catch (CancellationException ex) {
+                throw new RequestAbortedException("Request aborted", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException) {
+                    throw (IOException) ex.getCause();
+                }
+                throw new ClientProtocolException(ex.getCause());
+            }
+        } finally {
+            activeStreams.decrementAndGet();
+        }
+    }
+
+    private static boolean isRepeatable(final HttpRequest request) {
+        if (request instanceof HttpEntityEnclosingRequest) {
+            final HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return entity == null || entity.isRepeatable();
+        }
+        return true;
+    }
+
+    private static SimpleHttpRequest createRequest(final HttpHost target, final HttpRequest request) throws IOException {
+        URI uri;
+        try {
+            uri = new URI(request.getRequestLine().getUri());
+            if (!uri.isAbsolute()) {
+                uri = new URI(target.toURI()).resolve(uri);
+            }
+        } catch (URISyntaxException ex) {
+            throw new ClientProtocolException("Invalid URI: " + request.getRequestLine().getUri(), ex);
+        }
+
+        final SimpleHttpRequest exchange = new SimpleHttpRequest(request.getRequestLine().getMethod(), uri);
+        for (Header header : request.getAllHeaders()) {
+            if (!HOP_BY_HOP_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                exchange.addHeader(header.getName(), header.getValue());
+            }
+        }
+        if (request instanceof HttpEntityEnclosingRequest) {
+            final HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            if (entity != null) {
+                final Header contentType = entity.getContentType();
+                exchange.setBody(EntityUtils.toByteArray(entity), contentType == null ? null
+                        : org.apache.hc.core5.http.ContentType.parse(contentType.getValue()));
+            }
+        }
+        return exchange;
+    }
+
+    private CloseableHttpResponse createResponse(final SimpleHttpResponse response) {
+        final org.apache.hc.core5.http.ProtocolVersion version = response.getVersion();
+        http2Responses.incrementAndGet();
+
+        final Response result = new Response(new BasicStatusLine(new ProtocolVersion("HTTP",
+                version == null ? 2 : version.getMajor(), version == null ? 0 : version.getMinor()),
+                response.getCode(), response.getReasonPhrase()));
+        for (org.apache.hc.core5.http.Header header : response.getHeaders()) {
+            result.addHeader(header.getName(), header.getValue());
+        }
+        final byte[] body = response.getBodyBytes();
+        if (body != null) {
+            final ByteArrayEntity entity = new ByteArrayEntity(body);
+            entity.setContentType(result.getFirstHeader("Content-Type"));
+            entity.setContentEncoding(result.getFirstHeader("Content-Encoding"));
+            result.setEntity(entity);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close(CloseMode.GRACEFUL);
+        fallbackClient.close();
+    }
+
+    // still abstract in HttpClient 4.x, the types are named in full as their
+    // imports would be reported as deprecated
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public org.apache.http.params.HttpParams getParams() {
+        return fallbackClient.getParams();
+    }
+
+    @Override
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    public org.apache.http.conn.ClientConnectionManager getConnectionManager() {
+        return fallbackClient.getConnectionManager();
+    }
+
+    /**
+     * Response read in full, so there is nothing to release on close
+     */
+    private static final class Response extends BasicHttpResponse implements CloseableHttpResponse {
+
+        Response(final BasicStatusLine statusLine) {
+            super(statusLine);
+        }
+
+        @Override
+        public void close() {
+            // the body is in memory
+        }
+    }
+
+    /**
+     * Resolve the hosts of the HTTP/2 connections with the cache of the
+     * transport
+     */
+    private static final class DnsResolverAdapter implements org.apache.hc.client5.http.DnsResolver {
+
+        private final CachingDnsResolver dnsResolver;
+
+        DnsResolverAdapter(final CachingDnsResolver dnsResolver) {
+            this.dnsResolver = dnsResolver;
+        }
+
+        @Override
+        public InetAddress[] resolve(final String host) throws UnknownHostException {
+            return dnsResolver.resolve(host);
+        }
+
+        @Override
+        public String resolveCanonicalHostname(final String host) throws UnknownHostException {
+            return InetAddress.getByName(host).getCanonicalHostName();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+/**
+ * HTTP version used by a transport
+ */
+public enum HttpProtocol {
+
+    /**
+     * Pooled HTTP/1.1 connections
+     */
+    HTTP_1_1,
+    /**
+     * HTTP/2 when the server accepts it over TLS, HTTP/1.1 otherwise
+     */
+    NEGOTIATE,
+    /**
+     * HTTP/2 only, also over plain connections. The server must support it.
+     */
+    HTTP_2;
+}
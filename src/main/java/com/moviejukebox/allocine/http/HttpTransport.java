@@ -0,0 +1,82 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+/**
+ * HTTP client with its connection pool, created by a
+ * {@link HttpTransportBuilder}.
+ *
+ * Closing the transport closes the client and all its connections.
+ */
+public class HttpTransport implements Closeable {
+
+    private final CloseableHttpClient httpClient;
+    private final ConnectionPool connectionPool;
+    private final CachingDnsResolver dnsResolver;
+    private final PoolMetrics poolMetrics;
+
+    HttpTransport(final CloseableHttpClient httpClient, final ConnectionPool connectionPool, final CachingDnsResolver dnsResolver) {
+        this.httpClient = httpClient;
+        this.connectionPool = connectionPool;
+        this.dnsResolver = dnsResolver;
+        this.poolMetrics = new PoolMetrics(connectionPool);
+    }
+
+    /**
+     * Get the client to give to the API. It is a {@link Http2HttpClient} if
+     * the transport was built for HTTP/2.
+     *
+     * @return
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
+    /**
+     * Get the DNS resolver, or null if the addresses are not cached
+     *
+     * @return
+     */
+    public CachingDnsResolver getDnsResolver() {
+        return dnsResolver;
+    }
+
+    /**
+     * Close the idle connections now, rather than waiting for the eviction
+     */
+    public void closeIdleConnections() {
+        connectionPool.closeIdleConnections();
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build the HTTP transport of the API: a client with a pool of persistent
+ * connections sized for parallel requests.
+ *
+ * The client leaves the responses compressed, so that the API decompresses
+ * them as they are parsed and counts the bytes received.
+ *
+ * With HTTP/2 the parallel requests to a host share a connection. It needs
+ * the optional httpclient5 dependency, without it the transport falls back to
+ * pooled HTTP/1.1 connections.
+ */
+public class HttpTransportBuilder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpTransportBuilder.class);
+    private static final String HTTP2_CLIENT_CLASS = "org.apache.hc.client5.http.impl.async.HttpAsyncClients";
+
+    /**
+     * Host of the Allocine API
+     */
+    public static final String API_HOST = "api.allocine.fr";
+    private static final int DEFAULT_MAX_CONN_TOTAL = 64;
+    private static final int DEFAULT_MAX_CONN_PER_ROUTE = 32;
+    private static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+    private static final int DEFAULT_SOCKET_TIMEOUT = 20000;
+    private static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT = 10000;
+    private static final long DEFAULT_KEEP_ALIVE = 30000;
+    private static final long DEFAULT_MAX_IDLE_TIME = 30000;
+    private static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+    private static final long DEFAULT_DNS_TIME_TO_LIVE = 300000;
+
+    private int maxConnTotal = DEFAULT_MAX_CONN_TOTAL;
+    private int maxConnPerRoute = DEFAULT_MAX_CONN_PER_ROUTE;
+    private final Map<HttpHost, Integer> maxConnPerHost = new LinkedHashMap<>();
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int socketTimeout = DEFAULT_SOCKET_TIMEOUT;
+    private int connectionRequestTimeout = DEFAULT_CONNECTION_REQUEST_TIMEOUT;
+    private long keepAlive = DEFAULT_KEEP_ALIVE;
+    private long maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+    private long dnsTimeToLive = DEFAULT_DNS_TIME_TO_LIVE;
+    private HttpHost proxy;
+    private HttpProtocol protocol = HttpProtocol.HTTP_1_1;
+
+    /**
+     * Set the maximum number of connections
+     *
+     * @param maxConnTotal
+     * @return
+     */
+    public HttpTransportBuilder setMaxConnTotal(final int maxConnTotal) {
+        this.maxConnTotal = maxConnTotal;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of connections to a host
+     *
+     * @param maxConnPerRoute
+     * @return
+     */
+    public HttpTransportBuilder setMaxConnPerRoute(final int maxConnPerRoute) {
+        this.maxConnPerRoute = maxConnPerRoute;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of HTTP connections to a given host, such as the
+     * image servers
+     *
+     * @param host
+     * @param maxConn
+     * @return
+     */
+    public HttpTransportBuilder setMaxConnForHost(final String host, final int maxConn) {
+        this.maxConnPerHost.put(new HttpHost(host, 80, "http"), maxConn);
+        return this;
+    }
+
+    /**
+     * Set the timeout in milliseconds to open a connection
+     *
+     * @param connectTimeout
+     * @return
+     */
+    public HttpTransportBuilder setConnectTimeout(final int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Set the timeout in milliseconds waiting for data on a connection
+     *
+     * @param socketTimeout
+     * @return
+     */
+    public HttpTransportBuilder setSocketTimeout(final int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+        return this;
+    }
+
+    /**
+     * Set the timeout in milliseconds waiting for a connection of the pool
+     *
+     * @param connectionRequestTimeout
+     * @return
+     */
+    public HttpTransportBuilder setConnectionRequestTimeout(final int connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+        return this;
+    }
+
+    /**
+     * Set the time in milliseconds a connection is kept alive when the server
+     * does not tell
+     *
+     * @param keepAlive
+     * @return
+     */
+    public HttpTransportBuilder setKeepAlive(final long keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    /**
+     * Set the time in milliseconds after which an unused connection is closed
+     *
+     * @param maxIdleTime
+     * @return
+     */
+    public HttpTransportBuilder setMaxIdleTime(final long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+        return this;
+    }
+
+    /**
+     * Set the time in milliseconds the addresses of the hosts are cached, or 0
+     * to resolve the hosts on each connection
+     *
+     * @param dnsTimeToLive
+     * @return
+     */
+    public HttpTransportBuilder setDnsTimeToLive(final long dnsTimeToLive) {
+        this.dnsTimeToLive = dnsTimeToLive;
+        return this;
+    }
+
+    public HttpTransportBuilder setProxy(final String host, final int port) {
+        this.proxy = new HttpHost(host, port);
+        return this;
+    }
+
+    /**
+     * Set the HTTP version, HTTP/1.1 by default
+     *
+     * @param protocol
+     * @return
+     */
+    public HttpTransportBuilder setProtocol(final HttpProtocol protocol) {
+        this.protocol = protocol;
+        return this;
+    }
+
+    public HttpTransport build() {
+        final CachingDnsResolver dnsResolver = dnsTimeToLive > 0 ? new CachingDnsResolver(dnsTimeToLive) : null;
+        final PoolingHttpClientConnectionManager connectionManager = createConnectionManager(dnsResolver);
+
+        final RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(socketTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+
+        final HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(createKeepAliveStrategy())
+                .evictExpiredConnections()
+                .evictIdleConnections(maxIdleTime, TimeUnit.MILLISECONDS)
+                .disableContentCompression();
+        if (proxy != null) {
+            builder.setProxy(proxy);
+        }
+        CloseableHttpClient httpClient = builder.build();
+        if (protocol != HttpProtocol.HTTP_1_1) {
+            if (isHttp2Available()) {
+                httpClient = Http2HttpClient.create(connectTimeout, socketTimeout, maxIdleTime, dnsResolver, proxy,
+                        httpClient, protocol == HttpProtocol.NEGOTIATE);
+            } else {
+                LOG.warn("HTTP/2 needs httpclient5 in the classpath, using HTTP/1.1");
+            }
+        }
+        return new HttpTransport(httpClient, new ClassicConnectionPool(connectionManager), dnsResolver);
+    }
+
+    /**
+     * Create the pool of the connections, with the limits of the hosts
+     *
+     * @param dnsResolver the resolver of the hosts, or null for the system one
+     * @return
+     */
+    PoolingHttpClientConnectionManager createConnectionManager(final CachingDnsResolver dnsResolver) {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                .build(),
+                dnsResolver);
+        connectionManager.setMaxTotal(maxConnTotal);
+        connectionManager.setDefaultMaxPerRoute(maxConnPerRoute);
+        connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost(API_HOST, 80, "http")), maxConnPerRoute);
+        for (Map.Entry<HttpHost, Integer> entry : maxConnPerHost.entrySet()) {
+            connectionManager.setMaxPerRoute(new HttpRoute(entry.getKey()), entry.getValue());
+        }
+        // check the connections idle for a while before reusing them
+        connectionManager.setValidateAfterInactivity(DEFAULT_VALIDATE_AFTER_INACTIVITY);
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(socketTimeout)
+                .setSoKeepAlive(true)
+                .setTcpNoDelay(true)
+                .build());
+        return connectionManager;
+    }
+
+    ConnectionKeepAliveStrategy createKeepAliveStrategy() {
+        return new KeepAliveStrategy(keepAlive);
+    }
+
+    private static boolean isHttp2Available() {
+        try {
+            Class.forName(HTTP2_CLIENT_CLASS, false, HttpTransportBuilder.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Keep the connections alive for the time given by the server, or a
+     * default time
+     */
+    private static final class KeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        private final long keepAlive;
+
+        KeepAliveStrategy(final long keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        @Override
+        public long getKeepAliveDuration(final HttpResponse response, final HttpContext context) {
+            final long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import java.util.Map;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Usage of the connection pool of an {@link HttpTransport}.
+ *
+ * The values are read from the pool on each call. With HTTP/2 they only count
+ * the HTTP/1.1 connections of the fallback, the streams are counted by the
+ * {@link Http2HttpClient}.
+ */
+public final class PoolMetrics {
+
+    private final ConnectionPool connectionPool;
+
+    PoolMetrics(final ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * Get the number of connections in use
+     *
+     * @return
+     */
+    public int getLeased() {
+        return connectionPool.getTotalStats().getLeased();
+    }
+
+    /**
+     * Get the number of requests waiting for a connection
+     *
+     * @return
+     */
+    public int getPending() {
+        return connectionPool.getTotalStats().getPending();
+    }
+
+    /**
+     * Get the number of idle connections kept alive
+     *
+     * @return
+     */
+    public int getAvailable() {
+        return connectionPool.getTotalStats().getAvailable();
+    }
+
+    public int getMax() {
+        return connectionPool.getTotalStats().getMax();
+    }
+
+    /**
+     * Get the part of the connections in use, from 0 to 1
+     *
+     * @return
+     */
+    public double getSaturation() {
+        final PoolStats stats = connectionPool.getTotalStats();
+        return stats.getMax() == 0 ? 0 : (double) stats.getLeased() / stats.getMax();
+    }
+
+    /**
+     * Whether requests are waiting for a connection
+     *
+     * @return
+     */
+    public boolean isSaturated() {
+        return connectionPool.getTotalStats().getPending() > 0;
+    }
+
+    /**
+     * Get the usage of the pool of each route
+     *
+     * @return the statistics by route
+     */
+    public Map<String, PoolStats> getRouteStats() {
+        return connectionPool.getRouteStats();
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics" + connectionPool.getTotalStats();
+    }
+}
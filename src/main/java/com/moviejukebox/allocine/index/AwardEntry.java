@@ -0,0 +1,143 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * An award won by a movie, a TV series or a person, from an
+ * {@link AwardIndex}
+ */
+public final class AwardEntry {
+
+    private final int code;
+    private final String name;
+    private final int festivalCode;
+    private final String festival;
+    private final int editionCode;
+    private final String edition;
+    private final int year;
+    private final int awardTypeCode;
+    private final String awardType;
+    private final int sectionTypeCode;
+    private final String sectionType;
+    private final ItemType winnerType;
+    private final int winnerCode;
+    private final int movieCode;
+
+    AwardEntry(final int code, final String name, final int festivalCode, final String festival, final int editionCode, final String edition,
+            final int year, final int awardTypeCode, final String awardType, final int sectionTypeCode, final String sectionType,
+            final ItemType winnerType, final int winnerCode, final int movieCode) {
+        this.code = code;
+        this.name = name;
+        this.festivalCode = festivalCode;
+        this.festival = festival;
+        this.editionCode = editionCode;
+        this.edition = edition;
+        this.year = year;
+        this.awardTypeCode = awardTypeCode;
+        this.awardType = awardType;
+        this.sectionTypeCode = sectionTypeCode;
+        this.sectionType = sectionType;
+        this.winnerType = winnerType;
+        this.winnerCode = winnerCode;
+        this.movieCode = movieCode;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFestivalCode() {
+        return festivalCode;
+    }
+
+    public String getFestival() {
+        return festival;
+    }
+
+    public int getEditionCode() {
+        return editionCode;
+    }
+
+    public String getEdition() {
+        return edition;
+    }
+
+    /**
+     * Get the year of the edition
+     *
+     * @return the year, or -1 if it is not known
+     */
+    public int getYear() {
+        return year;
+    }
+
+    public int getAwardTypeCode() {
+        return awardTypeCode;
+    }
+
+    public String getAwardType() {
+        return awardType;
+    }
+
+    public int getSectionTypeCode() {
+        return sectionTypeCode;
+    }
+
+    public String getSectionType() {
+        return sectionType;
+    }
+
+    /**
+     * Get the type of the winner, a movie, a TV series or a person
+     *
+     * @return
+     */
+    public ItemType getWinnerType() {
+        return winnerType;
+    }
+
+    public int getWinnerCode() {
+        return winnerCode;
+    }
+
+    /**
+     * Get the code of the movie the award was given for
+     *
+     * @return the code, or -1 if it is not known
+     */
+    public int getMovieCode() {
+        return movieCode;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
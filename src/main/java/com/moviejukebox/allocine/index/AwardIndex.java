@@ -0,0 +1,442 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index of the festival awards won by the movies, TV series and persons
+ * already fetched.
+ *
+ * Each award is a row of codes in primitive columns, with the names kept
+ * once per code. Postings by festival, edition, year, award type and winner
+ * give the rows without scanning. Adding a winner again replaces its awards.
+ * The index is thread safe.
+ */
+public class AwardIndex {
+
+    private static final int NO_CODE = -1;
+    private static final ItemType[] TYPES = ItemType.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // columns
+    private final IntList codes = new IntList();
+    private final IntList festivals = new IntList();
+    private final IntList editions = new IntList();
+    private final IntList years = new IntList();
+    private final IntList awardTypes = new IntList();
+    private final IntList sectionTypes = new IntList();
+    private final IntList winnerTypes = new IntList();
+    private final IntList winners = new IntList();
+    private final IntList movies = new IntList();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount = 0;
+    // names by code
+    private final Map<Integer, String> awardNames = new HashMap<>();
+    private final Map<Integer, String> festivalNames = new HashMap<>();
+    private final Map<Integer, String> editionNames = new HashMap<>();
+    private final Map<Integer, String> awardTypeNames = new HashMap<>();
+    private final Map<Integer, String> sectionTypeNames = new HashMap<>();
+    // postings
+    private final Map<Integer, IntList> byFestival = new HashMap<>();
+    private final Map<Integer, IntList> byEdition = new HashMap<>();
+    private final Map<Integer, IntList> byYear = new HashMap<>();
+    private final Map<Integer, IntList> byAwardType = new HashMap<>();
+    private final Map<Long, IntList> byWinner = new HashMap<>();
+
+    public void add(final MovieInfos infos) {
+        if (infos != null) {
+            add(infos.getMovie());
+        }
+    }
+
+    /**
+     * Add or replace the awards of a movie
+     *
+     * @param movie
+     */
+    public void add(final Movie movie) {
+        if (movie != null) {
+            add(ItemType.MOVIE, movie.getCode(), movie.getFestivalAwards());
+        }
+    }
+
+    public void add(final TvSeriesInfos infos) {
+        if (infos != null) {
+            add(infos.getTvSeries());
+        }
+    }
+
+    /**
+     * Add or replace the awards of a TV series
+     *
+     * @param series
+     */
+    public void add(final TvSeries series) {
+        if (series != null) {
+            add(ItemType.TVSERIES, series.getCode(), series.getFestivalAwards());
+        }
+    }
+
+    public void add(final PersonInfos infos) {
+        if (infos != null) {
+            add(infos.getPerson());
+        }
+    }
+
+    /**
+     * Add or replace the awards of a person
+     *
+     * @param person
+     */
+    public void add(final Person person) {
+        if (person != null) {
+            add(ItemType.PERSON, person.getCode(), person.getFestivalAwards());
+        }
+    }
+
+    private void add(final ItemType type, final int winnerCode, final List<FestivalAward> awards) {
+        lock.writeLock().lock();
+        try {
+            removeWinner(type, winnerCode);
+            if (awards != null) {
+                for (FestivalAward award : awards) {
+                    addRow(type, winnerCode, award);
+                }
+            }
+            if (deletedCount > codes.size() - deletedCount) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addRow(final ItemType type, final int winnerCode, final FestivalAward award) {
+        final int row = codes.size();
+        final int festival = code(award.getParentFestival(), festivalNames);
+        final int edition = code(award.getParentEdition(), editionNames);
+        final int awardType = code(award.getAwardType(), awardTypeNames);
+        final int year = award.getYear();
+        codes.add(award.getCode());
+        if (award.getName() != null) {
+            awardNames.put(award.getCode(), award.getName());
+        }
+        festivals.add(festival);
+        editions.add(edition);
+        years.add(year);
+        awardTypes.add(awardType);
+        sectionTypes.add(code(award.getSectionType(), sectionTypeNames));
+        winnerTypes.add(type.ordinal());
+        winners.add(winnerCode);
+        if (award.getEntities() != null && award.getEntities().getMovie() != null) {
+            movies.add(award.getEntities().getMovie().getCode());
+        } else {
+            movies.add(type == ItemType.MOVIE ? winnerCode : NO_CODE);
+        }
+        index(row);
+    }
+
+    private void index(final int row) {
+        post(byFestival, festivals.get(row), row);
+        post(byEdition, editions.get(row), row);
+        post(byYear, years.get(row), row);
+        post(byAwardType, awardTypes.get(row), row);
+        final long key = winnerKey(TYPES[winnerTypes.get(row)], winners.get(row));
+        IntList rows = byWinner.get(key);
+        if (rows == null) {
+            rows = new IntList(2);
+            byWinner.put(key, rows);
+        }
+        rows.add(row);
+    }
+
+    private static void post(final Map<Integer, IntList> postings, final int key, final int row) {
+        if (key == NO_CODE) {
+            return;
+        }
+        IntList rows = postings.get(key);
+        if (rows == null) {
+            rows = new IntList();
+            postings.put(key, rows);
+        }
+        rows.add(row);
+    }
+
+    private static int code(final CodeName codeName, final Map<Integer, String> names) {
+        if (codeName == null) {
+            return NO_CODE;
+        }
+        if (codeName.getName() != null) {
+            names.put(codeName.getCode(), codeName.getName());
+        }
+        return codeName.getCode();
+    }
+
+    /**
+     * Remove the awards of a movie, TV series or person
+     *
+     * @param type
+     * @param winnerCode
+     * @return true if the winner had awards
+     */
+    public boolean remove(final ItemType type, final int winnerCode) {
+        lock.writeLock().lock();
+        try {
+            return removeWinner(type, winnerCode);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeWinner(final ItemType type, final int winnerCode) {
+        final IntList rows = byWinner.remove(winnerKey(type, winnerCode));
+        if (rows == null) {
+            return false;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            deleted.set(rows.get(i));
+        }
+        deletedCount += rows.size();
+        return rows.size() > 0;
+    }
+
+    /**
+     * Rebuild the columns and postings without the removed rows
+     */
+    private void compact() {
+        final IntList[] columns = {codes, festivals, editions, years, awardTypes, sectionTypes, winnerTypes, winners, movies};
+        int pos = 0;
+        for (int row = 0; row < codes.size(); row++) {
+            if (!deleted.get(row)) {
+                for (IntList column : columns) {
+                    column.set(pos, column.get(row));
+                }
+                pos++;
+            }
+        }
+        final int size = pos;
+        for (IntList column : columns) {
+            final int[] values = column.toArray();
+            column.clear();
+            for (int i = 0; i < size; i++) {
+                column.add(values[i]);
+            }
+        }
+        deleted.clear();
+        deletedCount = 0;
+
+        byFestival.clear();
+        byEdition.clear();
+        byYear.clear();
+        byAwardType.clear();
+        byWinner.clear();
+        for (int row = 0; row < size; row++) {
+            index(row);
+        }
+    }
+
+    public List<AwardEntry> getByFestival(final int festivalCode) {
+        return getByFestival(festivalCode, NO_CODE);
+    }
+
+    /**
+     * Get the awards of a festival
+     *
+     * @param festivalCode
+     * @param year the year of the edition, or -1 for all
+     * @return
+     */
+    public List<AwardEntry> getByFestival(final int festivalCode, final int year) {
+        lock.readLock().lock();
+        try {
+            return entries(byFestival.get(festivalCode), year);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the awards of a festival edition
+     *
+     * @param editionCode
+     * @return
+     */
+    public List<AwardEntry> getByEdition(final int editionCode) {
+        lock.readLock().lock();
+        try {
+            return entries(byEdition.get(editionCode), NO_CODE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the awards of all the festivals in a year
+     *
+     * @param year
+     * @return
+     */
+    public List<AwardEntry> getByYear(final int year) {
+        lock.readLock().lock();
+        try {
+            return entries(byYear.get(year), NO_CODE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<AwardEntry> getByAwardType(final int awardTypeCode) {
+        return getByAwardType(awardTypeCode, NO_CODE);
+    }
+
+    /**
+     * Get the awards of a type, such as the nominations
+     *
+     * @param awardTypeCode
+     * @param year the year of the edition, or -1 for all
+     * @return
+     */
+    public List<AwardEntry> getByAwardType(final int awardTypeCode, final int year) {
+        lock.readLock().lock();
+        try {
+            return entries(byAwardType.get(awardTypeCode), year);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the awards of a movie, TV series or person
+     *
+     * @param type
+     * @param winnerCode
+     * @return
+     */
+    public List<AwardEntry> getByWinner(final ItemType type, final int winnerCode) {
+        lock.readLock().lock();
+        try {
+            return entries(byWinner.get(winnerKey(type, winnerCode)), NO_CODE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the festivals with awards
+     *
+     * @return the festival names by code
+     */
+    public Map<Integer, String> getFestivals() {
+        lock.readLock().lock();
+        try {
+            final Map<Integer, String> result = new TreeMap<>();
+            for (Map.Entry<Integer, IntList> festival : byFestival.entrySet()) {
+                if (hasLiveRow(festival.getValue())) {
+                    result.put(festival.getKey(), festivalNames.get(festival.getKey()));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of awards
+     *
+     * @return
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return codes.size() - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            for (IntList column : new IntList[]{codes, festivals, editions, years, awardTypes, sectionTypes, winnerTypes, winners, movies}) {
+                column.clear();
+            }
+            deleted.clear();
+            deletedCount = 0;
+            awardNames.clear();
+            festivalNames.clear();
+            editionNames.clear();
+            awardTypeNames.clear();
+            sectionTypeNames.clear();
+            byFestival.clear();
+            byEdition.clear();
+            byYear.clear();
+            byAwardType.clear();
+            byWinner.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Check if some rows are not removed, the postings keeping the removed
+     * rows until the next compaction
+     */
+    private boolean hasLiveRow(final IntList rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (!deleted.get(rows.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<AwardEntry> entries(final IntList rows, final int year) {
+        if (rows == null) {
+            return Collections.emptyList();
+        }
+        final List<AwardEntry> result = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            final int row = rows.get(i);
+            if (deleted.get(row) || (year != NO_CODE && years.get(row) != year)) {
+                continue;
+            }
+            result.add(new AwardEntry(codes.get(row), awardNames.get(codes.get(row)),
+                    festivals.get(row), festivalNames.get(festivals.get(row)),
+                    editions.get(row), editionNames.get(editions.get(row)),
+                    years.get(row),
+                    awardTypes.get(row), awardTypeNames.get(awardTypes.get(row)),
+                    sectionTypes.get(row), sectionTypeNames.get(sectionTypes.get(row)),
+                    TYPES[winnerTypes.get(row)], winners.get(row), movies.get(row)));
+        }
+        return result;
+    }
+
+    private static long winnerKey(final ItemType type, final int code) {
+        return ((long) type.ordinal() << 32) | (code & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.BoxOffice;
+import com.moviejukebox.allocine.model.Movie;
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.moviejukebox.allocine.tools.DateTools;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column store of the weekly box office of the movies already fetched.
+ *
+ * The weeks of a movie in a country are kept by type of box office, weekly
+ * or weekend for instance, in primitive arrays sorted by week, so the
+ * aggregations walk arrays rather than {@link BoxOffice} beans. The types
+ * are never mixed: their weeks overlap. Missing admissions or gross are
+ * counted as zero, and the weeks without a country or a type are kept under
+ * {@link #UNKNOWN_COUNTRY} or {@link #UNKNOWN_TYPE}. Adding a movie again
+ * replaces its box office. The store is thread safe.
+ */
+public class BoxOfficeStore {
+
+    /**
+     * Country code of the weeks without a country
+     */
+    public static final int UNKNOWN_COUNTRY = -1;
+    /**
+     * Type code of the weeks without a type
+     */
+    public static final int UNKNOWN_TYPE = -1;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // the series of the movies by country and type
+    private final Map<Long, Map<Integer, Series>> byCountryAndType = new HashMap<>();
+    private final Map<Integer, long[]> keysByMovie = new HashMap<>();
+
+    public void add(final MovieInfos infos) {
+        if (infos != null) {
+            add(infos.getMovie());
+        }
+    }
+
+    /**
+     * Add or replace the box office of a movie
+     *
+     * @param movie
+     */
+    public void add(final Movie movie) {
+        if (movie == null) {
+            return;
+        }
+
+        // group the weeks by country and type
+        final Map<Long, List<BoxOffice>> weeks = new TreeMap<>();
+        if (movie.getBoxOffice() != null) {
+            for (BoxOffice boxOffice : movie.getBoxOffice()) {
+                final long key = key(countryCode(boxOffice), typeCode(boxOffice));
+                List<BoxOffice> list = weeks.get(key);
+                if (list == null) {
+                    list = new ArrayList<>();
+                    weeks.put(key, list);
+                }
+                list.add(boxOffice);
+            }
+        }
+
+        final List<Series> created = new ArrayList<>(weeks.size());
+        for (Map.Entry<Long, List<BoxOffice>> entry : weeks.entrySet()) {
+            final long key = entry.getKey();
+            created.add(new Series(movie.getCode(), (int) (key >> 32), (int) key, entry.getValue()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeMovie(movie.getCode());
+            if (created.isEmpty()) {
+                return;
+            }
+            final long[] keys = new long[created.size()];
+            for (int i = 0; i < created.size(); i++) {
+                final Series added = created.get(i);
+                keys[i] = key(added.countryCode, added.typeCode);
+                Map<Integer, Series> movies = byCountryAndType.get(keys[i]);
+                if (movies == null) {
+                    movies = new HashMap<>();
+                    byCountryAndType.put(keys[i], movies);
+                }
+                movies.put(added.movieCode, added);
+            }
+            keysByMovie.put(movie.getCode(), keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the box office of a movie
+     *
+     * @param movieCode
+     * @return true if the movie had a box office
+     */
+    public boolean remove(final int movieCode) {
+        lock.writeLock().lock();
+        try {
+            return removeMovie(movieCode);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeMovie(final int movieCode) {
+        final long[] keys = keysByMovie.remove(movieCode);
+        if (keys == null) {
+            return false;
+        }
+        for (long key : keys) {
+            final Map<Integer, Series> movies = byCountryAndType.get(key);
+            if (movies != null) {
+                movies.remove(movieCode);
+                if (movies.isEmpty()) {
+                    byCountryAndType.remove(key);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the country codes with a box office for a movie
+     *
+     * @param movieCode
+     * @return the countries, in order
+     */
+    public int[] getCountries(final int movieCode) {
+        lock.readLock().lock();
+        try {
+            final long[] keys = keysByMovie.get(movieCode);
+            if (keys == null) {
+                return new int[0];
+            }
+            // the keys are sorted by country first
+            final int[] countries = new int[keys.length];
+            int size = 0;
+            for (long key : keys) {
+                final int country = (int) (key >> 32);
+                if (size == 0 || countries[size - 1] != country) {
+                    countries[size++] = country;
+                }
+            }
+            return Arrays.copyOf(countries, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the type codes of the box office of a movie in a country
+     *
+     * @param movieCode
+     * @param countryCode
+     * @return the types, in order
+     */
+    public int[] getTypes(final int movieCode, final int countryCode) {
+        lock.readLock().lock();
+        try {
+            final long[] keys = keysByMovie.get(movieCode);
+            if (keys == null) {
+                return new int[0];
+            }
+            final int[] types = new int[keys.length];
+            int size = 0;
+            for (long key : keys) {
+                if ((int) (key >> 32) == countryCode) {
+                    types[size++] = (int) key;
+                }
+            }
+            return Arrays.copyOf(types, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the week numbers of a movie in a country
+     *
+     * @param movieCode
+     * @param countryCode
+     * @param typeCode
+     * @return the weeks, in order
+     */
+    public int[] getWeeks(final int movieCode, final int countryCode, final int typeCode) {
+        lock.readLock().lock();
+        try {
+            final Series found = find(movieCode, countryCode, typeCode);
+            return found == null ? new int[0] : found.weeks.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the weekly admissions of a movie in a country
+     *
+     * @param movieCode
+     * @param countryCode
+     * @param typeCode
+     * @return the admissions, in the order of the weeks
+     */
+    public long[] getAdmissions(final int movieCode, final int countryCode, final int typeCode) {
+        lock.readLock().lock();
+        try {
+            final Series found = find(movieCode, countryCode, typeCode);
+            return found == null ? new long[0] : found.admissions.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the running total of the admissions of a movie in a country
+     *
+     * @param movieCode
+     * @param countryCode
+     * @param typeCode
+     * @return the total admissions at the end of each week
+     */
+    public long[] getCumulativeAdmissions(final int movieCode, final int countryCode, final int typeCode) {
+        final long[] values = getAdmissions(movieCode, countryCode, typeCode);
+        for (int i = 1; i < values.length; i++) {
+            values[i] += values[i - 1];
+        }
+        return values;
+    }
+
+    /**
+     * Get the change of the admissions from one week to the next
+     *
+     * @param movieCode
+     * @param countryCode
+     * @param typeCode
+     * @return the changes, the first week being compared to zero
+     */
+    public long[] getWeekOverWeekDeltas(final int movieCode, final int countryCode, final int typeCode) {
+        final long[] values = getAdmissions(movieCode, countryCode, typeCode);
+        for (int i = values.length - 1; i > 0; i--) {
+            values[i] -= values[i - 1];
+        }
+        return values;
+    }
+
+    /**
+     * Get the movies with the highest gross in a country over a period
+     *
+     * @param countryCode
+     * @param typeCode
+     * @param from the first day of the period, in epoch milliseconds
+     * @param to the end of the period, excluded, in epoch milliseconds
+     * @param maxResults
+     * @return the movies, highest gross first
+     */
+    public List<BoxOfficeTotal> getTopByGross(final int countryCode, final int typeCode, final long from, final long to,
+            final int maxResults) {
+        return getTop(countryCode, typeCode, from, to, maxResults, true);
+    }
+
+    /**
+     * Get the movies with the most admissions in a country over a period
+     *
+     * @param countryCode
+     * @param typeCode
+     * @param from the first day of the period, in epoch milliseconds
+     * @param to the end of the period, excluded, in epoch milliseconds
+     * @param maxResults
+     * @return the movies, most admissions first
+     */
+    public List<BoxOfficeTotal> getTopByAdmissions(final int countryCode, final int typeCode, final long from, final long to,
+            final int maxResults) {
+        return getTop(countryCode, typeCode, from, to, maxResults, false);
+    }
+
+    private Series find(final int movieCode, final int countryCode, final int typeCode) {
+        final Map<Integer, Series> movies = byCountryAndType.get(key(countryCode, typeCode));
+        return movies == null ? null : movies.get(movieCode);
+    }
+
+    private List<BoxOfficeTotal> getTop(final int countryCode, final int typeCode, final long from, final long to,
+            final int maxResults, final boolean byGross) {
+        if (maxResults <= 0) {
+            return Collections.emptyList();
+        }
+        final int fromDay = toDay(from);
+        final int toDay = toDay(to);
+        final Comparator<BoxOfficeTotal> order = byGross ? BY_GROSS : BY_ADMISSIONS;
+        final PriorityQueue<BoxOfficeTotal> best = new PriorityQueue<>(maxResults + 1, order);
+
+        lock.readLock().lock();
+        try {
+            final Map<Integer, Series> movies = byCountryAndType.get(key(countryCode, typeCode));
+            if (movies == null) {
+                return Collections.emptyList();
+            }
+            for (Series current : movies.values()) {
+                final BoxOfficeTotal total = current.total(fromDay, toDay);
+                if (total != null) {
+                    best.add(total);
+                    if (best.size() > maxResults) {
+                        best.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        final List<BoxOfficeTotal> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            results.add(best.poll());
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Get the number of movies with a box office
+     *
+     * @return
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keysByMovie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            byCountryAndType.clear();
+            keysByMovie.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int countryCode(final BoxOffice boxOffice) {
+        return boxOffice.getCountry() == null ? UNKNOWN_COUNTRY : boxOffice.getCountry().getCode();
+    }
+
+    private static int typeCode(final BoxOffice boxOffice) {
+        return boxOffice.getType() == null ? UNKNOWN_TYPE : boxOffice.getType().getCode();
+    }
+
+    private static long key(final int countryCode, final int typeCode) {
+        return ((long) countryCode << 32) | (typeCode & 0xFFFFFFFFL);
+    }
+
+    private static int toDay(final String date) {
+        final Long millis = DateTools.parseDateTime(date, UTC);
+        return millis == null ? NO_DAY : toDay(millis.longValue());
+    }
+
+    private static int toDay(final long millis) {
+        // round down for the dates before 1970
+        final long day = millis / MILLIS_PER_DAY;
+        return (int) (millis < 0 && day * MILLIS_PER_DAY != millis ? day - 1 : day);
+    }
+
+    private static long value(final Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static final Comparator<BoxOfficeTotal> BY_GROSS = new Comparator<BoxOfficeTotal>() {
+        @Override
+        public int compare(BoxOfficeTotal t1, BoxOfficeTotal t2) {
+            final int result = Long.compare(t1.getGross(), t2.getGross());
+            return result != 0 ? result : Integer.compare(t2.getMovieCode(), t1.getMovieCode());
+        }
+    };
+
+    private static final Comparator<BoxOfficeTotal> BY_ADMISSIONS = new Comparator<BoxOfficeTotal>() {
+        @Override
+        public int compare(BoxOfficeTotal t1, BoxOfficeTotal t2) {
+            final int result = Long.compare(t1.getAdmissions(), t2.getAdmissions());
+            return result != 0 ? result : Integer.compare(t2.getMovieCode(), t1.getMovieCode());
+        }
+    };
+
+    /**
+     * Weeks of a movie in a country for a type, in parallel arrays sorted by
+     * week
+     */
+    private static final class Series {
+
+        private final int movieCode;
+        private final int countryCode;
+        private final int typeCode;
+        private final int[] weeks;
+        private final int[] startDays;
+        private final long[] admissions;
+        private final long[] gross;
+
+        Series(final int movieCode, final int countryCode, final int typeCode, final List<BoxOffice> boxOffices) {
+            this.movieCode = movieCode;
+            this.countryCode = countryCode;
+            this.typeCode = typeCode;
+
+            final List<BoxOffice> sorted = new ArrayList<>(boxOffices);
+            Collections.sort(sorted, new Comparator<BoxOffice>() {
+                @Override
+                public int compare(BoxOffice b1, BoxOffice b2) {
+                    return Integer.compare(b1.getWeek(), b2.getWeek());
+                }
+            });
+            final int size = sorted.size();
+            this.weeks = new int[size];
+            this.startDays = new int[size];
+            this.admissions = new long[size];
+            this.gross = new long[size];
+            for (int i = 0; i < size; i++) {
+                final BoxOffice boxOffice = sorted.get(i);
+                weeks[i] = boxOffice.getWeek();
+                startDays[i] = toDay(boxOffice.getPeriodStart());
+                admissions[i] = value(boxOffice.getAdmissionCount());
+                gross[i] = value(boxOffice.getGross());
+            }
+        }
+
+        /**
+         * Sum the weeks starting in [fromDay, toDay)
+         *
+         * @return the total, or null if no week is in the period
+         */
+        BoxOfficeTotal total(final int fromDay, final int toDay) {
+            long totalAdmissions = 0;
+            long totalGross = 0;
+            boolean found = false;
+            // the weeks are in date order, stop after the period
+            for (int i = 0; i < startDays.length; i++) {
+                final int day = startDays[i];
+                if (day == NO_DAY || day < fromDay) {
+                    continue;
+                }
+                if (day >= toDay) {
+                    break;
+                }
+                totalAdmissions += admissions[i];
+                totalGross += gross[i];
+                found = true;
+            }
+            return found ? new BoxOfficeTotal(movieCode, countryCode, typeCode, totalAdmissions, totalGross) : null;
+        }
+    }
+}
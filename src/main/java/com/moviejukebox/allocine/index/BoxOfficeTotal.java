@@ -0,0 +1,71 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Box office of a movie in a country for a type over a period, from a
+ * {@link BoxOfficeStore}
+ */
+public final class BoxOfficeTotal {
+
+    private final int movieCode;
+    private final int countryCode;
+    private final int typeCode;
+    private final long admissions;
+    private final long gross;
+
+    BoxOfficeTotal(final int movieCode, final int countryCode, final int typeCode, final long admissions, final long gross) {
+        this.movieCode = movieCode;
+        this.countryCode = countryCode;
+        this.typeCode = typeCode;
+        this.admissions = admissions;
+        this.gross = gross;
+    }
+
+    public int getMovieCode() {
+        return movieCode;
+    }
+
+    public int getCountryCode() {
+        return countryCode;
+    }
+
+    public int getTypeCode() {
+        return typeCode;
+    }
+
+    public long getAdmissions() {
+        return admissions;
+    }
+
+    public long getGross() {
+        return gross;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
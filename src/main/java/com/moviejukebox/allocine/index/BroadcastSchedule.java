@@ -0,0 +1,290 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.tools.DateTools;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Schedule of the broadcasts found in the TV series already fetched.
+ *
+ * The broadcast dates are parsed once when added, and the broadcasts are
+ * kept sorted by time for each channel and each series, so that range and
+ * "next airing" queries take logarithmic time. Queries don't lock and can
+ * run while broadcasts are added.
+ */
+public class BroadcastSchedule {
+
+    private static final int NO_CODE = -1;
+
+    private final TimeZone timeZone;
+    private final Object writeLock = new Object();
+    private final ConcurrentSkipListSet<ScheduledBroadcast> all = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<Integer, ConcurrentSkipListSet<ScheduledBroadcast>> byChannel = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, ConcurrentSkipListSet<ScheduledBroadcast>> bySeries = new ConcurrentHashMap<>();
+    // broadcasts with a code, so that a rescheduled broadcast replaces the old one
+    private final Map<Long, ScheduledBroadcast> byCode = new HashMap<>();
+
+    public BroadcastSchedule() {
+        this(DateTools.ALLOCINE_TIME_ZONE);
+    }
+
+    /**
+     * Create a schedule
+     *
+     * @param timeZone the time zone of the broadcast dates
+     */
+    public BroadcastSchedule(final TimeZone timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    public void add(final TvSeriesInfos infos) {
+        if (infos != null) {
+            add(infos.getTvSeries());
+        }
+    }
+
+    /**
+     * Add the broadcasts of a TV series, its seasons and its episodes
+     *
+     * @param series
+     */
+    public void add(final TvSeries series) {
+        if (series == null) {
+            return;
+        }
+        final int seriesCode = series.getCode();
+        addAll(series.getBroadcast(), seriesCode);
+        add(series.getNextBroadcast(), seriesCode);
+        if (series.getSeasonList() != null) {
+            for (Season season : series.getSeasonList()) {
+                addAll(season.getBroadcast(), seriesCode);
+                add(season.getNextBroadcast(), seriesCode);
+                if (season.getEpisodeList() != null) {
+                    for (Episode episode : season.getEpisodeList()) {
+                        addAll(episode.getBroadcast(), seriesCode);
+                        add(episode.getNextBroadcast(), seriesCode);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the next broadcast of a movie
+     *
+     * @param movie
+     */
+    public void add(final Movie movie) {
+        if (movie != null) {
+            add(movie.getNextBroadcast(), NO_CODE);
+        }
+    }
+
+    private void addAll(final List<Broadcast> broadcasts, final int seriesCode) {
+        if (broadcasts != null) {
+            for (Broadcast broadcast : broadcasts) {
+                add(broadcast, seriesCode);
+            }
+        }
+    }
+
+    /**
+     * Add a broadcast
+     *
+     * @param broadcast
+     * @param seriesCode the code of the TV series, or -1 if it is not known
+     * @return false if the date of the broadcast can't be parsed
+     */
+    public boolean add(final Broadcast broadcast, final int seriesCode) {
+        if (broadcast == null) {
+            return false;
+        }
+        final Long time = DateTools.parseDateTime(broadcast.getDateTime(), timeZone);
+        if (time == null) {
+            return false;
+        }
+        final int channelCode;
+        if (broadcast.getParentChannel() != null) {
+            channelCode = broadcast.getParentChannel().getCode();
+        } else if (broadcast.getChannel() != null) {
+            channelCode = broadcast.getChannel().getCode();
+        } else {
+            channelCode = NO_CODE;
+        }
+        final long code = broadcast.getCode() == null ? NO_CODE : broadcast.getCode();
+        final ScheduledBroadcast entry = new ScheduledBroadcast(time, channelCode, seriesCode, code, broadcast);
+
+        synchronized (writeLock) {
+            if (code != NO_CODE) {
+                final ScheduledBroadcast previous = byCode.put(code, entry);
+                if (previous != null) {
+                    removeEntry(previous);
+                }
+            }
+            // replace an equal entry with the newer broadcast
+            all.remove(entry);
+            all.add(entry);
+            if (channelCode != NO_CODE) {
+                addEntry(byChannel, channelCode, entry);
+            }
+            if (seriesCode != NO_CODE) {
+                addEntry(bySeries, seriesCode, entry);
+            }
+        }
+        return true;
+    }
+
+    private static void addEntry(final ConcurrentMap<Integer, ConcurrentSkipListSet<ScheduledBroadcast>> index, final int key, final ScheduledBroadcast entry) {
+        ConcurrentSkipListSet<ScheduledBroadcast> set = index.get(key);
+        if (set == null) {
+            set = new ConcurrentSkipListSet<>();
+            index.put(key, set);
+        }
+        set.remove(entry);
+        set.add(entry);
+    }
+
+    private void removeEntry(final ScheduledBroadcast entry) {
+        all.remove(entry);
+        removeEntry(byChannel, entry.getChannelCode(), entry);
+        removeEntry(bySeries, entry.getSeriesCode(), entry);
+    }
+
+    private static void removeEntry(final ConcurrentMap<Integer, ConcurrentSkipListSet<ScheduledBroadcast>> index, final int key, final ScheduledBroadcast entry) {
+        final ConcurrentSkipListSet<ScheduledBroadcast> set = index.get(key);
+        if (set != null) {
+            set.remove(entry);
+            if (set.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Remove the broadcasts starting before a time
+     *
+     * @param time the epoch milliseconds
+     * @return the number of broadcasts removed
+     */
+    public int removeBefore(final long time) {
+        synchronized (writeLock) {
+            final NavigableSet<ScheduledBroadcast> old = all.headSet(ScheduledBroadcast.first(time), false);
+            final List<ScheduledBroadcast> removed = new ArrayList<>(old);
+            for (ScheduledBroadcast entry : removed) {
+                removeEntry(entry);
+                if (byCode.get(entry.getBroadcast().getCode()) == entry) {
+                    byCode.remove(entry.getBroadcast().getCode());
+                }
+            }
+            return removed.size();
+        }
+    }
+
+    /**
+     * Get the broadcasts on a channel starting in [from, to)
+     *
+     * @param channelCode
+     * @param from the epoch milliseconds
+     * @param to the epoch milliseconds
+     * @return the broadcasts, by time
+     */
+    public List<ScheduledBroadcast> getBroadcasts(final int channelCode, final long from, final long to) {
+        return range(byChannel.get(channelCode), from, to);
+    }
+
+    /**
+     * Get the broadcasts of a TV series starting in [from, to)
+     *
+     * @param seriesCode
+     * @param from the epoch milliseconds
+     * @param to the epoch milliseconds
+     * @return the broadcasts, by time
+     */
+    public List<ScheduledBroadcast> getSeriesBroadcasts(final int seriesCode, final long from, final long to) {
+        return range(bySeries.get(seriesCode), from, to);
+    }
+
+    /**
+     * Get the broadcasts on all channels starting in [from, to)
+     *
+     * @param from the epoch milliseconds
+     * @param to the epoch milliseconds
+     * @return the broadcasts, by time
+     */
+    public List<ScheduledBroadcast> getBroadcasts(final long from, final long to) {
+        return range(all, from, to);
+    }
+
+    /**
+     * Get the next broadcast of a TV series
+     *
+     * @param seriesCode
+     * @param after the epoch milliseconds
+     * @return the first broadcast starting at or after the time, or null
+     */
+    public ScheduledBroadcast getNextBroadcast(final int seriesCode, final long after) {
+        final ConcurrentSkipListSet<ScheduledBroadcast> set = bySeries.get(seriesCode);
+        return set == null ? null : set.ceiling(ScheduledBroadcast.first(after));
+    }
+
+    /**
+     * Get the next broadcast on a channel
+     *
+     * @param channelCode
+     * @param after the epoch milliseconds
+     * @return the first broadcast starting at or after the time, or null
+     */
+    public ScheduledBroadcast getNextChannelBroadcast(final int channelCode, final long after) {
+        final ConcurrentSkipListSet<ScheduledBroadcast> set = byChannel.get(channelCode);
+        return set == null ? null : set.ceiling(ScheduledBroadcast.first(after));
+    }
+
+    /**
+     * Get the number of broadcasts
+     *
+     * @return
+     */
+    public int size() {
+        return all.size();
+    }
+
+    public void clear() {
+        synchronized (writeLock) {
+            all.clear();
+            byChannel.clear();
+            bySeries.clear();
+            byCode.clear();
+        }
+    }
+
+    private static List<ScheduledBroadcast> range(final ConcurrentSkipListSet<ScheduledBroadcast> set, final long from, final long to) {
+        if (set == null || from >= to) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(set.subSet(ScheduledBroadcast.first(from), ScheduledBroadcast.first(to)));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A completion returned by a {@link PrefixIndex}
+ */
+public final class Completion {
+
+    private final ItemType type;
+    private final int code;
+    private final String text;
+    private final float weight;
+
+    Completion(final ItemType type, final int code, final String text, final float weight) {
+        this.type = type;
+        this.code = code;
+        this.text = text;
+        this.weight = weight;
+    }
+
+    public ItemType getType() {
+        return type;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Get the title or name that matched
+     *
+     * @return
+     */
+    public String getText() {
+        return text;
+    }
+
+    public float getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import com.moviejukebox.allocine.model.enumeration.Job;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A credit of a person on a movie or a TV series, from a {@link CreditIndex}
+ */
+public final class Credit {
+
+    private final ItemType type;
+    private final int titleCode;
+    private final Job job;
+    private final String role;
+    private final boolean leadActor;
+
+    Credit(final ItemType type, final int titleCode, final Job job, final String role, final boolean leadActor) {
+        this.type = type;
+        this.titleCode = titleCode;
+        this.job = job;
+        this.role = role;
+        this.leadActor = leadActor;
+    }
+
+    /**
+     * Get the type of the title, movie or TV series
+     *
+     * @return
+     */
+    public ItemType getType() {
+        return type;
+    }
+
+    public int getTitleCode() {
+        return titleCode;
+    }
+
+    public Job getJob() {
+        return job;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isLeadActor() {
+        return leadActor;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
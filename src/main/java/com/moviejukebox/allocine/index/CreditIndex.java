@@ -0,0 +1,290 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import com.moviejukebox.allocine.model.enumeration.Job;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse index from a person to the titles they worked on, built from the
+ * cast of the movies and TV series already fetched.
+ *
+ * The credits of a person are kept in parallel primitive arrays, the roles
+ * being stored only for the persons who have one. Adding a title again
+ * replaces its credits. The index is thread safe.
+ */
+public class CreditIndex {
+
+    private static final ItemType[] TYPES = ItemType.values();
+    private static final Job[] JOBS = Job.values();
+    // layout of the packed flags
+    private static final int FLAG_LEAD = 1;
+    private static final int TYPE_SHIFT = 1;
+    private static final int TYPE_MASK = 0x3;
+    private static final int JOB_SHIFT = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Credits> persons = new HashMap<>();
+    // persons credited on each title, to replace the credits of a title
+    private final Map<Long, int[]> titles = new HashMap<>();
+
+    /**
+     * Add or replace the credits of a movie
+     *
+     * @param infos
+     */
+    public void add(final MovieInfos infos) {
+        if (infos != null) {
+            add(infos.getMovie());
+        }
+    }
+
+    public void add(final Movie movie) {
+        if (movie != null) {
+            add(ItemType.MOVIE, movie);
+        }
+    }
+
+    /**
+     * Add or replace the credits of a TV series
+     *
+     * @param infos
+     */
+    public void add(final TvSeriesInfos infos) {
+        if (infos != null) {
+            add(infos.getTvSeries());
+        }
+    }
+
+    public void add(final TvSeries series) {
+        if (series != null) {
+            add(ItemType.TVSERIES, series);
+        }
+    }
+
+    private void add(final ItemType type, final AbstractBaseMapping title) {
+        final List<CastMember> members = title.getCastMember() == null ? Collections.<CastMember>emptyList() : title.getCastMember();
+        final long key = titleKey(type, title.getCode());
+
+        lock.writeLock().lock();
+        try {
+            removeTitle(type, title.getCode(), key);
+
+            final int[] credited = new int[members.size()];
+            int count = 0;
+            for (CastMember member : members) {
+                if (member.getShortPerson() == null || member.getShortPerson().getCode() <= 0) {
+                    continue;
+                }
+                final int personCode = member.getShortPerson().getCode();
+                Credits credits = persons.get(personCode);
+                if (credits == null) {
+                    credits = new Credits();
+                    persons.put(personCode, credits);
+                }
+                final Job job = member.getActivity() == null ? Job.UNKNOWN : member.getActivity().getJob();
+                credits.add(title.getCode(), flags(type, job, member.isLeadActor()), member.getRole());
+                credited[count++] = personCode;
+            }
+            if (count > 0) {
+                titles.put(key, Arrays.copyOf(credited, count));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the credits of a title
+     *
+     * @param type
+     * @param titleCode
+     * @return true if the title was indexed
+     */
+    public boolean remove(final ItemType type, final int titleCode) {
+        lock.writeLock().lock();
+        try {
+            return removeTitle(type, titleCode, titleKey(type, titleCode));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeTitle(final ItemType type, final int titleCode, final long key) {
+        final int[] credited = titles.remove(key);
+        if (credited == null) {
+            return false;
+        }
+        for (int personCode : credited) {
+            final Credits credits = persons.get(personCode);
+            if (credits != null && credits.remove(type, titleCode) == 0) {
+                persons.remove(personCode);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the credits of a person
+     *
+     * @param personCode
+     * @return the credits, in the order the titles were added
+     */
+    public List<Credit> getCredits(final int personCode) {
+        return getCredits(personCode, null);
+    }
+
+    /**
+     * Get the credits of a person for a job
+     *
+     * @param personCode
+     * @param job the job, or null for all
+     * @return the credits, in the order the titles were added
+     */
+    public List<Credit> getCredits(final int personCode, final Job job) {
+        lock.readLock().lock();
+        try {
+            final Credits credits = persons.get(personCode);
+            if (credits == null) {
+                return Collections.emptyList();
+            }
+            final List<Credit> result = new ArrayList<>(credits.size);
+            for (int i = 0; i < credits.size; i++) {
+                final int flags = credits.flags[i];
+                final Job creditJob = JOBS[flags >>> JOB_SHIFT];
+                if (job == null || job == creditJob) {
+                    result.add(new Credit(TYPES[(flags >>> TYPE_SHIFT) & TYPE_MASK], credits.titleCodes[i], creditJob,
+                            credits.roles == null ? null : credits.roles[i], (flags & FLAG_LEAD) != 0));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of persons with credits
+     *
+     * @return
+     */
+    public int getPersonCount() {
+        lock.readLock().lock();
+        try {
+            return persons.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of titles indexed
+     *
+     * @return
+     */
+    public int getTitleCount() {
+        lock.readLock().lock();
+        try {
+            return titles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            persons.clear();
+            titles.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long titleKey(final ItemType type, final int code) {
+        return ((long) type.ordinal() << 32) | (code & 0xFFFFFFFFL);
+    }
+
+    private static int flags(final ItemType type, final Job job, final boolean leadActor) {
+        return (job.ordinal() << JOB_SHIFT) | (type.ordinal() << TYPE_SHIFT) | (leadActor ? FLAG_LEAD : 0);
+    }
+
+    /**
+     * Credits of a person, in parallel arrays
+     */
+    private static final class Credits {
+
+        private int[] titleCodes = new int[2];
+        private int[] flags = new int[2];
+        private String[] roles;
+        private int size = 0;
+
+        void add(final int titleCode, final int flag, final String role) {
+            if (size == titleCodes.length) {
+                final int capacity = size + (size >> 1) + 1;
+                titleCodes = Arrays.copyOf(titleCodes, capacity);
+                flags = Arrays.copyOf(flags, capacity);
+                if (roles != null) {
+                    roles = Arrays.copyOf(roles, capacity);
+                }
+            }
+            titleCodes[size] = titleCode;
+            flags[size] = flag;
+            if (role != null) {
+                if (roles == null) {
+                    roles = new String[titleCodes.length];
+                }
+                roles[size] = role;
+            }
+            size++;
+        }
+
+        /**
+         * Remove the credits for a title
+         *
+         * @return the number of credits left
+         */
+        int remove(final ItemType type, final int titleCode) {
+            int pos = 0;
+            for (int i = 0; i < size; i++) {
+                final boolean sameTitle = titleCodes[i] == titleCode && ((flags[i] >>> TYPE_SHIFT) & TYPE_MASK) == type.ordinal();
+                if (!sameTitle) {
+                    titleCodes[pos] = titleCodes[i];
+                    flags[pos] = flags[i];
+                    if (roles != null) {
+                        roles[pos] = roles[i];
+                    }
+                    pos++;
+                }
+            }
+            if (roles != null) {
+                Arrays.fill(roles, pos, size, null);
+            }
+            size = pos;
+            return size;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import java.util.*;
+
+/**
+ * Inverted index of weighted terms with BM25 ranking.
+ *
+ * The terms are kept sorted, so a query term can also be matched as the
+ * start of the indexed terms. This class is not thread safe, the {@link TitleIndex} does the locking.
+ *
+ * @param <T> the type of the indexed values
+ */
+final class InvertedIndex<T> {
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int INITIAL_POSTINGS = 4;
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Integer, Integer> documents = new HashMap<>();
+    private final List<T> values = new ArrayList<>();
+    private final List<String[]> terms = new ArrayList<>();
+    private float[] lengths = new float[16];
+    private double totalLength = 0;
+    private int deleted = 0;
+
+    /**
+     * Add a value, replacing any value with the same code
+     *
+     * @param code
+     * @param value
+     * @param frequencies the weighted frequency of each term
+     */
+    void add(final int code, final T value, final Map<String, Float> frequencies) {
+        remove(code);
+
+        final int doc = values.size();
+        float length = 0;
+        final String[] docTerms = new String[frequencies.size()];
+        int pos = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            Postings list = postings.get(entry.getKey());
+            if (list == null) {
+                list = new Postings();
+                postings.put(entry.getKey(), list);
+            }
+            list.add(doc, entry.getValue());
+            length += entry.getValue();
+            docTerms[pos++] = entry.getKey();
+        }
+
+        if (doc == lengths.length) {
+            lengths = Arrays.copyOf(lengths, doc * 2);
+        }
+        lengths[doc] = length;
+        totalLength += length;
+        values.add(value);
+        terms.add(docTerms);
+        documents.put(code, doc);
+    }
+
+    /**
+     * Remove the value with a code
+     *
+     * @param code
+     * @return true if a value was removed
+     */
+    boolean remove(final int code) {
+        final Integer doc = documents.remove(code);
+        if (doc == null) {
+            return false;
+        }
+        for (String term : terms.get(doc)) {
+            postings.get(term).live--;
+        }
+        totalLength -= lengths[doc];
+        values.set(doc, null);
+        terms.set(doc, null);
+        deleted++;
+        if (deleted > documents.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    void clear() {
+        postings.clear();
+        documents.clear();
+        values.clear();
+        terms.clear();
+        lengths = new float[16];
+        totalLength = 0;
+        deleted = 0;
+    }
+
+    /**
+     * Find the values matching any of the terms, best first
+     *
+     * @param queryTerms the terms matched in full
+     * @param prefix the term matched as the start of the indexed terms, or
+     * null
+     * @param maxResults
+     * @param hits set to the total number of matching values
+     * @return
+     */
+    List<T> search(final Collection<String> queryTerms, final String prefix, final int maxResults, final int[] hits) {
+        hits[0] = 0;
+        if (documents.isEmpty() || (queryTerms.isEmpty() && prefix == null) || maxResults <= 0) {
+            return Collections.emptyList();
+        }
+
+        final int count = documents.size();
+        final double avgLength = totalLength / count;
+        final Map<Integer, Double> scores = new HashMap<>();
+        for (String term : queryTerms) {
+            score(postings.get(term), count, avgLength, scores, false);
+        }
+        if (prefix != null) {
+            // a value scores the best of its terms starting with the prefix
+            final Map<Integer, Double> best = new HashMap<>();
+            for (Postings list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                score(list, count, avgLength, best, true);
+            }
+            for (Map.Entry<Integer, Double> entry : best.entrySet()) {
+                final Double previous = scores.get(entry.getKey());
+                scores.put(entry.getKey(), previous == null ? entry.getValue() : previous + entry.getValue());
+            }
+        }
+        hits[0] = scores.size();
+
+        // keep the best results in a min-heap
+        final PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(Math.min(maxResults, scores.size()) + 1, BY_SCORE);
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > maxResults) {
+                best.poll();
+            }
+        }
+        final List<T> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            results.add(values.get(best.poll().getKey()));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Add the BM25 score of a term to the scores of its values
+     *
+     * @param list the postings of the term, or null
+     * @param count the number of values
+     * @param avgLength the average length of the values
+     * @param scores the scores by document
+     * @param max true to keep the highest score rather than the sum
+     */
+    private void score(final Postings list, final int count, final double avgLength, final Map<Integer, Double> scores,
+            final boolean max) {
+        if (list == null || list.live == 0) {
+            return;
+        }
+        final double idf = Math.log(1 + (count - list.live + 0.5) / (list.live + 0.5));
+        for (int i = 0; i < list.size; i++) {
+            final int doc = list.docs[i];
+            if (values.get(doc) == null) {
+                continue;
+            }
+            final double tf = list.frequencies[i];
+            final double norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+            final double score = idf * tf * (K1 + 1) / (tf + norm);
+            final Double previous = scores.get(doc);
+            if (previous == null) {
+                scores.put(doc, score);
+            } else {
+                scores.put(doc, max ? Math.max(previous, score) : previous + score);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the postings without the removed values
+     */
+    private void compact() {
+        final Map<Integer, Integer> remap = new HashMap<>();
+        final List<T> newValues = new ArrayList<>(documents.size());
+        final List<String[]> newTerms = new ArrayList<>(documents.size());
+        final float[] newLengths = new float[Math.max(16, documents.size() * 2)];
+        for (int doc = 0; doc < values.size(); doc++) {
+            if (values.get(doc) != null) {
+                remap.put(doc, newValues.size());
+                newLengths[newValues.size()] = lengths[doc];
+                newValues.add(values.get(doc));
+                newTerms.add(terms.get(doc));
+            }
+        }
+
+        final Iterator<Postings> iter = postings.values().iterator();
+        while (iter.hasNext()) {
+            final Postings list = iter.next();
+            if (list.live == 0) {
+                iter.remove();
+            } else {
+                list.remap(remap);
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : documents.entrySet()) {
+            entry.setValue(remap.get(entry.getValue()));
+        }
+
+        values.clear();
+        values.addAll(newValues);
+        terms.clear();
+        terms.addAll(newTerms);
+        lengths = newLengths;
+        deleted = 0;
+    }
+
+    private static final Comparator<Map.Entry<Integer, Double>> BY_SCORE = new Comparator<Map.Entry<Integer, Double>>() {
+        @Override
+        public int compare(Map.Entry<Integer, Double> e1, Map.Entry<Integer, Double> e2) {
+            final int result = Double.compare(e1.getValue(), e2.getValue());
+            // on a tie the oldest value ranks first
+            return result != 0 ? result : Integer.compare(e2.getKey(), e1.getKey());
+        }
+    };
+
+    /**
+     * Documents and frequencies for a term, in parallel arrays
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[INITIAL_POSTINGS];
+        private float[] frequencies = new float[INITIAL_POSTINGS];
+        private int size = 0;
+        private int live = 0;
+
+        void add(final int doc, final float frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        void remap(final Map<Integer, Integer> remap) {
+            int pos = 0;
+            for (int i = 0; i < size; i++) {
+                final Integer doc = remap.get(docs[i]);
+                if (doc != null) {
+                    docs[pos] = doc;
+                    frequencies[pos] = frequencies[i];
+                    pos++;
+                }
+            }
+            size = pos;
+        }
+    }
+}
@@ -0,0 +1,582 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import com.moviejukebox.allocine.tools.TextTools;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Immutable prefix index of titles and names, for type-ahead completion.
+ *
+ * The entries are kept sorted by their folded text in a single
+ * {@link ByteBuffer}, so the index can be written to a file and memory mapped
+ * back. A prefix selects a range of entries with two binary searches, and a
+ * segment tree over the entry weights gives the best entries of the range
+ * without scanning it.
+ *
+ * The weight of an entry is its popularity, taken from the
+ * {@link Statistics}. Changes are made with a {@link Builder}, which can be
+ * created from an existing index.
+ */
+public final class PrefixIndex {
+
+    private static final int MAGIC = 0x41435049;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final ItemType[] TYPES = ItemType.values();
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int leaves;
+    // section offsets
+    private final int keyOffsets;
+    private final int textOffsets;
+    private final int codes;
+    private final int weights;
+    private final int types;
+    private final int tree;
+    private final int keyBytes;
+    private final int textBytes;
+
+    private PrefixIndex(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a prefix index");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported prefix index version " + buffer.getInt(4));
+        }
+        this.count = buffer.getInt(8);
+        this.leaves = leafCount(count);
+        this.keyOffsets = HEADER_SIZE;
+        this.textOffsets = keyOffsets + 4 * (count + 1);
+        this.codes = textOffsets + 4 * (count + 1);
+        this.weights = codes + 4 * count;
+        this.types = weights + 4 * count;
+        this.tree = types + count;
+        this.keyBytes = tree + 4 * 2 * leaves;
+        this.textBytes = keyBytes + buffer.getInt(12);
+        if (count < 0 || textBytes + buffer.getInt(16) != buffer.capacity()) {
+            throw new IOException("Corrupt prefix index");
+        }
+    }
+
+    /**
+     * Create an empty builder
+     *
+     * @return
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a builder holding the entries of this index
+     *
+     * @return
+     */
+    public Builder toBuilder() {
+        final Builder builder = new Builder();
+        for (int i = 0; i < count; i++) {
+            builder.addName(TYPES[buffer.get(types + i)], buffer.getInt(codes + 4 * i), buffer.getFloat(weights + 4 * i), text(i));
+        }
+        return builder;
+    }
+
+    /**
+     * Open an index from its binary form
+     *
+     * @param buffer
+     * @return
+     * @throws IOException if the buffer does not hold an index
+     */
+    public static PrefixIndex wrap(final ByteBuffer buffer) throws IOException {
+        return new PrefixIndex(buffer.duplicate());
+    }
+
+    /**
+     * Memory map an index written with {@link #writeTo(File)}
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static PrefixIndex map(final File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            return new PrefixIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write the index to a file
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void writeTo(final File file) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(file);
+                FileChannel channel = fos.getChannel()) {
+            final ByteBuffer data = asReadOnlyBuffer();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * Get the binary form of the index
+     *
+     * @return
+     */
+    public ByteBuffer asReadOnlyBuffer() {
+        final ByteBuffer data = buffer.asReadOnlyBuffer();
+        data.clear();
+        return data;
+    }
+
+    /**
+     * Get the number of entries, one per title or name
+     *
+     * @return
+     */
+    public int size() {
+        return count;
+    }
+
+    public List<Completion> complete(final String prefix, final int maxResults) {
+        return complete(prefix, null, maxResults);
+    }
+
+    /**
+     * Get the most popular entries starting with a prefix
+     *
+     * @param prefix the text typed, accents and case are ignored
+     * @param type the type of the entries to return, or null for all
+     * @param maxResults
+     * @return the entries, most popular first
+     */
+    public List<Completion> complete(final String prefix, final ItemType type, final int maxResults) {
+        final String key = toKey(prefix, true);
+        if (key == null || maxResults <= 0 || count == 0) {
+            return Collections.emptyList();
+        }
+        final byte[] target = key.getBytes(UTF8);
+        final int lo = lowerBound(target);
+        final int hi = upperBound(target, lo);
+        if (lo >= hi) {
+            return Collections.emptyList();
+        }
+
+        // best first walk of the sub-ranges, split around each result
+        final PriorityQueue<int[]> ranges = new PriorityQueue<>(11, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] r1, int[] r2) {
+                return Float.compare(weight(r2[2]), weight(r1[2]));
+            }
+        });
+        ranges.add(new int[]{lo, hi, rangeMax(lo, hi)});
+        final List<Completion> results = new ArrayList<>();
+        final Set<Long> seen = new HashSet<>();
+        while (!ranges.isEmpty() && results.size() < maxResults) {
+            final int[] range = ranges.poll();
+            final int best = range[2];
+            final ItemType entryType = TYPES[buffer.get(types + best)];
+            final int code = buffer.getInt(codes + 4 * best);
+            if ((type == null || type == entryType) && seen.add(((long) entryType.ordinal() << 32) | (code & 0xFFFFFFFFL))) {
+                results.add(new Completion(entryType, code, text(best), weight(best)));
+            }
+            if (range[0] < best) {
+                ranges.add(new int[]{range[0], best, rangeMax(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[]{best + 1, range[1], rangeMax(best + 1, range[1])});
+            }
+        }
+        return results;
+    }
+
+    private float weight(final int entry) {
+        return buffer.getFloat(weights + 4 * entry);
+    }
+
+    private String text(final int entry) {
+        final int start = buffer.getInt(textOffsets + 4 * entry);
+        final int end = buffer.getInt(textOffsets + 4 * (entry + 1));
+        final byte[] bytes = new byte[end - start];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(textBytes + start);
+        view.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Compare the start of an entry key with the target
+     */
+    private int compareKey(final int entry, final byte[] target, final boolean prefixOnly) {
+        final int start = keyBytes + buffer.getInt(keyOffsets + 4 * entry);
+        final int length = buffer.getInt(keyOffsets + 4 * (entry + 1)) - buffer.getInt(keyOffsets + 4 * entry);
+        final int limit = Math.min(length, target.length);
+        for (int i = 0; i < limit; i++) {
+            final int diff = (buffer.get(start + i) & 0xFF) - (target[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        if (prefixOnly && length >= target.length) {
+            return 0;
+        }
+        return length - target.length;
+    }
+
+    private int lowerBound(final byte[] target) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, target, false) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(final byte[] target, final int from) {
+        int lo = from;
+        int hi = count;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, target, true) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Get the entry with the highest weight in [from, to)
+     */
+    private int rangeMax(final int from, final int to) {
+        int best = -1;
+        int left = from + leaves;
+        int right = to + leaves;
+        while (left < right) {
+            if ((left & 1) == 1) {
+                best = better(best, buffer.getInt(tree + 4 * left));
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                best = better(best, buffer.getInt(tree + 4 * right));
+            }
+            left >>= 1;
+            right >>= 1;
+        }
+        return best;
+    }
+
+    private int better(final int entry1, final int entry2) {
+        if (entry1 < 0) {
+            return entry2;
+        }
+        if (entry2 < 0) {
+            return entry1;
+        }
+        final float w1 = weight(entry1);
+        final float w2 = weight(entry2);
+        if (w1 != w2) {
+            return w1 > w2 ? entry1 : entry2;
+        }
+        return Math.min(entry1, entry2);
+    }
+
+    private static int leafCount(final int count) {
+        return Math.max(1, count);
+    }
+
+    /**
+     * Fold a text into a key, with single spaces between the words
+     *
+     * @param text
+     * @param keepTrailingSpace keep a space typed after the last word
+     * @return
+     */
+    static String toKey(final String text, final boolean keepTrailingSpace) {
+        final List<String> tokens = TextTools.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        final String key = StringUtils.join(tokens, ' ');
+        if (keepTrailingSpace && !Character.isLetterOrDigit(text.charAt(text.length() - 1))) {
+            return key + ' ';
+        }
+        return key;
+    }
+
+    /**
+     * Get the popularity of an item from its statistics
+     *
+     * @param statistics
+     * @return
+     */
+    static float popularity(final Statistics statistics) {
+        if (statistics == null) {
+            return 0;
+        }
+        double total = 0;
+        for (String name : new String[]{"userRatingCount", "userReviewCount", "editorialRatingCount", "fanCount"}) {
+            final Object value = statistics.getStatistic(name);
+            if (value instanceof Number && ((Number) value).doubleValue() > 0) {
+                total += ((Number) value).doubleValue();
+            }
+        }
+        return (float) Math.log1p(total);
+    }
+
+    /**
+     * Builder of {@link PrefixIndex}.
+     *
+     * Items are identified by their type and code, adding an item again
+     * replaces its names and weight.
+     */
+    public static final class Builder {
+
+        private final Map<Long, Item> items = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(final MovieInfos infos) {
+            return infos == null ? this : add(infos.getMovie());
+        }
+
+        public Builder add(final Movie movie) {
+            if (movie != null) {
+                add(ItemType.MOVIE, movie.getCode(), popularity(movie.getStatistics()), movie.getTitle(), movie.getOriginalTitle());
+            }
+            return this;
+        }
+
+        public Builder add(final TvSeriesInfos infos) {
+            return infos == null ? this : add(infos.getTvSeries());
+        }
+
+        public Builder add(final TvSeries series) {
+            if (series != null) {
+                add(ItemType.TVSERIES, series.getCode(), popularity(series.getStatistics()), series.getTitle(), series.getOriginalTitle());
+            }
+            return this;
+        }
+
+        public Builder add(final PersonInfos infos) {
+            if (infos != null && infos.getPerson() != null) {
+                add(ItemType.PERSON, infos.getCode(), popularity(infos.getPerson().getStatistics()), infos.getFullName(), infos.getRealName());
+            }
+            return this;
+        }
+
+        public Builder add(final ShortPerson person) {
+            if (person != null) {
+                add(ItemType.PERSON, person.getCode(), 0, person.getName());
+            }
+            return this;
+        }
+
+        /**
+         * Add or replace an item
+         *
+         * @param type
+         * @param code
+         * @param weight
+         * @param names the titles or names of the item
+         * @return
+         */
+        public Builder add(final ItemType type, final int code, final float weight, final String... names) {
+            final Item item = new Item(weight);
+            for (String name : names) {
+                if (StringUtils.isNotBlank(name)) {
+                    item.names.add(name);
+                }
+            }
+            items.put(id(type, code), item);
+            return this;
+        }
+
+        private void addName(final ItemType type, final int code, final float weight, final String name) {
+            Item item = items.get(id(type, code));
+            if (item == null) {
+                item = new Item(weight);
+                items.put(id(type, code), item);
+            }
+            item.names.add(name);
+        }
+
+        public Builder remove(final ItemType type, final int code) {
+            items.remove(id(type, code));
+            return this;
+        }
+
+        public int size() {
+            return items.size();
+        }
+
+        public PrefixIndex build() {
+            final List<Entry> entries = new ArrayList<>();
+            for (Map.Entry<Long, Item> item : items.entrySet()) {
+                final ItemType type = TYPES[(int) (item.getKey() >>> 32)];
+                final int code = (int) item.getKey().longValue();
+                // a name folding to the same key as a previous one is dropped
+                final Set<String> keys = new HashSet<>();
+                for (String name : item.getValue().names) {
+                    final String key = toKey(name, false);
+                    if (key != null && keys.add(key)) {
+                        entries.add(new Entry(key.getBytes(UTF8), name.getBytes(UTF8), type, code, item.getValue().weight));
+                    }
+                }
+            }
+            Collections.sort(entries);
+
+            final int count = entries.size();
+            final int leaves = leafCount(count);
+            int keyLength = 0;
+            int textLength = 0;
+            for (Entry entry : entries) {
+                keyLength += entry.key.length;
+                textLength += entry.text.length;
+            }
+            final int size = HEADER_SIZE + 8 * (count + 1) + 9 * count + 8 * leaves + keyLength + textLength;
+            final ByteBuffer buffer = ByteBuffer.allocate(size);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(keyLength).putInt(textLength);
+            int offset = 0;
+            for (Entry entry : entries) {
+                buffer.putInt(offset);
+                offset += entry.key.length;
+            }
+            buffer.putInt(offset);
+            offset = 0;
+            for (Entry entry : entries) {
+                buffer.putInt(offset);
+                offset += entry.text.length;
+            }
+            buffer.putInt(offset);
+            for (Entry entry : entries) {
+                buffer.putInt(entry.code);
+            }
+            for (Entry entry : entries) {
+                buffer.putFloat(entry.weight);
+            }
+            for (Entry entry : entries) {
+                buffer.put((byte) entry.type.ordinal());
+            }
+
+            // segment tree of the best entry, leaves at [leaves, 2 * leaves)
+            // node 0 is not used
+            final int[] nodes = new int[2 * leaves];
+            Arrays.fill(nodes, -1);
+            for (int i = 0; i < count; i++) {
+                nodes[leaves + i] = i;
+            }
+            for (int i = leaves - 1; i > 0; i--) {
+                final int left = nodes[2 * i];
+                final int right = nodes[2 * i + 1];
+                if (right < 0 || (left >= 0 && entries.get(left).weight >= entries.get(right).weight)) {
+                    nodes[i] = left;
+                } else {
+                    nodes[i] = right;
+                }
+            }
+            for (int node : nodes) {
+                buffer.putInt(node);
+            }
+            for (Entry entry : entries) {
+                buffer.put(entry.key);
+            }
+            for (Entry entry : entries) {
+                buffer.put(entry.text);
+            }
+            buffer.flip();
+            try {
+                return new PrefixIndex(buffer);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to build the prefix index", ex);
+            }
+        }
+
+        private static long id(final ItemType type, final int code) {
+            return ((long) type.ordinal() << 32) | (code & 0xFFFFFFFFL);
+        }
+    }
+
+    private static final class Item {
+
+        private final float weight;
+        private final Set<String> names = new LinkedHashSet<>();
+
+        Item(final float weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+
+        private final byte[] key;
+        private final byte[] text;
+        private final ItemType type;
+        private final int code;
+        private final float weight;
+
+        Entry(final byte[] key, final byte[] text, final ItemType type, final int code, final float weight) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+            this.code = code;
+            this.weight = weight;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            final int limit = Math.min(key.length, other.key.length);
+            for (int i = 0; i < limit; i++) {
+                final int diff = (key[i] & 0xFF) - (other.key[i] & 0xFF);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return key.length - other.key.length;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.Broadcast;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A broadcast with its parsed time, from a {@link BroadcastSchedule}
+ */
+public final class ScheduledBroadcast implements Comparable<ScheduledBroadcast> {
+
+    private final long time;
+    private final int channelCode;
+    private final int seriesCode;
+    private final long code;
+    private final Broadcast broadcast;
+
+    ScheduledBroadcast(final long time, final int channelCode, final int seriesCode, final long code, final Broadcast broadcast) {
+        this.time = time;
+        this.channelCode = channelCode;
+        this.seriesCode = seriesCode;
+        this.code = code;
+        this.broadcast = broadcast;
+    }
+
+    /**
+     * Create the first possible entry at a time, for range queries
+     */
+    static ScheduledBroadcast first(final long time) {
+        return new ScheduledBroadcast(time, Integer.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE, null);
+    }
+
+    /**
+     * Get the start of the broadcast
+     *
+     * @return the epoch milliseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Get the channel code
+     *
+     * @return the code, or -1 if the channel is not known
+     */
+    public int getChannelCode() {
+        return channelCode;
+    }
+
+    /**
+     * Get the TV series code
+     *
+     * @return the code, or -1 if the series is not known
+     */
+    public int getSeriesCode() {
+        return seriesCode;
+    }
+
+    public Broadcast getBroadcast() {
+        return broadcast;
+    }
+
+    @Override
+    public int compareTo(ScheduledBroadcast other) {
+        int result = Long.compare(time, other.time);
+        if (result == 0) {
+            result = Integer.compare(channelCode, other.channelCode);
+        }
+        if (result == 0) {
+            result = Integer.compare(seriesCode, other.seriesCode);
+        }
+        if (result == 0) {
+            result = Long.compare(code, other.code);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof ScheduledBroadcast && compareTo((ScheduledBroadcast) obj) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = (int) (time ^ (time >>> 32));
+        hash = 31 * hash + channelCode;
+        hash = 31 * hash + seriesCode;
+        return 31 * hash + (int) (code ^ (code >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
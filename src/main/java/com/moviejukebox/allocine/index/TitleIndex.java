@@ -0,0 +1,362 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.tools.TextTools;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local full text index of the movies, TV series and persons already
+ * fetched.
+ *
+ * Movies and TV series are indexed on their title, original title, keywords
+ * and cast names, persons on their name. Accents and case are ignored and
+ * the results are ranked with BM25, a match in the title counting more than
+ * one in the keywords or the cast. The last word of a query also matches the
+ * words it starts, so "memo" finds "Memento" while it is typed.
+ *
+ * The search methods return a {@link Search} like the API, so the index can
+ * answer a search before falling back to the server. The index is thread
+ * safe.
+ */
+public class TitleIndex {
+
+    // Weight of each field in the ranking
+    private static final float WEIGHT_TITLE = 3.0f;
+    private static final float WEIGHT_ORIGINAL_TITLE = 2.0f;
+    private static final float WEIGHT_KEYWORDS = 1.0f;
+    private static final float WEIGHT_CAST = 1.0f;
+    private static final float WEIGHT_NAME = 1.0f;
+    /**
+     * Number of results returned when no maximum is given
+     */
+    public static final int DEFAULT_MAX_RESULTS = 10;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InvertedIndex<Movie> movies = new InvertedIndex<>();
+    private final InvertedIndex<TvSeries> tvSeries = new InvertedIndex<>();
+    private final InvertedIndex<ShortPerson> persons = new InvertedIndex<>();
+
+    /**
+     * Add or replace a movie
+     *
+     * @param infos
+     */
+    public void add(final MovieInfos infos) {
+        if (infos == null || infos.isNotValid()) {
+            return;
+        }
+        add(infos.getMovie());
+    }
+
+    /**
+     * Add or replace a movie
+     *
+     * @param movie
+     */
+    public void add(final Movie movie) {
+        if (movie == null) {
+            return;
+        }
+        final Map<String, Float> frequencies = baseFrequencies(movie);
+        addTerms(frequencies, movie.getKeywords(), WEIGHT_KEYWORDS);
+        lock.writeLock().lock();
+        try {
+            movies.add(movie.getCode(), movie, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a TV series
+     *
+     * @param infos
+     */
+    public void add(final TvSeriesInfos infos) {
+        if (infos == null || infos.isNotValid()) {
+            return;
+        }
+        add(infos.getTvSeries());
+    }
+
+    /**
+     * Add or replace a TV series
+     *
+     * @param series
+     */
+    public void add(final TvSeries series) {
+        if (series == null) {
+            return;
+        }
+        final Map<String, Float> frequencies = baseFrequencies(series);
+        addTerms(frequencies, series.getKeywords(), WEIGHT_KEYWORDS);
+        lock.writeLock().lock();
+        try {
+            tvSeries.add(series.getCode(), series, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a person
+     *
+     * @param infos
+     */
+    public void add(final PersonInfos infos) {
+        if (infos == null || infos.isNotValid()) {
+            return;
+        }
+        final ShortPerson person = new ShortPerson();
+        person.setCode(infos.getCode());
+        person.setName(infos.getFullName());
+        person.setGender(infos.getGender());
+        person.setBirthDate(infos.getBirthDate());
+        person.setPicture(infos.getPerson().getPicture());
+        add(person);
+    }
+
+    /**
+     * Add or replace a person
+     *
+     * @param person
+     */
+    public void add(final ShortPerson person) {
+        if (person == null) {
+            return;
+        }
+        final Map<String, Float> frequencies = new HashMap<>();
+        addTerms(frequencies, person.getName(), WEIGHT_NAME);
+        lock.writeLock().lock();
+        try {
+            persons.add(person.getCode(), person, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean removeMovie(final int code) {
+        lock.writeLock().lock();
+        try {
+            return movies.remove(code);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean removeTvSeries(final int code) {
+        lock.writeLock().lock();
+        try {
+            return tvSeries.remove(code);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean removePerson(final int code) {
+        lock.writeLock().lock();
+        try {
+            return persons.remove(code);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            movies.clear();
+            tvSeries.clear();
+            persons.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed movies, TV series and persons
+     *
+     * @return
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return movies.size() + tvSeries.size() + persons.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Search searchMovies(final String query) {
+        return searchMovies(query, DEFAULT_MAX_RESULTS);
+    }
+
+    /**
+     * Search the indexed movies
+     *
+     * @param query
+     * @param maxResults
+     * @return
+     */
+    public Search searchMovies(final String query, final int maxResults) {
+        final List<String> tokens = TextTools.tokenize(query);
+        final int[] hits = new int[1];
+        final List<Movie> results;
+        lock.readLock().lock();
+        try {
+            results = movies.search(fullTerms(tokens), lastTerm(tokens), maxResults, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+        final Feed feed = createFeed(results.size(), hits[0]);
+        feed.setMovies(results);
+        return createSearch(feed);
+    }
+
+    public Search searchTvSeries(final String query) {
+        return searchTvSeries(query, DEFAULT_MAX_RESULTS);
+    }
+
+    /**
+     * Search the indexed TV series
+     *
+     * @param query
+     * @param maxResults
+     * @return
+     */
+    public Search searchTvSeries(final String query, final int maxResults) {
+        final List<String> tokens = TextTools.tokenize(query);
+        final int[] hits = new int[1];
+        final List<TvSeries> results;
+        lock.readLock().lock();
+        try {
+            results = tvSeries.search(fullTerms(tokens), lastTerm(tokens), maxResults, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+        final Feed feed = createFeed(results.size(), hits[0]);
+        feed.setTvSeries(results);
+        return createSearch(feed);
+    }
+
+    public Search searchPersons(final String query) {
+        return searchPersons(query, DEFAULT_MAX_RESULTS);
+    }
+
+    /**
+     * Search the indexed persons
+     *
+     * @param query
+     * @param maxResults
+     * @return
+     */
+    public Search searchPersons(final String query, final int maxResults) {
+        final List<String> tokens = TextTools.tokenize(query);
+        final int[] hits = new int[1];
+        final List<ShortPerson> results;
+        lock.readLock().lock();
+        try {
+            results = persons.search(fullTerms(tokens), lastTerm(tokens), maxResults, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+        final Feed feed = createFeed(results.size(), hits[0]);
+        feed.setPersons(results);
+        return createSearch(feed);
+    }
+
+    /**
+     * Get the terms of a query matched in full, all but the last
+     *
+     * @param tokens
+     * @return
+     */
+    private static Set<String> fullTerms(final List<String> tokens) {
+        return tokens.isEmpty() ? Collections.<String>emptySet() : new LinkedHashSet<>(tokens.subList(0, tokens.size() - 1));
+    }
+
+    /**
+     * Get the term of a query matched as a prefix, the last one
+     *
+     * @param tokens
+     * @return the term, or null if the query is empty
+     */
+    private static String lastTerm(final List<String> tokens) {
+        return tokens.isEmpty() ? null : tokens.get(tokens.size() - 1);
+    }
+
+    private static Map<String, Float> baseFrequencies(final AbstractBaseMapping base) {
+        final Map<String, Float> frequencies = new HashMap<>();
+        addTerms(frequencies, base.getTitle(), WEIGHT_TITLE);
+        addTerms(frequencies, base.getOriginalTitle(), WEIGHT_ORIGINAL_TITLE);
+
+        // the cast can be in the full members and in the short casting
+        final Set<String> names = new HashSet<>();
+        if (base.getCastMember() != null) {
+            for (CastMember member : base.getCastMember()) {
+                if (member.getShortPerson() != null && member.getShortPerson().getName() != null) {
+                    names.add(member.getShortPerson().getName());
+                }
+            }
+        }
+        if (base.getCastingShort() != null) {
+            addNames(names, base.getCastingShort().getDirectors());
+            addNames(names, base.getCastingShort().getActors());
+            addNames(names, base.getCastingShort().getCreators());
+        }
+        for (String name : names) {
+            addTerms(frequencies, name, WEIGHT_CAST);
+        }
+        return frequencies;
+    }
+
+    private static void addNames(final Set<String> names, final List<String> values) {
+        if (values != null) {
+            names.addAll(values);
+        }
+    }
+
+    private static void addTerms(final Map<String, Float> frequencies, final String text, final float weight) {
+        for (String term : TextTools.tokenize(text)) {
+            final Float frequency = frequencies.get(term);
+            frequencies.put(term, frequency == null ? weight : frequency + weight);
+        }
+    }
+
+    private static Feed createFeed(final int count, final int totalResults) {
+        final Feed feed = new Feed();
+        feed.setPage(1);
+        feed.setCount(count);
+        feed.setTotalResults(totalResults);
+        return feed;
+    }
+
+    private static Search createSearch(final Feed feed) {
+        final Search search = new Search();
+        search.setFeed(feed);
+        return search;
+    }
+}
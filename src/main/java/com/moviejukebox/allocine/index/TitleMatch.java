@@ -0,0 +1,107 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Result of matching a filename with a {@link TitleMatcher}
+ */
+public final class TitleMatch {
+
+    private final String filename;
+    private final String title;
+    private final int year;
+    private final ItemType type;
+    private final int code;
+    private final String matchedTitle;
+    private final double score;
+
+    TitleMatch(final String filename, final String title, final int year, final ItemType type, final int code, final String matchedTitle, final double score) {
+        this.filename = filename;
+        this.title = title;
+        this.year = year;
+        this.type = type;
+        this.code = code;
+        this.matchedTitle = matchedTitle;
+        this.score = score;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    /**
+     * Get the title found in the filename
+     *
+     * @return
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Get the year found in the filename
+     *
+     * @return the year, or -1 if there is none
+     */
+    public int getYear() {
+        return year;
+    }
+
+    public ItemType getType() {
+        return type;
+    }
+
+    public boolean isMatched() {
+        return code > 0;
+    }
+
+    /**
+     * Get the Allocine code of the match
+     *
+     * @return the code, or -1 if nothing matched
+     */
+    public int getCode() {
+        return code;
+    }
+
+    public String getMatchedTitle() {
+        return matchedTitle;
+    }
+
+    /**
+     * Get the score of the match, between 0 and 1
+     *
+     * @return
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.bulk.ExecutionMode;
+import com.moviejukebox.allocine.codec.SnapshotCodec;
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import com.moviejukebox.allocine.schedule.CallContext;
+import com.moviejukebox.allocine.tools.CodeNameDictionary;
+import com.moviejukebox.allocine.tools.TextTools;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Match filenames to Allocine codes.
+ *
+ * The title and year are taken from the filename, then the search results
+ * for the title are scored on the title (edit distance and common words,
+ * with the original title as a fallback) and on the year.
+ *
+ * The search results are cached by title, so scanning the same library again
+ * does not hit the network. The least recently used titles are evicted once
+ * the cache is full. The cache can be saved to a file and loaded back.
+ */
+public class TitleMatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TitleMatcher.class);
+    /**
+     * Default minimum score for a match
+     */
+    public static final double DEFAULT_MIN_SCORE = 0.6;
+    /**
+     * Default maximum number of cached titles
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+    private static final Pattern EXTENSION = Pattern.compile("(?i)\\.(3gp|asf|avi|divx|flv|img|iso|m2ts|m4v|mkv|mov|mp4|mpe?g|mts|ogm|ogv|rm|rmvb|ts|vob|webm|wmv)$");
+    private static final Pattern YEAR = Pattern.compile("(?<!\\d)(19\\d{2}|20\\d{2})(?!\\d)");
+    private static final Pattern BRACKETS = Pattern.compile("\\[[^\\]]*\\]|\\{[^}]*\\}");
+    private static final Pattern SEPARATORS = Pattern.compile("[._()]+");
+    // a resolution or an episode always ends the title
+    private static final Pattern RELEASE_MARKER = Pattern.compile("(?i)(\\d{3,4}p|s\\d{1,2}e\\d{1,3})");
+    // a release tag is also a word, so it only ends the title when nothing follows it
+    private static final Pattern RELEASE_TAG = Pattern.compile("(?i)(blu-?ray|[bh]d-?rip|br-?rip|dvd-?rip|dvdscr|web-?(dl|rip)?|hdtv|[xh]\\.?26[45]|hevc|xvid|divx|dts|ac3|aac|multi|truefrench|french|vostfr|vf[fqi]?|proper|repack|extended|unrated|remastered)");
+    private static final int CACHE_FILE_VERSION = 1;
+    // weight of the title and the year in the score
+    private static final double WEIGHT_TITLE = 0.8;
+    private static final double WEIGHT_YEAR = 0.2;
+    // weight of the edit distance and the common words in the title score
+    private static final double WEIGHT_DISTANCE = 0.6;
+    private static final double WEIGHT_WORDS = 0.4;
+    // a match on the original title only is slightly less likely
+    private static final double ORIGINAL_TITLE_FACTOR = 0.95;
+
+    private final AllocineApi api;
+    private final double minScore;
+    private final Map<String, Future<Search>> candidates;
+
+    public TitleMatcher(final AllocineApi api) {
+        this(api, DEFAULT_MIN_SCORE);
+    }
+
+    public TitleMatcher(final AllocineApi api, final double minScore) {
+        this(api, minScore, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Create a matcher
+     *
+     * @param api the API used when the candidates for a title are not cached
+     * @param minScore the minimum score for a match, between 0 and 1
+     * @param cacheSize the maximum number of cached titles
+     */
+    public TitleMatcher(final AllocineApi api, final double minScore, final int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("The cache size must be positive");
+        }
+        this.api = api;
+        this.minScore = minScore;
+        this.candidates = new LinkedHashMap<String, Future<Search>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Future<Search>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public TitleMatch match(final String filename) throws AllocineException {
+        return match(filename, ItemType.MOVIE);
+    }
+
+    /**
+     * Match a filename to a movie or a TV series
+     *
+     * @param filename
+     * @param type movie or TV series
+     * @return the best match, which is unmatched if no candidate scored enough
+     * @throws AllocineException
+     */
+    public TitleMatch match(final String filename, final ItemType type) throws AllocineException {
+        if (type == ItemType.PERSON) {
+            throw new IllegalArgumentException("Persons can't be matched to a filename");
+        }
+        final String[] parsed = parseFilename(filename);
+        final String title = parsed[0];
+        final int year = Integer.parseInt(parsed[1]);
+        if (StringUtils.isBlank(title)) {
+            return new TitleMatch(filename, title, year, type, -1, null, 0);
+        }
+
+        final List<? extends AbstractBaseMapping> found;
+        if (type == ItemType.MOVIE) {
+            found = getCandidates(title, type).getMovies();
+        } else {
+            found = getCandidates(title, type).getTvSeries();
+        }
+
+        AbstractBaseMapping best = null;
+        double bestScore = 0;
+        if (found != null) {
+            for (AbstractBaseMapping candidate : found) {
+                final double score = score(title, year, candidate);
+                if (score > bestScore) {
+                    best = candidate;
+                    bestScore = score;
+                }
+            }
+        }
+        if (best == null || bestScore < minScore) {
+            return new TitleMatch(filename, title, year, type, -1, null, bestScore);
+        }
+        return new TitleMatch(filename, title, year, type, best.getCode(), best.getTitle(), bestScore);
+    }
+
+    /**
+     * Match a list of filenames in parallel
+     *
+     * A filename that fails to match because of an API error is returned as
+     * unmatched.
+     *
+     * @param filenames
+     * @param type movie or TV series
+     * @param threads the number of searches run at the same time
+     * @return the matches, in the order of the filenames
+     */
+    public List<TitleMatch> matchAll(final Collection<String> filenames, final ItemType type, final int threads) {
+        return matchAll(filenames, type, threads, ExecutionMode.PLATFORM_THREADS);
+    }
+
+    /**
+     * Match a list of filenames in parallel, on platform or virtual threads
+     *
+     * @param filenames
+     * @param type movie or TV series
+     * @param threads the number of searches run at the same time
+     * @param mode the threads running the searches
+     * @return the matches, in the order of the filenames
+     */
+    public List<TitleMatch> matchAll(final Collection<String> filenames, final ItemType type, final int threads,
+            final ExecutionMode mode) {
+        final ExecutorService executor = mode.newExecutor(Math.max(1, threads));
+        final CallContext context = CallContext.current();
+        try {
+            final List<Future<TitleMatch>> futures = new ArrayList<>(filenames.size());
+            for (final String filename : filenames) {
+                futures.add(executor.submit(context.wrap(new Callable<TitleMatch>() {
+                    @Override
+                    public TitleMatch call() throws AllocineException {
+                        return match(filename, type);
+                    }
+                })));
+            }
+
+            final List<TitleMatch> results = new ArrayList<>(filenames.size());
+            final Iterator<String> names = filenames.iterator();
+            for (Future<TitleMatch> future : futures) {
+                final String filename = names.next();
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ex) {
+                    LOG.warn("Failed to match '{}': {}", filename, ex.getCause().getMessage());
+                    results.add(new TitleMatch(filename, null, -1, type, -1, null, 0));
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Interrupted while matching the filenames");
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the title and the year from a filename
+     *
+     * @param filename
+     * @return the title and the year, -1 if there is none
+     */
+    static String[] parseFilename(final String filename) {
+        String name = filename == null ? "" : filename;
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        name = EXTENSION.matcher(name).replaceFirst("");
+        name = BRACKETS.matcher(name).replaceAll(" ");
+
+        // the last year, unless it starts the name as in "2001 A Space Odyssey"
+        int year = -1;
+        int yearStart = -1;
+        final Matcher matcher = YEAR.matcher(name);
+        while (matcher.find()) {
+            if (matcher.start() > 0) {
+                year = Integer.parseInt(matcher.group(1));
+                yearStart = matcher.start();
+            }
+        }
+        if (yearStart > 0) {
+            name = name.substring(0, yearStart);
+        }
+
+        // the title stops at the first resolution or episode
+        final List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.matcher(name).replaceAll(" ").trim().split("\\s+")) {
+            if (RELEASE_MARKER.matcher(word).matches() && !words.isEmpty()) {
+                break;
+            }
+            words.add(word);
+        }
+        // then the release tags left at its end are removed
+        int end = words.size();
+        while (end > 1 && RELEASE_TAG.matcher(words.get(end - 1)).matches()) {
+            end--;
+        }
+        final String title = StringUtils.join(words.subList(0, end), ' ');
+        return new String[]{StringUtils.strip(title, " -"), String.valueOf(year)};
+    }
+
+    /**
+     * Score a candidate for a title and year
+     *
+     * @param title
+     * @param year the year, or -1 if it is not known
+     * @param candidate
+     * @return the score, between 0 and 1
+     */
+    static double score(final String title, final int year, final AbstractBaseMapping candidate) {
+        double titleScore = similarity(title, candidate.getTitle());
+        if (titleScore < 1) {
+            titleScore = Math.max(titleScore, ORIGINAL_TITLE_FACTOR * similarity(title, candidate.getOriginalTitle()));
+        }
+
+        final int candidateYear;
+        if (candidate instanceof Movie) {
+            candidateYear = ((Movie) candidate).getProductionYear();
+        } else if (candidate instanceof TvSeries) {
+            candidateYear = ((TvSeries) candidate).getYearStart();
+        } else {
+            candidateYear = 0;
+        }
+        if (year <= 0 || candidateYear <= 0) {
+            return titleScore;
+        }
+
+        final int gap = Math.abs(year - candidateYear);
+        final double yearScore;
+        if (gap == 0) {
+            yearScore = 1.0;
+        } else if (gap == 1) {
+            // release and production years often differ by one
+            yearScore = 0.5;
+        } else {
+            yearScore = 0;
+        }
+        return WEIGHT_TITLE * titleScore + WEIGHT_YEAR * yearScore;
+    }
+
+    /**
+     * Compare two titles, ignoring accents, case and punctuation
+     *
+     * @param title1
+     * @param title2
+     * @return the similarity, between 0 and 1
+     */
+    static double similarity(final String title1, final String title2) {
+        final List<String> words1 = TextTools.tokenize(title1);
+        final List<String> words2 = TextTools.tokenize(title2);
+        if (words1.isEmpty() || words2.isEmpty()) {
+            return 0;
+        }
+        final String text1 = StringUtils.join(words1, ' ');
+        final String text2 = StringUtils.join(words2, ' ');
+        if (text1.equals(text2)) {
+            return 1;
+        }
+
+        final int distance = StringUtils.getLevenshteinDistance(text1, text2);
+        final double distanceScore = 1.0 - (double) distance / Math.max(text1.length(), text2.length());
+
+        final Set<String> common = new HashSet<>(words1);
+        final Set<String> all = new HashSet<>(words1);
+        common.retainAll(words2);
+        all.addAll(words2);
+        final double wordScore = (double) common.size() / all.size();
+
+        return WEIGHT_DISTANCE * distanceScore + WEIGHT_WORDS * wordScore;
+    }
+
+    /**
+     * Get the search results for a title, from the cache or the API
+     */
+    private Search getCandidates(final String title, final ItemType type) throws AllocineException {
+        final String key = type.name() + ':' + StringUtils.join(TextTools.tokenize(title), ' ');
+        FutureTask<Search> task = null;
+        Future<Search> future;
+        synchronized (candidates) {
+            future = candidates.get(key);
+            if (future == null) {
+                task = new FutureTask<>(new Callable<Search>() {
+                    @Override
+                    public Search call() throws AllocineException {
+                        return type == ItemType.MOVIE ? api.searchMovies(title) : api.searchTvSeries(title);
+                    }
+                });
+                candidates.put(key, task);
+                future = task;
+            }
+        }
+        if (task != null) {
+            task.run();
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            // don't cache the failure
+            synchronized (candidates) {
+                if (candidates.get(key) == future) {
+                    candidates.remove(key);
+                }
+            }
+            if (ex.getCause() instanceof AllocineException) {
+                throw (AllocineException) ex.getCause();
+            }
+            throw new IllegalStateException("Failed to search for " + title, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while searching for " + title);
+        }
+    }
+
+    /**
+     * Get the number of cached titles
+     *
+     * @return
+     */
+    public int getCacheSize() {
+        synchronized (candidates) {
+            return candidates.size();
+        }
+    }
+
+    public void clearCache() {
+        synchronized (candidates) {
+            candidates.clear();
+        }
+    }
+
+    /**
+     * Save the cached search results to a file
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void saveCache(final File file) throws IOException {
+        final SnapshotCodec codec = new SnapshotCodec();
+        final List<Map.Entry<String, Future<Search>>> entries;
+        synchronized (candidates) {
+            entries = new ArrayList<>(candidates.entrySet());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(CACHE_FILE_VERSION);
+            for (Map.Entry<String, Future<Search>> entry : entries) {
+                final Search search = completed(entry.getValue());
+                if (search != null) {
+                    final byte[] snapshot = codec.encode(search);
+                    out.writeBoolean(true);
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(snapshot.length);
+                    out.write(snapshot);
+                }
+            }
+            out.writeBoolean(false);
+        }
+    }
+
+    /**
+     * Get the result of a search that has completed without error
+     */
+    private static Search completed(final Future<Search> future) {
+        if (!future.isDone()) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException | InterruptedException | CancellationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Load cached search results saved with {@link #saveCache(File)}
+     *
+     * @param file
+     * @param dictionary the dictionary sharing the code / name values, or null
+     * @throws IOException
+     */
+    public void loadCache(final File file, final CodeNameDictionary dictionary) throws IOException {
+        final SnapshotCodec codec = new SnapshotCodec(dictionary);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            final int version = in.readInt();
+            if (version != CACHE_FILE_VERSION) {
+                throw new IOException("Unsupported cache file version " + version);
+            }
+            while (in.readBoolean()) {
+                final String key = in.readUTF();
+                final byte[] snapshot = new byte[in.readInt()];
+                in.readFully(snapshot);
+                final Search search = codec.decodeSearch(snapshot);
+                final FutureTask<Search> task = new FutureTask<>(new Callable<Search>() {
+                    @Override
+                    public Search call() {
+                        return search;
+                    }
+                });
+                task.run();
+                synchronized (candidates) {
+                    candidates.put(key, task);
+                }
+            }
+        }
+    }
+}
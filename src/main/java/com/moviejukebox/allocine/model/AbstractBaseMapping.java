@@ -22,6 +22,9 @@
 package com.moviejukebox.allocine.model;
 
 import com.fasterxml.jackson.annotation.*;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.moviejukebox.allocine.model.media.MediaBasic;
 import com.moviejukebox.allocine.model.media.MediaPicture;
 import com.moviejukebox.allocine.model.media.MediaVideo;
@@ -30,8 +33,11 @@ import java.util.List;
 
 public abstract class AbstractBaseMapping extends AbstractJsonMapping {
 
-    private static final long serialVersionUID = -8874020449926781406L;
-    
+    private static final long serialVersionUID = -8874020449926781407L;
+    private static final TypeReference<List<News>> NEWS_LIST = new TypeReference<List<News>>() {};
+    private static final TypeReference<List<Review>> REVIEW_LIST = new TypeReference<List<Review>>() {};
+    private static final TypeReference<List<Trivia>> TRIVIA_LIST = new TypeReference<List<Trivia>>() {};
+
     @JsonProperty("code")
     private int code;
     @JsonProperty("title")
@@ -50,7 +56,8 @@ public abstract class AbstractBaseMapping extends AbstractJsonMapping {
     private List<CastMember> castMember = new ArrayList<>();
     @JsonProperty("statistics")
     private Statistics statistics;
-    private List<MediaBasic> media = new ArrayList<>();
+    // heavy sub-trees are decoded on first access
+    private LazyValue<List<MediaBasic>> media = LazyValue.<List<MediaBasic>>of(new ArrayList<MediaBasic>());
     @JsonProperty("poster")
     private Artwork poster;
     @JsonProperty("release")
@@ -59,20 +66,15 @@ public abstract class AbstractBaseMapping extends AbstractJsonMapping {
     private boolean dvd;
     @JsonProperty("castingShort")
     private CastingShort castingShort;
-    @JsonProperty("news")
-    private List<News> news;
+    private LazyValue<List<News>> news = LazyValue.<List<News>>of(null);
     @JsonProperty("link")
     private List<Link> links;
     @JsonProperty("tag")
     private List<CodeName> tags;
-    @JsonProperty("helpfulPositiveReview")
-    private List<Review> helpfulPositiveReview;
-    @JsonProperty("helpfulNegativeReview")
-    private List<Review> helpfulNegativeReview;
-    @JsonProperty("feature")
-    private List<News> features;
-    @JsonProperty("trivia")
-    private List<Trivia> trivia;
+    private LazyValue<List<Review>> helpfulPositiveReview = LazyValue.<List<Review>>of(null);
+    private LazyValue<List<Review>> helpfulNegativeReview = LazyValue.<List<Review>>of(null);
+    private LazyValue<List<News>> features = LazyValue.<List<News>>of(null);
+    private LazyValue<List<Trivia>> trivia = LazyValue.<List<Trivia>>of(null);
     @JsonProperty("hasBroadcast")
     private boolean hasBroadcast;
     private Broadcast nextBroadcast;
@@ -149,10 +151,12 @@ public abstract class AbstractBaseMapping extends AbstractJsonMapping {
         this.statistics = statistics;
     }
 
-    public List<MediaBasic> getMedia() {
-        return media;
-    }
-
+    /**
+     * Get the media, decoded from the response when first requested
+     *
+     * @return the media
+     * @throws IllegalStateException if the response could not be decoded
+     */
     @JsonTypeInfo(
             use = JsonTypeInfo.Id.NAME,
             include = JsonTypeInfo.As.PROPERTY,
@@ -162,9 +166,19 @@ public abstract class AbstractBaseMapping extends AbstractJsonMapping {
         @JsonSubTypes.Type(value = MediaPicture.class, name = "picture"),
         @JsonSubTypes.Type(value = MediaVideo.class, name = "video")
     })
-    @JsonSetter("media")
+    public List<MediaBasic> getMedia() {
+        return media.get();
+    }
+
+    @JsonIgnore
     public void setMedia(List<MediaBasic> media) {
-        this.media = media;
+        this.media = LazyValue.of(media);
+    }
+
+    @JsonSetter("media")
+    @JsonDeserialize(using = LazyValue.Buffering.class)
+    private void setMedia(TokenBuffer buffer) {
+        this.media = LazyValue.of(buffer, MediaHolder.class);
     }
 
     public Artwork getPoster() {
@@ -199,12 +213,24 @@ public abstract class AbstractBaseMapping extends AbstractJsonMapping {
         this.castingShort = castingShort;
     }
 
+    /**
+     * Get the news, decoded from the response when first requested
+     *
+     * @return the news
+     * @throws IllegalStateException if the response could not be decoded
+     */
     public List<News> getNews() {
-        return news;
+        return news.get();
     }
 
+    @JsonIgnore
     public void setNews(List<News> news) {
-        this.news = news;
+        this.news = LazyValue.of(news);
+    }
+
+    @JsonSetter("news")
+    private void setNews(TokenBuffer buffer) {
+        this.news = LazyValue.of(buffer, NEWS_LIST);
     }
 
     public List<Link> getLinks() {
@@ -223,36 +249,84 @@ public abstract class AbstractBaseMapping extends AbstractJsonMapping {
         this.tags = tags;
     }
 
+    /**
+     * Get the helpful positive reviews, decoded from the response when first requested
+     *
+     * @return the helpful positive reviews
+     * @throws IllegalStateException if the response could not be decoded
+     */
     public List<Review> getHelpfulPositiveReview() {
-        return helpfulPositiveReview;
+        return helpfulPositiveReview.get();
     }
 
+    @JsonIgnore
     public void setHelpfulPositiveReview(List<Review> helpfulPositiveReview) {
-        this.helpfulPositiveReview = helpfulPositiveReview;
+        this.helpfulPositiveReview = LazyValue.of(helpfulPositiveReview);
     }
 
+    @JsonSetter("helpfulPositiveReview")
+    private void setHelpfulPositiveReview(TokenBuffer buffer) {
+        this.helpfulPositiveReview = LazyValue.of(buffer, REVIEW_LIST);
+    }
+
+    /**
+     * Get the helpful negative reviews, decoded from the response when first requested
+     *
+     * @return the helpful negative reviews
+     * @throws IllegalStateException if the response could not be decoded
+     */
     public List<Review> getHelpfulNegativeReview() {
-        return helpfulNegativeReview;
+        return helpfulNegativeReview.get();
     }
 
+    @JsonIgnore
     public void setHelpfulNegativeReview(List<Review> helpfulNegativeReview) {
-        this.helpfulNegativeReview = helpfulNegativeReview;
+        this.helpfulNegativeReview = LazyValue.of(helpfulNegativeReview);
+    }
+
+    @JsonSetter("helpfulNegativeReview")
+    private void setHelpfulNegativeReview(TokenBuffer buffer) {
+        this.helpfulNegativeReview = LazyValue.of(buffer, REVIEW_LIST);
     }
 
+    /**
+     * Get the features, decoded from the response when first requested
+     *
+     * @return the features
+     * @throws IllegalStateException if the response could not be decoded
+     */
     public List<News> getFeatures() {
-        return features;
+        return features.get();
     }
 
+    @JsonIgnore
     public void setFeatures(List<News> features) {
-        this.features = features;
+        this.features = LazyValue.of(features);
     }
 
+    @JsonSetter("feature")
+    private void setFeatures(TokenBuffer buffer) {
+        this.features = LazyValue.of(buffer, NEWS_LIST);
+    }
+
+    /**
+     * Get the trivia, decoded from the response when first requested
+     *
+     * @return the trivia
+     * @throws IllegalStateException if the response could not be decoded
+     */
     public List<Trivia> getTrivia() {
-        return trivia;
+        return trivia.get();
     }
 
+    @JsonIgnore
     public void setTrivia(List<Trivia> trivia) {
-        this.trivia = trivia;
+        this.trivia = LazyValue.of(trivia);
+    }
+
+    @JsonSetter("trivia")
+    private void setTrivia(TokenBuffer buffer) {
+        this.trivia = LazyValue.of(buffer, TRIVIA_LIST);
     }
 
     public boolean isBroadcast() {
@@ -272,4 +346,31 @@ public abstract class AbstractBaseMapping extends AbstractJsonMapping {
         this.nextBroadcast = nextBroadcast.getBroadcast();
     }
 
+
+    /**
+     * The media decoded on their own, with the subtypes of the media property
+     */
+    private static final class MediaHolder implements LazyValue.Holder<List<MediaBasic>> {
+
+        private List<MediaBasic> value;
+
+        @Override
+        public List<MediaBasic> get() {
+            return value;
+        }
+
+        @JsonTypeInfo(
+                use = JsonTypeInfo.Id.NAME,
+                include = JsonTypeInfo.As.PROPERTY,
+                property = "class"
+        )
+        @JsonSubTypes({
+            @JsonSubTypes.Type(value = MediaPicture.class, name = "picture"),
+            @JsonSubTypes.Type(value = MediaVideo.class, name = "video")
+        })
+        @JsonSetter("value")
+        public void setValue(List<MediaBasic> value) {
+            this.value = value;
+        }
+    }
 }
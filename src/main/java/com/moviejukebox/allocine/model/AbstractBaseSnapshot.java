@@ -0,0 +1,203 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import java.util.*;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Immutable view of the data shared by movies and TV series.
+ *
+ * All the values are computed when the snapshot is created, and the persons
+ * and awards are copied into immutable values, so a snapshot can be shared
+ * between threads without any locking.
+ */
+public abstract class AbstractBaseSnapshot {
+
+    private final int code;
+    private final String title;
+    private final String originalTitle;
+    private final String releaseDate;
+    private final String releaseCountry;
+    private final String synopsis;
+    private final String synopsisShort;
+    private final int userRating;
+    private final int pressRating;
+    private final Set<String> genres;
+    private final Set<String> nationalities;
+    private final Set<MoviePersonSnapshot> actors;
+    private final Set<MoviePersonSnapshot> directors;
+    private final Set<MoviePersonSnapshot> writers;
+    private final Set<MoviePersonSnapshot> producers;
+    private final Set<MoviePersonSnapshot> camera;
+    private final Set<MoviePersonSnapshot> art;
+    private final Map<String, Long> posters;
+    private final List<FestivalAwardSnapshot> festivalAwards;
+
+    protected AbstractBaseSnapshot(final AbstractBaseInfos infos, final AbstractBaseMapping base, final List<FestivalAward> festivalAwards) {
+        this.code = infos.getCode(base);
+        this.title = infos.getTitle(base);
+        this.originalTitle = infos.getOriginalTitle(base);
+        this.releaseDate = infos.getReleaseDate(base);
+        this.releaseCountry = infos.getReleaseCountry(base);
+        this.synopsis = infos.getSynopsis(base);
+        this.synopsisShort = infos.getSynopsisShort(base);
+        this.userRating = infos.getUserRating(base);
+        this.pressRating = infos.getPressRating(base);
+        this.genres = copyOf(infos.getGenres(base));
+        this.nationalities = copyOf(infos.getNationalities(base));
+        this.actors = copyOfPersons(infos.getActors(base));
+        this.directors = copyOfPersons(infos.getDirectors(base));
+        this.writers = copyOfPersons(infos.getWriters(base));
+        this.producers = copyOfPersons(infos.getProducers(base));
+        this.camera = copyOfPersons(infos.getCamera(base));
+        this.art = copyOfPersons(infos.getArt(base));
+        this.posters = copyOf(infos.getPosters(base));
+        this.festivalAwards = copyOfAwards(festivalAwards);
+    }
+
+    static Set<MoviePersonSnapshot> copyOfPersons(final Set<MoviePerson> persons) {
+        if (persons == null || persons.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<MoviePersonSnapshot> copy = new LinkedHashSet<>();
+        for (MoviePerson person : persons) {
+            copy.add(new MoviePersonSnapshot(person));
+        }
+        return Collections.unmodifiableSet(copy);
+    }
+
+    static List<FestivalAwardSnapshot> copyOfAwards(final List<FestivalAward> awards) {
+        if (awards == null || awards.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<FestivalAwardSnapshot> copy = new ArrayList<>(awards.size());
+        for (FestivalAward award : awards) {
+            copy.add(new FestivalAwardSnapshot(award));
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    protected static <T> Set<T> copyOf(final Set<T> set) {
+        if (set == null || set.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(new LinkedHashSet<>(set));
+    }
+
+    protected static <K, V> Map<K, V> copyOf(final Map<K, V> map) {
+        if (map == null || map.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(new LinkedHashMap<>(map));
+    }
+
+    public boolean isValid() {
+        return code > 0;
+    }
+
+    public boolean isNotValid() {
+        return !this.isValid();
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getOriginalTitle() {
+        return originalTitle;
+    }
+
+    public String getReleaseDate() {
+        return releaseDate;
+    }
+
+    public String getReleaseCountry() {
+        return releaseCountry;
+    }
+
+    public String getSynopsis() {
+        return synopsis;
+    }
+
+    public String getSynopsisShort() {
+        return synopsisShort;
+    }
+
+    public int getUserRating() {
+        return userRating;
+    }
+
+    public int getPressRating() {
+        return pressRating;
+    }
+
+    public Set<String> getGenres() {
+        return genres;
+    }
+
+    public Set<String> getNationalities() {
+        return nationalities;
+    }
+
+    public Set<MoviePersonSnapshot> getActors() {
+        return actors;
+    }
+
+    public Set<MoviePersonSnapshot> getDirectors() {
+        return directors;
+    }
+
+    public Set<MoviePersonSnapshot> getWriters() {
+        return writers;
+    }
+
+    public Set<MoviePersonSnapshot> getProducers() {
+        return producers;
+    }
+
+    public Set<MoviePersonSnapshot> getCamera() {
+        return camera;
+    }
+
+    public Set<MoviePersonSnapshot> getArt() {
+        return art;
+    }
+
+    public Map<String, Long> getPosters() {
+        return posters;
+    }
+
+    public List<FestivalAwardSnapshot> getFestivalAwards() {
+        return festivalAwards;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -21,6 +21,7 @@
  */
 package com.moviejukebox.allocine.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonRootName;
 import com.moviejukebox.allocine.model.enumeration.Job;
 import java.util.HashMap;
@@ -84,6 +85,11 @@ public class Activity extends CodeName {
         }
     }
 
+    @JsonIgnore
+    public Job getJob() {
+        return job;
+    }
+
     private boolean hasJob(Job job) {
         return this.job == job;
     }
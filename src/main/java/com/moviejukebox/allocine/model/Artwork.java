@@ -22,6 +22,7 @@
 package com.moviejukebox.allocine.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.moviejukebox.allocine.tools.ImageTools;
 
 public class Artwork extends Link {
 
@@ -38,4 +39,14 @@ public class Artwork extends Link {
         this.path = path;
     }
 
+    /**
+     * Get the URL of the image resized to fit in a box
+     *
+     * @param width
+     * @param height
+     * @return
+     */
+    public String getHref(int width, int height) {
+        return ImageTools.resize(getHref(), width, height);
+    }
 }
@@ -25,6 +25,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 import com.fasterxml.jackson.annotation.JsonSetter;
+import com.moviejukebox.allocine.tools.ImageTools;
 
 @JsonRootName("channel")
 @JsonIgnoreProperties(value = {"trailerEmbed"})
@@ -68,6 +69,17 @@ public class Channel extends AbstractJsonMapping {
         return logo;
     }
 
+    /**
+     * Get the URL of the logo resized to fit in a box
+     *
+     * @param width
+     * @param height
+     * @return
+     */
+    public String getLogo(int width, int height) {
+        return ImageTools.resize(logo, width, height);
+    }
+
     @JsonSetter("logo")
     public void setLogo(Link link) {
         this.logo = link.getHref();
@@ -0,0 +1,113 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Immutable copy of a {@link FestivalAward}, for the snapshots.
+ *
+ * The code / name values are reduced to their names, and the movie of the
+ * award to its code and title.
+ */
+public final class FestivalAwardSnapshot {
+
+    private final int code;
+    private final String name;
+    private final int festivalCode;
+    private final String festival;
+    private final int year;
+    private final String awardType;
+    private final String sectionType;
+    private final int movieCode;
+    private final String movieTitle;
+
+    FestivalAwardSnapshot(final FestivalAward award) {
+        this.code = award.getCode();
+        this.name = award.getName();
+        this.festivalCode = award.getParentFestival() == null ? -1 : award.getParentFestival().getCode();
+        this.festival = award.getFestival();
+        this.year = award.getYear();
+        this.awardType = award.getAwardType() == null ? null : award.getAwardType().getName();
+        this.sectionType = award.getSectionType() == null ? null : award.getSectionType().getName();
+        final Movie movie = award.getEntities() == null ? null : award.getEntities().getMovie();
+        this.movieCode = movie == null ? -1 : movie.getCode();
+        this.movieTitle = movie == null ? null : movie.getTitle();
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the code of the festival
+     *
+     * @return the code, or -1 if the festival is not known
+     */
+    public int getFestivalCode() {
+        return festivalCode;
+    }
+
+    public String getFestival() {
+        return festival;
+    }
+
+    /**
+     * Get the year of the festival edition
+     *
+     * @return the year, or -1 if it is not known
+     */
+    public int getYear() {
+        return year;
+    }
+
+    public String getAwardType() {
+        return awardType;
+    }
+
+    public String getSectionType() {
+        return sectionType;
+    }
+
+    /**
+     * Get the code of the awarded movie
+     *
+     * @return the code, or -1 if there is none
+     */
+    public int getMovieCode() {
+        return movieCode;
+    }
+
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -156,4 +156,13 @@ public class FilmographyInfos extends AbstractPersonInfo {
         }
 
     }
+
+    /**
+     * Create an immutable snapshot of the current values
+     *
+     * @return
+     */
+    public FilmographySnapshot toSnapshot() {
+        return new FilmographySnapshot(this);
+    }
 }
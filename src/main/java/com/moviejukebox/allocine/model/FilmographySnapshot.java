@@ -0,0 +1,71 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Immutable snapshot of a {@link FilmographyInfos}.
+ *
+ * The participances are computed and copied into immutable values when the
+ * snapshot is created, so a snapshot can be shared between threads without
+ * any locking.
+ */
+public final class FilmographySnapshot {
+
+    private final int code;
+    private final List<ParticipanceSnapshot> participances;
+
+    FilmographySnapshot(final FilmographyInfos infos) {
+        this.code = infos.getCode();
+        final List<ParticipanceSnapshot> copy = new ArrayList<>();
+        for (Participance participance : infos.getParticipances()) {
+            copy.add(new ParticipanceSnapshot(participance));
+        }
+        this.participances = Collections.unmodifiableList(copy);
+    }
+
+    public boolean isValid() {
+        return code > 0;
+    }
+
+    public boolean isNotValid() {
+        return !this.isValid();
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public List<ParticipanceSnapshot> getParticipances() {
+        return participances;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
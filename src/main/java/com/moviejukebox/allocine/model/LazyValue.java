@@ -0,0 +1,198 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * Holder for a property that is kept as buffered JSON tokens and only
+ * deserialised on first access.
+ *
+ * The tokens are decoded once, by the first thread asking for the value. If
+ * they cannot be decoded, each access fails with an
+ * {@link IllegalStateException}.
+ *
+ * @param <T> the decoded type
+ */
+final class LazyValue<T> implements Serializable {
+
+    private static final long serialVersionUID = 100L;
+
+    private transient volatile TokenBuffer buffer;
+    private transient TypeReference<T> type;
+    private transient Class<? extends Holder<T>> holder;
+    private T value;
+
+    private LazyValue(final T value) {
+        this.value = value;
+    }
+
+    private LazyValue(final TokenBuffer buffer, final TypeReference<T> type, final Class<? extends Holder<T>> holder) {
+        this.buffer = buffer;
+        this.type = type;
+        this.holder = holder;
+    }
+
+    /**
+     * Create an already decoded value
+     *
+     * @param <T>
+     * @param value
+     * @return
+     */
+    static <T> LazyValue<T> of(final T value) {
+        return new LazyValue<>(value);
+    }
+
+    /**
+     * Create a value that is decoded from the buffer when first requested
+     *
+     * @param <T>
+     * @param buffer the JSON tokens, may be null
+     * @param type
+     * @return
+     */
+    static <T> LazyValue<T> of(final TokenBuffer buffer, final TypeReference<T> type) {
+        if (buffer == null) {
+            return new LazyValue<>((T) null);
+        }
+        return new LazyValue<>(buffer, type, null);
+    }
+
+    /**
+     * Create a value that is decoded from the buffer when first requested,
+     * through the "value" property of a holder
+     *
+     * @param <T>
+     * @param buffer the JSON tokens, may be null
+     * @param holder
+     * @return
+     */
+    static <T> LazyValue<T> of(final TokenBuffer buffer, final Class<? extends Holder<T>> holder) {
+        if (buffer == null) {
+            return new LazyValue<>((T) null);
+        }
+        return new LazyValue<>(buffer, null, holder);
+    }
+
+    /**
+     * Get the value, decoding it if needed
+     *
+     * @return
+     * @throws IllegalStateException if the tokens cannot be decoded
+     */
+    T get() {
+        if (buffer != null) {
+            decode();
+        }
+        return value;
+    }
+
+    /**
+     * Check whether the value is still held as JSON tokens
+     *
+     * @return
+     */
+    boolean isPending() {
+        return buffer != null;
+    }
+
+    private synchronized void decode() {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            if (holder == null) {
+                try (JsonParser parser = buffer.asParser()) {
+                    value = parser.readValueAs(type);
+                }
+            } else {
+                final TokenBuffer wrapped = new TokenBuffer(buffer.getCodec(), false);
+                wrapped.writeStartObject();
+                wrapped.writeFieldName("value");
+                buffer.serialize(wrapped);
+                wrapped.writeEndObject();
+                try (JsonParser parser = wrapped.asParser()) {
+                    value = parser.readValueAs(holder).get();
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to decode the buffered JSON", ex);
+        }
+        buffer = null;
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        // the buffer is not serializable, so always write the decoded value
+        get();
+        out.defaultWriteObject();
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(get());
+    }
+
+    /**
+     * Bean decoding a value through its "value" property, for the properties
+     * whose annotations tell how to decode them, like the subtypes of a list
+     *
+     * @param <T>
+     */
+    interface Holder<T> {
+
+        T get();
+    }
+
+    /**
+     * Buffer the tokens of a property whose annotations give type information.
+     * The type information is only used by the holder, once decoded.
+     */
+    static final class Buffering extends StdDeserializer<TokenBuffer> {
+
+        private static final long serialVersionUID = 100L;
+
+        Buffering() {
+            super(TokenBuffer.class);
+        }
+
+        @Override
+        public TokenBuffer deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+            final TokenBuffer tokens = new TokenBuffer(parser, context);
+            tokens.copyCurrentStructure(parser);
+            return tokens;
+        }
+
+        @Override
+        public Object deserializeWithType(final JsonParser parser, final DeserializationContext context, final TypeDeserializer typeDeserializer) throws IOException {
+            return deserialize(parser, context);
+        }
+    }
+}
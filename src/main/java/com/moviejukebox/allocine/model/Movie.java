@@ -21,9 +21,13 @@
  */
 package com.moviejukebox.allocine.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,7 +35,8 @@ import java.util.List;
 @JsonIgnoreProperties(value = {"trailerEmbed"})
 public class Movie extends AbstractBaseMapping {
 
-    private static final long serialVersionUID = 100L;
+    private static final long serialVersionUID = 101L;
+    private static final TypeReference<List<BoxOffice>> BOX_OFFICE_LIST = new TypeReference<List<BoxOffice>>() {};
 
     @JsonProperty("productionYear")
     private int productionYear;
@@ -63,8 +68,7 @@ public class Movie extends AbstractBaseMapping {
     private String bluRayReleaseDate;
     @JsonProperty("keywords")
     private String keywords;
-    @JsonProperty("boxOffice")
-    private List<BoxOffice> boxOffice;
+    private LazyValue<List<BoxOffice>> boxOffice = LazyValue.<List<BoxOffice>>of(null);
     @JsonProperty("formatList")
     private FormatList formatList;
 
@@ -188,12 +192,24 @@ public class Movie extends AbstractBaseMapping {
         this.keywords = keywords;
     }
 
+    /**
+     * Get the box office, decoded from the response when first requested
+     *
+     * @return the box office
+     * @throws IllegalStateException if the response could not be decoded
+     */
     public List<BoxOffice> getBoxOffice() {
-        return boxOffice;
+        return boxOffice.get();
     }
 
+    @JsonIgnore
     public void setBoxOffice(List<BoxOffice> boxOffice) {
-        this.boxOffice = boxOffice;
+        this.boxOffice = LazyValue.of(boxOffice);
+    }
+
+    @JsonSetter("boxOffice")
+    private void setBoxOffice(TokenBuffer buffer) {
+        this.boxOffice = LazyValue.of(buffer, BOX_OFFICE_LIST);
     }
 
     public FormatList getFormatList() {
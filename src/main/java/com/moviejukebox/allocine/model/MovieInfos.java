@@ -175,4 +175,13 @@ public class MovieInfos extends AbstractBaseInfos {
         }
         return Collections.emptyList();
     }
+
+    /**
+     * Create an immutable snapshot of the current values
+     *
+     * @return
+     */
+    public MovieSnapshot toSnapshot() {
+        return new MovieSnapshot(this);
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Immutable copy of a {@link MoviePerson}, for the snapshots
+ */
+public final class MoviePersonSnapshot {
+
+    private final long code;
+    private final String name;
+    private final String role;
+    private final String photoURL;
+    private final boolean leadActor;
+
+    MoviePersonSnapshot(final MoviePerson person) {
+        this.code = person.getCode();
+        this.name = person.getName();
+        this.role = person.getRole();
+        this.photoURL = person.getPhotoURL();
+        this.leadActor = person.isLeadActor();
+    }
+
+    public long getCode() {
+        return code;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getPhotoURL() {
+        return photoURL;
+    }
+
+    public boolean isLeadActor() {
+        return leadActor;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
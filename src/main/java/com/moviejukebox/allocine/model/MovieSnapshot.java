@@ -0,0 +1,57 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+/**
+ * Immutable snapshot of a {@link MovieInfos}
+ */
+public final class MovieSnapshot extends AbstractBaseSnapshot {
+
+    private final int productionYear;
+    private final int runtime;
+    private final String certification;
+    private final String distributor;
+
+    MovieSnapshot(final MovieInfos infos) {
+        super(infos, infos.getMovie(), infos.getFestivalAwards());
+        this.productionYear = infos.getProductionYear();
+        this.runtime = infos.getRuntime();
+        this.certification = infos.getCertification();
+        this.distributor = infos.getDistributor();
+    }
+
+    public int getProductionYear() {
+        return productionYear;
+    }
+
+    public int getRuntime() {
+        return runtime;
+    }
+
+    public String getCertification() {
+        return certification;
+    }
+
+    public String getDistributor() {
+        return distributor;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Immutable copy of a {@link Participance}, for the snapshots
+ */
+public final class ParticipanceSnapshot {
+
+    private final boolean tvShow;
+    private final long code;
+    private final String role;
+    private final boolean actor;
+    private final boolean director;
+    private final boolean writer;
+    private final boolean producer;
+    private final boolean camera;
+    private final boolean art;
+    private final int year;
+    private final int yearStart;
+    private final int yearEnd;
+    private final long seasonCode;
+    private final int seasonNumber;
+    private final String releaseDate;
+    private final String releaseCountry;
+    private final String title;
+    private final String originalTitle;
+    private final String synopsisShort;
+
+    ParticipanceSnapshot(final Participance participance) {
+        this.tvShow = participance.isTvShow();
+        this.code = participance.getCode();
+        this.role = participance.getRole();
+        this.actor = participance.isActor();
+        this.director = participance.isDirector();
+        this.writer = participance.isWriter();
+        this.producer = participance.isProducer();
+        this.camera = participance.isCamera();
+        this.art = participance.isArt();
+        this.year = participance.getYear();
+        this.yearStart = participance.getYearStart();
+        this.yearEnd = participance.getYearEnd();
+        this.seasonCode = participance.getSeasonCode();
+        this.seasonNumber = participance.getSeasonNumber();
+        this.releaseDate = participance.getReleaseDate();
+        this.releaseCountry = participance.getReleaseCountry();
+        this.title = participance.getTitle();
+        this.originalTitle = participance.getOriginalTitle();
+        this.synopsisShort = participance.getSynopsisShort();
+    }
+
+    public boolean isTvShow() {
+        return tvShow;
+    }
+
+    public long getCode() {
+        return code;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isActor() {
+        return actor;
+    }
+
+    public boolean isDirector() {
+        return director;
+    }
+
+    public boolean isWriter() {
+        return writer;
+    }
+
+    public boolean isProducer() {
+        return producer;
+    }
+
+    public boolean isCamera() {
+        return camera;
+    }
+
+    public boolean isArt() {
+        return art;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getYearStart() {
+        return yearStart;
+    }
+
+    public int getYearEnd() {
+        return yearEnd;
+    }
+
+    public long getSeasonCode() {
+        return seasonCode;
+    }
+
+    public int getSeasonNumber() {
+        return seasonNumber;
+    }
+
+    public String getReleaseDate() {
+        return releaseDate;
+    }
+
+    public String getReleaseCountry() {
+        return releaseCountry;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getOriginalTitle() {
+        return originalTitle;
+    }
+
+    public String getSynopsisShort() {
+        return synopsisShort;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -109,4 +109,13 @@ public class PersonInfos extends AbstractPersonInfo {
     public List<FestivalAward> getFestivalAwards() {
         return getPerson() == null ? null : getPerson().getFestivalAwards();
     }
+
+    /**
+     * Create an immutable snapshot of the current values
+     *
+     * @return
+     */
+    public PersonSnapshot toSnapshot() {
+        return new PersonSnapshot(this);
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import java.util.List;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Immutable snapshot of a {@link PersonInfos}.
+ *
+ * All the values are computed when the snapshot is created, and the awards
+ * are copied into immutable values, so a snapshot can be shared between
+ * threads without any locking.
+ */
+public final class PersonSnapshot {
+
+    private final int code;
+    private final String fullName;
+    private final String firstName;
+    private final String lastName;
+    private final String realName;
+    private final int gender;
+    private final String biographyShort;
+    private final String biography;
+    private final String birthDate;
+    private final String birthPlace;
+    private final String deathDate;
+    private final String deathPlace;
+    private final String photoURL;
+    private final List<FestivalAwardSnapshot> festivalAwards;
+
+    PersonSnapshot(final PersonInfos infos) {
+        this.code = infos.getCode();
+        this.fullName = infos.getFullName();
+        this.firstName = infos.getFirstName();
+        this.lastName = infos.getLastName();
+        this.realName = infos.getRealName();
+        this.gender = infos.getGender();
+        this.biographyShort = infos.getBiographyShort();
+        this.biography = infos.getBiography();
+        this.birthDate = infos.getBirthDate();
+        this.birthPlace = infos.getBirthPlace();
+        this.deathDate = infos.getDeathDate();
+        this.deathPlace = infos.getDeathPlace();
+        this.photoURL = infos.getPhotoURL();
+        this.festivalAwards = AbstractBaseSnapshot.copyOfAwards(infos.getFestivalAwards());
+    }
+
+    public boolean isValid() {
+        return code > 0;
+    }
+
+    public boolean isNotValid() {
+        return !this.isValid();
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getRealName() {
+        return realName;
+    }
+
+    public int getGender() {
+        return gender;
+    }
+
+    public String getBiographyShort() {
+        return biographyShort;
+    }
+
+    public String getBiography() {
+        return biography;
+    }
+
+    public String getBirthDate() {
+        return birthDate;
+    }
+
+    public String getBirthPlace() {
+        return birthPlace;
+    }
+
+    public String getDeathDate() {
+        return deathDate;
+    }
+
+    public String getDeathPlace() {
+        return deathPlace;
+    }
+
+    public String getPhotoURL() {
+        return photoURL;
+    }
+
+    public List<FestivalAwardSnapshot> getFestivalAwards() {
+        return festivalAwards;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
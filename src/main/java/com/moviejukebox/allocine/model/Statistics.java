@@ -24,9 +24,11 @@ package com.moviejukebox.allocine.model;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @JsonRootName("statistics")
 public class Statistics {
@@ -45,6 +47,14 @@ public class Statistics {
         return ratings;
     }
 
+    public void setRatings(List<Rating> ratings) {
+        this.ratings = ratings;
+    }
+
+    public Set<String> getStatisticNames() {
+        return Collections.unmodifiableSet(stats.keySet());
+    }
+
     public boolean hasStatistic(String statisticName) {
         return stats.containsKey(statisticName);
     }
@@ -183,4 +183,13 @@ public class TvSeriesInfos extends AbstractBaseInfos {
         }
         return Collections.emptyList();
     }
+
+    /**
+     * Create an immutable snapshot of the current values
+     *
+     * @return
+     */
+    public TvSeriesSnapshot toSnapshot() {
+        return new TvSeriesSnapshot(this);
+    }
 }
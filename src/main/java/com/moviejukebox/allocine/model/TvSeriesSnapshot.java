@@ -0,0 +1,87 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a {@link TvSeriesInfos}
+ */
+public final class TvSeriesSnapshot extends AbstractBaseSnapshot {
+
+    private final int yearStart;
+    private final int yearEnd;
+    private final String originalChannel;
+    private final int seasonCount;
+    private final Map<Integer, Integer> seasonCodes;
+
+    TvSeriesSnapshot(final TvSeriesInfos infos) {
+        super(infos, infos.getTvSeries(), infos.getFestivalAwards());
+        this.yearStart = infos.getYearStart();
+        this.yearEnd = infos.getYearEnd();
+        this.originalChannel = infos.getOriginalChannel();
+        this.seasonCount = infos.getSeasonCount();
+
+        final Map<Integer, Integer> codes = new HashMap<>();
+        if (infos.getSeasonList() != null) {
+            for (Season season : infos.getSeasonList()) {
+                // keep the first season with a number, as the infos do
+                if (!codes.containsKey(season.getSeasonNumber())) {
+                    codes.put(season.getSeasonNumber(), season.getCode());
+                }
+            }
+        }
+        this.seasonCodes = Collections.unmodifiableMap(codes);
+    }
+
+    public int getYearStart() {
+        return yearStart;
+    }
+
+    public int getYearEnd() {
+        return yearEnd;
+    }
+
+    public String getOriginalChannel() {
+        return originalChannel;
+    }
+
+    public int getSeasonCount() {
+        return seasonCount;
+    }
+
+    /**
+     * Get the season codes by season number
+     *
+     * @return
+     */
+    public Map<Integer, Integer> getSeasonCodes() {
+        return seasonCodes;
+    }
+
+    public int getSeasonCode(int seasonNumber) {
+        final Integer seasonCode = seasonCodes.get(seasonNumber);
+        return seasonCode == null ? -1 : seasonCode.intValue();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model.enumeration;
+
+/**
+ * Size class of an artwork, from the longest side of the picture
+ */
+public enum ArtworkSize {
+
+    UNKNOWN,
+    SMALL,
+    MEDIUM,
+    LARGE;
+
+    private static final int MEDIUM_MIN = 500;
+    private static final int LARGE_MIN = 1200;
+
+    /**
+     * Get the size class of a picture
+     *
+     * @param width
+     * @param height
+     * @return
+     */
+    public static ArtworkSize of(final int width, final int height) {
+        final int side = Math.max(width, height);
+        if (width <= 0 || height <= 0) {
+            return UNKNOWN;
+        } else if (side >= LARGE_MIN) {
+            return LARGE;
+        } else if (side >= MEDIUM_MIN) {
+            return MEDIUM;
+        }
+        return SMALL;
+    }
+}
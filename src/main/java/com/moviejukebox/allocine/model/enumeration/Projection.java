@@ -0,0 +1,94 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model.enumeration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Amount of data requested and deserialised for a movie, TV series, season,
+ * episode or person.
+ *
+ * Each projection selects the Allocine profile to request and the JSON
+ * properties of the entity that are skipped at the token level while
+ * parsing. The nested objects are read whole.
+ */
+public enum Projection {
+
+    /**
+     * Everything the API provides
+     */
+    FULL("large"),
+    /**
+     * Code, titles, year, release, poster and statistics only, for list views
+     */
+    SUMMARY("small",
+            "synopsis",
+            "castMember",
+            "castingShort",
+            "media",
+            "news",
+            "feature",
+            "trivia",
+            "helpfulPositiveReview",
+            "helpfulNegativeReview",
+            "boxOffice",
+            "festivalAward",
+            "trailer",
+            "link",
+            "tag",
+            "season",
+            "broadcast",
+            "nextBroadcast");
+
+    private final String profile;
+    private final Set<String> skippedProperties;
+
+    private Projection(String profile, String... skippedProperties) {
+        this.profile = profile;
+        this.skippedProperties = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(skippedProperties)));
+    }
+
+    /**
+     * The "profile" parameter value to send to the API
+     *
+     * @return
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * The JSON properties which are not deserialised
+     *
+     * @return
+     */
+    public Set<String> getSkippedProperties() {
+        return skippedProperties;
+    }
+
+    public boolean isFull() {
+        return skippedProperties.isEmpty();
+    }
+}
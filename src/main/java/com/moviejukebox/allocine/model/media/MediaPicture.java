@@ -22,6 +22,7 @@
 package com.moviejukebox.allocine.model.media;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.moviejukebox.allocine.tools.ImageTools;
 
 public class MediaPicture extends MediaBasic {
 
@@ -68,4 +69,21 @@ public class MediaPicture extends MediaBasic {
         this.copyrightHolder = copyrightHolder;
     }
 
+    /**
+     * Get the URL of the picture resized to fit in a box. The picture is not
+     * enlarged if it is smaller than the box.
+     *
+     * @param width
+     * @param height
+     * @return
+     */
+    public String getThumbnailHref(int width, int height) {
+        if (getThumbnail() == null) {
+            return null;
+        }
+        if (this.width > 0 && this.height > 0 && this.width <= width && this.height <= height) {
+            return ImageTools.getOriginal(getThumbnail().getHref());
+        }
+        return ImageTools.resize(getThumbnail().getHref(), width, height);
+    }
 }
@@ -0,0 +1,195 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.reactive;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.bulk.CrawledSeries;
+import com.moviejukebox.allocine.bulk.ExecutionMode;
+import com.moviejukebox.allocine.bulk.SeriesCrawler;
+import com.moviejukebox.allocine.model.*;
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import com.moviejukebox.allocine.model.enumeration.Projection;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import org.reactivestreams.Publisher;
+
+/**
+ * Reactive Streams publishers over the API.
+ *
+ * The publishers are cold: each subscriber gets its own reads. The requests
+ * are only sent for the demand of the subscriber, so a slow subscriber slows
+ * the reads down. The blocking calls run on the threads of this object, not
+ * on the threads of the subscriber, in the
+ * {@link com.moviejukebox.allocine.schedule.CallContext} of the thread
+ * subscribing. Cancelling a subscription aborts its requests in progress.
+ *
+ * The publishers can be given to Reactor or RxJava as they are, or adapted
+ * to java.util.concurrent.Flow with org.reactivestreams.FlowAdapters.
+ */
+public class AllocinePublishers implements Closeable {
+
+    private final AllocineApi api;
+    private final ExecutorService executor;
+    private final int concurrency;
+
+    /**
+     * Create the publishers
+     *
+     * @param api
+     * @param mode the threads running the calls to the API
+     * @param concurrency the maximum number of calls at the same time for a
+     * subscriber, and the number of threads
+     */
+    public AllocinePublishers(final AllocineApi api, final ExecutionMode mode, final int concurrency) {
+        this.api = api;
+        this.executor = mode.newExecutor(concurrency);
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Search for movies, page by page
+     *
+     * @param query
+     * @param count the number of results by page
+     * @return
+     */
+    public Publisher<Search> searchMovies(final String query, final int count) {
+        return new SearchPublisher(api, query, ItemType.MOVIE, count, executor);
+    }
+
+    /**
+     * Search for TV series, page by page
+     *
+     * @param query
+     * @param count the number of results by page
+     * @return
+     */
+    public Publisher<Search> searchTvSeries(final String query, final int count) {
+        return new SearchPublisher(api, query, ItemType.TVSERIES, count, executor);
+    }
+
+    /**
+     * Search for persons, page by page
+     *
+     * @param query
+     * @param count the number of results by page
+     * @return
+     */
+    public Publisher<Search> searchPersons(final String query, final int count) {
+        return new SearchPublisher(api, query, ItemType.PERSON, count, executor);
+    }
+
+    public Publisher<LookupResult<MovieInfos>> getMovieInfos(final Collection<String> codes) {
+        return getMovieInfos(codes, Projection.FULL);
+    }
+
+    public Publisher<LookupResult<MovieInfos>> getMovieInfos(final Collection<String> codes, final Projection projection) {
+        return publish(codes, new LookupPublisher.Lookup<MovieInfos>() {
+            @Override
+            public MovieInfos get(final String code) throws AllocineException {
+                return api.getMovieInfos(code, projection);
+            }
+        });
+    }
+
+    public Publisher<LookupResult<TvSeriesInfos>> getTvSeriesInfos(final Collection<String> codes) {
+        return getTvSeriesInfos(codes, Projection.FULL);
+    }
+
+    public Publisher<LookupResult<TvSeriesInfos>> getTvSeriesInfos(final Collection<String> codes, final Projection projection) {
+        return publish(codes, new LookupPublisher.Lookup<TvSeriesInfos>() {
+            @Override
+            public TvSeriesInfos get(final String code) throws AllocineException {
+                return api.getTvSeriesInfos(code, projection);
+            }
+        });
+    }
+
+    public Publisher<LookupResult<TvSeasonInfos>> getTvSeasonInfos(final Collection<String> codes) {
+        return publish(codes, new LookupPublisher.Lookup<TvSeasonInfos>() {
+            @Override
+            public TvSeasonInfos get(final String code) throws AllocineException {
+                return api.getTvSeasonInfos(code);
+            }
+        });
+    }
+
+    public Publisher<LookupResult<EpisodeInfos>> getEpisodeInfos(final Collection<String> codes) {
+        return publish(codes, new LookupPublisher.Lookup<EpisodeInfos>() {
+            @Override
+            public EpisodeInfos get(final String code) throws AllocineException {
+                return api.getEpisodeInfos(code);
+            }
+        });
+    }
+
+    public Publisher<LookupResult<PersonInfos>> getPersonInfos(final Collection<String> codes) {
+        return publish(codes, new LookupPublisher.Lookup<PersonInfos>() {
+            @Override
+            public PersonInfos get(final String code) throws AllocineException {
+                return api.getPersonInfos(code);
+            }
+        });
+    }
+
+    public Publisher<LookupResult<FilmographyInfos>> getPersonFilmographies(final Collection<String> codes) {
+        return publish(codes, new LookupPublisher.Lookup<FilmographyInfos>() {
+            @Override
+            public FilmographyInfos get(final String code) throws AllocineException {
+                return api.getPersonFilmography(code);
+            }
+        });
+    }
+
+    /**
+     * Crawl TV series, a series being crawled when the subscriber requests it.
+     *
+     * The seasons and episodes of a series are read by the lookup of the
+     * crawler, which must not run on the threads of this object.
+     *
+     * @param codes the codes of the series
+     * @param crawler
+     * @return
+     */
+    public Publisher<LookupResult<CrawledSeries>> crawlSeries(final Collection<String> codes, final SeriesCrawler crawler) {
+        return publish(codes, new LookupPublisher.Lookup<CrawledSeries>() {
+            @Override
+            public CrawledSeries get(final String code) throws AllocineException {
+                return crawler.crawl(code);
+            }
+        });
+    }
+
+    private <T> Publisher<LookupResult<T>> publish(final Collection<String> codes, final LookupPublisher.Lookup<T> lookup) {
+        return new LookupPublisher<>(codes, lookup, executor, concurrency);
+    }
+
+    /**
+     * Stop the threads, the subscriptions in progress fail on their next read
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.reactive;
+
+import com.moviejukebox.allocine.schedule.CallContext;
+import com.moviejukebox.allocine.schedule.CancellationToken;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Subscription fetching items only for the demand of its subscriber.
+ *
+ * The signals to the subscriber are serialised by a drain loop, which any
+ * thread may run: the subscriber requesting more, or a fetch ending. The
+ * loop emits the items ready, then asks for the fetches still missing to
+ * meet the demand.
+ *
+ * The fetches run in the {@link CallContext} of the thread subscribing, with
+ * a token of the subscription: cancelling it or ending it with an error
+ * aborts the requests in progress.
+ *
+ * @param <T>
+ */
+abstract class DemandSubscription<T> implements Subscription {
+
+    private final Subscriber<? super T> subscriber;
+    private final Queue<T> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private final CancellationToken token = new CancellationToken();
+    final CallContext context = CallContext.current().withCancellation(token);
+    private volatile boolean cancelled;
+    // only read and written by the drain loop
+    private boolean done;
+
+    DemandSubscription(final Subscriber<? super T> subscriber) {
+        this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(final long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("The demand must be positive, got " + n));
+            return;
+        }
+        long current;
+        long next;
+        do {
+            current = requested.get();
+            next = current + n;
+            if (next < 0) {
+                next = Long.MAX_VALUE;
+            }
+        } while (!requested.compareAndSet(current, next));
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        drain();
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Start the fetches for the items missing to meet the demand. Called by
+     * the drain loop, so never by two threads at the same time.
+     *
+     * @param missing the number of items requested but not ready, including
+     * the ones being fetched
+     */
+    abstract void fetch(long missing);
+
+    /**
+     * Whether all the items were fetched and none is being fetched
+     *
+     * @return
+     */
+    abstract boolean isExhausted();
+
+    /**
+     * Add an item ready to be emitted. The fetch must call
+     * {@link #drain()} once its state is up to date.
+     *
+     * @param item
+     */
+    final void offer(final T item) {
+        ready.offer(item);
+    }
+
+    /**
+     * Terminate the subscription with an error
+     *
+     * @param ex
+     */
+    final void fail(final Throwable ex) {
+        error.compareAndSet(null, ex);
+        drain();
+    }
+
+    final void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (!done) {
+                drainLoop();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainLoop() {
+        while (!cancelled && requested.get() > 0) {
+            final T item = ready.poll();
+            if (item == null) {
+                break;
+            }
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.decrementAndGet();
+            }
+            subscriber.onNext(item);
+        }
+
+        if (cancelled) {
+            terminate();
+            return;
+        }
+        final Throwable ex = error.get();
+        if (ex != null) {
+            terminate();
+            subscriber.onError(ex);
+            return;
+        }
+
+        final long missing = requested.get() - ready.size();
+        if (missing > 0) {
+            fetch(missing);
+        }
+        // exhausted first: the fetches offer their item before they end
+        if (isExhausted() && ready.isEmpty()) {
+            done = true;
+            subscriber.onComplete();
+        }
+    }
+
+    private void terminate() {
+        // the fetches in progress are aborted, their items are dropped
+        done = true;
+        ready.clear();
+        token.cancel();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.reactive;
+
+import com.moviejukebox.allocine.AllocineException;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Publisher of the objects of a list of codes, read in parallel as the
+ * subscriber requests them. The results are emitted as the lookups end.
+ *
+ * @param <T>
+ */
+final class LookupPublisher<T> implements Publisher<LookupResult<T>> {
+
+    private final List<String> codes;
+    private final Lookup<T> lookup;
+    private final Executor executor;
+    private final int concurrency;
+
+    LookupPublisher(final Collection<String> codes, final Lookup<T> lookup, final Executor executor, final int concurrency) {
+        this.codes = new ArrayList<>(new LinkedHashSet<>(codes));
+        this.lookup = lookup;
+        this.executor = executor;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super LookupResult<T>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber is null");
+        }
+        subscriber.onSubscribe(new LookupSubscription(subscriber));
+    }
+
+    /**
+     * Read the object of a code
+     *
+     * @param <T>
+     */
+    interface Lookup<T> {
+
+        T get(String code) throws AllocineException;
+    }
+
+    private final class LookupSubscription extends DemandSubscription<LookupResult<T>> {
+
+        private final Iterator<String> remaining = codes.iterator();
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        LookupSubscription(final Subscriber<? super LookupResult<T>> subscriber) {
+            super(subscriber);
+        }
+
+        @Override
+        void fetch(final long missing) {
+            while (remaining.hasNext() && inFlight.get() < concurrency && inFlight.get() < missing) {
+                final String code = remaining.next();
+                inFlight.incrementAndGet();
+                try {
+                    executor.execute(context.wrap(new Runnable() {
+                        @Override
+                        public void run() {
+                            read(code);
+                        }
+                    }));
+                } catch (RejectedExecutionException ex) {
+                    inFlight.decrementAndGet();
+                    fail(ex);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        boolean isExhausted() {
+            return !remaining.hasNext() && inFlight.get() == 0;
+        }
+
+        private void read(final String code) {
+            if (!isCancelled()) {
+                try {
+                    offer(new LookupResult<>(code, lookup.get(code), null));
+                } catch (AllocineException ex) {
+                    offer(new LookupResult<T>(code, null, ex));
+                } catch (RuntimeException ex) {
+                    inFlight.decrementAndGet();
+                    fail(ex);
+                    return;
+                }
+            }
+            inFlight.decrementAndGet();
+            drain();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.reactive;
+
+import com.moviejukebox.allocine.AllocineException;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Value read for a code by a publisher, or the error if it failed
+ *
+ * @param <T>
+ */
+public final class LookupResult<T> {
+
+    private final String code;
+    private final T value;
+    private final AllocineException error;
+
+    LookupResult(final String code, final T value, final AllocineException error) {
+        this.code = code;
+        this.value = value;
+        this.error = error;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Get the value
+     *
+     * @return the value, or null if the lookup failed
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Get the error
+     *
+     * @return the error, or null if the lookup succeeded
+     */
+    public AllocineException getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.reactive;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.model.Search;
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Publisher of the pages of a search. A page is read when the subscriber
+ * requests it, one at a time, until the last page.
+ */
+final class SearchPublisher implements Publisher<Search> {
+
+    private final AllocineApi api;
+    private final String query;
+    private final ItemType type;
+    private final int count;
+    private final Executor executor;
+
+    SearchPublisher(final AllocineApi api, final String query, final ItemType type, final int count, final Executor executor) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("The number of results by page must be positive");
+        }
+        this.api = api;
+        this.query = query;
+        this.type = type;
+        this.count = count;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super Search> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber is null");
+        }
+        subscriber.onSubscribe(new SearchSubscription(subscriber));
+    }
+
+    private Search search(final int page) throws AllocineException {
+        switch (type) {
+            case MOVIE:
+                return api.searchMovies(query, page, count);
+            case TVSERIES:
+                return api.searchTvSeries(query, page, count);
+            default:
+                return api.searchPersons(query, page, count);
+        }
+    }
+
+    private int getResultCount(final Search search) {
+        switch (type) {
+            case MOVIE:
+                return search.getMovies().size();
+            case TVSERIES:
+                return search.getTvSeries().size();
+            default:
+                return search.getPersons().size();
+        }
+    }
+
+    private final class SearchSubscription extends DemandSubscription<Search> {
+
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+        private volatile boolean last;
+        private int nextPage = 1;
+
+        SearchSubscription(final Subscriber<? super Search> subscriber) {
+            super(subscriber);
+        }
+
+        @Override
+        void fetch(final long missing) {
+            if (last || !inFlight.compareAndSet(false, true)) {
+                return;
+            }
+            final int page = nextPage++;
+            try {
+                executor.execute(context.wrap(new Runnable() {
+                    @Override
+                    public void run() {
+                        read(page);
+                    }
+                }));
+            } catch (RejectedExecutionException ex) {
+                inFlight.set(false);
+                fail(ex);
+            }
+        }
+
+        @Override
+        boolean isExhausted() {
+            return last && !inFlight.get();
+        }
+
+        private void read(final int page) {
+            if (!isCancelled()) {
+                try {
+                    final Search search = search(page);
+                    final int results = getResultCount(search);
+                    if (results > 0) {
+                        offer(search);
+                    }
+                    last = results < count || (long) page * count >= search.getTotalResults();
+                } catch (AllocineException | RuntimeException ex) {
+                    inFlight.set(false);
+                    fail(ex);
+                    return;
+                }
+            }
+            inFlight.set(false);
+            drain();
+        }
+    }
+}
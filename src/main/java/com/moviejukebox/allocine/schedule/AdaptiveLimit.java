@@ -0,0 +1,188 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.schedule;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Limit of the requests in progress adapted to the latency of the API.
+ *
+ * The latencies are averaged over windows of at least as many requests as
+ * the limit. The limit grows by one after a window whose latency stays
+ * within the tolerance of the baseline, if the window used at least half of
+ * it, and shrinks by a tenth after a window slower than that or with an
+ * overloaded request: a timeout or a 503 response. The limit so settles on
+ * the highest concurrency keeping the latency stable.
+ *
+ * The baseline is the lowest window latency. It is measured again after the
+ * first 20 windows, slowed by the warm up of the connections, then every 500
+ * windows, with the limit halved to drain the queues of the API, so that a
+ * lasting change of the API is followed.
+ */
+public final class AdaptiveLimit {
+
+    private static final int MIN_WINDOW = 10;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int WARM_UP_WINDOWS = 20;
+    private static final int PROBE_INTERVAL = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private volatile int limit;
+    private volatile long baseline;
+    private volatile long latency;
+    private volatile long increases;
+    private volatile long decreases;
+    private int windows;
+    // window, only used with the lock of the scheduler
+    private int samples;
+    private long latencySum;
+    private int maxInFlight;
+    private boolean overloaded;
+
+    AdaptiveLimit(final int initialLimit, final int minLimit, final int maxLimit, final double tolerance) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Record the latency of a request, called with the lock of the scheduler
+     *
+     * @param nanos the time from the permit to its release
+     * @param inFlight the requests in progress when the permit was given
+     * @param overloadedRequest if the request failed from an overload
+     * @return the new limit
+     */
+    int sample(final long nanos, final int inFlight, final boolean overloadedRequest) {
+        samples++;
+        latencySum += nanos;
+        maxInFlight = Math.max(maxInFlight, inFlight);
+        overloaded |= overloadedRequest;
+        if (samples < Math.max(MIN_WINDOW, limit)) {
+            return limit;
+        }
+
+        final long average = latencySum / samples;
+        latency = average;
+        if (baseline == 0 || average < baseline) {
+            baseline = average;
+        }
+
+        windows++;
+        if (windows == WARM_UP_WINDOWS || windows % PROBE_INTERVAL == 0) {
+            // the next window sets the baseline again
+            limit = Math.max(minLimit, limit / 2);
+            baseline = 0;
+            decreases++;
+        } else if (overloaded || average > baseline * tolerance) {
+            limit = Math.max(minLimit, Math.min(limit - 1, (int) (limit * BACKOFF_RATIO)));
+            decreases++;
+        } else if (maxInFlight * 2 >= limit && limit < maxLimit) {
+            limit++;
+            increases++;
+        }
+
+        samples = 0;
+        latencySum = 0;
+        maxInFlight = 0;
+        overloaded = false;
+        return limit;
+    }
+
+    /**
+     * Start again from a limit, called with the lock of the scheduler
+     *
+     * @param newLimit
+     */
+    void reset(final int newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        samples = 0;
+        latencySum = 0;
+        maxInFlight = 0;
+        overloaded = false;
+    }
+
+    /**
+     * Get the current limit
+     *
+     * @return
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Get the baseline latency, or 0 before the first window
+     *
+     * @param unit
+     * @return
+     */
+    public long getBaseline(final TimeUnit unit) {
+        return unit.convert(baseline, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the average latency of the last window, or 0 before the first one
+     *
+     * @param unit
+     * @return
+     */
+    public long getLatency(final TimeUnit unit) {
+        return unit.convert(latency, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the number of times the limit grew
+     *
+     * @return
+     */
+    public long getIncreases() {
+        return increases;
+    }
+
+    /**
+     * Get the number of times the limit shrank
+     *
+     * @return
+     */
+    public long getDecreases() {
+        return decreases;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
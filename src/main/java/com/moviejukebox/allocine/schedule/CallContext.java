@@ -0,0 +1,314 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.schedule;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Lane, deadline and cancellation of the calls to the API made by the current
+ * thread.
+ *
+ * <pre>
+ * CancellationToken token = new CancellationToken();
+ * try (CallContext.Scope scope = CallContext.of(Lane.BACKGROUND, 30, TimeUnit.SECONDS).withCancellation(token).enter()) {
+ *     api.getMovieInfos(code);
+ * }
+ * </pre>
+ *
+ * A call whose deadline passes or whose token is cancelled fails with an
+ * {@link com.moviejukebox.allocine.AllocineException}: its request is aborted,
+ * releasing its connection, and the parsing of its response stops.
+ *
+ * The calls made outside of a context are in the normal lane, without a
+ * deadline. The bulk helpers run their lookups in the context of the thread
+ * that started them.
+ */
+public final class CallContext {
+
+    private static final ThreadLocal<CallContext> CURRENT = new ThreadLocal<>();
+    private static final CancellationToken[] NO_TOKENS = new CancellationToken[0];
+    private static final CallContext DEFAULT = new CallContext(Lane.NORMAL, false, 0, NO_TOKENS);
+    private final Lane lane;
+    private final boolean deadlineSet;
+    private final long deadline;
+    private final CancellationToken[] tokens;
+
+    private CallContext(final Lane lane, final boolean deadlineSet, final long deadline, final CancellationToken[] tokens) {
+        this.lane = lane;
+        this.deadlineSet = deadlineSet;
+        this.deadline = deadline;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Get the context of the current thread
+     *
+     * @return
+     */
+    public static CallContext current() {
+        final CallContext context = CURRENT.get();
+        return context == null ? DEFAULT : context;
+    }
+
+    /**
+     * Create a context without a deadline
+     *
+     * @param lane
+     * @return
+     */
+    public static CallContext of(final Lane lane) {
+        return new CallContext(lane, false, 0, NO_TOKENS);
+    }
+
+    /**
+     * Create a context with a deadline
+     *
+     * @param lane
+     * @param timeout the time from now until the deadline
+     * @param unit
+     * @return
+     */
+    public static CallContext of(final Lane lane, final long timeout, final TimeUnit unit) {
+        return new CallContext(lane, true, System.nanoTime() + unit.toNanos(timeout), NO_TOKENS);
+    }
+
+    /**
+     * Create a copy of this context with a deadline, kept if this context
+     * has an earlier one
+     *
+     * @param timeout the time from now until the deadline
+     * @param unit
+     * @return
+     */
+    public CallContext withDeadline(final long timeout, final TimeUnit unit) {
+        final long newDeadline = System.nanoTime() + unit.toNanos(timeout);
+        if (deadlineSet && deadline - newDeadline <= 0) {
+            return this;
+        }
+        return new CallContext(lane, true, newDeadline, tokens);
+    }
+
+    /**
+     * Create a copy of this context also cancelled by a token
+     *
+     * @param token
+     * @return
+     */
+    public CallContext withCancellation(final CancellationToken token) {
+        final CancellationToken[] newTokens = Arrays.copyOf(tokens, tokens.length + 1);
+        newTokens[tokens.length] = token;
+        return new CallContext(lane, deadlineSet, deadline, newTokens);
+    }
+
+    public Lane getLane() {
+        return lane;
+    }
+
+    public boolean hasDeadline() {
+        return deadlineSet;
+    }
+
+    /**
+     * Get the time left until the deadline
+     *
+     * @param unit
+     * @return the time left, negative once expired, or Long.MAX_VALUE without
+     * a deadline
+     */
+    public long getRemaining(final TimeUnit unit) {
+        if (!deadlineSet) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return deadlineSet && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Check if the calls of the context can be stopped, by a deadline or a
+     * token
+     *
+     * @return
+     */
+    public boolean isCancellable() {
+        return deadlineSet || tokens.length > 0;
+    }
+
+    /**
+     * Check if one of the tokens of the context is cancelled
+     *
+     * @return
+     */
+    public boolean isCancelled() {
+        for (CancellationToken token : tokens) {
+            if (token.isCancelled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Register an action run when a token of the context is cancelled or the
+     * deadline passes, at once if that already happened.
+     *
+     * The action can run more than once, and must be closed when the call
+     * ends.
+     *
+     * @param action
+     * @return
+     */
+    public Registration onCancel(final Runnable action) {
+        final Registration[] registrations = new Registration[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            registrations[i] = tokens[i].register(action);
+        }
+        final ScheduledFuture<?> timer;
+        if (deadlineSet) {
+            timer = Deadlines.TIMER.schedule(action, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } else {
+            timer = null;
+        }
+        return new Registration() {
+            @Override
+            public void close() {
+                for (Registration registration : registrations) {
+                    registration.close();
+                }
+                if (timer != null) {
+                    timer.cancel(false);
+                }
+            }
+        };
+    }
+
+    /**
+     * Make this context the one of the current thread, until the scope is
+     * closed
+     *
+     * @return
+     */
+    public Scope enter() {
+        final Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(this);
+        return scope;
+    }
+
+    /**
+     * Wrap a task to run it in this context, on any thread
+     *
+     * @param <V>
+     * @param task
+     * @return
+     */
+    public <V> Callable<V> wrap(final Callable<V> task) {
+        return new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                try (Scope scope = enter()) {
+                    return task.call();
+                }
+            }
+        };
+    }
+
+    /**
+     * Wrap a task to run it in this context, on any thread
+     *
+     * @param task
+     * @return
+     */
+    public Runnable wrap(final Runnable task) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try (Scope scope = enter()) {
+                    task.run();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+
+    /**
+     * Timer running the actions of the passed deadlines, created on first use
+     */
+    private static final class Deadlines {
+
+        private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "allocine-deadlines");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        static {
+            TIMER.setRemoveOnCancelPolicy(true);
+        }
+
+        private Deadlines() {
+            throw new UnsupportedOperationException("Class cannot be initialised");
+        }
+    }
+
+    /**
+     * Restore the previous context of the thread when closed
+     */
+    public static final class Scope implements Closeable {
+
+        private final CallContext previous;
+        private boolean closed;
+
+        private Scope(final CallContext previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.schedule;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Token cancelling the calls to the API made in a {@link CallContext}
+ * holding it.
+ *
+ * Cancelling aborts the requests in progress and the parsing of their
+ * responses, and the calls not sent yet fail at once.
+ */
+public final class CancellationToken {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CancellationToken.class);
+    private final Set<Action> actions = Collections.newSetFromMap(new ConcurrentHashMap<Action, Boolean>());
+    private volatile boolean cancelled;
+
+    /**
+     * Cancel the calls, only the first call has an effect
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (Action action : actions) {
+            action.run();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Register an action run on cancellation, at once if the token is
+     * already cancelled
+     *
+     * @param runnable
+     * @return
+     */
+    public Registration register(final Runnable runnable) {
+        final Action action = new Action(runnable);
+        actions.add(action);
+        if (cancelled) {
+            action.run();
+        }
+        return action;
+    }
+
+    /**
+     * Registered action, run once by the first thread removing it
+     */
+    private final class Action implements Registration, Runnable {
+
+        private final Runnable runnable;
+
+        Action(final Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            if (actions.remove(this)) {
+                try {
+                    runnable.run();
+                } catch (RuntimeException ex) {
+                    LOG.warn("Cancellation action failed: {}", ex.getMessage());
+                    LOG.trace("Cancellation exception", ex);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            actions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.schedule;
+
+import static org.yamj.api.common.exception.ApiExceptionType.CONNECTION_ERROR;
+
+import com.moviejukebox.allocine.AllocineException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedule the requests sent to the API between the priority lanes.
+ *
+ * A request waits for a permit before it is sent. The permits go to the
+ * lanes by weighted fair queuing: each request is tagged with the virtual
+ * time it would end if its lane had the share of its weight, and the lowest
+ * tag is sent first. A lane never has more requests in progress than its
+ * limit, and all the lanes together no more than the global limit.
+ *
+ * A request whose deadline passes or whose call is cancelled while it waits
+ * is dropped with an {@link AllocineException}, so it is never sent.
+ *
+ * With an {@link AdaptiveLimit}, the global limit follows the latency of
+ * the requests instead of being fixed.
+ */
+public class RequestScheduler {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LaneState[] lanes;
+    private final AtomicLong expired = new AtomicLong();
+    private final AdaptiveLimit adaptiveLimit;
+    private int maxConcurrent;
+    private int running;
+    private double virtualTime;
+
+    RequestScheduler(final int maxConcurrent, final int[] weights, final int[] limits, final AdaptiveLimit adaptiveLimit) {
+        this.adaptiveLimit = adaptiveLimit;
+        this.maxConcurrent = adaptiveLimit == null ? maxConcurrent : adaptiveLimit.getLimit();
+        this.lanes = new LaneState[Lane.values().length];
+        for (Lane lane : Lane.values()) {
+            lanes[lane.ordinal()] = new LaneState(weights[lane.ordinal()], limits[lane.ordinal()]);
+        }
+    }
+
+    /**
+     * Wait for the permit to send a request
+     *
+     * @param context the lane and deadline of the request
+     * @param url the URL of the request, for the errors
+     * @return the permit, to release once the response is read
+     * @throws AllocineException if the deadline passed, the call was
+     * cancelled or the thread was interrupted
+     */
+    public Permit acquire(final CallContext context, final String url) throws AllocineException {
+        if (context.isExpired()) {
+            expired.incrementAndGet();
+            throw new AllocineException(CONNECTION_ERROR, "Deadline expired before the request was sent", url);
+        }
+
+        final LaneState state = lanes[context.getLane().ordinal()];
+        final Waiter waiter = new Waiter(lock.newCondition());
+        final Registration wakeUp = context.onCancel(new Runnable() {
+            @Override
+            public void run() {
+                lock.lock();
+                try {
+                    waiter.condition.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        lock.lock();
+        try {
+            waiter.previousTag = state.lastTag;
+            waiter.tag = Math.max(virtualTime, state.lastTag) + 1.0 / state.weight;
+            state.lastTag = waiter.tag;
+            state.queue.add(waiter);
+            dispatch();
+
+            while (!waiter.granted) {
+                if (context.isCancelled()) {
+                    remove(state, waiter);
+                    throw new AllocineException(CONNECTION_ERROR, "Call cancelled before the request was sent", url);
+                }
+                final long remaining = context.getRemaining(TimeUnit.NANOSECONDS);
+                if (remaining <= 0) {
+                    remove(state, waiter);
+                    expired.incrementAndGet();
+                    throw new AllocineException(CONNECTION_ERROR, "Deadline expired before the request was sent", url);
+                }
+                try {
+                    if (context.hasDeadline()) {
+                        waiter.condition.awaitNanos(remaining);
+                    } else {
+                        waiter.condition.await();
+                    }
+                } catch (InterruptedException ex) {
+                    if (waiter.granted) {
+                        release(state, 0, 0, false);
+                    } else {
+                        remove(state, waiter);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new AllocineException(CONNECTION_ERROR, "Interrupted before the request was sent", url, ex);
+                }
+            }
+            return new Permit(state, running);
+        } finally {
+            lock.unlock();
+            wakeUp.close();
+        }
+    }
+
+    /**
+     * Remove a request leaving the queue before being sent. The tag of the
+     * last request of the lane is given back, so that the next requests of
+     * the lane are not pushed behind a request that was never sent. Called
+     * with the lock held.
+     */
+    private static void remove(final LaneState state, final Waiter waiter) {
+        state.queue.remove(waiter);
+        if (state.lastTag == waiter.tag) {
+            state.lastTag = waiter.previousTag;
+        }
+    }
+
+    /**
+     * Give the free permits to the waiting requests with the lowest tags.
+     * Called with the lock held.
+     */
+    private void dispatch() {
+        while (running < maxConcurrent) {
+            LaneState next = null;
+            for (LaneState state : lanes) {
+                final Waiter head = state.queue.peek();
+                if (head != null && state.running < state.limit && (next == null || head.tag < next.queue.peek().tag)) {
+                    next = state;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            final Waiter waiter = next.queue.poll();
+            waiter.granted = true;
+            running++;
+            next.running++;
+            next.sent++;
+            virtualTime = waiter.tag;
+            waiter.condition.signal();
+        }
+    }
+
+    private void release(final LaneState state, final long nanos, final int inFlight, final boolean overloaded) {
+        lock.lock();
+        try {
+            running--;
+            state.running--;
+            if (adaptiveLimit != null && nanos > 0) {
+                maxConcurrent = adaptiveLimit.sample(nanos, inFlight, overloaded);
+            }
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the maximum number of requests in progress
+     *
+     * @return
+     */
+    public int getMaxConcurrent() {
+        lock.lock();
+        try {
+            return maxConcurrent;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Change the maximum number of requests in progress. Lowering it lets the
+     * requests in progress end. With an adaptive limit, the limit starts again
+     * from this value, within its bounds.
+     *
+     * @param maxConcurrent
+     */
+    public void setMaxConcurrent(final int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("The maximum number of requests must be positive");
+        }
+        lock.lock();
+        try {
+            if (adaptiveLimit == null) {
+                this.maxConcurrent = maxConcurrent;
+            } else {
+                adaptiveLimit.reset(maxConcurrent);
+                this.maxConcurrent = adaptiveLimit.getLimit();
+            }
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the adaptive limit, with its latencies
+     *
+     * @return the adaptive limit, or null if the limit is fixed
+     */
+    public AdaptiveLimit getAdaptiveLimit() {
+        return adaptiveLimit;
+    }
+
+    /**
+     * Get the number of requests in progress
+     *
+     * @return
+     */
+    public int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests of a lane in progress
+     *
+     * @param lane
+     * @return
+     */
+    public int getRunning(final Lane lane) {
+        lock.lock();
+        try {
+            return lanes[lane.ordinal()].running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests of a lane waiting for a permit
+     *
+     * @param lane
+     * @return
+     */
+    public int getQueued(final Lane lane) {
+        lock.lock();
+        try {
+            return lanes[lane.ordinal()].queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests of a lane sent since the creation
+     *
+     * @param lane
+     * @return
+     */
+    public long getSent(final Lane lane) {
+        lock.lock();
+        try {
+            return lanes[lane.ordinal()].sent;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests dropped because their deadline passed
+     *
+     * @return
+     */
+    public long getExpired() {
+        return expired.get();
+    }
+
+    /**
+     * Permit to send a request, released once the response is read
+     */
+    public final class Permit {
+
+        private final LaneState state;
+        private final int inFlight;
+        private final long granted = System.nanoTime();
+        private boolean released;
+
+        private Permit(final LaneState state, final int inFlight) {
+            this.state = state;
+            this.inFlight = inFlight;
+        }
+
+        public void release() {
+            release(false);
+        }
+
+        /**
+         * Release the permit
+         *
+         * @param overloaded if the request failed from an overload of the
+         * API, a timeout or a 503 response, which lowers an adaptive limit
+         */
+        public void release(final boolean overloaded) {
+            if (!released) {
+                released = true;
+                RequestScheduler.this.release(state, Math.max(1, System.nanoTime() - granted), inFlight, overloaded);
+            }
+        }
+    }
+
+    private static final class LaneState {
+
+        private final int weight;
+        private final int limit;
+        private final Queue<Waiter> queue = new ArrayDeque<>();
+        private int running;
+        private long sent;
+        private double lastTag;
+
+        LaneState(final int weight, final int limit) {
+            this.weight = weight;
+            this.limit = limit;
+        }
+    }
+
+    private static final class Waiter {
+
+        private final Condition condition;
+        private double tag;
+        private double previousTag;
+        private boolean granted;
+
+        Waiter(final Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.schedule;
+
+/**
+ * Build a {@link RequestScheduler}.
+ *
+ * By default the interactive requests get 16 times the share of the
+ * background ones, and the background requests never use more than half of
+ * the permits.
+ *
+ * With an adaptive limit, the maximum number of requests in progress is the
+ * upper bound of the limit, which starts from a quarter of it.
+ */
+public class RequestSchedulerBuilder {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 32;
+    private static final int DEFAULT_WEIGHT_INTERACTIVE = 16;
+    private static final int DEFAULT_WEIGHT_NORMAL = 4;
+    private static final int DEFAULT_WEIGHT_BACKGROUND = 1;
+    private static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+
+    private int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+    private boolean adaptive;
+    private int minConcurrent = 1;
+    private double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+    private final int[] weights = new int[Lane.values().length];
+    private final int[] limits = new int[Lane.values().length];
+
+    public RequestSchedulerBuilder() {
+        weights[Lane.INTERACTIVE.ordinal()] = DEFAULT_WEIGHT_INTERACTIVE;
+        weights[Lane.NORMAL.ordinal()] = DEFAULT_WEIGHT_NORMAL;
+        weights[Lane.BACKGROUND.ordinal()] = DEFAULT_WEIGHT_BACKGROUND;
+    }
+
+    /**
+     * Set the maximum number of requests in progress, which should not be
+     * more than the connections of the HTTP client to the API
+     *
+     * @param maxConcurrent
+     * @return
+     */
+    public RequestSchedulerBuilder setMaxConcurrent(final int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        return this;
+    }
+
+    /**
+     * Set the share of a lane, relative to the other lanes
+     *
+     * @param lane
+     * @param weight
+     * @return
+     */
+    public RequestSchedulerBuilder setWeight(final Lane lane, final int weight) {
+        this.weights[lane.ordinal()] = weight;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of requests of a lane in progress
+     *
+     * @param lane
+     * @param maxConcurrent
+     * @return
+     */
+    public RequestSchedulerBuilder setMaxConcurrent(final Lane lane, final int maxConcurrent) {
+        this.limits[lane.ordinal()] = maxConcurrent;
+        return this;
+    }
+
+    /**
+     * Set if the limit of requests in progress adapts to the latency of the
+     * API
+     *
+     * @param adaptive
+     * @return
+     */
+    public RequestSchedulerBuilder setAdaptive(final boolean adaptive) {
+        this.adaptive = adaptive;
+        return this;
+    }
+
+    /**
+     * Set the lowest adaptive limit
+     *
+     * @param minConcurrent
+     * @return
+     */
+    public RequestSchedulerBuilder setMinConcurrent(final int minConcurrent) {
+        this.minConcurrent = minConcurrent;
+        return this;
+    }
+
+    /**
+     * Set how many times slower than the baseline the latency can be before
+     * the adaptive limit shrinks
+     *
+     * @param latencyTolerance
+     * @return
+     */
+    public RequestSchedulerBuilder setLatencyTolerance(final double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+        return this;
+    }
+
+    public RequestScheduler build() {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("The maximum number of requests must be positive");
+        }
+        AdaptiveLimit adaptiveLimit = null;
+        if (adaptive) {
+            if (minConcurrent <= 0 || minConcurrent > maxConcurrent) {
+                throw new IllegalArgumentException("The lowest limit must be positive and not above the maximum");
+            }
+            if (latencyTolerance <= 1.0) {
+                throw new IllegalArgumentException("The latency tolerance must be above 1");
+            }
+            final int initialLimit = Math.max(minConcurrent, maxConcurrent / 4);
+            adaptiveLimit = new AdaptiveLimit(initialLimit, minConcurrent, maxConcurrent, latencyTolerance);
+        }
+        final int[] laneLimits = new int[limits.length];
+        for (Lane lane : Lane.values()) {
+            final int index = lane.ordinal();
+            if (weights[index] <= 0) {
+                throw new IllegalArgumentException("The weight of the lane " + lane + " must be positive");
+            }
+            if (limits[index] > 0) {
+                laneLimits[index] = limits[index];
+            } else if (lane == Lane.BACKGROUND) {
+                laneLimits[index] = Math.max(1, maxConcurrent / 2);
+            } else {
+                laneLimits[index] = maxConcurrent;
+            }
+        }
+        return new RequestScheduler(maxConcurrent, weights.clone(), laneLimits, adaptiveLimit);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A page read from the API, kept in a {@link ResponseCache} with the
+ * validators of its response
+ */
+public final class CachedResponse {
+
+    private final byte[] content;
+    private final String etag;
+    private final String lastModified;
+    private final long expires;
+
+    CachedResponse(final byte[] content, final String etag, final String lastModified, final long expires) {
+        this.content = content;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.expires = expires;
+    }
+
+    /**
+     * Read the page, decompressed
+     *
+     * @return
+     */
+    public InputStream openContent() {
+        return new ByteArrayInputStream(content);
+    }
+
+    /**
+     * Get the size of the page in bytes
+     *
+     * @return
+     */
+    public int getSize() {
+        return content.length;
+    }
+
+    /**
+     * Get the ETag header of the response, or null
+     *
+     * @return
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Get the Last-Modified header of the response, or null
+     *
+     * @return
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Whether the object can be returned without asking the server
+     *
+     * @return
+     */
+    public boolean isFresh() {
+        return System.currentTimeMillis() < expires;
+    }
+
+    /**
+     * Whether the server can be asked if the object changed
+     *
+     * @return
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    CachedResponse refresh(final long expires) {
+        return new CachedResponse(content, etag, lastModified, expires);
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+                .append("size", content.length)
+                .append("etag", etag)
+                .append("lastModified", lastModified)
+                .append("expires", expires)
+                .toString();
+    }
+}
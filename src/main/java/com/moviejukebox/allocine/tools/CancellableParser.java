@@ -0,0 +1,70 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.moviejukebox.allocine.schedule.CallContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Parser that stops once the call it reads for is cancelled or past its
+ * deadline.
+ *
+ * The context is checked every few tokens, and the parsing fails with an
+ * {@link InterruptedIOException}.
+ */
+public class CancellableParser extends JsonParserDelegate {
+
+    private static final int CHECK_INTERVAL = 64;
+    private final CallContext context;
+    private int tokens;
+
+    public CancellableParser(final JsonParser parser, final CallContext context) {
+        super(parser);
+        this.context = context;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        if (++tokens % CHECK_INTERVAL == 0) {
+            if (context.isCancelled()) {
+                throw new InterruptedIOException("Call cancelled while parsing");
+            }
+            if (context.isExpired()) {
+                throw new InterruptedIOException("Deadline expired while parsing");
+            }
+        }
+        return delegate.nextToken();
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        if (token == JsonToken.FIELD_NAME) {
+            token = nextToken();
+        }
+        return token;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import com.moviejukebox.allocine.model.CodeName;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dictionary of shared code / name strings.
+ *
+ * Genres, nationalities, activities and the like only have a few hundred
+ * distinct values, so instead of keeping a copy of the name for every movie
+ * the first name seen for a code is kept and set on all the following
+ * values with that code.
+ *
+ * The values themselves are not shared and stay mutable, only their name
+ * strings are. The codes are kept by kind, the class and property holding
+ * the value as Release.country, as the genre, nationality or media type
+ * codes don't share the same space. A value with the same code but a different name keeps its own
+ * name, as does any value once the dictionary is full.
+ */
+public final class CodeNameDictionary {
+
+    /**
+     * Default number of names kept
+     */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final int maxSize;
+    private final ConcurrentMap<Key, String> names = new ConcurrentHashMap<>();
+
+    public CodeNameDictionary() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a dictionary
+     *
+     * @param maxSize the number of names kept
+     */
+    public CodeNameDictionary(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid maximum size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Set the shared name of its kind and code on a value
+     *
+     * @param <T>
+     * @param kind the kind of the value, as AbstractBaseMapping.genre
+     * @param value
+     * @return the value
+     */
+    public <T extends CodeName> T intern(final String kind, final T value) {
+        if (value == null || value.getName() == null) {
+            return value;
+        }
+        final Key key = new Key(kind, value.getCode());
+        String shared = names.get(key);
+        if (shared == null) {
+            if (names.size() >= maxSize) {
+                return value;
+            }
+            shared = names.putIfAbsent(key, value.getName());
+            if (shared == null) {
+                return value;
+            }
+        }
+        if (shared != value.getName() && shared.equals(value.getName())) {
+            value.setName(shared);
+        }
+        return value;
+    }
+
+    /**
+     * Get the shared name of a code
+     *
+     * @param kind
+     * @param code
+     * @return the name, or null if none is shared
+     */
+    public String getName(final String kind, final int code) {
+        return names.get(new Key(kind, code));
+    }
+
+    /**
+     * Get the number of shared names
+     *
+     * @return
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Remove all the shared names.
+     *
+     * Names already set stay shared by their values.
+     */
+    public void clear() {
+        names.clear();
+    }
+
+    private static final class Key {
+
+        private final String kind;
+        private final int code;
+
+        Key(final String kind, final int code) {
+            this.kind = kind;
+            this.code = code;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return code == other.code && kind.equals(other.kind);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + code;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.moviejukebox.allocine.model.Activity;
+import com.moviejukebox.allocine.model.CodeName;
+import java.io.IOException;
+
+/**
+ * Jackson module that sets the shared names of a {@link CodeNameDictionary}
+ * on the code / name values read. The kind of a value is the class and the
+ * name of the property holding it, as Release.country.
+ */
+public class CodeNameModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient CodeNameDictionary dictionary;
+
+    public CodeNameModule(final CodeNameDictionary dictionary) {
+        super("CodeNameModule");
+        this.dictionary = dictionary;
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc, JsonDeserializer<?> deserializer) {
+                final Class<?> cls = beanDesc.getBeanClass();
+                if (cls == CodeName.class || cls == Activity.class) {
+                    return new InterningDeserializer(deserializer, CodeNameModule.this.dictionary, cls.getSimpleName());
+                }
+                return deserializer;
+            }
+        });
+    }
+
+    public CodeNameDictionary getDictionary() {
+        return dictionary;
+    }
+
+    private static final class InterningDeserializer extends DelegatingDeserializer {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient CodeNameDictionary dictionary;
+        private final String kind;
+
+        InterningDeserializer(final JsonDeserializer<?> delegatee, final CodeNameDictionary dictionary, final String kind) {
+            super(delegatee);
+            this.dictionary = dictionary;
+            this.kind = kind;
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new InterningDeserializer(newDelegatee, dictionary, kind);
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            final InterningDeserializer contextual = (InterningDeserializer) super.createContextual(ctxt, property);
+            if (property == null) {
+                return contextual;
+            }
+            // the elements of a list get the property of the list
+            final String holder = property.getMember() == null ? "" : property.getMember().getDeclaringClass().getSimpleName();
+            return new InterningDeserializer(contextual.getDelegatee(), dictionary, holder + '.' + property.getName());
+        }
+
+        @Override
+        public Object deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+            final Object value = super.deserialize(jp, ctxt);
+            if (value instanceof CodeName) {
+                return dictionary.intern(kind, (CodeName) value);
+            }
+            return value;
+        }
+    }
+}
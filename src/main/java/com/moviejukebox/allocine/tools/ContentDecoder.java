@@ -0,0 +1,170 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+
+/**
+ * Decompress the content of the responses while it is read, counting the
+ * bytes received and decompressed.
+ *
+ * The HTTP client must not decompress the responses itself, otherwise the
+ * content is counted as received uncompressed.
+ */
+public class ContentDecoder {
+
+    /**
+     * Value of the Accept-Encoding header for the encodings decoded
+     */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int ZLIB_METHOD_DEFLATE = 8;
+    private static final int ZLIB_CHECK = 31;
+
+    private ContentDecoder() {
+        throw new UnsupportedOperationException("Class cannot be initialised");
+    }
+
+    /**
+     * Open the content of a response, decompressed according to its content
+     * encoding
+     *
+     * @param entity the entity of the response
+     * @param metrics the metrics to update
+     * @return
+     * @throws IOException if the content can't be read or the encoding is
+     * not supported, the content being closed
+     */
+    public static InputStream open(final HttpEntity entity, final TransferMetrics metrics) throws IOException {
+        final String encoding = getEncoding(entity.getContentEncoding());
+        final InputStream wire = new CountingInputStream(entity.getContent(), metrics.wireCounter());
+        if (encoding == null || "identity".equals(encoding)) {
+            metrics.addResponse(false);
+            return new CountingInputStream(wire, metrics.contentCounter());
+        }
+        final InputStream content;
+        try {
+            if ("gzip".equals(encoding) || "x-gzip".equals(encoding)) {
+                content = new GZIPInputStream(wire, BUFFER_SIZE);
+            } else if ("deflate".equals(encoding)) {
+                content = inflate(wire);
+            } else {
+                throw new IOException("Unsupported content encoding: " + encoding);
+            }
+        } catch (IOException | RuntimeException ex) {
+            // a corrupt header fails before the stream is returned
+            IOUtils.closeQuietly(wire);
+            throw ex;
+        }
+        metrics.addResponse(true);
+        return new CountingInputStream(content, metrics.contentCounter());
+    }
+
+    private static String getEncoding(final Header header) {
+        if (header == null || header.getValue() == null) {
+            return null;
+        }
+        final String value = header.getValue().trim().toLowerCase(Locale.ROOT);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Inflate a "deflate" content, which some servers send without the zlib
+     * wrapper
+     */
+    private static InputStream inflate(final InputStream in) throws IOException {
+        final PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        final byte[] header = new byte[2];
+        int read = 0;
+        while (read < header.length) {
+            final int n = pushback.read(header, read, header.length - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        pushback.unread(header, 0, read);
+        final boolean zlib = read == 2
+                && (header[0] & 0x0F) == ZLIB_METHOD_DEFLATE
+                && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % ZLIB_CHECK == 0;
+        return new InflaterInputStream(pushback, new Inflater(!zlib), BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    // the inflater is not ended by close when given to the stream
+                    inf.end();
+                }
+            }
+        };
+    }
+
+    /**
+     * Stream adding the number of bytes read to a counter
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong counter;
+
+        CountingInputStream(final InputStream in, final AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            counter.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
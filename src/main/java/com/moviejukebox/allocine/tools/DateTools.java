@@ -0,0 +1,66 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.TimeZone;
+import org.apache.commons.lang3.StringUtils;
+
+public class DateTools {
+
+    /**
+     * Time zone of the dates returned by Allocine
+     */
+    public static final TimeZone ALLOCINE_TIME_ZONE = TimeZone.getTimeZone("Europe/Paris");
+    private static final String FORMAT_DATE_TIME = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final String FORMAT_DATE = "yyyy-MM-dd";
+
+    private DateTools() {
+        throw new UnsupportedOperationException("Class cannot be initialised");
+    }
+
+    /**
+     * Parse an Allocine date, with or without the time
+     *
+     * A time skipped by the change to summer time can't be parsed, and a time
+     * repeated by the change to winter time is taken in winter time.
+     *
+     * @param src the date, such as "2013-04-08T20:45:00" or "2013-04-08"
+     * @param timeZone the time zone of the date
+     * @return the epoch milliseconds, or null if the date can't be parsed
+     */
+    public static Long parseDateTime(final String src, final TimeZone timeZone) {
+        if (StringUtils.isBlank(src)) {
+            return null;
+        }
+        final String value = src.trim().replace(' ', 'T');
+        final SimpleDateFormat format = new SimpleDateFormat(value.length() > FORMAT_DATE.length() ? FORMAT_DATE_TIME : FORMAT_DATE);
+        format.setTimeZone(timeZone);
+        format.setLenient(false);
+        try {
+            return format.parse(value).getTime();
+        } catch (ParseException ex) {
+            return null;
+        }
+    }
+}
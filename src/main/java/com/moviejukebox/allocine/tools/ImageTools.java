@@ -0,0 +1,130 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import java.util.regex.Pattern;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Build the URLs of the images resized by the Allocine image servers.
+ *
+ * The servers take the resize options as path segments before the path of
+ * the image, e.g. http://fr.web.img6.acsta.net/r_160_240/pictures/...
+ */
+public class ImageTools {
+
+    // the segments of resize options right after the host, each with two values
+    // or more as in r_160_240 or b_1_d6d6d6, followed by the path of the image
+    private static final Pattern LEADING_OPTIONS = Pattern.compile("^(?:/[a-z]{1,2}(?:_[0-9a-zA-Z]+){2,})+(?=/[^/])");
+    private static final String RESIZE = "r_";
+    private static final String CROP = "c_";
+
+    private ImageTools() {
+        throw new UnsupportedOperationException("Class cannot be initialised");
+    }
+
+    /**
+     * Get the URL of an image resized to fit in a box, keeping its aspect ratio
+     *
+     * @param url the URL of the image
+     * @param width
+     * @param height
+     * @return the URL of the resized image, or the URL unchanged if the width
+     * or the height is not positive
+     */
+    public static String resize(final String url, final int width, final int height) {
+        return withOption(url, RESIZE, width, height);
+    }
+
+    /**
+     * Get the URL of an image resized and cropped to a box
+     *
+     * @param url the URL of the image
+     * @param width
+     * @param height
+     * @return the URL of the cropped image, or the URL unchanged if the width
+     * or the height is not positive
+     */
+    public static String crop(final String url, final int width, final int height) {
+        return withOption(url, CROP, width, height);
+    }
+
+    private static String withOption(final String url, final String option, final int width, final int height) {
+        if (StringUtils.isBlank(url) || width <= 0 || height <= 0) {
+            return url;
+        }
+        final String original = getOriginal(url);
+        final int start = pathStart(original);
+        final StringBuilder sb = new StringBuilder(original.length() + 16);
+        sb.append(original, 0, start);
+        sb.append('/').append(option).append(width).append('_').append(height);
+        sb.append(original, start, original.length());
+        return sb.toString();
+    }
+
+    /**
+     * Get the URL of the full size image, without the resize options
+     *
+     * @param url the URL or path of the image
+     * @return
+     */
+    public static String getOriginal(final String url) {
+        if (StringUtils.isBlank(url)) {
+            return url;
+        }
+        final String value = url.trim();
+        final int start = pathStart(value);
+        String path = value.substring(start);
+        if (start == 0 && !path.startsWith("/")) {
+            path = "/" + path;
+        }
+        return value.substring(0, start) + LEADING_OPTIONS.matcher(path).replaceFirst("");
+    }
+
+    /**
+     * Get the path of an image without the scheme, the host and the resize
+     * options, so that the copies of an image have the same path
+     *
+     * @param url the URL or path of the image
+     * @return
+     */
+    public static String getPath(final String url) {
+        if (StringUtils.isBlank(url)) {
+            return url;
+        }
+        final String original = getOriginal(url);
+        final String path = original.substring(pathStart(original));
+        return path.isEmpty() ? "/" : path;
+    }
+
+    /**
+     * Get the index of the path in a URL, after the scheme and the host
+     */
+    private static int pathStart(final String url) {
+        final int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return 0;
+        }
+        final int slash = url.indexOf('/', scheme + 3);
+        return slash < 0 ? url.length() : slash;
+    }
+}
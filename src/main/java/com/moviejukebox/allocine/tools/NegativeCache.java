@@ -0,0 +1,151 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the requests known to have no result: the codes not found and
+ * the searches without results.
+ *
+ * A miss is kept for a short time, so that a code or a search asked again
+ * is answered without a request until it expires. The least recently used
+ * misses are evicted first.
+ */
+public class NegativeCache {
+
+    private final int maxEntries;
+    private final long timeToLive;
+    private final Map<String, Long> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+
+    /**
+     * Create the cache
+     *
+     * @param maxEntries the maximum number of misses
+     * @param timeToLive the time in milliseconds a miss is kept
+     */
+    public NegativeCache(final int maxEntries, final long timeToLive) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("The maximum number of entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+                return size() > NegativeCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the key of a request from its method and parameters, before it is
+     * signed
+     *
+     * @param method
+     * @param params
+     * @return
+     */
+    public static String getKey(final String method, final Map<String, String> params) {
+        final StringBuilder key = new StringBuilder(method);
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            key.append('|').append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Check if a request is a known miss
+     *
+     * @param key
+     * @return
+     */
+    public boolean isMissing(final String key) {
+        synchronized (entries) {
+            final Long expires = entries.get(key);
+            if (expires == null) {
+                return false;
+            }
+            if (System.currentTimeMillis() >= expires) {
+                entries.remove(key);
+                return false;
+            }
+        }
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Record a request without result
+     *
+     * @param key
+     */
+    public void put(final String key) {
+        recorded.incrementAndGet();
+        final Long expires = System.currentTimeMillis() + timeToLive;
+        synchronized (entries) {
+            entries.put(key, expires);
+        }
+    }
+
+    public void remove(final String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the number of requests answered as known misses
+     *
+     * @return
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of misses recorded
+     *
+     * @return
+     */
+    public long getRecorded() {
+        return recorded.get();
+    }
+}
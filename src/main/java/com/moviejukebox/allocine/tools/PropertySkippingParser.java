@@ -0,0 +1,81 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Parser that drops the named properties of the root entity, the object
+ * wrapped in the response as in <code>{"movie": {...}}</code>, without
+ * building them.
+ *
+ * The properties of the nested objects are kept, even when they have a
+ * skipped name. The value of a skipped property is passed over with
+ * {@link JsonParser#skipChildren()}, so no objects are created for it.
+ */
+public class PropertySkippingParser extends JsonParserDelegate {
+
+    private final Set<String> skippedProperties;
+
+    public PropertySkippingParser(final JsonParser parser, final Set<String> skippedProperties) {
+        super(parser);
+        this.skippedProperties = skippedProperties;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate.nextToken();
+        while (token == JsonToken.FIELD_NAME && isEntityLevel() && skippedProperties.contains(delegate.getCurrentName())) {
+            // move to the value and pass over it
+            delegate.nextToken();
+            delegate.skipChildren();
+            token = delegate.nextToken();
+        }
+        return token;
+    }
+
+    /**
+     * Check if the current property belongs to the root entity: its object
+     * is in the wrapper object, itself at the root.
+     *
+     * @return
+     */
+    private boolean isEntityLevel() {
+        final JsonStreamContext entity = delegate.getParsingContext();
+        final JsonStreamContext wrapper = entity.getParent();
+        return entity.inObject() && wrapper != null && wrapper.inObject() && wrapper.getParent() != null && wrapper.getParent().inRoot();
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        if (token == JsonToken.FIELD_NAME) {
+            token = nextToken();
+        }
+        return token;
+    }
+}
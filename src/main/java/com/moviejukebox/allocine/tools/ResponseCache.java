@@ -0,0 +1,184 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import com.moviejukebox.allocine.model.enumeration.Projection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of the pages read from the API.
+ *
+ * A page is used without asking the server until it expires. Then the API
+ * asks the server whether it changed with the ETag and Last-Modified of the
+ * response, and a "304 Not Modified" makes the cached page fresh again
+ * without reading it again. The least recently used pages are evicted first.
+ *
+ * The cache keeps the page rather than the object read from it: each hit
+ * parses a new object, which its caller is free to modify.
+ */
+public class ResponseCache {
+
+    // the date and signature change every day for the same request
+    private static final Pattern SIGNATURE_PARAMS = Pattern.compile("&(sed|sig)=[^&]*");
+
+    private final int maxEntries;
+    private final long timeToLive;
+    private final Map<String, CachedResponse> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create the cache
+     *
+     * @param maxEntries the maximum number of pages
+     * @param timeToLive the time in milliseconds a page is used
+     * before asking the server whether it changed
+     */
+    public ResponseCache(final int maxEntries, final long timeToLive) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("The maximum number of entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedResponse> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the key of a request, without the date and the signature
+     *
+     * @param url the URL of the request
+     * @param type the class of the object read
+     * @param projection the projection of the object read
+     * @return
+     */
+    public static String getKey(final String url, final Class<?> type, final Projection projection) {
+        return type.getName() + '|' + projection.name() + '|' + SIGNATURE_PARAMS.matcher(url).replaceAll("");
+    }
+
+    /**
+     * Get a cached page, even expired
+     *
+     * @param key
+     * @return the cached page, or null
+     */
+    public CachedResponse get(final String key) {
+        final CachedResponse response;
+        synchronized (entries) {
+            response = entries.get(key);
+        }
+        if (response == null) {
+            misses.incrementAndGet();
+        } else if (response.isFresh()) {
+            hits.incrementAndGet();
+        }
+        return response;
+    }
+
+    /**
+     * Cache the page of a response
+     *
+     * @param key
+     * @param content the page, decompressed
+     * @param etag the ETag header of the response, or null
+     * @param lastModified the Last-Modified header of the response, or null
+     */
+    public void put(final String key, final byte[] content, final String etag, final String lastModified) {
+        final CachedResponse response = new CachedResponse(content, etag, lastModified, expires());
+        synchronized (entries) {
+            entries.put(key, response);
+        }
+    }
+
+    /**
+     * Make a cached page fresh again after the server answered that it did
+     * not change
+     *
+     * @param key
+     * @param response the cached page
+     */
+    public void refresh(final String key, final CachedResponse response) {
+        revalidations.incrementAndGet();
+        synchronized (entries) {
+            entries.put(key, response.refresh(expires()));
+        }
+    }
+
+    private long expires() {
+        return System.currentTimeMillis() + timeToLive;
+    }
+
+    public void remove(final String key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the number of fresh pages used without asking the server
+     *
+     * @return
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of expired pages the server answered were not modified
+     *
+     * @return
+     */
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    /**
+     * Get the number of requests not in the cache
+     *
+     * @return
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts of the responses read and of their bytes, as received and once
+ * decompressed
+ */
+public final class TransferMetrics {
+
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong compressedResponses = new AtomicLong();
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final AtomicLong contentBytes = new AtomicLong();
+
+    public long getResponses() {
+        return responses.get();
+    }
+
+    /**
+     * Get the number of responses with a gzip or deflate content encoding
+     *
+     * @return
+     */
+    public long getCompressedResponses() {
+        return compressedResponses.get();
+    }
+
+    /**
+     * Get the number of bytes received, compressed or not
+     *
+     * @return
+     */
+    public long getWireBytes() {
+        return wireBytes.get();
+    }
+
+    /**
+     * Get the number of bytes once decompressed
+     *
+     * @return
+     */
+    public long getContentBytes() {
+        return contentBytes.get();
+    }
+
+    /**
+     * Get the ratio of the bytes received to the bytes once decompressed
+     *
+     * @return the ratio, or 1 if nothing was read
+     */
+    public double getCompressionRatio() {
+        final long content = contentBytes.get();
+        return content == 0 ? 1.0 : (double) wireBytes.get() / content;
+    }
+
+    void addResponse(final boolean compressed) {
+        responses.incrementAndGet();
+        if (compressed) {
+            compressedResponses.incrementAndGet();
+        }
+    }
+
+    AtomicLong wireCounter() {
+        return wireBytes;
+    }
+
+    AtomicLong contentCounter() {
+        return contentBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferMetrics[responses=" + getResponses()
+                + ",compressedResponses=" + getCompressedResponses()
+                + ",wireBytes=" + getWireBytes()
+                + ",contentBytes=" + getContentBytes() + "]";
+    }
+}
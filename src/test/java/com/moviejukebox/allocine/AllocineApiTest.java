@@ -23,8 +23,8 @@ package com.moviejukebox.allocine;
 
 import static org.junit.Assert.*;
 
+import com.moviejukebox.allocine.http.HttpTransportBuilder;
 import com.moviejukebox.allocine.model.*;
-import org.apache.http.impl.client.HttpClients;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -47,7 +47,7 @@ public class AllocineApiTest {
         // this must be the first statement in the beforeClass method
         TestLogger.configure();
         
-        HttpClientWrapper wrapper = new HttpClientWrapper(HttpClients.createDefault());
+        HttpClientWrapper wrapper = new HttpClientWrapper(new HttpTransportBuilder().build().getHttpClient());
         wrapper.setUserAgentSelector(new AndroidBrowserUserAgentSelector());
         api = new AllocineApi(PARTNER_KEY, SECRET_KEY, wrapper);
     }
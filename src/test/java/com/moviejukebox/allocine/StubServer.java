@@ -0,0 +1,125 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine;
+
+import com.moviejukebox.allocine.http.HttpTransport;
+import com.moviejukebox.allocine.http.HttpTransportBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local server standing in for the API in the offline tests. The API is
+ * pointed at it as a proxy, so the signed URLs are kept as they are.
+ */
+public class StubServer implements Closeable {
+
+    static {
+        // avoid the delayed ACK stall between the headers and the body
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final HttpTransport transport;
+
+    /**
+     * Answer a request
+     */
+    public interface Responder {
+
+        void respond(HttpExchange exchange, String query) throws IOException;
+    }
+
+    public StubServer(final Responder responder) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 100);
+        server.setExecutor(executor);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                try {
+                    responder.respond(exchange, exchange.getRequestURI().getRawQuery());
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        server.start();
+        transport = new HttpTransportBuilder().setProxy("127.0.0.1", server.getAddress().getPort()).build();
+    }
+
+    /**
+     * Send a JSON answer
+     *
+     * @param exchange
+     * @param status
+     * @param json the body, or null for none
+     * @throws IOException
+     */
+    public static void send(final HttpExchange exchange, final int status, final String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        final byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Create an API sending its requests to this server
+     *
+     * @return
+     * @throws AllocineException
+     */
+    public AllocineApi createApi() throws AllocineException {
+        return new AllocineApi("partner", "secret", transport.getHttpClient());
+    }
+
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        transport.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.artwork;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.StubServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArtworkFetcherTest {
+
+    private static final byte[] IMAGE = "not really a jpeg, but bytes all the same".getBytes(StandardCharsets.UTF_8);
+    private static final String ETAG = "\"v1\"";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private StubServer server;
+    private ArtworkFetcher fetcher;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer(new StubServer.Responder() {
+            @Override
+            public void respond(final HttpExchange exchange, final String query) throws IOException {
+                final String path = exchange.getRequestURI().getPath();
+                final String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+                requests.add(path + (etag == null ? "" : " " + etag));
+                if (path.startsWith("/missing")) {
+                    StubServer.send(exchange, 404, "{\"error\":\"Not found\"}");
+                } else if (ETAG.equals(etag)) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else if (path.startsWith("/gzip")) {
+                    final byte[] body = gzip(IMAGE);
+                    exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                    sendImage(exchange, body);
+                } else {
+                    sendImage(exchange, IMAGE);
+                }
+            }
+        });
+        fetcher = createFetcher();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fetcher.close();
+        server.close();
+    }
+
+    private ArtworkFetcher createFetcher() {
+        return new ArtworkFetcher(server.getTransport().getHttpClient(), folder.getRoot(), 2);
+    }
+
+    private static void sendImage(final HttpExchange exchange, final byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "image/jpeg");
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(final byte[] bytes) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testContentAddressedStore() throws Exception {
+        final File file = fetcher.fetch("http://images.test/a.jpg").get();
+        final String hash = DigestUtils.sha1Hex(IMAGE);
+        assertEquals(hash, file.getName());
+        assertEquals(hash.substring(0, 2), file.getParentFile().getName());
+        assertArrayEquals(IMAGE, FileUtils.readFileToByteArray(file));
+        assertEquals(file, fetcher.getFile("http://images.test/a.jpg"));
+        assertNull(fetcher.getFile("http://images.test/other.jpg"));
+    }
+
+    @Test
+    public void testSameContentStoredOnce() throws Exception {
+        final File first = fetcher.fetch("http://images.test/a.jpg").get();
+        final File second = fetcher.fetch("http://images.test/b.jpg").get();
+        assertEquals(first, second);
+
+        final FetchProgress progress = fetcher.getProgress();
+        assertEquals(1, progress.getDuplicates());
+        assertEquals(2L * IMAGE.length, progress.getBytesDownloaded());
+        assertEquals(IMAGE.length, progress.getBytesStored());
+        assertEquals(1, first.getParentFile().list().length);
+    }
+
+    @Test
+    public void testConditionalRequest() throws Exception {
+        final File file = fetcher.fetch("http://images.test/a.jpg").get();
+        // checked once per fetcher, then served without a request
+        assertEquals(file, fetcher.fetch("http://images.test/a.jpg").get());
+        assertEquals(1, requests.size());
+        assertEquals(1, fetcher.getProgress().getCached());
+
+        try (ArtworkFetcher other = createFetcher()) {
+            assertEquals(file, other.fetch("http://images.test/a.jpg").get());
+            assertEquals("/a.jpg " + ETAG, requests.get(1));
+            assertEquals(1, other.getProgress().getNotModified());
+            assertEquals(0, other.getProgress().getBytesDownloaded());
+        }
+    }
+
+    @Test
+    public void testCompressedBytesCounted() throws Exception {
+        final File file = fetcher.fetch("http://images.test/gzip.jpg").get();
+        assertArrayEquals(IMAGE, FileUtils.readFileToByteArray(file));
+        assertEquals(gzip(IMAGE).length, fetcher.getProgress().getBytesDownloaded());
+        assertEquals(IMAGE.length, fetcher.getProgress().getBytesStored());
+    }
+
+    @Test
+    public void testFailureReleasesConnection() throws Exception {
+        // more failures than connections per route
+        for (int i = 0; i < 30; i++) {
+            try {
+                fetcher.fetch("http://images.test/missing" + i + ".jpg").get();
+                fail("The download should fail");
+            } catch (ExecutionException ex) {
+                assertTrue(ex.getCause() instanceof IOException);
+            }
+        }
+        assertEquals(30, fetcher.getProgress().getFailed());
+        assertNotNull(fetcher.fetch("http://images.test/a.jpg").get());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.artwork;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.model.AbstractBaseMapping;
+import com.moviejukebox.allocine.model.Movie;
+import com.moviejukebox.allocine.model.enumeration.ArtworkSize;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+public class ArtworkRankingTest {
+
+    private static final String HOST = "http://fr.web.img6.acsta.net";
+    private static final int PHOTO_TYPE_CODE = 31002;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static String picture(final long rcode, final int type, final String path, final int width, final int height) {
+        return "{\"class\":\"picture\",\"rcode\":" + rcode + ",\"type\":{\"code\":" + type + "},\"thumbnail\":{\"href\":\""
+                + HOST + path + "\"},\"width\":" + width + ",\"height\":" + height + "}";
+    }
+
+    private Movie movie(final String poster, final String... media) throws IOException {
+        final StringBuilder json = new StringBuilder("{\"code\":1,\"poster\":{\"href\":\"").append(poster).append("\"},\"media\":[");
+        for (int i = 0; i < media.length; i++) {
+            json.append(i == 0 ? "" : ",").append(media[i]);
+        }
+        return mapper.readValue(json.append("]}").toString(), Movie.class);
+    }
+
+    private static String[] paths(final List<RankedArtwork> artworks) {
+        final String[] paths = new String[artworks.size()];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = artworks.get(i).getPath();
+        }
+        return paths;
+    }
+
+    @Test
+    public void testOrder() throws IOException {
+        final Movie movie = movie(HOST + "/pictures/main.jpg",
+                picture(10, ArtworkRanking.POSTER_TYPE_CODE, "/pictures/small.jpg", 200, 300),
+                picture(11, PHOTO_TYPE_CODE, "/pictures/photo.jpg", 1600, 900),
+                picture(12, ArtworkRanking.POSTER_TYPE_CODE, "/pictures/large.jpg", 1200, 1800));
+
+        // the posters only, the main one of unknown size last
+        final ArtworkRanking posters = ArtworkRanking.posters(movie);
+        assertArrayEquals(new String[]{"/pictures/large.jpg", "/pictures/small.jpg", "/pictures/main.jpg"}, paths(posters.getAll()));
+        assertEquals(Long.valueOf(12), posters.getBest().getCode());
+        assertEquals(ArtworkSize.LARGE, posters.getBest().getSize());
+        assertEquals("/pictures/small.jpg", posters.getBest(ArtworkSize.SMALL).getPath());
+        assertNull(posters.getBest(ArtworkSize.MEDIUM));
+
+        final ArtworkRanking pictures = ArtworkRanking.pictures(movie);
+        assertArrayEquals(new String[]{"/pictures/large.jpg", "/pictures/small.jpg", "/pictures/photo.jpg", "/pictures/main.jpg"},
+                paths(pictures.getAll()));
+        assertArrayEquals(new String[]{"/pictures/large.jpg", "/pictures/small.jpg"}, paths(pictures.getTop(2)));
+        assertArrayEquals(new String[]{"/pictures/large.jpg", "/pictures/photo.jpg"}, paths(pictures.getTop(ArtworkSize.LARGE, 5)));
+        assertEquals(4, pictures.getUrls().size());
+    }
+
+    @Test
+    public void testDuplicatesMerged() throws IOException {
+        final Movie movie = movie("http://images.allocine.fr/r_160_240/pictures/Poster.jpg",
+                picture(10, ArtworkRanking.POSTER_TYPE_CODE, "/pictures/Poster.jpg", 1200, 1800),
+                picture(11, ArtworkRanking.POSTER_TYPE_CODE, "/r_120_160/b_1_d6d6d6/pictures/Poster.jpg", 300, 400),
+                // another image on a case sensitive server
+                picture(12, ArtworkRanking.POSTER_TYPE_CODE, "/pictures/poster.jpg", 300, 400));
+
+        final ArtworkRanking posters = ArtworkRanking.posters(movie);
+        assertEquals(2, posters.size());
+        final RankedArtwork best = posters.getBest();
+        assertEquals("/pictures/Poster.jpg", best.getPath());
+        // the largest size, the code of the media and the main flag of the item
+        assertEquals(1200, best.getWidth());
+        assertEquals(1800, best.getHeight());
+        assertEquals(Long.valueOf(10), best.getCode());
+        assertTrue(best.isMain());
+        assertTrue(best.isPoster());
+        assertEquals("/pictures/poster.jpg", posters.getAll().get(1).getPath());
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        for (ArtworkRanking ranking : new ArtworkRanking[]{ArtworkRanking.posters((AbstractBaseMapping) null),
+            ArtworkRanking.pictures(mapper.readValue("{\"code\":1}", Movie.class))}) {
+            assertTrue(ranking.isEmpty());
+            assertNull(ranking.getBest());
+            assertNull(ranking.getBest(ArtworkSize.LARGE));
+            assertTrue(ranking.getTop(5).isEmpty());
+            assertTrue(ranking.getTop(0).isEmpty());
+            assertTrue(ranking.getTop(ArtworkSize.SMALL, 3).isEmpty());
+            assertTrue(ranking.getUrls().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.bulk;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.TestLogger;
+import com.moviejukebox.allocine.http.HttpTransport;
+import com.moviejukebox.allocine.http.HttpTransportBuilder;
+import com.moviejukebox.allocine.model.MovieInfos;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.*;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.NoopEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compare the platform and the virtual threads running the lookups against a
+ * local server answering after a delay, as the API would.
+ *
+ * Virtual threads need Java 21, on an older runtime both modes run platform
+ * threads.
+ */
+@Ignore("Benchmark, run by hand")
+public class ExecutionModeBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionModeBenchmarkTest.class);
+    private static final long RESPONSE_DELAY = 50;
+    private static final int MAX_CONNECTIONS = 1000;
+    private static final String MOVIE_JSON = "{\"movie\":{\"code\":1,\"title\":\"Avatar\"}}";
+
+    private static ScheduledExecutorService scheduler;
+    private static HttpAsyncServer server;
+    private static int port;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        TestLogger.configure("INFO");
+        scheduler = Executors.newScheduledThreadPool(4);
+        server = H2ServerBootstrap.bootstrap()
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                .setCanonicalHostName(HttpTransportBuilder.API_HOST)
+                .register("*", new AsyncServerRequestHandler<Message<HttpRequest, Void>>() {
+                    @Override
+                    public AsyncRequestConsumer<Message<HttpRequest, Void>> prepare(final HttpRequest request,
+                            final EntityDetails entityDetails, final HttpContext context) {
+                        return new BasicRequestConsumer<>(new NoopEntityConsumer());
+                    }
+
+                    @Override
+                    public void handle(final Message<HttpRequest, Void> message, final ResponseTrigger trigger,
+                            final HttpContext context) {
+                        scheduler.schedule(new Callable<Void>() {
+                            @Override
+                            public Void call() throws Exception {
+                                trigger.submitResponse(new BasicResponseProducer(200, MOVIE_JSON, ContentType.APPLICATION_JSON), context);
+                                return null;
+                            }
+                        }, RESPONSE_DELAY, TimeUnit.MILLISECONDS);
+                    }
+                })
+                .create();
+        server.start();
+        port = ((InetSocketAddress) server.listen(new InetSocketAddress("127.0.0.1", 0)).get().getAddress()).getPort();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        server.close(CloseMode.IMMEDIATE);
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testPlatformThreads() throws Exception {
+        run(ExecutionMode.PLATFORM_THREADS, 1000);
+        run(ExecutionMode.PLATFORM_THREADS, 10000);
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        LOG.info("Virtual threads available: {}", ExecutionMode.VIRTUAL_THREADS.isAvailable());
+        run(ExecutionMode.VIRTUAL_THREADS, 1000);
+        run(ExecutionMode.VIRTUAL_THREADS, 10000);
+    }
+
+    private static void run(final ExecutionMode mode, final int concurrency) throws Exception {
+        final List<String> codes = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            codes.add(String.valueOf(i));
+        }
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        try (HttpTransport transport = new HttpTransportBuilder()
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setMaxConnPerRoute(MAX_CONNECTIONS)
+                .setConnectionRequestTimeout(60000)
+                .setProxy("127.0.0.1", port)
+                .build()) {
+            final AllocineApi api = new AllocineApi("partner", "secret", transport.getHttpClient());
+            try (BulkLookup lookup = new BulkLookup(api, mode, concurrency)) {
+                threads.resetPeakThreadCount();
+                final long start = System.nanoTime();
+                final BulkResult<MovieInfos> result = lookup.getMovieInfos(codes);
+                final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                assertTrue("Failures: " + result.getFailures(), result.isComplete());
+                assertEquals(concurrency, result.getValues().size());
+                LOG.info("{} x{}: {}ms, {} lookups/s, peak platform threads {}", mode, concurrency, elapsed,
+                        concurrency * 1000L / Math.max(1, elapsed), threads.getPeakThreadCount());
+            }
+        }
+    }
+}
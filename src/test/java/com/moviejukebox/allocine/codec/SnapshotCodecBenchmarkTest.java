@@ -0,0 +1,134 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.codec;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.TestLogger;
+import com.moviejukebox.allocine.model.MovieInfos;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compare the size and the encoding and decoding times of the snapshots
+ * against the Java serialization of the same movie.
+ */
+@Ignore("Benchmark, run by hand")
+public class SnapshotCodecBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotCodecBenchmarkTest.class);
+    private static final int WARMUP = 20000;
+    private static final int ROUNDS = 100000;
+    private static final String MOVIE_JSON = "{\"movie\":{\"code\":61282,\"title\":\"Avatar\",\"originalTitle\":\"Avatar\",\"productionYear\":2009,"
+            + "\"runtime\":9720,\"synopsis\":\"Malgré sa paralysie, Jake Sully, un ancien marine immobilisé dans un fauteuil roulant...\","
+            + "\"nationality\":[{\"code\":5002,\"$\":\"U.S.A.\"}],\"genre\":[{\"code\":13021,\"$\":\"Science fiction\"},{\"code\":13001,\"$\":\"Action\"}],"
+            + "\"castingShort\":{\"directors\":\"James Cameron\",\"actors\":\"Sam Worthington, Zoe Saldana, Sigourney Weaver\"},"
+            + "\"castMember\":[{\"person\":{\"code\":1,\"name\":\"James Cameron\"},\"activity\":{\"code\":8002,\"$\":\"Réalisateur\"}},"
+            + "{\"person\":{\"code\":2,\"name\":\"Sam Worthington\"},\"activity\":{\"code\":8001,\"$\":\"Acteur\"},\"role\":\"Jake Sully\"}],"
+            + "\"poster\":{\"path\":\"/p.jpg\",\"href\":\"http://h/p.jpg\"},"
+            + "\"news\":[{\"code\":\"7\",\"title\":\"Premiere\",\"publication\":{\"dateStart\":\"2009-12-01\"}}],"
+            + "\"media\":[{\"class\":\"picture\",\"code\":3,\"width\":100,\"type\":{\"code\":31001,\"$\":\"Photo\"}},{\"class\":\"video\",\"code\":4,\"runtime\":10}]}}";
+
+    private static MovieInfos infos;
+
+    @BeforeClass
+    public static void beforeClass() throws IOException {
+        TestLogger.configure("INFO");
+        infos = new ObjectMapper().readValue(MOVIE_JSON, MovieInfos.class);
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        final SnapshotCodec codec = new SnapshotCodec();
+        byte[] bytes = null;
+        for (int i = 0; i < WARMUP; i++) {
+            bytes = codec.encode(infos);
+            codec.decodeMovieInfos(bytes);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            bytes = codec.encode(infos);
+        }
+        final long encode = System.nanoTime() - start;
+        start = System.nanoTime();
+        MovieInfos decoded = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            decoded = codec.decodeMovieInfos(bytes);
+        }
+        final long decode = System.nanoTime() - start;
+
+        assertEquals(infos.getTitle(), decoded.getTitle());
+        log("Snapshot", bytes.length, encode, decode);
+    }
+
+    @Test
+    public void testJavaSerialization() throws IOException, ClassNotFoundException {
+        byte[] bytes = null;
+        for (int i = 0; i < WARMUP; i++) {
+            bytes = serialize(infos);
+            deserialize(bytes);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            bytes = serialize(infos);
+        }
+        final long encode = System.nanoTime() - start;
+        start = System.nanoTime();
+        MovieInfos decoded = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            decoded = deserialize(bytes);
+        }
+        final long decode = System.nanoTime() - start;
+
+        assertEquals(infos.getTitle(), decoded.getTitle());
+        log("Java serialization", bytes.length, encode, decode);
+    }
+
+    private static byte[] serialize(final MovieInfos value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MovieInfos deserialize(final byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (MovieInfos) in.readObject();
+        }
+    }
+
+    private static void log(final String name, final int size, final long encode, final long decode) {
+        LOG.info("{}: {} bytes, encode {}ns, decode {}ns", name, size, encode / ROUNDS, decode / ROUNDS);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.codec;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.model.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+
+public class SnapshotCodecTest {
+
+    private static final String MOVIE_JSON = "{\"movie\":{\"code\":61282,\"title\":\"Avatar\",\"productionYear\":2009,\"runtime\":9720,"
+            + "\"nationality\":[{\"code\":5002,\"$\":\"U.S.A.\"}],\"genre\":[{\"code\":13021,\"$\":\"Science fiction\"}],"
+            + "\"castingShort\":{\"directors\":\"James Cameron\",\"actors\":\"Sam Worthington, Zoe Saldana\"},"
+            + "\"castMember\":[{\"person\":{\"code\":1,\"name\":\"James Cameron\"},\"activity\":{\"code\":8002,\"$\":\"Réalisateur\"}}],"
+            + "\"statistics\":{\"pressRating\":3.5,\"userRatingCount\":1200,\"rating\":[{\"note\":0.5,\"$\":12}]},"
+            + "\"poster\":{\"path\":\"/p.jpg\",\"href\":\"http://h/p.jpg\"},"
+            + "\"boxOffice\":[{\"week\":2,\"admissionCount\":1000,\"period\":{\"dateStart\":\"2009-12-16\",\"dateEnd\":\"2009-12-22\"}}],"
+            + "\"media\":[{\"class\":\"picture\",\"code\":3,\"width\":100,\"type\":{\"code\":31001,\"$\":\"Photo\"}},{\"class\":\"video\",\"code\":4,\"runtime\":10}]}}";
+
+    private static final String EDITORIAL = "\"news\":[{\"code\":\"7\",\"title\":\"Premiere\",\"publication\":{\"dateStart\":\"2009-12-01\"},"
+            + "\"displayMode\":{\"code\":1,\"$\":\"Normal\"},\"pageCount\":2,\"category\":[{\"code\":3,\"$\":\"Cinema\"}],"
+            + "\"picture\":{\"path\":\"/n.jpg\",\"href\":\"http://h/n.jpg\"}}],"
+            + "\"feature\":[{\"code\":\"8\",\"title\":\"Making of\"}]";
+    private static final String TVSERIES_JSON = "{\"tvseries\":{\"code\":223,\"title\":\"Lost\",\"yearStart\":2004,\"yearEnd\":2010,"
+            + "\"seasonCount\":6,\"originalChannel\":{\"code\":5,\"$\":\"ABC\"},\"productionStatus\":{\"code\":122004,\"$\":\"Terminée\"},"
+            + "\"season\":[{\"code\":10,\"seasonNumber\":1,\"episodeCount\":2,\"yearStart\":2004,"
+            + "\"episode\":[{\"code\":100,\"title\":\"Pilot\",\"episodeNumberSeason\":1,\"originalBroadcastDate\":\"2004-09-22\"}]}],"
+            + "\"trivia\":[{\"body\":\"Filmed in Hawaii\"}],"
+            + "\"helpfulPositiveReview\":[{\"code\":9,\"creationDate\":\"2010-01-01\",\"writer\":{\"code\":\"w\",\"name\":\"Critic\"},"
+            + "\"body\":\"Great\",\"rating\":4.5}]," + EDITORIAL + "}}";
+    private static final String PERSON_JSON = "{\"person\":{\"code\":1,\"name\":{\"given\":\"James\",\"family\":\"Cameron\"},"
+            + "\"gender\":1,\"birthDate\":\"1954-08-16\",\"nationality\":[{\"code\":5002,\"$\":\"U.S.A.\"}],"
+            + "\"activity\":[{\"code\":8002,\"$\":\"Réalisateur\"}],"
+            + "\"participation\":[{\"movie\":{\"code\":61282,\"title\":\"Avatar\",\"productionYear\":2009},"
+            + "\"activity\":{\"code\":8002,\"$\":\"Réalisateur\"}}],"
+            + "\"media\":[{\"class\":\"picture\",\"code\":3,\"width\":100},"
+            + "{\"class\":\"video\",\"code\":4,\"runtime\":10,\"subject\":[{\"movie\":{\"code\":61282,\"title\":\"Avatar\"}}]}],"
+            + EDITORIAL + "}}";
+    private static final String SEARCH_JSON = "{\"feed\":{\"page\":1,\"count\":10,\"totalResults\":3,"
+            + "\"movie\":[{\"code\":61282,\"title\":\"Avatar\",\"productionYear\":2009}],"
+            + "\"tvseries\":[{\"code\":223,\"title\":\"Avatar, le dernier maître de l'air\",\"yearStart\":2005}],"
+            + "\"person\":[{\"code\":1,\"name\":\"James Cameron\",\"activity\":[{\"code\":8002,\"$\":\"Réalisateur\"}]}],"
+            + "\"results\":[{\"type\":\"movie\",\"$\":1}]}}";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SnapshotCodec codec = new SnapshotCodec();
+
+    @Test
+    public void testMovieRoundTrip() throws IOException {
+        final MovieInfos infos = mapper.readValue(MOVIE_JSON, MovieInfos.class);
+        final byte[] snapshot = codec.encode(infos);
+        assertTrue("Snapshot is larger than the JSON", snapshot.length < MOVIE_JSON.length());
+
+        final MovieInfos decoded = codec.decodeMovieInfos(snapshot);
+        assertEquals(mapper.writeValueAsString(infos), mapper.writeValueAsString(decoded));
+    }
+
+    @Test
+    public void testMovieEditorialRoundTrip() throws IOException {
+        final MovieInfos infos = mapper.readValue(MOVIE_JSON.replace("\"productionYear\"", EDITORIAL + ",\"productionYear\""), MovieInfos.class);
+        final MovieInfos decoded = codec.decodeMovieInfos(codec.encode(infos));
+        assertEquals("Premiere", decoded.getMovie().getNews().get(0).getTitle());
+        assertEquals("Making of", decoded.getMovie().getFeatures().get(0).getTitle());
+        assertEquals(mapper.writeValueAsString(infos), mapper.writeValueAsString(decoded));
+    }
+
+    @Test
+    public void testTvSeriesRoundTrip() throws IOException {
+        final TvSeriesInfos infos = mapper.readValue(TVSERIES_JSON, TvSeriesInfos.class);
+        final TvSeriesInfos decoded = codec.decodeTvSeriesInfos(codec.encode(infos));
+        assertEquals("Great", decoded.getTvSeries().getHelpfulPositiveReview().get(0).getBody());
+        assertEquals(mapper.writeValueAsString(infos), mapper.writeValueAsString(decoded));
+    }
+
+    @Test
+    public void testPersonRoundTrip() throws IOException {
+        final PersonInfos infos = mapper.readValue(PERSON_JSON, PersonInfos.class);
+        final PersonInfos decoded = codec.decodePersonInfos(codec.encode(infos));
+        assertEquals(2, decoded.getPerson().getMedia().size());
+        assertEquals("Premiere", decoded.getPerson().getNews().get(0).getTitle());
+        assertEquals(mapper.writeValueAsString(infos), mapper.writeValueAsString(decoded));
+    }
+
+    @Test
+    public void testFilmographyRoundTrip() throws IOException {
+        final FilmographyInfos infos = mapper.readValue(PERSON_JSON, FilmographyInfos.class);
+        final FilmographyInfos decoded = codec.decodeFilmographyInfos(codec.encode(infos));
+        assertEquals(1, decoded.getParticipances().size());
+        assertEquals(mapper.writeValueAsString(infos), mapper.writeValueAsString(decoded));
+    }
+
+    @Test
+    public void testSearchRoundTrip() throws IOException {
+        final Search search = mapper.readValue(SEARCH_JSON, Search.class);
+        final Search decoded = codec.decodeSearch(codec.encode(search));
+        assertEquals(mapper.writeValueAsString(search), mapper.writeValueAsString(decoded));
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() throws IOException {
+        final MovieInfos infos = mapper.readValue(MOVIE_JSON.replace("\"productionYear\"", EDITORIAL + ",\"productionYear\""), MovieInfos.class);
+        // statistics are not serializable
+        infos.getMovie().setStatistics(null);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(infos);
+        }
+        final byte[] snapshot = codec.encode(infos);
+        assertTrue("Snapshot of " + snapshot.length + " bytes, serialized form of " + bytes.size(), snapshot.length * 4 < bytes.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongKind() throws IOException {
+        final MovieInfos infos = mapper.readValue(MOVIE_JSON, MovieInfos.class);
+        codec.decodePersonInfos(codec.encode(infos));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpVersion;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.Test;
+
+public class CachingDnsResolverTest {
+
+    private static InetAddress address(final int last) throws UnknownHostException {
+        return InetAddress.getByAddress(new byte[]{10, 0, 0, (byte) last});
+    }
+
+    @Test
+    public void testAddressesKeptForTheTimeToLive() throws Exception {
+        final StubResolver stub = new StubResolver(address(1));
+        final CachingDnsResolver resolver = new CachingDnsResolver(stub, 100);
+        assertEquals(address(1), resolver.resolve("api.allocine.fr")[0]);
+        stub.addresses = new InetAddress[]{address(2)};
+        assertEquals(address(1), resolver.resolve("api.allocine.fr")[0]);
+        assertEquals(1, stub.lookups);
+
+        // each host has its own addresses
+        assertEquals(address(2), resolver.resolve("images.allocine.fr")[0]);
+        assertEquals(2, stub.lookups);
+
+        Thread.sleep(150);
+        assertEquals(address(2), resolver.resolve("api.allocine.fr")[0]);
+        assertEquals(3, stub.lookups);
+
+        resolver.clear();
+        stub.addresses = new InetAddress[]{address(3)};
+        assertEquals(address(3), resolver.resolve("api.allocine.fr")[0]);
+        assertEquals(4, stub.lookups);
+    }
+
+    @Test
+    public void testExpiredAddressesUsedWhenTheLookupFails() throws Exception {
+        final StubResolver stub = new StubResolver(address(1));
+        final CachingDnsResolver resolver = new CachingDnsResolver(stub, 50);
+        resolver.resolve("api.allocine.fr");
+        Thread.sleep(100);
+
+        stub.failing = true;
+        assertEquals(address(1), resolver.resolve("api.allocine.fr")[0]);
+        assertEquals(2, stub.lookups);
+
+        // a host never resolved still fails
+        try {
+            resolver.resolve("images.allocine.fr");
+            fail("The host should not resolve");
+        } catch (UnknownHostException ex) {
+            assertEquals("images.allocine.fr", ex.getMessage());
+        }
+
+        // the addresses are kept once the lookups work again
+        stub.failing = false;
+        stub.addresses = new InetAddress[]{address(2)};
+        assertEquals(address(2), resolver.resolve("api.allocine.fr")[0]);
+    }
+
+    @Test
+    public void testCachedAddressesNotModifiedByTheCaller() throws Exception {
+        final CachingDnsResolver resolver = new CachingDnsResolver(new StubResolver(address(1)), 60000);
+        resolver.resolve("api.allocine.fr")[0] = address(9);
+        assertEquals(address(1), resolver.resolve("api.allocine.fr")[0]);
+    }
+
+    @Test
+    public void testLimitsOfTheHosts() {
+        final PoolingHttpClientConnectionManager connectionManager = new HttpTransportBuilder()
+                .setMaxConnTotal(40)
+                .setMaxConnPerRoute(12)
+                .setMaxConnForHost("images.allocine.fr", 4)
+                .createConnectionManager(null);
+        try {
+            assertEquals(40, connectionManager.getMaxTotal());
+            assertEquals(12, connectionManager.getDefaultMaxPerRoute());
+            assertEquals(12, connectionManager.getMaxPerRoute(route(HttpTransportBuilder.API_HOST)));
+            assertEquals(4, connectionManager.getMaxPerRoute(route("images.allocine.fr")));
+            assertEquals(12, connectionManager.getMaxPerRoute(route("www.allocine.fr")));
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+    @Test
+    public void testKeepAliveCappedByTheBuilder() {
+        final ConnectionKeepAliveStrategy strategy = new HttpTransportBuilder().setKeepAlive(30000).createKeepAliveStrategy();
+        assertEquals(30000, strategy.getKeepAliveDuration(response(null), new BasicHttpContext()));
+        assertEquals(5000, strategy.getKeepAliveDuration(response("timeout=5"), new BasicHttpContext()));
+        assertEquals(30000, strategy.getKeepAliveDuration(response("timeout=120"), new BasicHttpContext()));
+    }
+
+    private static HttpRoute route(final String host) {
+        return new HttpRoute(new HttpHost(host, 80, "http"));
+    }
+
+    private static BasicHttpResponse response(final String keepAlive) {
+        final BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        if (keepAlive != null) {
+            response.addHeader("Keep-Alive", keepAlive);
+        }
+        return response;
+    }
+
+    private static final class StubResolver implements DnsResolver {
+
+        private volatile InetAddress[] addresses;
+        private volatile boolean failing;
+        private volatile int lookups;
+
+        StubResolver(final InetAddress... addresses) {
+            this.addresses = addresses;
+        }
+
+        @Override
+        public InetAddress[] resolve(final String host) throws UnknownHostException {
+            lookups++;
+            if (failing) {
+                throw new UnknownHostException(host);
+            }
+            return addresses.clone();
+        }
+    }
+}
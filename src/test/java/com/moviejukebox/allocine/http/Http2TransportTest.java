@@ -0,0 +1,166 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.http;
+
+import static org.junit.Assert.*;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.NoopEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class Http2TransportTest {
+
+    private static final int REQUESTS = 40;
+    private static final long RESPONSE_DELAY = 100;
+
+    private final Set<SocketAddress> connections = Collections.newSetFromMap(new ConcurrentHashMap<SocketAddress, Boolean>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+    private HttpAsyncServer server;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        executor = Executors.newFixedThreadPool(REQUESTS);
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.close(CloseMode.IMMEDIATE);
+        }
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testStreamsShareOneConnection() throws Exception {
+        final int port = startServer(HttpVersionPolicy.FORCE_HTTP_2);
+        try (HttpTransport transport = new HttpTransportBuilder().setProtocol(HttpProtocol.HTTP_2).build()) {
+            assertTrue(transport.getHttpClient() instanceof Http2HttpClient);
+            final Http2HttpClient client = (Http2HttpClient) transport.getHttpClient();
+
+            for (int status : sendAll(client, port)) {
+                assertEquals(200, status);
+            }
+            assertEquals(REQUESTS, client.getHttp2Responses());
+            assertEquals(0, client.getHttp1Responses());
+            assertEquals("Streams were sent on several connections", 1, connections.size());
+            assertTrue("Streams were not multiplexed", maxInFlight.get() > 1);
+            assertEquals(0, client.getActiveStreams());
+        }
+    }
+
+    @Test
+    public void testFallbackToHttp1() throws Exception {
+        final int port = startServer(HttpVersionPolicy.FORCE_HTTP_1);
+        try (HttpTransport transport = new HttpTransportBuilder().setProtocol(HttpProtocol.NEGOTIATE).build()) {
+            final Http2HttpClient client = (Http2HttpClient) transport.getHttpClient();
+
+            for (int status : sendAll(client, port)) {
+                assertEquals(200, status);
+            }
+            assertEquals(REQUESTS, client.getHttp1Responses());
+            assertEquals(0, client.getHttp2Responses());
+        }
+    }
+
+    private List<Integer> sendAll(final Http2HttpClient client, final int port) throws Exception {
+        final List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            final String url = "http://127.0.0.1:" + port + "/rest/v3/movie?code=" + i;
+            futures.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    try (CloseableHttpResponse response = client.execute(new HttpGet(url))) {
+                        assertEquals("{}", EntityUtils.toString(response.getEntity()));
+                        return response.getStatusLine().getStatusCode();
+                    }
+                }
+            }));
+        }
+        final List<Integer> statuses = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            statuses.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return statuses;
+    }
+
+    private int startServer(final HttpVersionPolicy versionPolicy) throws Exception {
+        server = H2ServerBootstrap.bootstrap()
+                .setVersionPolicy(versionPolicy)
+                .register("*", new AsyncServerRequestHandler<Message<HttpRequest, Void>>() {
+                    @Override
+                    public AsyncRequestConsumer<Message<HttpRequest, Void>> prepare(final HttpRequest request,
+                            final EntityDetails entityDetails, final HttpContext context) {
+                        return new BasicRequestConsumer<>(new NoopEntityConsumer());
+                    }
+
+                    @Override
+                    public void handle(final Message<HttpRequest, Void> message, final ResponseTrigger trigger,
+                            final HttpContext context) {
+                        connections.add(HttpCoreContext.adapt(context).getEndpointDetails().getRemoteAddress());
+                        final int current = inFlight.incrementAndGet();
+                        synchronized (maxInFlight) {
+                            maxInFlight.set(Math.max(maxInFlight.get(), current));
+                        }
+                        scheduler.schedule(new Callable<Void>() {
+                            @Override
+                            public Void call() throws Exception {
+                                inFlight.decrementAndGet();
+                                trigger.submitResponse(new BasicResponseProducer(200, "{}", ContentType.APPLICATION_JSON), context);
+                                return null;
+                            }
+                        }, RESPONSE_DELAY, TimeUnit.MILLISECONDS);
+                    }
+                })
+                .create();
+        server.start();
+        final InetSocketAddress address = (InetSocketAddress) server.listen(new InetSocketAddress("127.0.0.1", 0)).get().getAddress();
+        return address.getPort();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.model.Movie;
+import com.moviejukebox.allocine.model.Person;
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+public class AwardIndexTest {
+
+    private static final int CANNES = 10;
+    private static final int BERLIN = 20;
+    private static final int PALME = 1;
+    private static final int PRIZE = 2;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static String award(final int code, final int festival, final String year, final int type, final Integer movie) {
+        return "{\"code\":" + code + ",\"name\":\"Award " + code + "\","
+                + "\"parentFestival\":{\"code\":" + festival + ",\"$\":\"Festival " + festival + "\"},"
+                + "\"parentEdition\":{\"code\":" + (festival * 10000 + Integer.parseInt(year)) + ",\"$\":\"" + year + "\"},"
+                + "\"awardType\":{\"code\":" + type + ",\"$\":\"" + (type == PALME ? "Prix" : "Nomination") + "\"}"
+                + (movie == null ? "" : ",\"entities\":{\"movie\":{\"code\":" + movie + "}}") + "}";
+    }
+
+    private <T> T winner(final Class<T> type, final int code, final String... awards) throws IOException {
+        final StringBuilder json = new StringBuilder("{\"code\":").append(code).append(",\"festivalAward\":[");
+        for (int i = 0; i < awards.length; i++) {
+            json.append(i == 0 ? "" : ",").append(awards[i]);
+        }
+        return mapper.readValue(json.append("]}").toString(), type);
+    }
+
+    @Test
+    public void testMergedPostings() throws IOException {
+        final AwardIndex index = new AwardIndex();
+        index.add(winner(Movie.class, 100, award(1, CANNES, "1994", PALME, null), award(2, BERLIN, "1995", PRIZE, null)));
+        index.add(winner(Movie.class, 200, award(3, CANNES, "1994", PRIZE, null)));
+        index.add(winner(Person.class, 7, award(4, CANNES, "1994", PALME, 100)));
+
+        assertEquals(4, index.size());
+        assertEquals(3, index.getByFestival(CANNES).size());
+        assertEquals(3, index.getByFestival(CANNES, 1994).size());
+        assertTrue(index.getByFestival(CANNES, 1995).isEmpty());
+        assertEquals(3, index.getByYear(1994).size());
+        assertEquals(3, index.getByEdition(CANNES * 10000 + 1994).size());
+        assertEquals(2, index.getByAwardType(PALME).size());
+        assertEquals(1, index.getByAwardType(PRIZE, 1995).size());
+        assertEquals("Festival 10", index.getFestivals().get(CANNES));
+
+        final AwardEntry person = index.getByWinner(ItemType.PERSON, 7).get(0);
+        assertEquals(ItemType.PERSON, person.getWinnerType());
+        assertEquals(100, person.getMovieCode());
+        assertEquals("Award 4", person.getName());
+        assertEquals(1994, person.getYear());
+        // the movie of an award won by a movie is the movie itself
+        assertEquals(200, index.getByWinner(ItemType.MOVIE, 200).get(0).getMovieCode());
+    }
+
+    @Test
+    public void testWinnerReplaced() throws IOException {
+        final AwardIndex index = new AwardIndex();
+        index.add(winner(Movie.class, 100, award(1, CANNES, "1994", PALME, null), award(2, BERLIN, "1995", PRIZE, null)));
+        index.add(winner(Movie.class, 200, award(3, CANNES, "1994", PRIZE, null)));
+
+        // adding again replaces the awards of the winner only
+        index.add(winner(Movie.class, 100, award(5, CANNES, "2004", PALME, null)));
+        assertEquals(2, index.size());
+        final List<AwardEntry> cannes = index.getByFestival(CANNES);
+        assertEquals(2, cannes.size());
+        assertEquals(3, cannes.get(0).getCode());
+        assertEquals(5, cannes.get(1).getCode());
+        assertTrue(index.getByFestival(BERLIN).isEmpty());
+        assertFalse(index.getFestivals().containsKey(BERLIN));
+        assertEquals(1, index.getByWinner(ItemType.MOVIE, 100).size());
+    }
+
+    @Test
+    public void testRemoveAndCompact() throws IOException {
+        final AwardIndex index = new AwardIndex();
+        for (int i = 0; i < 10; i++) {
+            index.add(winner(Movie.class, i, award(i, CANNES, String.valueOf(1990 + i), PALME, null)));
+        }
+        // a movie and a series sharing a code are kept apart
+        assertFalse(index.remove(ItemType.TVSERIES, 3));
+        for (int i = 0; i < 8; i++) {
+            assertTrue(index.remove(ItemType.MOVIE, i));
+        }
+        assertFalse(index.remove(ItemType.MOVIE, 0));
+        assertEquals(2, index.size());
+
+        // the next addition rebuilds the columns without the removed rows
+        index.add(winner(Movie.class, 42, award(42, BERLIN, "2000", PRIZE, null)));
+        assertEquals(3, index.size());
+        assertEquals(2, index.getByFestival(CANNES).size());
+        assertEquals(1998, index.getByFestival(CANNES).get(0).getYear());
+        assertEquals(1, index.getByWinner(ItemType.MOVIE, 42).size());
+        assertTrue(index.getByYear(1990).isEmpty());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.getFestivals().isEmpty());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.model.Movie;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class BoxOfficeStoreTest {
+
+    private static final int FRANCE = 5001;
+    private static final int USA = 5002;
+    private static final int WEEKLY = 1;
+    private static final int WEEKEND = 2;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Movie movie(final int code, final String... weeks) throws IOException {
+        final StringBuilder json = new StringBuilder("{\"code\":").append(code).append(",\"boxOffice\":[");
+        for (int i = 0; i < weeks.length; i++) {
+            json.append(i == 0 ? "" : ",").append(weeks[i]);
+        }
+        return mapper.readValue(json.append("]}").toString(), Movie.class);
+    }
+
+    private static String week(final int country, final int week, final String start, final long admissions, final long gross) {
+        return week(country, WEEKLY, week, start, admissions, gross);
+    }
+
+    private static String week(final int country, final int type, final int week, final String start, final long admissions,
+            final long gross) {
+        return "{\"type\":{\"code\":" + type + ",\"$\":\"Type\"},\"country\":{\"code\":" + country + ",\"$\":\"Country\"},\"week\":" + week
+                + ",\"period\":{\"dateStart\":\"" + start + "\"},\"admissionCount\":" + admissions + ",\"gross\":" + gross + "}";
+    }
+
+    private static long millis(final int year, final int month, final int day) {
+        final Calendar calendar = Calendar.getInstance(UTC);
+        calendar.clear();
+        calendar.set(year, month - 1, day);
+        return calendar.getTimeInMillis();
+    }
+
+    @Test
+    public void testWeeksInOrder() throws IOException {
+        final BoxOfficeStore store = new BoxOfficeStore();
+        store.add(movie(1,
+                week(FRANCE, 2, "2009-12-23", 800, 8000),
+                week(FRANCE, 1, "2009-12-16", 1000, 10000),
+                week(FRANCE, 3, "2009-12-30", 500, 5000)));
+
+        assertArrayEquals(new int[]{FRANCE}, store.getCountries(1));
+        assertArrayEquals(new int[]{1, 2, 3}, store.getWeeks(1, FRANCE, WEEKLY));
+        assertArrayEquals(new long[]{1000, 800, 500}, store.getAdmissions(1, FRANCE, WEEKLY));
+        assertArrayEquals(new long[]{1000, 1800, 2300}, store.getCumulativeAdmissions(1, FRANCE, WEEKLY));
+        assertArrayEquals(new long[]{1000, -200, -300}, store.getWeekOverWeekDeltas(1, FRANCE, WEEKLY));
+        assertEquals(0, store.getWeeks(1, USA, WEEKLY).length);
+    }
+
+    @Test
+    public void testUnknownCountry() throws IOException {
+        final BoxOfficeStore store = new BoxOfficeStore();
+        store.add(mapper.readValue("{\"code\":1,\"boxOffice\":[{\"type\":{\"code\":1,\"$\":\"Hebdo\"},\"week\":1,\"admissionCount\":10},"
+                + "{\"type\":{\"code\":2,\"$\":\"Week-end\"},\"week\":1,\"admissionCount\":4},{\"week\":1,\"admissionCount\":1}]}", Movie.class));
+
+        assertArrayEquals(new int[]{BoxOfficeStore.UNKNOWN_COUNTRY}, store.getCountries(1));
+        assertArrayEquals(new int[]{WEEKLY, WEEKEND, BoxOfficeStore.UNKNOWN_TYPE}, store.getTypes(1, BoxOfficeStore.UNKNOWN_COUNTRY));
+        assertArrayEquals(new long[]{10}, store.getAdmissions(1, BoxOfficeStore.UNKNOWN_COUNTRY, WEEKLY));
+        assertArrayEquals(new long[]{4}, store.getAdmissions(1, BoxOfficeStore.UNKNOWN_COUNTRY, WEEKEND));
+        assertArrayEquals(new long[]{1}, store.getAdmissions(1, BoxOfficeStore.UNKNOWN_COUNTRY, BoxOfficeStore.UNKNOWN_TYPE));
+        assertEquals(0, store.getAdmissions(1, 1, WEEKLY).length);
+    }
+
+    @Test
+    public void testTypesKeptApart() throws IOException {
+        final BoxOfficeStore store = new BoxOfficeStore();
+        store.add(movie(1,
+                week(FRANCE, WEEKLY, 1, "2009-12-16", 1000, 10000),
+                week(FRANCE, WEEKEND, 1, "2009-12-18", 600, 6000),
+                week(FRANCE, WEEKLY, 2, "2009-12-23", 800, 8000),
+                week(FRANCE, WEEKEND, 2, "2009-12-25", 500, 5000)));
+        store.add(movie(2, week(FRANCE, WEEKEND, 1, "2009-12-18", 700, 7000)));
+
+        assertArrayEquals(new int[]{FRANCE}, store.getCountries(1));
+        assertArrayEquals(new int[]{WEEKLY, WEEKEND}, store.getTypes(1, FRANCE));
+        // each week number once per type
+        assertArrayEquals(new int[]{1, 2}, store.getWeeks(1, FRANCE, WEEKLY));
+        assertArrayEquals(new int[]{1, 2}, store.getWeeks(1, FRANCE, WEEKEND));
+        assertArrayEquals(new long[]{1000, 1800}, store.getCumulativeAdmissions(1, FRANCE, WEEKLY));
+        assertArrayEquals(new long[]{600, 1100}, store.getCumulativeAdmissions(1, FRANCE, WEEKEND));
+
+        final long from = millis(2009, 12, 16);
+        final long to = millis(2009, 12, 30);
+        final List<BoxOfficeTotal> weekly = store.getTopByAdmissions(FRANCE, WEEKLY, from, to, 10);
+        assertEquals(1, weekly.size());
+        assertEquals(1800, weekly.get(0).getAdmissions());
+        assertEquals(WEEKLY, weekly.get(0).getTypeCode());
+
+        final List<BoxOfficeTotal> weekend = store.getTopByGross(FRANCE, WEEKEND, from, to, 10);
+        assertEquals(2, weekend.size());
+        assertEquals(1, weekend.get(0).getMovieCode());
+        assertEquals(11000, weekend.get(0).getGross());
+        assertEquals(2, weekend.get(1).getMovieCode());
+
+        // removing the movie empties both types
+        assertTrue(store.remove(1));
+        assertTrue(store.getTopByAdmissions(FRANCE, WEEKLY, from, to, 10).isEmpty());
+        assertEquals(1, store.getTopByAdmissions(FRANCE, WEEKEND, from, to, 10).size());
+    }
+
+    @Test
+    public void testTopOverPeriod() throws IOException {
+        final BoxOfficeStore store = new BoxOfficeStore();
+        store.add(movie(1, week(FRANCE, 1, "2009-12-16", 1000, 9000), week(FRANCE, 2, "2009-12-23", 1000, 9000)));
+        store.add(movie(2, week(FRANCE, 1, "2009-12-23", 1500, 20000), week(USA, 1, "2009-12-16", 9999, 99999)));
+        store.add(movie(3, week(FRANCE, 1, "2010-01-06", 5000, 50000)));
+
+        final long from = millis(2009, 12, 16);
+        final long to = millis(2009, 12, 30);
+        final List<BoxOfficeTotal> admissions = store.getTopByAdmissions(FRANCE, WEEKLY, from, to, 10);
+        assertEquals(2, admissions.size());
+        assertEquals(1, admissions.get(0).getMovieCode());
+        assertEquals(2000, admissions.get(0).getAdmissions());
+        assertEquals(2, admissions.get(1).getMovieCode());
+
+        final List<BoxOfficeTotal> gross = store.getTopByGross(FRANCE, WEEKLY, from, to, 1);
+        assertEquals(1, gross.size());
+        assertEquals(2, gross.get(0).getMovieCode());
+        assertEquals(20000, gross.get(0).getGross());
+
+        assertTrue(store.getTopByGross(FRANCE, WEEKLY, from, to, 0).isEmpty());
+        assertTrue(store.getTopByGross(1234, WEEKLY, from, to, 10).isEmpty());
+    }
+
+    @Test
+    public void testReplaceAndRemove() throws IOException {
+        final BoxOfficeStore store = new BoxOfficeStore();
+        final long from = millis(2009, 1, 1);
+        final long to = millis(2011, 1, 1);
+        store.add(movie(1, week(FRANCE, 1, "2009-12-16", 1000, 10000)));
+        store.add(movie(2, week(FRANCE, 1, "2009-12-16", 500, 5000)));
+        assertEquals(2, store.size());
+
+        // adding again replaces the weeks and the countries
+        store.add(movie(1, week(USA, 1, "2009-12-18", 3000, 30000)));
+        assertArrayEquals(new int[]{USA}, store.getCountries(1));
+        assertEquals(1, store.getTopByAdmissions(FRANCE, WEEKLY, from, to, 10).size());
+        assertEquals(1, store.getTopByAdmissions(USA, WEEKLY, from, to, 10).size());
+
+        assertTrue(store.remove(1));
+        assertFalse(store.remove(1));
+        assertEquals(1, store.size());
+        assertTrue(store.getTopByAdmissions(USA, WEEKLY, from, to, 10).isEmpty());
+
+        // a movie without box office is removed
+        store.add(movie(2));
+        assertEquals(0, store.size());
+        assertTrue(store.getTopByAdmissions(FRANCE, WEEKLY, from, to, 10).isEmpty());
+    }
+}
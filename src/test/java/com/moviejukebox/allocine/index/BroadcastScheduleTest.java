@@ -0,0 +1,139 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.model.Broadcast;
+import com.moviejukebox.allocine.model.TvSeries;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class BroadcastScheduleTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final int TF1 = 10;
+    private static final int M6 = 20;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final BroadcastSchedule schedule = new BroadcastSchedule(UTC);
+
+    private Broadcast broadcast(final long code, final int channel, final String dateTime) throws IOException {
+        return mapper.readValue("{\"code\":" + code + ",\"datetime\":\"" + dateTime + "\",\"channel\":{\"code\":" + channel
+                + ",\"$\":\"Channel\"}}", Broadcast.class);
+    }
+
+    private static long millis(final int day, final int hour, final int minute) {
+        final Calendar calendar = Calendar.getInstance(UTC);
+        calendar.clear();
+        calendar.set(2013, Calendar.MARCH, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+
+    private static long[] codes(final List<ScheduledBroadcast> broadcasts) {
+        final long[] codes = new long[broadcasts.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = broadcasts.get(i).getBroadcast().getCode();
+        }
+        return codes;
+    }
+
+    @Test
+    public void testRangeBoundaries() throws IOException {
+        schedule.add(broadcast(1, TF1, "2013-03-10T20:00:00"), 100);
+        schedule.add(broadcast(2, TF1, "2013-03-10T21:00:00"), 100);
+        schedule.add(broadcast(3, M6, "2013-03-10T21:00:00"), 200);
+        schedule.add(broadcast(4, TF1, "2013-03-10T22:00:00"), 200);
+        assertFalse(schedule.add(broadcast(5, TF1, "not a date"), 100));
+        assertEquals(4, schedule.size());
+
+        // the start is included, the end excluded
+        assertArrayEquals(new long[]{1, 2}, codes(schedule.getBroadcasts(TF1, millis(10, 20, 0), millis(10, 22, 0))));
+        assertArrayEquals(new long[]{2, 4}, codes(schedule.getBroadcasts(TF1, millis(10, 20, 1), millis(10, 22, 1))));
+        assertArrayEquals(new long[]{2, 3}, codes(schedule.getBroadcasts(millis(10, 21, 0), millis(10, 22, 0))));
+        assertArrayEquals(new long[]{3, 4}, codes(schedule.getSeriesBroadcasts(200, millis(10, 0, 0), millis(11, 0, 0))));
+        assertTrue(schedule.getBroadcasts(TF1, millis(10, 22, 0), millis(10, 22, 0)).isEmpty());
+        assertTrue(schedule.getBroadcasts(999, millis(10, 0, 0), millis(11, 0, 0)).isEmpty());
+    }
+
+    @Test
+    public void testNextBroadcast() throws IOException {
+        schedule.add(broadcast(1, TF1, "2013-03-10T20:00:00"), 100);
+        schedule.add(broadcast(2, M6, "2013-03-10T21:00:00"), 100);
+        schedule.add(broadcast(3, TF1, "2013-03-11T20:00:00"), 200);
+
+        assertEquals(Long.valueOf(1), schedule.getNextBroadcast(100, millis(10, 20, 0)).getBroadcast().getCode());
+        assertEquals(Long.valueOf(2), schedule.getNextBroadcast(100, millis(10, 20, 1)).getBroadcast().getCode());
+        assertNull(schedule.getNextBroadcast(100, millis(10, 21, 1)));
+        assertNull(schedule.getNextBroadcast(999, millis(10, 0, 0)));
+
+        assertEquals(Long.valueOf(3), schedule.getNextChannelBroadcast(TF1, millis(10, 20, 1)).getBroadcast().getCode());
+        assertEquals(Long.valueOf(2), schedule.getNextChannelBroadcast(M6, millis(1, 0, 0)).getBroadcast().getCode());
+        assertNull(schedule.getNextChannelBroadcast(M6, millis(10, 21, 1)));
+    }
+
+    @Test
+    public void testReplaceByCode() throws IOException {
+        schedule.add(broadcast(1, TF1, "2013-03-10T20:00:00"), 100);
+        // rescheduled on another channel and at another time
+        schedule.add(broadcast(1, M6, "2013-03-12T21:00:00"), 100);
+
+        assertEquals(1, schedule.size());
+        assertTrue(schedule.getBroadcasts(TF1, millis(1, 0, 0), millis(31, 0, 0)).isEmpty());
+        assertNull(schedule.getNextChannelBroadcast(TF1, millis(1, 0, 0)));
+        assertArrayEquals(new long[]{1}, codes(schedule.getBroadcasts(M6, millis(1, 0, 0), millis(31, 0, 0))));
+        final List<ScheduledBroadcast> series = schedule.getSeriesBroadcasts(100, millis(1, 0, 0), millis(31, 0, 0));
+        assertEquals(1, series.size());
+        assertEquals(millis(12, 21, 0), series.get(0).getTime());
+    }
+
+    @Test
+    public void testRemoveBefore() throws IOException {
+        schedule.add(broadcast(1, TF1, "2013-03-10T20:00:00"), 100);
+        schedule.add(broadcast(2, TF1, "2013-03-11T20:00:00"), 100);
+        schedule.add(broadcast(3, M6, "2013-03-12T20:00:00"), 200);
+
+        // the broadcast starting at the time is kept
+        assertEquals(1, schedule.removeBefore(millis(11, 20, 0)));
+        assertEquals(2, schedule.size());
+        assertEquals(Long.valueOf(2), schedule.getNextBroadcast(100, millis(1, 0, 0)).getBroadcast().getCode());
+        assertEquals(2, schedule.removeBefore(millis(31, 0, 0)));
+        assertEquals(0, schedule.size());
+        assertNull(schedule.getNextChannelBroadcast(M6, millis(1, 0, 0)));
+
+        // a removed code can be added again
+        schedule.add(broadcast(1, TF1, "2013-03-20T20:00:00"), 100);
+        assertEquals(1, schedule.size());
+    }
+
+    @Test
+    public void testSeries() throws IOException {
+        final TvSeries series = mapper.readValue("{\"code\":100,\"broadcast\":[{\"code\":1,\"datetime\":\"2013-03-10T20:00:00\","
+                + "\"channel\":{\"code\":10}}],\"season\":[{\"code\":5,\"episode\":[{\"code\":6,\"broadcast\":"
+                + "[{\"code\":2,\"datetime\":\"2013-03-11T20:00:00\",\"channel\":{\"code\":10}}]}]}]}", TvSeries.class);
+        schedule.add(series);
+        assertArrayEquals(new long[]{1, 2}, codes(schedule.getSeriesBroadcasts(100, millis(1, 0, 0), millis(31, 0, 0))));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.model.Movie;
+import com.moviejukebox.allocine.model.TvSeries;
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import com.moviejukebox.allocine.model.enumeration.Job;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+public class CreditIndexTest {
+
+    private static final int CAMERON = 1;
+    private static final int WEAVER = 2;
+    private static final int BIEHN = 3;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static String member(final int person, final int activity, final String role, final boolean lead) {
+        return "{\"person\":{\"code\":" + person + ",\"name\":\"Person " + person + "\"},\"activity\":{\"code\":" + activity
+                + ",\"$\":\"Job\"}" + (role == null ? "" : ",\"role\":\"" + role + "\"") + ",\"isLeadActor\":" + lead + "}";
+    }
+
+    private <T> T title(final Class<T> type, final int code, final String... members) throws IOException {
+        final StringBuilder json = new StringBuilder("{\"code\":").append(code).append(",\"castMember\":[");
+        for (int i = 0; i < members.length; i++) {
+            json.append(i == 0 ? "" : ",").append(members[i]);
+        }
+        return mapper.readValue(json.append("]}").toString(), type);
+    }
+
+    @Test
+    public void testCreditsMergedByPerson() throws IOException {
+        final CreditIndex index = new CreditIndex();
+        index.add(title(Movie.class, 100, member(CAMERON, 8002, null, false), member(WEAVER, 8001, "Ripley", true)));
+        index.add(title(Movie.class, 200, member(CAMERON, 8002, null, false), member(CAMERON, 8004, null, false),
+                member(WEAVER, 8001, "Grace", false), member(BIEHN, 8001, null, false)));
+
+        assertEquals(3, index.getPersonCount());
+        assertEquals(2, index.getTitleCount());
+
+        // in the order the titles were added
+        final List<Credit> cameron = index.getCredits(CAMERON);
+        assertEquals(3, cameron.size());
+        assertEquals(100, cameron.get(0).getTitleCode());
+        assertEquals(Job.DIRECTOR, cameron.get(0).getJob());
+        assertEquals(Job.WRITER, cameron.get(2).getJob());
+        assertEquals(2, index.getCredits(CAMERON, Job.DIRECTOR).size());
+        assertTrue(index.getCredits(CAMERON, Job.ACTOR).isEmpty());
+
+        final List<Credit> weaver = index.getCredits(WEAVER);
+        assertEquals("Ripley", weaver.get(0).getRole());
+        assertTrue(weaver.get(0).isLeadActor());
+        assertEquals("Grace", weaver.get(1).getRole());
+        assertFalse(weaver.get(1).isLeadActor());
+        assertNull(index.getCredits(BIEHN).get(0).getRole());
+        assertTrue(index.getCredits(99).isEmpty());
+    }
+
+    @Test
+    public void testTitleReplaced() throws IOException {
+        final CreditIndex index = new CreditIndex();
+        index.add(title(Movie.class, 100, member(CAMERON, 8002, null, false), member(BIEHN, 8001, "Kyle Reese", true)));
+        index.add(title(Movie.class, 200, member(BIEHN, 8001, "Hicks", false)));
+
+        // adding again replaces the credits of the title only
+        index.add(title(Movie.class, 100, member(CAMERON, 8029, null, false)));
+        assertEquals(1, index.getCredits(CAMERON).size());
+        assertEquals(Job.PRODUCER, index.getCredits(CAMERON).get(0).getJob());
+        final List<Credit> biehn = index.getCredits(BIEHN);
+        assertEquals(1, biehn.size());
+        assertEquals("Hicks", biehn.get(0).getRole());
+        assertEquals(2, index.getTitleCount());
+    }
+
+    @Test
+    public void testMovieAndSeriesKeptApart() throws IOException {
+        final CreditIndex index = new CreditIndex();
+        index.add(title(Movie.class, 100, member(WEAVER, 8001, "Ripley", true)));
+        index.add(title(TvSeries.class, 100, member(WEAVER, 8001, "Narrator", false)));
+        assertEquals(2, index.getCredits(WEAVER).size());
+        assertEquals(ItemType.TVSERIES, index.getCredits(WEAVER).get(1).getType());
+
+        assertTrue(index.remove(ItemType.TVSERIES, 100));
+        assertFalse(index.remove(ItemType.TVSERIES, 100));
+        assertEquals(1, index.getCredits(WEAVER).size());
+        assertEquals(ItemType.MOVIE, index.getCredits(WEAVER).get(0).getType());
+
+        // a person without credits left is dropped
+        assertTrue(index.remove(ItemType.MOVIE, 100));
+        assertEquals(0, index.getPersonCount());
+        assertTrue(index.getCredits(WEAVER).isEmpty());
+    }
+}
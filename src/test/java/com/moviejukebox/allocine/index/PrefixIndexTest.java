@@ -0,0 +1,109 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.model.enumeration.ItemType;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PrefixIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static PrefixIndex build() {
+        return PrefixIndex.builder()
+                .add(ItemType.MOVIE, 1, 10f, "Star Wars", "La Guerre des étoiles")
+                .add(ItemType.MOVIE, 2, 50f, "Star Trek", "Star Trek : le film")
+                .add(ItemType.MOVIE, 3, 5f, "Starship Troopers")
+                .add(ItemType.TVSERIES, 4, 30f, "Stargate SG-1")
+                .add(ItemType.PERSON, 5, 20f, "Sterling Hayden")
+                .add(ItemType.PERSON, 6, 1f, "Émilie Dequenne")
+                .build();
+    }
+
+    private static List<Integer> codes(final List<Completion> completions) {
+        final List<Integer> codes = new ArrayList<>();
+        for (Completion completion : completions) {
+            codes.add(completion.getCode());
+        }
+        return codes;
+    }
+
+    @Test
+    public void testMappedLookup() throws IOException {
+        final File file = folder.newFile("titles.idx");
+        build().writeTo(file);
+        final PrefixIndex index = PrefixIndex.map(file);
+
+        assertEquals(8, index.size());
+        // most popular first, one result per item
+        assertEquals(Arrays.asList(2, 4, 1, 3), codes(index.complete("star", 10)));
+        assertEquals(Arrays.asList(2, 4), codes(index.complete("star", 2)));
+        assertEquals(Arrays.asList(4), codes(index.complete("star", ItemType.TVSERIES, 10)));
+        assertEquals(Arrays.asList(2, 1), codes(index.complete("STAR ", 10)));
+        assertEquals(Arrays.asList(1), codes(index.complete("la guerre des e", 10)));
+        assertEquals(Arrays.asList(6), codes(index.complete("emil", ItemType.PERSON, 10)));
+
+        final Completion best = index.complete("star t", 1).get(0);
+        assertEquals(ItemType.MOVIE, best.getType());
+        assertEquals("Star Trek", best.getText());
+        assertEquals(50f, best.getWeight(), 0f);
+
+        assertTrue(index.complete("zorro", 10).isEmpty());
+        assertTrue(index.complete("", 10).isEmpty());
+        assertTrue(index.complete("star", 0).isEmpty());
+    }
+
+    @Test
+    public void testWrapBuffer() throws IOException {
+        final ByteBuffer data = build().asReadOnlyBuffer();
+        final ByteBuffer copy = ByteBuffer.allocateDirect(data.remaining());
+        copy.put(data);
+        final PrefixIndex index = PrefixIndex.wrap(copy);
+        assertEquals(Arrays.asList(2, 4, 1, 3), codes(index.complete("sta", 10)));
+    }
+
+    @Test
+    public void testRebuild() throws IOException {
+        final PrefixIndex index = build().toBuilder()
+                .remove(ItemType.MOVIE, 2)
+                .add(ItemType.MOVIE, 3, 100f, "Starship Troopers")
+                .build();
+        assertEquals(Arrays.asList(3, 4, 1), codes(index.complete("star", 10)));
+        assertTrue(PrefixIndex.builder().build().complete("star", 10).isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAnIndex() throws IOException {
+        PrefixIndex.wrap(ByteBuffer.wrap(new byte[64]));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.model.Movie;
+import com.moviejukebox.allocine.model.Search;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class TitleIndexTest {
+
+    private static Movie movie(final int code, final String title, final String keywords) {
+        final Movie movie = new Movie();
+        movie.setCode(code);
+        movie.setTitle(title);
+        movie.setKeywords(keywords);
+        return movie;
+    }
+
+    private static List<Integer> codes(final Search search) {
+        final List<Integer> codes = new ArrayList<>();
+        if (search.getMovies() != null) {
+            for (Movie movie : search.getMovies()) {
+                codes.add(movie.getCode());
+            }
+        }
+        return codes;
+    }
+
+    @Test
+    public void testPrefixOfLastWord() {
+        final TitleIndex index = new TitleIndex();
+        index.add(movie(1, "Memento", null));
+        index.add(movie(2, "Memories of Murder", null));
+        index.add(movie(3, "Mémoires de nos pères", null));
+        index.add(movie(4, "The Memo", null));
+
+        assertEquals(3, index.searchMovies("memo").getTotalResults());
+        assertEquals(3, codes(index.searchMovies("MEMO")).size());
+        assertEquals(1, codes(index.searchMovies("mement")).size());
+        assertEquals(2, codes(index.searchMovies("memor")).get(0).intValue());
+        // only the last word is a prefix
+        final List<Integer> found = codes(index.searchMovies("memo murder"));
+        assertEquals(2, found.size());
+        assertTrue(found.contains(2) && found.contains(4));
+        assertEquals(Arrays.asList(2), codes(index.searchMovies("mem of")));
+        assertTrue(codes(index.searchMovies("xyz")).isEmpty());
+        assertTrue(codes(index.searchMovies("  ")).isEmpty());
+    }
+
+    @Test
+    public void testRanking() {
+        final TitleIndex index = new TitleIndex();
+        index.add(movie(1, "The Matrix", null));
+        index.add(movie(2, "Speed", "matrix"));
+        index.add(movie(3, "The Matrix Reloaded", null));
+        index.add(movie(4, "The Godfather", null));
+
+        // a title match ranks above a keyword match, and a short title above a longer one
+        assertEquals(Arrays.asList(1, 3, 2), codes(index.searchMovies("matrix")));
+        // a rare term counts more than a common one
+        assertEquals(3, codes(index.searchMovies("the reloaded")).get(0).intValue());
+        assertEquals(1, codes(index.searchMovies("matrix", 1)).size());
+        assertEquals(3, index.searchMovies("matrix", 1).getTotalResults());
+    }
+
+    @Test
+    public void testCompaction() {
+        final TitleIndex index = new TitleIndex();
+        for (int i = 0; i < 100; i++) {
+            index.add(movie(i, "Movie " + i + (i % 2 == 0 ? " even" : " odd"), null));
+        }
+        // removing most of the movies rebuilds the postings
+        for (int i = 0; i < 80; i++) {
+            assertTrue(index.removeMovie(i));
+        }
+        assertFalse(index.removeMovie(0));
+        assertEquals(20, index.size());
+        assertEquals(10, index.searchMovies("even", 100).getTotalResults());
+        assertEquals(Arrays.asList(95), codes(index.searchMovies("95")));
+        assertEquals(10, index.searchMovies("8").getTotalResults());
+        assertTrue(codes(index.searchMovies("5")).isEmpty());
+
+        // replacing a movie keeps a single entry
+        index.add(movie(90, "Renamed", null));
+        index.add(movie(90, "Renamed again", null));
+        assertEquals(20, index.size());
+        assertEquals(Arrays.asList(90), codes(index.searchMovies("renamed")));
+        assertTrue(codes(index.searchMovies("90")).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws Exception {
+        final TitleIndex index = new TitleIndex();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t * 1000;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = 0; i < 500; i++) {
+                            index.add(movie(offset + i, "Star Wars " + i, "space"));
+                            if (i % 3 == 0) {
+                                index.removeMovie(offset + i);
+                            }
+                        }
+                        return null;
+                    }
+                }));
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int i = 0; i < 500; i++) {
+                            final Search search = index.searchMovies("star wa", 5);
+                            assertTrue(codes(search).size() <= 5);
+                            for (Movie movie : search.getMovies()) {
+                                assertNotNull(movie);
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 333 of each 500 movies are kept
+        assertEquals(4 * 333, index.size());
+        assertEquals(4 * 333, index.searchMovies("space", 10).getTotalResults());
+    }
+}
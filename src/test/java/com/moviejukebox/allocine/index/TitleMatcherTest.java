@@ -0,0 +1,88 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.index;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.StubServer;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import org.junit.Test;
+
+public class TitleMatcherTest {
+
+    private static void assertParsed(final String filename, final String title, final int year) {
+        final String[] parsed = TitleMatcher.parseFilename(filename);
+        assertEquals(filename, title, parsed[0]);
+        assertEquals(filename, String.valueOf(year), parsed[1]);
+    }
+
+    @Test
+    public void testTagInTheTitleIsKept() {
+        assertParsed("The.French.Connection.1971.mkv", "The French Connection", 1971);
+        assertParsed("The French Connection (1971) FRENCH 1080p BluRay.mkv", "The French Connection", 1971);
+        assertParsed("Extended.Family.avi", "Extended Family", -1);
+    }
+
+    @Test
+    public void testTagsAtTheEndAreRemoved() {
+        assertParsed("Le.Fabuleux.Destin.d.Amelie.Poulain.FRENCH.720p.BluRay.x264.mkv", "Le Fabuleux Destin d Amelie Poulain", -1);
+        assertParsed("Amelie.TRUEFRENCH.DVDRip.XviD.avi", "Amelie", -1);
+        assertParsed("Heat.1995.MULTi.1080p.BluRay.x264.mkv", "Heat", 1995);
+        assertParsed("Kaamelott.S01E02.FRENCH.HDTV.avi", "Kaamelott", -1);
+    }
+
+    @Test
+    public void testOnlyVideoExtensionsAreRemoved() {
+        assertParsed("Star.Wars.1977", "Star Wars", 1977);
+        assertParsed("Star.Wars.1977.MKV", "Star Wars", 1977);
+        assertParsed("Dr.No.1962.m2ts", "Dr No", 1962);
+        assertParsed("/films/Alien (1979) [YTS].mp4", "Alien", 1979);
+        assertParsed("2001.A.Space.Odyssey.1968.mkv", "2001 A Space Odyssey", 1968);
+    }
+
+    @Test
+    public void testCacheIsBounded() throws IOException, AllocineException {
+        try (StubServer server = new StubServer(new StubServer.Responder() {
+            @Override
+            public void respond(final HttpExchange exchange, final String query) throws IOException {
+                StubServer.send(exchange, 200, "{\"feed\":{\"page\":1,\"count\":10,\"totalResults\":0}}");
+            }
+        })) {
+            final TitleMatcher matcher = new TitleMatcher(server.createApi(), TitleMatcher.DEFAULT_MIN_SCORE, 2);
+            matcher.match("Alien.1979.mkv");
+            matcher.match("Heat.1995.mkv");
+            // keep Alien as the most recently used title
+            matcher.match("Alien.1979.mkv");
+            matcher.match("Ronin.1998.mkv");
+            assertEquals(2, matcher.getCacheSize());
+            assertEquals(3, server.getRequests());
+
+            matcher.match("Alien.1979.mkv");
+            assertEquals(3, server.getRequests());
+            // Heat was evicted
+            matcher.match("Heat.1995.mkv");
+            assertEquals(4, server.getRequests());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.moviejukebox.allocine.model.media.MediaBasic;
+import com.moviejukebox.allocine.model.media.MediaPicture;
+import com.moviejukebox.allocine.model.media.MediaVideo;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class LazyValueTest {
+
+    private static final AtomicInteger DECODED = new AtomicInteger();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private MovieInfos read(final String media) throws IOException {
+        return mapper.readValue("{\"movie\":{\"code\":1,\"title\":\"Alien\",\"media\":" + media + "}}", MovieInfos.class);
+    }
+
+    @Test
+    public void testMediaKeepTheirSubtypes() throws IOException {
+        final MovieInfos infos = read("[{\"class\":\"picture\",\"code\":5},{\"class\":\"video\",\"code\":6}]");
+        final List<MediaBasic> media = infos.getMovie().getMedia();
+        assertEquals(2, media.size());
+        assertTrue(media.get(0) instanceof MediaPicture);
+        assertTrue(media.get(1) instanceof MediaVideo);
+        // the subtype is written back
+        assertTrue(mapper.writeValueAsString(infos.getMovie()).contains("\"class\":\"video\""));
+    }
+
+    @Test
+    public void testSubTreeDecodedOnFirstAccess() throws IOException {
+        // an unknown subtype only fails once the media are requested
+        final MovieInfos infos = read("[{\"class\":\"unknown\",\"code\":5}]");
+        assertEquals("Alien", infos.getMovie().getTitle());
+        try {
+            infos.getMovie().getMedia();
+            fail("The media should not decode");
+        } catch (IllegalStateException ex) {
+            assertTrue(ex.getCause() instanceof IOException);
+        }
+        // the failure is not hidden by a later access
+        try {
+            infos.getMovie().getMedia();
+            fail("The media should not decode");
+        } catch (IllegalStateException ex) {
+            assertNotNull(ex.getCause());
+        }
+    }
+
+    @Test
+    public void testSerializedWithTheDecodedValue() throws Exception {
+        final MovieInfos infos = read("[{\"class\":\"video\",\"code\":6}]");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(infos.getMovie());
+        }
+        final Movie movie;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            movie = (Movie) in.readObject();
+        }
+        assertEquals("Alien", movie.getTitle());
+        assertEquals(1, movie.getMedia().size());
+        assertTrue(movie.getMedia().get(0) instanceof MediaVideo);
+        assertNull(movie.getBoxOffice());
+    }
+
+    @Test
+    public void testDecodedOnceUnderConcurrentAccess() throws Exception {
+        final TokenBuffer buffer = new TokenBuffer(mapper, false);
+        buffer.writeStartArray();
+        for (int i = 0; i < 1000; i++) {
+            buffer.writeString("value" + i);
+        }
+        buffer.writeEndArray();
+        final LazyValue<List<String>> value = LazyValue.of(buffer, CountingHolder.class);
+        assertTrue(value.isPending());
+        assertEquals(0, DECODED.get());
+
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Future<?>[] results = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                results[i] = executor.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws Exception {
+                        start.await();
+                        return value.get();
+                    }
+                });
+            }
+            start.countDown();
+            final Object first = results[0].get();
+            for (Future<?> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertFalse(value.isPending());
+        assertEquals(1, DECODED.get());
+        assertEquals(1000, value.get().size());
+    }
+
+    public static final class CountingHolder implements LazyValue.Holder<List<String>> {
+
+        private List<String> value;
+
+        @Override
+        public List<String> get() {
+            return value;
+        }
+
+        public void setValue(List<String> value) {
+            DECODED.incrementAndGet();
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.model;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.junit.Test;
+
+public class SnapshotTest {
+
+    private static final String CAST = "\"castMember\":[{\"person\":{\"code\":10,\"name\":\"Sigourney Weaver\"},"
+            + "\"activity\":{\"code\":8001,\"$\":\"Actrice\"},\"role\":\"Ripley\",\"isLeadActor\":true}]";
+    private static final String AWARDS = "\"festivalAward\":[{\"code\":5,\"name\":\"Best Actress\","
+            + "\"parentFestival\":{\"code\":3,\"$\":\"Cannes\"},\"parentEdition\":{\"code\":4,\"$\":\"1979\"},"
+            + "\"awardType\":{\"code\":6,\"$\":\"Prize\"},\"entities\":{\"movie\":{\"code\":1,\"title\":\"Alien\"}}}]";
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static void assertAward(final FestivalAwardSnapshot award) {
+        assertEquals(5, award.getCode());
+        assertEquals("Best Actress", award.getName());
+        assertEquals(3, award.getFestivalCode());
+        assertEquals("Cannes", award.getFestival());
+        assertEquals(1979, award.getYear());
+        assertEquals("Prize", award.getAwardType());
+        assertEquals(1, award.getMovieCode());
+        assertEquals("Alien", award.getMovieTitle());
+    }
+
+    private static void changeAward(final FestivalAward award) {
+        award.setName("Changed");
+        award.setCode(99);
+        award.getParentFestival().setName("Changed");
+        award.getParentEdition().setName("2000");
+        award.getEntities().getMovie().setTitle("Changed");
+    }
+
+    @Test
+    public void testMovieSnapshotIsUnchanged() throws IOException {
+        final MovieInfos infos = mapper.readValue("{\"movie\":{\"code\":1,\"title\":\"Alien\"," + CAST + "," + AWARDS + "}}", MovieInfos.class);
+        final MovieSnapshot snapshot = infos.toSnapshot();
+
+        final Movie movie = infos.getMovie();
+        movie.setTitle("Changed");
+        movie.getCastMember().get(0).getShortPerson().setName("Changed");
+        movie.getCastMember().get(0).setRole("Changed");
+        changeAward(movie.getFestivalAwards().get(0));
+        movie.getFestivalAwards().add(new FestivalAward());
+
+        assertEquals("Alien", snapshot.getTitle());
+        assertEquals(1, snapshot.getActors().size());
+        final MoviePersonSnapshot actor = snapshot.getActors().iterator().next();
+        assertEquals(10, actor.getCode());
+        assertEquals("Sigourney Weaver", actor.getName());
+        assertEquals("Ripley", actor.getRole());
+        assertTrue(actor.isLeadActor());
+        assertEquals(1, snapshot.getFestivalAwards().size());
+        assertAward(snapshot.getFestivalAwards().get(0));
+    }
+
+    @Test
+    public void testTvSeriesSnapshotIsUnchanged() throws IOException {
+        final TvSeriesInfos infos = mapper.readValue("{\"tvseries\":{\"code\":2,\"title\":\"Kaamelott\"," + CAST + "," + AWARDS + "}}", TvSeriesInfos.class);
+        final TvSeriesSnapshot snapshot = infos.toSnapshot();
+
+        final TvSeries series = infos.getTvSeries();
+        series.getCastMember().get(0).getShortPerson().setName("Changed");
+        changeAward(series.getFestivalAwards().get(0));
+        series.getFestivalAwards().clear();
+
+        assertEquals("Kaamelott", snapshot.getTitle());
+        assertEquals("Sigourney Weaver", snapshot.getActors().iterator().next().getName());
+        assertEquals(1, snapshot.getFestivalAwards().size());
+        assertAward(snapshot.getFestivalAwards().get(0));
+    }
+
+    @Test
+    public void testPersonSnapshotIsUnchanged() throws IOException {
+        final PersonInfos infos = mapper.readValue("{\"person\":{\"code\":10,\"name\":{\"given\":\"Sigourney\",\"family\":\"Weaver\"},"
+                + AWARDS + "}}", PersonInfos.class);
+        final PersonSnapshot snapshot = infos.toSnapshot();
+
+        changeAward(infos.getPerson().getFestivalAwards().get(0));
+        infos.getPerson().getFestivalAwards().add(new FestivalAward());
+
+        assertEquals(10, snapshot.getCode());
+        assertEquals(1, snapshot.getFestivalAwards().size());
+        assertAward(snapshot.getFestivalAwards().get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotListsAreUnmodifiable() throws IOException {
+        final MovieInfos infos = mapper.readValue("{\"movie\":{\"code\":1," + AWARDS + "}}", MovieInfos.class);
+        infos.toSnapshot().getFestivalAwards().clear();
+    }
+}
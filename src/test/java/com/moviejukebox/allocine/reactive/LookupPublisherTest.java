@@ -0,0 +1,228 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.reactive;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.StubServer;
+import com.moviejukebox.allocine.bulk.ExecutionMode;
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LookupPublisherTest {
+
+    private static final Pattern CODE = Pattern.compile("code=(\\d+)&");
+    private static final long SETTLE_MILLIS = 200;
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private final AtomicInteger blocked = new AtomicInteger();
+    private StubServer server;
+    private AllocinePublishers publishers;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer(new StubServer.Responder() {
+            @Override
+            public void respond(final HttpExchange exchange, final String query) throws IOException {
+                final Matcher matcher = CODE.matcher(query);
+                assertTrue(matcher.find());
+                final int code = Integer.parseInt(matcher.group(1));
+                if (code == 404) {
+                    StubServer.send(exchange, 404, "{}");
+                    return;
+                }
+                if (code >= 900) {
+                    // held until the end of the test
+                    blocked.incrementAndGet();
+                    try {
+                        unblock.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return;
+                }
+                StubServer.send(exchange, 200, "{\"movie\":{\"code\":" + code + ",\"title\":\"Movie " + code + "\"}}");
+            }
+        });
+        publishers = new AllocinePublishers(server.createApi(), ExecutionMode.PLATFORM_THREADS, 2);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        unblock.countDown();
+        publishers.close();
+        server.close();
+    }
+
+    private static List<String> codes(final int from, final int to) {
+        final List<String> codes = new ArrayList<>();
+        for (int code = from; code <= to; code++) {
+            codes.add(Integer.toString(code));
+        }
+        return codes;
+    }
+
+    @Test
+    public void testDemand() throws Exception {
+        final RecordingSubscriber<LookupResult<MovieInfos>> subscriber = new RecordingSubscriber<>();
+        publishers.getMovieInfos(codes(1, 6)).subscribe(subscriber);
+        Thread.sleep(SETTLE_MILLIS);
+        // nothing is read before the first request
+        assertEquals(0, server.getRequests());
+
+        subscriber.getSubscription().request(1);
+        subscriber.awaitItems(1);
+        subscriber.getSubscription().request(2);
+        subscriber.awaitItems(3);
+        Thread.sleep(SETTLE_MILLIS);
+        // the publisher stops when the demand is met
+        assertEquals(3, subscriber.getItems().size());
+        assertEquals(3, server.getRequests());
+        assertFalse(subscriber.isTerminated());
+
+        subscriber.getSubscription().request(Long.MAX_VALUE);
+        subscriber.awaitTerminated();
+        assertEquals(6, subscriber.getItems().size());
+        assertEquals(6, server.getRequests());
+        assertEquals(1, subscriber.getCompletions());
+        assertTrue(subscriber.getErrors().isEmpty());
+        for (LookupResult<MovieInfos> result : subscriber.getItems()) {
+            assertEquals("Movie " + result.getCode(), result.getValue().getTitle());
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final RecordingSubscriber<LookupResult<MovieInfos>> subscriber = new RecordingSubscriber<>();
+        publishers.getMovieInfos(codes(901, 905)).subscribe(subscriber);
+        subscriber.getSubscription().request(5);
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (blocked.get() < 2) {
+            assertTrue("Lookups not started", System.nanoTime() < end);
+            Thread.sleep(1);
+        }
+        // no more lookups than the concurrency
+        assertEquals(2, server.getRequests());
+
+        subscriber.getSubscription().cancel();
+        subscriber.getSubscription().request(5);
+        Thread.sleep(SETTLE_MILLIS);
+        // the lookups in flight are aborted without a signal, none is started
+        assertEquals(2, server.getRequests());
+        assertTrue(subscriber.getItems().isEmpty());
+        assertFalse(subscriber.isTerminated());
+
+        // the threads held by the aborted lookups are free again
+        final RecordingSubscriber<LookupResult<MovieInfos>> next = new RecordingSubscriber<>();
+        publishers.getMovieInfos(codes(1, 2)).subscribe(next);
+        next.getSubscription().request(2);
+        next.awaitTerminated();
+        assertEquals(2, next.getItems().size());
+    }
+
+    @Test
+    public void testNonPositiveDemand() throws Exception {
+        for (long demand : new long[]{0, -1}) {
+            final RecordingSubscriber<LookupResult<MovieInfos>> subscriber = new RecordingSubscriber<>();
+            publishers.getMovieInfos(codes(1, 3)).subscribe(subscriber);
+            subscriber.getSubscription().request(demand);
+            subscriber.awaitTerminated();
+            assertTrue(subscriber.getErrors().get(0) instanceof IllegalArgumentException);
+
+            // nothing after the error
+            subscriber.getSubscription().request(3);
+            Thread.sleep(SETTLE_MILLIS);
+            assertEquals(1, subscriber.getErrors().size());
+            assertEquals(0, subscriber.getCompletions());
+            assertTrue(subscriber.getItems().isEmpty());
+        }
+        assertEquals(0, server.getRequests());
+    }
+
+    @Test
+    public void testFailedLookup() throws Exception {
+        final RecordingSubscriber<LookupResult<MovieInfos>> subscriber = new RecordingSubscriber<>();
+        publishers.getMovieInfos(Arrays.asList("1", "404", "2")).subscribe(subscriber);
+        subscriber.getSubscription().request(Long.MAX_VALUE);
+        subscriber.awaitTerminated();
+
+        // a failed lookup is a result, the stream goes on
+        assertEquals(3, subscriber.getItems().size());
+        assertEquals(1, subscriber.getCompletions());
+        int failed = 0;
+        for (LookupResult<MovieInfos> result : subscriber.getItems()) {
+            if (result.isFailed()) {
+                failed++;
+                assertEquals("404", result.getCode());
+                assertNull(result.getValue());
+            }
+        }
+        assertEquals(1, failed);
+    }
+
+    @Test
+    public void testErrorSignalledOnce() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final CountDownLatch started = new CountDownLatch(4);
+            final LookupPublisher<String> publisher = new LookupPublisher<>(codes(1, 8), new LookupPublisher.Lookup<String>() {
+                @Override
+                public String get(final String code) throws AllocineException {
+                    started.countDown();
+                    try {
+                        started.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("Lookup " + code);
+                }
+            }, executor, 4);
+
+            final RecordingSubscriber<LookupResult<String>> subscriber = new RecordingSubscriber<>();
+            publisher.subscribe(subscriber);
+            subscriber.getSubscription().request(Long.MAX_VALUE);
+            subscriber.awaitTerminated();
+            Thread.sleep(SETTLE_MILLIS);
+            // four lookups failing together end the stream with one error
+            assertEquals(1, subscriber.getErrors().size());
+            assertTrue(subscriber.getErrors().get(0) instanceof IllegalStateException);
+            assertEquals(0, subscriber.getCompletions());
+            assertTrue(subscriber.getItems().isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
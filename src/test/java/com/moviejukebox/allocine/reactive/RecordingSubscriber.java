@@ -0,0 +1,114 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.reactive;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Subscriber recording the signals of a publisher, requesting nothing by
+ * itself
+ *
+ * @param <T>
+ */
+public class RecordingSubscriber<T> implements Subscriber<T> {
+
+    private final List<T> items = new CopyOnWriteArrayList<>();
+    private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+    private final AtomicInteger completions = new AtomicInteger();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile Subscription subscription;
+
+    @Override
+    public void onSubscribe(final Subscription subscription) {
+        assertNull("Subscribed twice", this.subscription);
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(final T item) {
+        assertEquals("Item after the end", 1, terminated.getCount());
+        items.add(item);
+    }
+
+    @Override
+    public void onError(final Throwable error) {
+        errors.add(error);
+        terminated.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+        completions.incrementAndGet();
+        terminated.countDown();
+    }
+
+    public Subscription getSubscription() {
+        return subscription;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public List<Throwable> getErrors() {
+        return errors;
+    }
+
+    public int getCompletions() {
+        return completions.get();
+    }
+
+    /**
+     * Wait for a number of items
+     *
+     * @param count
+     * @throws InterruptedException
+     */
+    public void awaitItems(final int count) throws InterruptedException {
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (items.size() < count) {
+            assertTrue("Items not received", System.nanoTime() < end);
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Wait for the completion or the error
+     *
+     * @throws InterruptedException
+     */
+    public void awaitTerminated() throws InterruptedException {
+        assertTrue("Not terminated", terminated.await(10, TimeUnit.SECONDS));
+    }
+
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.reactive;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.StubServer;
+import com.moviejukebox.allocine.bulk.ExecutionMode;
+import com.moviejukebox.allocine.model.Search;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchPublisherTest {
+
+    private static final Pattern PAGE = Pattern.compile("page=(\\d+)");
+    private static final int TOTAL = 5;
+    private StubServer server;
+    private AllocinePublishers publishers;
+    private volatile int failingPage;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer(new StubServer.Responder() {
+            @Override
+            public void respond(final HttpExchange exchange, final String query) throws IOException {
+                final Matcher matcher = PAGE.matcher(query);
+                assertTrue(matcher.find());
+                final int page = Integer.parseInt(matcher.group(1));
+                if (page == failingPage) {
+                    StubServer.send(exchange, 500, "{}");
+                    return;
+                }
+                // two movies by page
+                final StringBuilder json = new StringBuilder("{\"feed\":{\"page\":").append(page)
+                        .append(",\"count\":2,\"totalResults\":").append(TOTAL).append(",\"movie\":[");
+                for (int code = page * 2 - 1; code <= Math.min(page * 2, TOTAL); code++) {
+                    json.append(code == page * 2 - 1 ? "" : ",").append("{\"code\":").append(code).append('}');
+                }
+                StubServer.send(exchange, 200, json.append("]}}").toString());
+            }
+        });
+        publishers = new AllocinePublishers(server.createApi(), ExecutionMode.PLATFORM_THREADS, 2);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        publishers.close();
+        server.close();
+    }
+
+    @Test
+    public void testPagesOnDemand() throws Exception {
+        final RecordingSubscriber<Search> subscriber = new RecordingSubscriber<>();
+        publishers.searchMovies("avatar", 2).subscribe(subscriber);
+        subscriber.getSubscription().request(1);
+        subscriber.awaitItems(1);
+        Thread.sleep(200);
+        assertEquals(1, server.getRequests());
+
+        subscriber.getSubscription().request(10);
+        subscriber.awaitTerminated();
+        // the last page is the one reaching the total
+        assertEquals(3, subscriber.getItems().size());
+        assertEquals(3, server.getRequests());
+        assertEquals(1, subscriber.getCompletions());
+        assertEquals(1, subscriber.getItems().get(2).getMovies().size());
+        assertEquals(5, subscriber.getItems().get(2).getMovies().get(0).getCode());
+    }
+
+    @Test
+    public void testFailedPage() throws Exception {
+        failingPage = 2;
+        final RecordingSubscriber<Search> subscriber = new RecordingSubscriber<>();
+        publishers.searchMovies("avatar", 2).subscribe(subscriber);
+        subscriber.getSubscription().request(Long.MAX_VALUE);
+        subscriber.awaitTerminated();
+        Thread.sleep(200);
+
+        // the first page, then the error once, without reading further
+        assertEquals(1, subscriber.getItems().size());
+        assertEquals(1, subscriber.getErrors().size());
+        assertTrue(subscriber.getErrors().get(0) instanceof AllocineException);
+        assertEquals(0, subscriber.getCompletions());
+        assertEquals(2, server.getRequests());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCount() {
+        publishers.searchMovies("avatar", 0);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.schedule;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AdaptiveLimitTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String URL = "http://api.test/";
+
+    /**
+     * Record a full window of requests
+     *
+     * @return the limit after the window
+     */
+    private static int window(final AdaptiveLimit limit, final long nanos, final int inFlight, final boolean overloaded) {
+        final int samples = Math.max(10, limit.getLimit());
+        int result = limit.getLimit();
+        for (int i = 0; i < samples; i++) {
+            result = limit.sample(nanos, inFlight, overloaded && i == 0);
+        }
+        return result;
+    }
+
+    @Test
+    public void testIncrease() {
+        final AdaptiveLimit limit = new AdaptiveLimit(4, 1, 8, 1.5);
+        assertEquals(5, window(limit, MILLI, 4, false));
+        assertEquals(MILLI, limit.getBaseline(TimeUnit.NANOSECONDS));
+        // within the tolerance of the baseline
+        assertEquals(6, window(limit, MILLI * 14 / 10, 6, false));
+        assertEquals(7, window(limit, MILLI, 6, false));
+        assertEquals(8, window(limit, MILLI, 8, false));
+        // never above the maximum
+        assertEquals(8, window(limit, MILLI, 8, false));
+        assertEquals(4, limit.getIncreases());
+        assertEquals(0, limit.getDecreases());
+    }
+
+    @Test
+    public void testNoIncreaseWhenUnused() {
+        final AdaptiveLimit limit = new AdaptiveLimit(8, 1, 16, 1.5);
+        assertEquals(8, window(limit, MILLI, 3, false));
+        assertEquals(9, window(limit, MILLI, 4, false));
+        assertEquals(1, limit.getIncreases());
+    }
+
+    @Test
+    public void testPartialWindow() {
+        final AdaptiveLimit limit = new AdaptiveLimit(4, 1, 8, 1.5);
+        for (int i = 0; i < 9; i++) {
+            assertEquals(4, limit.sample(MILLI, 4, true));
+        }
+        assertEquals(0, limit.getLatency(TimeUnit.NANOSECONDS));
+        assertEquals(0, limit.getDecreases());
+    }
+
+    @Test
+    public void testDecreaseOnLatency() {
+        final AdaptiveLimit limit = new AdaptiveLimit(20, 2, 32, 1.5);
+        assertEquals(21, window(limit, MILLI, 20, false));
+        // a tenth less, at least one
+        assertEquals(18, window(limit, MILLI * 2, 20, false));
+        assertEquals(MILLI * 2, limit.getLatency(TimeUnit.NANOSECONDS));
+        assertEquals(MILLI, limit.getBaseline(TimeUnit.NANOSECONDS));
+        assertEquals(1, limit.getDecreases());
+
+        for (int i = 0; i < 14; i++) {
+            window(limit, MILLI * 3, 20, false);
+        }
+        // never below the minimum
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testDecreaseOnOverload() {
+        final AdaptiveLimit limit = new AdaptiveLimit(5, 1, 8, 1.5);
+        assertEquals(6, window(limit, MILLI, 5, false));
+        // one overloaded request is enough, at the baseline latency
+        assertEquals(5, window(limit, MILLI, 5, true));
+        assertEquals(1, limit.getDecreases());
+        assertEquals(6, window(limit, MILLI, 5, false));
+    }
+
+    @Test
+    public void testBaselineMeasuredAgain() {
+        final AdaptiveLimit limit = new AdaptiveLimit(4, 1, 8, 1.5);
+        for (int i = 0; i < 19; i++) {
+            window(limit, MILLI, 8, false);
+        }
+        assertEquals(8, limit.getLimit());
+        // the end of the warm up halves the limit and forgets the baseline
+        assertEquals(4, window(limit, MILLI, 8, false));
+        assertEquals(0, limit.getBaseline(TimeUnit.NANOSECONDS));
+        assertEquals(5, window(limit, MILLI * 3, 4, false));
+        assertEquals(MILLI * 3, limit.getBaseline(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testReset() {
+        final AdaptiveLimit limit = new AdaptiveLimit(4, 2, 8, 1.5);
+        limit.reset(100);
+        assertEquals(8, limit.getLimit());
+        limit.reset(0);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testSchedulerFollowsLimit() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().setMaxConcurrent(16).setAdaptive(true).build();
+        assertEquals(4, scheduler.getMaxConcurrent());
+        for (int i = 0; i < 10; i++) {
+            scheduler.acquire(CallContext.of(Lane.NORMAL), URL).release(true);
+        }
+        assertEquals(3, scheduler.getMaxConcurrent());
+        assertEquals(1, scheduler.getAdaptiveLimit().getDecreases());
+
+        // a new maximum starts the limit again
+        scheduler.setMaxConcurrent(12);
+        assertEquals(12, scheduler.getMaxConcurrent());
+        scheduler.setMaxConcurrent(64);
+        assertEquals(16, scheduler.getMaxConcurrent());
+    }
+}
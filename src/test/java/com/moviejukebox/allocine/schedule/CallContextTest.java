@@ -0,0 +1,183 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.schedule;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.StubServer;
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CallContextTest {
+
+    private static final String MOVIE_JSON = "{\"movie\":{\"code\":61282,\"title\":\"Avatar\",\"productionYear\":2009}}";
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch received = new CountDownLatch(1);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private StubServer server;
+    private AllocineApi api;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer(new StubServer.Responder() {
+            @Override
+            public void respond(final HttpExchange exchange, final String query) throws IOException {
+                if (query.contains("code=1&")) {
+                    StubServer.send(exchange, 200, MOVIE_JSON);
+                    return;
+                }
+                if (query.contains("code=3&")) {
+                    // half of the body, then nothing until the end of the test
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, 0);
+                    final OutputStream out = exchange.getResponseBody();
+                    out.write(MOVIE_JSON.substring(0, 30).getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+                received.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        api = server.createApi();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        unblock.countDown();
+        executor.shutdownNow();
+        server.close();
+    }
+
+    /**
+     * Get a movie in a context from another thread
+     */
+    private Future<MovieInfos> submit(final CallContext context, final String code) {
+        return executor.submit(context.wrap(new Callable<MovieInfos>() {
+            @Override
+            public MovieInfos call() throws AllocineException {
+                return api.getMovieInfos(code);
+            }
+        }));
+    }
+
+    private static AllocineException getFailure(final Future<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof AllocineException);
+            return (AllocineException) ex.getCause();
+        }
+        fail("The call should fail");
+        return null;
+    }
+
+    @Test
+    public void testCancelAbortsRequest() throws Exception {
+        final CancellationToken token = new CancellationToken();
+        final Future<MovieInfos> future = submit(CallContext.of(Lane.NORMAL).withCancellation(token), "2");
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        token.cancel();
+
+        // the call ends while the server still holds the response
+        final AllocineException ex = getFailure(future);
+        assertTrue(ex.getResponse(), ex.getResponse().contains("cancelled"));
+        assertEquals(1, unblock.getCount());
+
+        // the aborted request gave its connection back
+        assertEquals("Avatar", api.getMovieInfos("1").getTitle());
+    }
+
+    @Test
+    public void testCancelStopsParsing() throws Exception {
+        final CancellationToken token = new CancellationToken();
+        final Future<MovieInfos> future = submit(CallContext.of(Lane.NORMAL).withCancellation(token), "3");
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        token.cancel();
+
+        final AllocineException ex = getFailure(future);
+        assertTrue(ex.getResponse(), ex.getResponse().contains("cancelled"));
+        assertEquals(1, unblock.getCount());
+    }
+
+    @Test
+    public void testDeadlineAbortsRequest() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().build();
+        api.setRequestScheduler(scheduler);
+        final long start = System.nanoTime();
+        try (CallContext.Scope scope = CallContext.of(Lane.INTERACTIVE, 200, TimeUnit.MILLISECONDS).enter()) {
+            api.getMovieInfos("2");
+            fail("The deadline should expire");
+        } catch (AllocineException ex) {
+            assertTrue(ex.getResponse(), ex.getResponse().contains("Deadline expired"));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+        assertEquals(1, unblock.getCount());
+        // the permit of the aborted request is released
+        assertEquals(0, scheduler.getRunning());
+        assertEquals(1, scheduler.getSent(Lane.INTERACTIVE));
+    }
+
+    @Test
+    public void testCancelledBeforeSent() throws Exception {
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        try (CallContext.Scope scope = CallContext.of(Lane.NORMAL).withCancellation(token).enter()) {
+            api.getMovieInfos("1");
+            fail("The call should be cancelled");
+        } catch (AllocineException ex) {
+            assertTrue(ex.getResponse(), ex.getResponse().contains("cancelled"));
+        }
+        assertEquals(0, server.getRequests());
+    }
+
+    @Test
+    public void testScope() {
+        final CallContext background = CallContext.of(Lane.BACKGROUND);
+        final CallContext interactive = CallContext.of(Lane.INTERACTIVE, 1, TimeUnit.MINUTES);
+        assertEquals(Lane.NORMAL, CallContext.current().getLane());
+        try (CallContext.Scope outer = background.enter()) {
+            try (CallContext.Scope inner = interactive.enter()) {
+                assertSame(interactive, CallContext.current());
+            }
+            assertSame(background, CallContext.current());
+        }
+        assertEquals(Lane.NORMAL, CallContext.current().getLane());
+        assertFalse(CallContext.current().isCancellable());
+
+        // an earlier deadline is kept
+        assertSame(interactive, interactive.withDeadline(1, TimeUnit.HOURS));
+        assertTrue(interactive.withDeadline(1, TimeUnit.SECONDS).getRemaining(TimeUnit.SECONDS) <= 1);
+    }
+}
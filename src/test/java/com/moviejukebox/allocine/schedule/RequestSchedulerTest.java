@@ -0,0 +1,240 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.schedule;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import org.junit.After;
+import org.junit.Test;
+
+public class RequestSchedulerTest {
+
+    private static final String URL = "http://api.test/";
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Acquire a permit in another thread, release it at once and record the
+     * name of the request
+     */
+    private Future<Void> submit(final RequestScheduler scheduler, final Lane lane, final String name, final List<String> order) {
+        return executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws AllocineException {
+                final RequestScheduler.Permit permit = scheduler.acquire(CallContext.of(lane), URL);
+                order.add(name);
+                permit.release();
+                return null;
+            }
+        });
+    }
+
+    private static void awaitQueued(final RequestScheduler scheduler, final Lane lane, final int count) throws InterruptedException {
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (scheduler.getQueued(lane) < count) {
+            assertTrue("Requests not queued", System.nanoTime() < end);
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testLanePriority() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().setMaxConcurrent(1).build();
+        final RequestScheduler.Permit blocker = scheduler.acquire(CallContext.of(Lane.NORMAL), URL);
+
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(submit(scheduler, Lane.BACKGROUND, "background" + i, order));
+            awaitQueued(scheduler, Lane.BACKGROUND, i + 1);
+        }
+        for (int i = 0; i < 3; i++) {
+            futures.add(submit(scheduler, Lane.INTERACTIVE, "interactive" + i, order));
+            awaitQueued(scheduler, Lane.INTERACTIVE, i + 1);
+        }
+
+        blocker.release();
+        for (Future<Void> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        // the interactive requests queued last are sent first, each lane in order
+        final List<String> expected = new ArrayList<>();
+        for (String lane : new String[]{"interactive", "background"}) {
+            for (int i = 0; i < 3; i++) {
+                expected.add(lane + i);
+            }
+        }
+        assertEquals(expected, order);
+        assertEquals(3, scheduler.getSent(Lane.BACKGROUND));
+        assertEquals(1, scheduler.getSent(Lane.NORMAL));
+    }
+
+    @Test
+    public void testWeightedShare() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().setMaxConcurrent(1)
+                .setWeight(Lane.NORMAL, 2).setWeight(Lane.BACKGROUND, 1).build();
+        final RequestScheduler.Permit blocker = scheduler.acquire(CallContext.of(Lane.INTERACTIVE), URL);
+
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(submit(scheduler, Lane.BACKGROUND, "B", order));
+            awaitQueued(scheduler, Lane.BACKGROUND, i + 1);
+            futures.add(submit(scheduler, Lane.NORMAL, "N", order));
+            awaitQueued(scheduler, Lane.NORMAL, i + 1);
+        }
+        blocker.release();
+        for (Future<Void> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        // twice the weight, twice the requests while both lanes wait
+        int normal = 0;
+        for (String name : order.subList(0, 6)) {
+            normal += "N".equals(name) ? 1 : 0;
+        }
+        assertEquals(4, normal);
+    }
+
+    @Test
+    public void testPermitRelease() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().setMaxConcurrent(1).build();
+        final RequestScheduler.Permit first = scheduler.acquire(CallContext.of(Lane.NORMAL), URL);
+        assertEquals(1, scheduler.getRunning());
+
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final Future<Void> second = submit(scheduler, Lane.NORMAL, "second", order);
+        awaitQueued(scheduler, Lane.NORMAL, 1);
+        assertTrue(order.isEmpty());
+
+        first.release();
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(1, order.size());
+        // a permit is released once
+        first.release();
+        assertEquals(0, scheduler.getRunning());
+        assertEquals(0, scheduler.getRunning(Lane.NORMAL));
+        assertEquals(0, scheduler.getQueued(Lane.NORMAL));
+
+        // a raised global limit lets a waiting request of another lane in at once
+        final RequestScheduler.Permit third = scheduler.acquire(CallContext.of(Lane.INTERACTIVE), URL);
+        final Future<Void> fourth = submit(scheduler, Lane.NORMAL, "fourth", order);
+        awaitQueued(scheduler, Lane.NORMAL, 1);
+        scheduler.setMaxConcurrent(2);
+        fourth.get(10, TimeUnit.SECONDS);
+        third.release();
+        assertEquals(0, scheduler.getRunning());
+    }
+
+    @Test
+    public void testLaneLimit() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().setMaxConcurrent(4)
+                .setMaxConcurrent(Lane.BACKGROUND, 1).build();
+        final RequestScheduler.Permit background = scheduler.acquire(CallContext.of(Lane.BACKGROUND), URL);
+
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final Future<Void> waiting = submit(scheduler, Lane.BACKGROUND, "background", order);
+        awaitQueued(scheduler, Lane.BACKGROUND, 1);
+        // the other lanes still get the free permits
+        submit(scheduler, Lane.NORMAL, "normal", order).get(10, TimeUnit.SECONDS);
+        assertEquals(1, scheduler.getQueued(Lane.BACKGROUND));
+
+        background.release();
+        waiting.get(10, TimeUnit.SECONDS);
+        assertEquals(2, scheduler.getSent(Lane.BACKGROUND));
+    }
+
+    @Test
+    public void testDeadlineWhileQueued() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().setMaxConcurrent(1).build();
+        final RequestScheduler.Permit blocker = scheduler.acquire(CallContext.of(Lane.NORMAL), URL);
+        try {
+            scheduler.acquire(CallContext.of(Lane.NORMAL, 50, TimeUnit.MILLISECONDS), URL);
+            fail("The deadline should expire");
+        } catch (AllocineException ex) {
+            assertEquals(1, scheduler.getExpired());
+        }
+        assertEquals(0, scheduler.getQueued(Lane.NORMAL));
+        blocker.release();
+        assertEquals(0, scheduler.getRunning());
+    }
+
+    @Test
+    public void testExpiredRequestsGiveTheirTagBack() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().setMaxConcurrent(1)
+                .setWeight(Lane.NORMAL, 2).setWeight(Lane.BACKGROUND, 1).build();
+        final RequestScheduler.Permit blocker = scheduler.acquire(CallContext.of(Lane.INTERACTIVE), URL);
+        for (int i = 0; i < 2; i++) {
+            try {
+                scheduler.acquire(CallContext.of(Lane.NORMAL, 20, TimeUnit.MILLISECONDS), URL);
+                fail("The deadline should expire");
+            } catch (AllocineException ex) {
+                assertEquals(i + 1, scheduler.getExpired());
+            }
+        }
+
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final Future<Void> background = submit(scheduler, Lane.BACKGROUND, "background", order);
+        awaitQueued(scheduler, Lane.BACKGROUND, 1);
+        final Future<Void> normal = submit(scheduler, Lane.NORMAL, "normal", order);
+        awaitQueued(scheduler, Lane.NORMAL, 1);
+        blocker.release();
+        background.get(10, TimeUnit.SECONDS);
+        normal.get(10, TimeUnit.SECONDS);
+        // the expired requests do not delay the next request of their lane
+        final List<String> expected = new ArrayList<>();
+        expected.add("normal");
+        expected.add("background");
+        assertEquals(expected, order);
+    }
+
+    @Test
+    public void testCancelWhileQueued() throws Exception {
+        final RequestScheduler scheduler = new RequestSchedulerBuilder().setMaxConcurrent(1).build();
+        final RequestScheduler.Permit blocker = scheduler.acquire(CallContext.of(Lane.NORMAL), URL);
+        final CancellationToken token = new CancellationToken();
+        final Future<RequestScheduler.Permit> waiting = executor.submit(new Callable<RequestScheduler.Permit>() {
+            @Override
+            public RequestScheduler.Permit call() throws AllocineException {
+                return scheduler.acquire(CallContext.of(Lane.NORMAL).withCancellation(token), URL);
+            }
+        });
+        awaitQueued(scheduler, Lane.NORMAL, 1);
+        token.cancel();
+        try {
+            waiting.get(10, TimeUnit.SECONDS);
+            fail("The request should be cancelled");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof AllocineException);
+        }
+        assertEquals(0, scheduler.getQueued(Lane.NORMAL));
+        blocker.release();
+        assertEquals(0, scheduler.getRunning());
+    }
+}
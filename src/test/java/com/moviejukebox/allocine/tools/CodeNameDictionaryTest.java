@@ -0,0 +1,98 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.model.CodeName;
+import com.moviejukebox.allocine.model.MovieInfos;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CodeNameDictionaryTest {
+
+    private static final String MOVIE_JSON = "{\"movie\":{\"code\":%d,\"nationality\":[{\"code\":13021,\"$\":\"%s\"}],"
+            + "\"genre\":[{\"code\":13021,\"$\":\"%s\"}]}}";
+
+    private final CodeNameDictionary dictionary = new CodeNameDictionary();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Before
+    public void setUp() {
+        mapper.registerModule(new CodeNameModule(dictionary));
+    }
+
+    private MovieInfos read(final int code, final String nationality, final String genre) throws IOException {
+        return mapper.readValue(String.format(MOVIE_JSON, code, nationality, genre), MovieInfos.class);
+    }
+
+    @Test
+    public void testNamesAreShared() throws IOException {
+        final MovieInfos first = read(1, "France", "Drame");
+        final MovieInfos second = read(2, new String("France"), new String("Drame"));
+        assertSame(first.getMovie().getGenre().get(0).getName(), second.getMovie().getGenre().get(0).getName());
+        assertSame(first.getMovie().getNationality().get(0).getName(), second.getMovie().getNationality().get(0).getName());
+        assertNotSame(first.getMovie().getGenre().get(0), second.getMovie().getGenre().get(0));
+    }
+
+    @Test
+    public void testKindsAreSeparate() throws IOException {
+        // the same code is a nationality and a genre
+        final MovieInfos infos = read(1, "France", "Drame");
+        assertEquals("France", infos.getMovie().getNationality().get(0).getName());
+        assertEquals("Drame", infos.getMovie().getGenre().get(0).getName());
+        assertEquals(2, dictionary.size());
+        assertEquals("Drame", dictionary.getName("AbstractBaseMapping.genre", 13021));
+        assertEquals("France", dictionary.getName("AbstractBaseMapping.nationality", 13021));
+    }
+
+    @Test
+    public void testValuesStayMutable() throws IOException {
+        final MovieInfos first = read(1, "France", "Drame");
+        final MovieInfos second = read(2, "France", "Drame");
+        final CodeName genre = first.getMovie().getGenre().get(0);
+        genre.setName("Comédie");
+        genre.setCode(13005);
+        assertEquals("Comédie", genre.getName());
+        assertEquals("Drame", second.getMovie().getGenre().get(0).getName());
+        assertEquals(13021, second.getMovie().getGenre().get(0).getCode());
+    }
+
+    @Test
+    public void testOtherNameIsKept() throws IOException {
+        read(1, "France", "Drame");
+        final MovieInfos renamed = read(2, "France", "Drama");
+        assertEquals("Drama", renamed.getMovie().getGenre().get(0).getName());
+    }
+
+    @Test
+    public void testFullDictionary() {
+        final CodeNameDictionary full = new CodeNameDictionary(0);
+        final CodeName value = new CodeName();
+        value.setCode(1);
+        value.setName("Drame");
+        assertSame(value, full.intern("AbstractBaseMapping.genre", value));
+        assertEquals(0, full.size());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.entity.BasicHttpEntity;
+import org.junit.Test;
+
+public class ContentDecoderTest {
+
+    private static final byte[] CONTENT;
+
+    static {
+        final StringBuilder json = new StringBuilder("{\"feed\":{\"movie\":[");
+        for (int i = 0; i < 200; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"code\":").append(i).append(",\"title\":\"Movie ").append(i).append("\"}");
+        }
+        CONTENT = json.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private final TransferMetrics metrics = new TransferMetrics();
+    private boolean closed;
+
+    private BasicHttpEntity entity(final byte[] body, final String encoding) {
+        final BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(new ByteArrayInputStream(body) {
+            @Override
+            public void close() throws IOException {
+                closed = true;
+                super.close();
+            }
+        });
+        entity.setContentLength(body.length);
+        entity.setContentEncoding(encoding);
+        return entity;
+    }
+
+    private static byte[] compress(final OutputStream out, final ByteArrayOutputStream bytes) throws IOException {
+        out.write(CONTENT);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gzip() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        return compress(new GZIPOutputStream(bytes), bytes);
+    }
+
+    /**
+     * Read a body and check the content and the counts
+     */
+    private void assertDecoded(final byte[] body, final String encoding, final boolean compressed) throws IOException {
+        final long wire = metrics.getWireBytes();
+        final long content = metrics.getContentBytes();
+        try (InputStream in = ContentDecoder.open(entity(body, encoding), metrics)) {
+            assertArrayEquals(CONTENT, IOUtils.toByteArray(in));
+        }
+        assertTrue(closed);
+        assertEquals(body.length, metrics.getWireBytes() - wire);
+        assertEquals(CONTENT.length, metrics.getContentBytes() - content);
+        if (compressed) {
+            assertTrue(body.length < CONTENT.length);
+        }
+    }
+
+    @Test
+    public void testIdentity() throws IOException {
+        assertDecoded(CONTENT, null, false);
+        assertDecoded(CONTENT, "identity", false);
+        assertEquals(2, metrics.getResponses());
+        assertEquals(0, metrics.getCompressedResponses());
+        assertEquals(1.0, metrics.getCompressionRatio(), 0.0);
+    }
+
+    @Test
+    public void testGzip() throws IOException {
+        assertDecoded(gzip(), "gzip", true);
+        assertDecoded(gzip(), " X-GZIP ", true);
+        assertEquals(2, metrics.getResponses());
+        assertEquals(2, metrics.getCompressedResponses());
+        assertTrue(metrics.getCompressionRatio() < 1.0);
+    }
+
+    @Test
+    public void testDeflate() throws IOException {
+        // zlib wrapped, as the RFC says
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        assertDecoded(compress(new DeflaterOutputStream(bytes), bytes), "deflate", true);
+
+        // raw, as some servers send it
+        bytes = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            assertDecoded(compress(new DeflaterOutputStream(bytes, deflater), bytes), "deflate", true);
+        } finally {
+            deflater.end();
+        }
+        assertEquals(2, metrics.getCompressedResponses());
+    }
+
+    @Test
+    public void testUnsupportedEncoding() {
+        try {
+            ContentDecoder.open(entity(CONTENT, "br"), metrics);
+            fail("The encoding is not supported");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("br"));
+        }
+        assertTrue(closed);
+        assertEquals(0, metrics.getResponses());
+    }
+
+    @Test
+    public void testCorruptGzipHeader() {
+        try {
+            ContentDecoder.open(entity(CONTENT, "gzip"), metrics);
+            fail("The header is not a gzip one");
+        } catch (IOException ex) {
+            assertTrue(closed);
+        }
+        assertEquals(0, metrics.getResponses());
+    }
+}
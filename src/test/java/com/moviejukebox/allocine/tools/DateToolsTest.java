@@ -0,0 +1,78 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import static org.junit.Assert.*;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class DateToolsTest {
+
+    private static final TimeZone PARIS = DateTools.ALLOCINE_TIME_ZONE;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static long parse(final String src) {
+        final Long millis = DateTools.parseDateTime(src, PARIS);
+        assertNotNull(src, millis);
+        return millis;
+    }
+
+    @Test
+    public void testOffsets() {
+        // winter time is UTC+1, summer time UTC+2
+        assertEquals(DateTools.parseDateTime("2013-01-15T20:45:00", UTC) - TimeUnit.HOURS.toMillis(1), parse("2013-01-15T20:45:00"));
+        assertEquals(DateTools.parseDateTime("2013-07-15T20:45:00", UTC) - TimeUnit.HOURS.toMillis(2), parse("2013-07-15T20:45:00"));
+        assertEquals(DateTools.parseDateTime("2013-07-15", UTC) - TimeUnit.HOURS.toMillis(2), parse("2013-07-15"));
+        assertEquals(parse("2013-04-08T20:45:00"), parse(" 2013-04-08 20:45:00 "));
+    }
+
+    @Test
+    public void testChangeToSummerTime() {
+        // on 31 March 2013 the clocks go from 02:00 to 03:00
+        assertEquals(TimeUnit.SECONDS.toMillis(1), parse("2013-03-31T03:00:00") - parse("2013-03-31T01:59:59"));
+        assertNull(DateTools.parseDateTime("2013-03-31T02:30:00", PARIS));
+        // the day is 23 hours long
+        assertEquals(TimeUnit.HOURS.toMillis(23), parse("2013-04-01") - parse("2013-03-31"));
+    }
+
+    @Test
+    public void testChangeToWinterTime() {
+        // on 27 October 2013 the clocks go from 03:00 back to 02:00
+        assertEquals(TimeUnit.HOURS.toMillis(2) + TimeUnit.SECONDS.toMillis(1),
+                parse("2013-10-27T03:00:00") - parse("2013-10-27T01:59:59"));
+        // the repeated hour is taken in winter time
+        assertEquals(DateTools.parseDateTime("2013-10-27T01:30:00", UTC).longValue(), parse("2013-10-27T02:30:00"));
+        // the day is 25 hours long
+        assertEquals(TimeUnit.HOURS.toMillis(25), parse("2013-10-28") - parse("2013-10-27"));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertNull(DateTools.parseDateTime(null, PARIS));
+        assertNull(DateTools.parseDateTime(" ", PARIS));
+        assertNull(DateTools.parseDateTime("2013-02-29", PARIS));
+        assertNull(DateTools.parseDateTime("2013-04-08T25:00:00", PARIS));
+        assertNull(DateTools.parseDateTime("08/04/2013", PARIS));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import static org.junit.Assert.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviejukebox.allocine.model.Artwork;
+import com.moviejukebox.allocine.model.Channel;
+import com.moviejukebox.allocine.model.media.MediaPicture;
+import java.io.IOException;
+import org.junit.Test;
+
+public class ImageToolsTest {
+
+    private static final String HOST = "http://fr.web.img6.acsta.net";
+    private static final String IMAGE = "/pictures/14/10/02/11/22/371201.jpg";
+    private static final String RESIZED = HOST + "/r_160_240" + IMAGE;
+    private static final String FRAMED = HOST + "/r_160_240/b_1_d6d6d6" + IMAGE;
+
+    @Test
+    public void testResize() {
+        assertEquals(RESIZED, ImageTools.resize(HOST + IMAGE, 160, 240));
+        // the existing options are replaced
+        assertEquals(HOST + "/r_320_480" + IMAGE, ImageTools.resize(RESIZED, 320, 480));
+        assertEquals(HOST + "/r_320_480" + IMAGE, ImageTools.resize(FRAMED, 320, 480));
+        assertEquals(HOST + "/r_320_480" + IMAGE, ImageTools.resize(HOST + "/c_100_100" + IMAGE, 320, 480));
+
+        assertEquals(RESIZED, ImageTools.resize(RESIZED, 0, 240));
+        assertEquals(RESIZED, ImageTools.resize(RESIZED, 160, -1));
+        assertNull(ImageTools.resize(null, 160, 240));
+    }
+
+    @Test
+    public void testCrop() {
+        assertEquals(HOST + "/c_100_100" + IMAGE, ImageTools.crop(HOST + IMAGE, 100, 100));
+        assertEquals(HOST + "/c_100_100" + IMAGE, ImageTools.crop(FRAMED, 100, 100));
+    }
+
+    @Test
+    public void testOriginal() {
+        assertEquals(HOST + IMAGE, ImageTools.getOriginal(HOST + IMAGE));
+        assertEquals(HOST + IMAGE, ImageTools.getOriginal(RESIZED));
+        assertEquals(HOST + IMAGE, ImageTools.getOriginal(FRAMED));
+        assertEquals(HOST + IMAGE, ImageTools.getOriginal(" " + RESIZED + " "));
+        assertEquals("", ImageTools.getOriginal(""));
+    }
+
+    @Test
+    public void testOptionsOnlyAfterHost() {
+        // segments looking like options further down the path are kept
+        final String path = "/medias/nmedia/r_16/b_2_x/18/78/poster.jpg";
+        assertEquals(HOST + path, ImageTools.getOriginal(HOST + path));
+        assertEquals(HOST + path, ImageTools.getOriginal(HOST + "/r_160_240" + path));
+        assertEquals(HOST + "/r_160_240" + path, ImageTools.resize(HOST + path, 160, 240));
+        // as well as a file name looking like an option
+        assertEquals(HOST + "/r_160_240", ImageTools.getOriginal(HOST + "/r_160_240"));
+        assertEquals(HOST + "/c_1/r_2_3.jpg", ImageTools.getOriginal(HOST + "/r_160_240/c_1/r_2_3.jpg"));
+        // and a host looking like an option
+        assertEquals("http://c_1.example.com" + IMAGE, ImageTools.getOriginal("http://c_1.example.com/r_1_2" + IMAGE));
+    }
+
+    @Test
+    public void testPath() {
+        assertEquals(IMAGE, ImageTools.getPath(HOST + IMAGE));
+        assertEquals(IMAGE, ImageTools.getPath(FRAMED));
+        assertEquals(IMAGE, ImageTools.getPath("https://images.allocine.fr/r_1_1" + IMAGE));
+        assertEquals(IMAGE, ImageTools.getPath("r_160_240" + IMAGE));
+        assertEquals(IMAGE, ImageTools.getPath(IMAGE.substring(1)));
+        // the case of the path is kept
+        assertEquals("/Pictures/A.JPG", ImageTools.getPath(HOST + "/r_1_1/Pictures/A.JPG"));
+        assertEquals("/", ImageTools.getPath(HOST));
+    }
+
+    @Test
+    public void testModelUrls() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final Artwork artwork = mapper.readValue("{\"href\":\"" + FRAMED + "\"}", Artwork.class);
+        assertEquals(HOST + "/r_80_120" + IMAGE, artwork.getHref(80, 120));
+
+        final Channel channel = mapper.readValue("{\"code\":1,\"logo\":{\"href\":\"" + HOST + IMAGE + "\"}}", Channel.class);
+        assertEquals(HOST + "/r_50_50" + IMAGE, channel.getLogo(50, 50));
+
+        final MediaPicture picture = mapper.readValue("{\"width\":300,\"height\":400,\"thumbnail\":{\"href\":\"" + RESIZED + "\"}}",
+                MediaPicture.class);
+        assertEquals(HOST + "/r_100_100" + IMAGE, picture.getThumbnailHref(100, 100));
+        // not enlarged
+        assertEquals(HOST + IMAGE, picture.getThumbnailHref(300, 400));
+        assertEquals(HOST + IMAGE, picture.getThumbnailHref(1000, 1000));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.AllocineException;
+import com.moviejukebox.allocine.StubServer;
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.moviejukebox.allocine.model.Search;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.yamj.api.common.exception.ApiExceptionType;
+
+public class NegativeCacheTest {
+
+    private StubServer server;
+    private AllocineApi api;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer(new StubServer.Responder() {
+            @Override
+            public void respond(final HttpExchange exchange, final String query) throws IOException {
+                if (query.contains("q=nothing")) {
+                    StubServer.send(exchange, 200, "{\"feed\":{\"page\":1,\"count\":10,\"totalResults\":0}}");
+                } else if (query.contains("code=404&")) {
+                    StubServer.send(exchange, 404, null);
+                } else if (query.contains("code=401&")) {
+                    StubServer.send(exchange, 401, "{}");
+                } else if (query.contains("code=429&")) {
+                    StubServer.send(exchange, 429, "{}");
+                } else if (query.contains("code=503&")) {
+                    StubServer.send(exchange, 503, "{}");
+                } else if (query.contains("code=1&")) {
+                    StubServer.send(exchange, 200, "{\"movie\":{\"code\":1,\"title\":\"Found\"}}");
+                } else {
+                    StubServer.send(exchange, 200, "{\"error\":{\"code\":\"0\",\"$\":\"No result\"}}");
+                }
+            }
+        });
+        api = server.createApi();
+        api.setNegativeCache(new NegativeCache(100, 60000));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testNotFoundIsCached() throws AllocineException {
+        assertNull(api.findMovieInfos("404"));
+        assertNull(api.findMovieInfos("404"));
+        assertEquals(1, server.getRequests());
+        assertEquals(1, api.getNegativeCache().getHits());
+    }
+
+    @Test
+    public void testAnswerWithoutResultIsCached() throws AllocineException {
+        assertNull(api.findMovieInfos("2"));
+        assertNull(api.findMovieInfos("2"));
+        assertEquals(1, server.getRequests());
+    }
+
+    @Test
+    public void testFoundIsNotCached() throws AllocineException {
+        final MovieInfos infos = api.findMovieInfos("1");
+        assertNotNull(infos);
+        assertEquals("Found", infos.getTitle());
+        assertEquals(0, api.getNegativeCache().size());
+    }
+
+    @Test
+    public void testOtherErrorsAreNotCached() {
+        assertNotCached("401", ApiExceptionType.HTTP_404_ERROR, 401);
+        assertNotCached("429", ApiExceptionType.HTTP_404_ERROR, 429);
+        assertNotCached("503", ApiExceptionType.HTTP_503_ERROR, 503);
+        assertEquals(0, api.getNegativeCache().size());
+    }
+
+    private void assertNotCached(final String code, final ApiExceptionType type, final int status) {
+        final int before = server.getRequests();
+        for (int i = 0; i < 2; i++) {
+            try {
+                api.findMovieInfos(code);
+                fail("No error for " + status);
+            } catch (AllocineException ex) {
+                assertEquals(type, ex.getExceptionType());
+                assertEquals(status, ex.getResponseCode());
+            }
+        }
+        assertTrue("The error " + status + " was answered from the cache", server.getRequests() >= before + 2);
+    }
+
+    @Test
+    public void testEmptySearchIsCached() throws AllocineException {
+        assertFalse(api.searchMovies("nothing").isValid());
+        final Search cached = api.searchMovies("nothing");
+        assertFalse(cached.isValid());
+        assertTrue(cached.getMovies().isEmpty());
+        assertEquals(1, server.getRequests());
+    }
+
+    @Test
+    public void testMissExpires() throws InterruptedException {
+        final NegativeCache cache = new NegativeCache(10, 50);
+        final Map<String, String> params = new LinkedHashMap<>();
+        params.put("code", "404");
+        final String key = NegativeCache.getKey("movie", params);
+        cache.put(key);
+        assertTrue(cache.isMissing(key));
+        Thread.sleep(100);
+        assertFalse(cache.isMissing(key));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testKeyDependsOnMethod() {
+        final Map<String, String> params = new LinkedHashMap<>();
+        params.put("code", "1");
+        final NegativeCache cache = new NegativeCache(10, 60000);
+        cache.put(NegativeCache.getKey("movie", params));
+        assertFalse(cache.isMissing(NegativeCache.getKey("person", params)));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.StubServer;
+import com.moviejukebox.allocine.model.Episode;
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.moviejukebox.allocine.model.TvSeasonInfos;
+import com.moviejukebox.allocine.model.enumeration.Projection;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PropertySkippingParserTest {
+
+    private static final String LINK = "{\"rel\":\"aco:web\",\"href\":\"http://www.allocine.fr/\"}";
+    private static final String MOVIE_JSON = "{\"movie\":{\"code\":61282,\"title\":\"Avatar\",\"productionYear\":2009,"
+            + "\"synopsis\":\"Jake Sully\",\"link\":[" + LINK + "],\"tag\":[{\"code\":1,\"$\":\"3D\"}],"
+            + "\"castMember\":[{\"person\":{\"code\":1,\"name\":\"James Cameron\"},\"activity\":{\"code\":8002,\"$\":\"Réalisateur\"}}],"
+            + "\"media\":[{\"class\":\"picture\",\"code\":3}]}}";
+    private static final String SEASON_JSON = "{\"season\":{\"code\":10,\"seasonNumber\":1,\"link\":[" + LINK + "],"
+            + "\"broadcast\":[{\"code\":5,\"datetime\":\"2004-09-22T20:00:00\"}],"
+            + "\"episode\":[{\"code\":100,\"title\":\"Pilot\",\"episodeNumberSeason\":1,\"link\":[" + LINK + "],"
+            + "\"broadcast\":[{\"code\":6,\"datetime\":\"2004-09-22T21:00:00\"}]}]}}";
+
+    private StubServer server;
+    private AllocineApi api;
+    private volatile String lastQuery;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer(new StubServer.Responder() {
+            @Override
+            public void respond(final HttpExchange exchange, final String query) throws IOException {
+                lastQuery = query;
+                StubServer.send(exchange, 200, query.contains("code=10&") ? SEASON_JSON : MOVIE_JSON);
+            }
+        });
+        api = server.createApi();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testSummarySkipsEntityProperties() throws Exception {
+        final MovieInfos infos = api.getMovieInfos("61282", Projection.SUMMARY);
+        assertEquals("Avatar", infos.getTitle());
+        assertEquals(2009, infos.getProductionYear());
+        assertNull(infos.getSynopsis());
+        assertNull(infos.getMovie().getLinks());
+        assertNull(infos.getMovie().getTags());
+        assertTrue(infos.getActors().isEmpty());
+        assertTrue(lastQuery.contains("profile=small"));
+    }
+
+    @Test
+    public void testSummaryKeepsNestedProperties() throws Exception {
+        final TvSeasonInfos infos = api.getTvSeasonInfos("10", Projection.SUMMARY);
+        assertEquals(1, infos.getSeasonNumber());
+        assertNull(infos.getSeason().getLink());
+        assertNull(infos.getSeason().getBroadcast());
+
+        final Episode episode = infos.getEpisodeList().get(0);
+        assertEquals("Pilot", episode.getTitle());
+        assertEquals(1, episode.getLink().size());
+        assertEquals("http://www.allocine.fr/", episode.getLink().get(0).getHref());
+        assertEquals(1, episode.getBroadcast().size());
+        assertEquals("2004-09-22T21:00:00", episode.getBroadcast().get(0).getDateTime());
+    }
+
+    @Test
+    public void testFullKeepsEverything() throws Exception {
+        final MovieInfos infos = api.getMovieInfos("61282");
+        assertEquals("Jake Sully", infos.getSynopsis());
+        assertEquals(1, infos.getMovie().getLinks().size());
+        assertTrue(lastQuery.contains("profile=large"));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *      Copyright (c) 2004-2016 YAMJ Members
+ *      https://github.com/orgs/YAMJ/people
+ *
+ *      This file is part of the Allocine API.
+ *
+ *      The API is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      The API is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with the API.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/api-allocine
+ */
+package com.moviejukebox.allocine.tools;
+
+import static org.junit.Assert.*;
+
+import com.moviejukebox.allocine.AllocineApi;
+import com.moviejukebox.allocine.StubServer;
+import com.moviejukebox.allocine.model.MovieInfos;
+import com.moviejukebox.allocine.model.enumeration.Projection;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResponseCacheTest {
+
+    private StubServer server;
+    private AllocineApi api;
+    private volatile String etag = "\"v1\"";
+    private volatile String title = "Avatar";
+    private volatile String lastIfNoneMatch;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer(new StubServer.Responder() {
+            @Override
+            public void respond(final HttpExchange exchange, final String query) throws IOException {
+                lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+                exchange.getResponseHeaders().add("ETag", etag);
+                if (etag.equals(lastIfNoneMatch)) {
+                    StubServer.send(exchange, 304, null);
+                } else {
+                    StubServer.send(exchange, 200, "{\"movie\":{\"code\":61282,\"title\":\"" + title + "\"}}");
+                }
+            }
+        });
+        api = server.createApi();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testFreshHit() throws Exception {
+        final ResponseCache cache = new ResponseCache(10, 60000);
+        api.setResponseCache(cache);
+        final MovieInfos first = api.getMovieInfos("61282");
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+
+        final MovieInfos second = api.getMovieInfos("61282");
+        assertEquals(1, server.getRequests());
+        assertEquals(1, cache.getHits());
+        // every caller gets its own object
+        assertNotSame(first, second);
+        first.getMovie().setTitle("Changed");
+        assertEquals("Avatar", second.getTitle());
+        assertEquals("Avatar", api.getMovieInfos("61282").getTitle());
+    }
+
+    @Test
+    public void testRevalidation() throws Exception {
+        final ResponseCache cache = new ResponseCache(10, 0);
+        api.setResponseCache(cache);
+        assertEquals("Avatar", api.getMovieInfos("61282").getTitle());
+        assertNull(lastIfNoneMatch);
+
+        // the stored ETag is sent, and the 304 answers with the cached page
+        title = "Not sent";
+        assertEquals("Avatar", api.getMovieInfos("61282").getTitle());
+        assertEquals("\"v1\"", lastIfNoneMatch);
+        assertEquals(1, cache.getRevalidations());
+        assertEquals(2, server.getRequests());
+
+        // a 200 replaces the entry
+        etag = "\"v2\"";
+        title = "Avatar 2";
+        assertEquals("Avatar 2", api.getMovieInfos("61282").getTitle());
+        assertEquals("\"v1\"", lastIfNoneMatch);
+        assertEquals(1, cache.size());
+        title = "Not sent";
+        assertEquals("Avatar 2", api.getMovieInfos("61282").getTitle());
+        assertEquals("\"v2\"", lastIfNoneMatch);
+        assertEquals(2, cache.getRevalidations());
+    }
+
+    @Test
+    public void testKey() {
+        final String url = "http://api.allocine.fr/rest/v3/movie?partner=p&code=1&sed=20160101&sig=abc";
+        final String key = ResponseCache.getKey(url, MovieInfos.class, Projection.FULL);
+        // the daily date and signature are not part of the key
+        assertEquals(key, ResponseCache.getKey(url.replace("20160101", "20160102").replace("abc", "def"), MovieInfos.class,
+                Projection.FULL));
+        assertFalse(key.contains("sig="));
+    }
+}